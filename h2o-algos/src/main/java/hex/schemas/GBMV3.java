@@ -69,6 +69,9 @@ public class GBMV3 extends SharedTreeV3<GBM,GBMV3,GBMV3.GBMParametersV3> {
       "check_constant_response",
       "gainslift_bins", 
       "auc_type",
+      "max_leaves",
+      "goss_top_rate",
+      "goss_other_rate",
     };
 
     // Input fields
@@ -93,6 +96,20 @@ public class GBMV3 extends SharedTreeV3<GBM,GBMV3,GBMV3.GBMParametersV3> {
     @API(help="Bandwidth (sigma) of Gaussian multiplicative noise ~N(1,sigma) for tree node predictions", level = API.Level.expert, gridable = true)
     public double pred_noise_bandwidth;
 
+    @API(help="Maximum number of leaves of a tree. If set (> 0), trees are grown leaf-wise (best-first): the split " +
+            "with the largest error reduction is expanded next, max_depth still limits the depth of the tree. " +
+            "Each expansion takes a pass over the data, a tree takes up to max_leaves - 1 passes instead of " +
+            "max_depth. Defaults to 0 (trees are grown level-wise).", level = API.Level.expert, gridable = true)
+    public int max_leaves;
+
+    @API(help="Gradient-based one-side sampling: fraction of the rows with the largest gradients that are always " +
+            "used to grow a tree. Defaults to 0 (GOSS is disabled).", level = API.Level.expert, gridable = true)
+    public double goss_top_rate;
+
+    @API(help="Gradient-based one-side sampling: fraction of all rows randomly sampled from the rows with small " +
+            "gradients, their weights are amplified to keep the estimates unbiased.", level = API.Level.expert, gridable = true)
+    public double goss_other_rate;
+
 //    // TODO debug only, remove!
 //    @API(help="Internal flag, use new version of histo tsk if set", level = API.Level.expert, gridable = false)
 //    public boolean use_new_histo_tsk;
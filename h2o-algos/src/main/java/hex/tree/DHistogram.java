@@ -62,6 +62,11 @@ public final class DHistogram extends Iced {
   protected double [] _vals; // Values w, wY and wYY encoded per bin in a single array. 
                              // If _pred1 or _pred2 are specified they are included as well.
                              // If constraints are used and gamma denominator or nominator needs to be calculated its will be included.
+  protected float [] _valsCompact; // _vals in single precision, only set while the histogram is being shipped
+                                   // between the nodes and reduced (see compact()), _vals is null at that time;
+                                   // holds all values of the bins except for wYY and the NA bin
+  protected double [] _valsCompactWide; // wYY of every bin followed by all values of the NA bin, kept in double
+                                        // precision while the histogram is compacted
   protected final int _vals_dim; // _vals.length == _vals_dim * _nbin; How many values per bin are encoded in _vals.
                                  // Current possible values are
                                  // - 3:_pred1 nor _pred2 provided and gamma denominator is not needed 
@@ -163,10 +168,15 @@ public final class DHistogram extends Iced {
 
   static class HistoQuantiles extends Keyed<HistoQuantiles> {
     public HistoQuantiles(Key<HistoQuantiles> key, double[] splitPts) {
+      this(key, splitPts, false);
+    }
+    public HistoQuantiles(Key<HistoQuantiles> key, double[] splitPts, boolean fixedBins) {
       super(key);
       this.splitPts = splitPts;
+      this.fixedBins = fixedBins;
     }
     double[/*nbins*/] splitPts;
+    boolean fixedBins; // histograms use the split points as they are (no padding), see PreBinning
   }
 
   public void setMin( double min ) {
@@ -310,11 +320,11 @@ public final class DHistogram extends Iced {
       if (_globalQuantilesKey != null) {
         HistoQuantiles hq = DKV.getGet(_globalQuantilesKey);
         if (hq != null) {
-          _splitPts = ((HistoQuantiles) DKV.getGet(_globalQuantilesKey)).splitPts;
+          _splitPts = hq.splitPts;
           if (_splitPts!=null) {
             if (LOG.isTraceEnabled()) LOG.trace("Obtaining global splitPoints: " + Arrays.toString(_splitPts));
             _splitPts = ArrayUtils.limitToRange(_splitPts, _min, _maxEx);
-            if (_splitPts.length > 1 && _splitPts.length < _nbin)
+            if (_splitPts.length > 1 && _splitPts.length < _nbin && !hq.fixedBins)
               _splitPts = ArrayUtils.padUniformly(_splitPts, _nbin);
             if (_splitPts.length <= 1) {
               _splitPts = null; //abort, fall back to uniform binning
@@ -374,15 +384,72 @@ public final class DHistogram extends Iced {
   public void add( DHistogram dsh ) {
     assert (_vals == null || dsh._vals == null) || (_isInt == dsh._isInt && _nbin == dsh._nbin && _step == dsh._step &&
       _min == dsh._min && _maxEx == dsh._maxEx);
+    if (dsh._valsCompact != null) {
+      addCompact(dsh);
+      return;
+    }
     if( dsh._vals == null ) return;
-    if(_vals == null)
+    if(_vals == null && _valsCompact == null)
       init(dsh._vals);
-    else
+    else {
+      expand();
       ArrayUtils.add(_vals,dsh._vals);
+    }
     if (_min2 > dsh._min2) _min2 = dsh._min2;
     if (_maxIn < dsh._maxIn) _maxIn = dsh._maxIn;
   }
 
+  // Merge a compacted histogram, the result stays compacted
+  private void addCompact( DHistogram dsh ) {
+    if (_vals != null)
+      compact();
+    if (_valsCompact == null) {
+      init(expandVals(dsh._valsCompact, dsh._valsCompactWide));
+      compact();
+    } else {
+      ArrayUtils.add(_valsCompact, dsh._valsCompact);
+      ArrayUtils.add(_valsCompactWide, dsh._valsCompactWide);
+    }
+    if (_min2 > dsh._min2) _min2 = dsh._min2;
+    if (_maxIn < dsh._maxIn) _maxIn = dsh._maxIn;
+  }
+
+  /**
+   * Converts the bin values to single precision, except for the sums of squares wYY and the NA bin. wYY is the
+   * largest of the values and the squared error is computed as a difference of wYY and wY^2/w, rounding it on every
+   * node before the sum would lose the most. Makes the histogram about a third smaller when it is sent to other
+   * nodes and reduced, the values are converted back by {@link #expand()}.
+   */
+  public void compact() {
+    if (_vals == null) return;
+    _valsCompact = new float[(_vals_dim - 1) * _nbin];
+    _valsCompactWide = new double[_nbin + _vals_dim];
+    for (int b = 0, j = 0; b < _nbin; b++)
+      for (int d = 0; d < _vals_dim; d++) {
+        if (d == 2) _valsCompactWide[b] = _vals[_vals_dim*b + d];
+        else _valsCompact[j++] = (float) _vals[_vals_dim*b + d];
+      }
+    System.arraycopy(_vals, _vals_dim*_nbin, _valsCompactWide, _nbin, _vals_dim);
+    _vals = null;
+  }
+
+  /** Converts a compacted histogram back to double precision values. */
+  public void expand() {
+    if (_valsCompact == null) return;
+    _vals = expandVals(_valsCompact, _valsCompactWide);
+    _valsCompact = null;
+    _valsCompactWide = null;
+  }
+
+  private double[] expandVals(float[] valsCompact, double[] valsCompactWide) {
+    double[] vals = MemoryManager.malloc8d(_vals_dim * _nbin + _vals_dim);
+    for (int b = 0, j = 0; b < _nbin; b++)
+      for (int d = 0; d < _vals_dim; d++)
+        vals[_vals_dim*b + d] = d == 2 ? valsCompactWide[b] : valsCompact[j++];
+    System.arraycopy(valsCompactWide, _nbin, vals, _vals_dim*_nbin, _vals_dim);
+    return vals;
+  }
+
   // Inclusive min & max
   public double find_min  () { return _min2 ; }
   public double find_maxIn() { return _maxIn; }
@@ -494,19 +561,114 @@ public final class DHistogram extends Iced {
       _vals[binDimStart + 1] += wy;
       _vals[binDimStart + 2] += wyy;
       if (_vals_dim >= 5 && !Double.isNaN(resp[k])) { // FIXME (PUBDEV-7553): This needs to be applied even with monotone constraints disabled
-        if (_dist._family.equals(DistributionFamily.quantile)) {
-          _vals[binDimStart + 3] += _dist.deviance(weight, y, _pred1);
-          _vals[binDimStart + 4] += _dist.deviance(weight, y, _pred2);
-        } else {
-          _vals[binDimStart + 3] += weight * (_pred1 - y) * (_pred1 - y);
-          _vals[binDimStart + 4] += weight * (_pred2 - y) * (_pred2 - y);
-        }
-        if (_vals_dim >= 6) {
-          _vals[binDimStart + 5] += _dist.gammaDenom(weight, resp[k], y, preds[k]);
-          if (_vals_dim == 7) {
-            _vals[binDimStart + 6] += _dist.gammaNum(weight, resp[k], y, preds[k]);
-          }
-        }
+        updatePredsAndGamma(binDimStart, weight, y, resp[k], preds, k);
+      }
+    }
+  }
+
+  /**
+   * Same as {@link #updateHisto} but the column data are given as bin codes of a pre-binned column.
+   * @param codes global bin codes of the column data
+   * @param binOffset global bin code of the first bin of this histogram (see {@link PreBinning#binOffset})
+   * @param pb global bins of the training frame
+   * @param col index of the column in the training frame
+   */
+  void updateHistoBinned(double[] ws, double resp[], int[] codes, int binOffset, PreBinning pb, int col,
+                         double[] ys, double[] preds, int[] rows, int hi, int lo) {
+    int minCode = Integer.MAX_VALUE;
+    int maxCode = Integer.MIN_VALUE;
+    for(int r = lo; r< hi; ++r) {
+      final int k = rows[r];
+      final double weight = ws[k];
+      if (weight == 0)
+        continue;
+      final int code = codes[k];
+      int b;
+      if (code == PreBinning.NA_CODE) {
+        b = _nbin;
+      } else {
+        if (code < minCode) minCode = code;
+        if (code > maxCode) maxCode = code;
+        b = code - binOffset;
+        if (b < 0) b = 0; // same as bin() for infinities
+        else if (b >= _nbin) b = _nbin - 1;
+      }
+      double y = ys[k];
+      assert (!Double.isNaN(y));
+      double wy = weight * y;
+      double wyy = wy * y;
+      final int binDimStart = _vals_dim*b;
+      _vals[binDimStart + 0] += weight;
+      _vals[binDimStart + 1] += wy;
+      _vals[binDimStart + 2] += wyy;
+      if (_vals_dim >= 5 && !Double.isNaN(resp[k])) {
+        updatePredsAndGamma(binDimStart, weight, y, resp[k], preds, k);
+      }
+    }
+    if (minCode <= maxCode) {
+      // observed bounds of the bins, tightened to the range of this histogram
+      double min = Math.max(pb.binMin(col, minCode), _min);
+      double maxIn = Math.min(pb.binMax(col, maxCode), Math.nextDown(_maxEx));
+      if (min < _min2) _min2 = min;
+      if (maxIn > _maxIn) _maxIn = maxIn;
+    }
+  }
+
+  /**
+   * Histogram subtraction: fills this (empty) histogram with the difference of the histogram of the parent node
+   * and the histogram of the sibling node - the rows of this node are exactly the rows of the parent which didn't
+   * go to the sibling. All three histograms need to use the global bins of the column (see {@link PreBinning}),
+   * bins are matched using their global bin codes.
+   * @param offset global bin code of the first bin of this histogram
+   * @param parent filled histogram of the parent node
+   * @param sibling filled histogram of the sibling node
+   */
+  void initAsDifference(int offset, DHistogram parent, int parentOffset, DHistogram sibling, int siblingOffset,
+                        PreBinning pb, int col) {
+    assert _vals_dim == 3 && parent._vals_dim == 3 && sibling._vals_dim == 3;
+    init();
+    int minBin = -1, maxBin = -1;
+    for (int b = 0; b <= _nbin; b++) { // the last bin is the NA bucket
+      final boolean na = b == _nbin;
+      final int pbin = na ? parent._nbin : offset + b - parentOffset;
+      if (!na && (pbin < 0 || pbin >= parent._nbin))
+        continue;
+      double w = parent.w(pbin), wY = parent.wY(pbin), wYY = parent.wYY(pbin);
+      final int sbin = na ? sibling._nbin : offset + b - siblingOffset;
+      if (sibling._vals != null && (na || (sbin >= 0 && sbin < sibling._nbin))) {
+        w -= sibling.w(sbin);
+        wY -= sibling.wY(sbin);
+        wYY -= sibling.wYY(sbin);
+      }
+      if (w <= 1e-9 * parent.w(pbin))
+        continue; // empty bin (up to round-off)
+      _vals[_vals_dim*b + 0] = w;
+      _vals[_vals_dim*b + 1] = wY;
+      _vals[_vals_dim*b + 2] = Math.max(wYY, 0);
+      if (!na) {
+        if (minBin < 0) minBin = b;
+        maxBin = b;
+      }
+    }
+    if (minBin >= 0) {
+      _min2 = Math.max(pb.binMin(col, offset + minBin), _min);
+      _maxIn = Math.min(pb.binMax(col, offset + maxBin), Math.nextDown(_maxEx));
+    }
+    reducePrecision();
+  }
+
+  private void updatePredsAndGamma(int binDimStart, double weight, double y, double resp, double[] preds, int k) {
+    if (_dist._family.equals(DistributionFamily.quantile)) {
+      _vals[binDimStart + 3] += _dist.deviance(weight, y, _pred1);
+      _vals[binDimStart + 4] += _dist.deviance(weight, y, _pred2);
+    } else {
+      _vals[binDimStart + 3] += weight * (_pred1 - y) * (_pred1 - y);
+      _vals[binDimStart + 4] += weight * (_pred2 - y) * (_pred2 - y);
+    }
+    if (_vals_dim >= 6) {
+      _vals[binDimStart + 5] += _dist.gammaDenom(weight, resp, y, preds[k]);
+      if (_vals_dim == 7) {
+        _vals[binDimStart + 6] += _dist.gammaNum(weight, resp, y, preds[k]);
       }
     }
   }
@@ -49,6 +49,7 @@ public class DTree extends Iced {
   public final int _mtrys_per_tree;  // Number of columns to choose amongst in splits (once per tree)
   public final transient Random _rand; // RNG for split decisions & sampling
   public final transient int[] _cols; // Per-tree selection of columns to consider for splits
+  transient LeafWiseGrowth _leafWise; // Best-first growth of the tree (null: the tree is grown level-wise)
   public transient SharedTreeModel.SharedTreeParameters _parms;
 
 
@@ -85,6 +86,19 @@ public class DTree extends Iced {
     _cols = activeCols;
   }
 
+  /**
+   * Grow this tree leaf-wise (best-first): only the split with the largest error reduction
+   * is expanded in each pass, until the tree has {@code maxLeaves} leaves.
+   */
+  public void growLeafWise(int maxLeaves, int maxDepth) {
+    _leafWise = new LeafWiseGrowth(this, maxLeaves, maxDepth);
+  }
+
+  /** Drops the splits that were found but never expanded by leaf-wise growth (these nodes become leaves). */
+  public void finishLeafWise() {
+    if (_leafWise != null) _leafWise.finish();
+  }
+
   public final Node root() { return _ns[0]; }
   // One-time local init after wire transfer
   void init_tree( ) { for( int j=0; j<_len; j++ ) _ns[j]._tree = this; }
@@ -331,6 +345,7 @@ public class DTree extends Iced {
   public static class UndecidedNode extends Node {
     public transient DHistogram[] _hs; //(up to) one histogram per column
     public transient Constraints _cs;
+    transient DHistogram[] _parentHs;  // filled histograms of the parent node (used to derive histograms of siblings)
     public final int _scoreCols[];      // A list of columns to score; could be null for all
     public UndecidedNode( DTree tree, int pid, DHistogram[] hs, Constraints cs ) {
       super(tree,pid);
@@ -476,6 +491,9 @@ public class DTree extends Iced {
     //       T         |  !=   ==
     public final int _nids[];          // Children NIDS for the split LEFT, RIGHT
 
+    transient DHistogram[] _deferredHs; // Histograms of a split that was not expanded yet (leaf-wise growth)
+    transient Constraints _deferredCs;
+
     transient byte _nodeType; // Complex encoding: see the compressed struct comments
     transient int _size = 0;  // Compressed byte size of this subtree
     transient int _nnodes = 0; // Number of nodes in this subtree
@@ -557,6 +575,14 @@ public class DTree extends Iced {
     }
 
     public DecidedNode(UndecidedNode n, DHistogram hs[], Constraints cs) {
+      this(n, hs, cs, true);
+    }
+
+    /**
+     * @param expand whether to create the children of the split, if false the split is only found
+     *               and the children are created later by {@link #expand()}
+     */
+    public DecidedNode(UndecidedNode n, DHistogram hs[], Constraints cs, boolean expand) {
       super(n._tree,n._pid,n._nid); // Replace Undecided with this DecidedNode
       _nids = new int[2];           // Split into 2 subsets
       _split = bestCol(n,hs,cs);  // Best split-point for this tree
@@ -569,13 +595,56 @@ public class DTree extends Iced {
         return;
       }
       _splat = _split._nasplit != DHistogram.NASplitDir.NAvsREST && (_split._equal == 0 || _split._equal == 1) ? _split.splat(hs) : -1f; // Split-at value (-1 for group-wise splits)
+      if (expand) {
+        makeChildren(hs, cs);
+      } else {
+        // Rows stay in this node until the split is expanded
+        Arrays.fill(_nids, ScoreBuildHistogram.UNDECIDED_CHILD_NODE_ID);
+        _deferredHs = hs;
+        _deferredCs = cs;
+      }
+    }
+
+    // Replaces a deferred split with no split (the node will become a leaf)
+    private DecidedNode(DecidedNode dn) {
+      super(dn._tree, dn._pid, dn._nid);
+      _nids = new int[]{ScoreBuildHistogram.UNDECIDED_CHILD_NODE_ID, ScoreBuildHistogram.UNDECIDED_CHILD_NODE_ID};
+      _split = null;
+      _splat = Float.NaN;
+    }
+
+    boolean isDeferred() { return _deferredHs != null; }
+
+    // Creates the children of a deferred split
+    void expand() {
+      assert isDeferred();
+      DHistogram[] hs = _deferredHs;
+      Constraints cs = _deferredCs;
+      _deferredHs = null;
+      _deferredCs = null;
+      makeChildren(hs, cs);
+    }
+
+    // Drops a deferred split, the node is replaced in the tree
+    DecidedNode dropSplit() {
+      assert isDeferred();
+      return new DecidedNode(this);
+    }
+
+    private void makeChildren(DHistogram[] hs, Constraints cs) {
       for(int way = 0; way <2; way++ ) { // left / right
         // Create children histograms, not yet populated, but the ranges are set
         Constraints ncs = cs != null ? _split.nextLevelConstraints(cs, way, _splat, _tree._parms) : null;
         DHistogram nhists[] = _split.nextLevelHistos(hs, way,_splat, _tree._parms, ncs); //maintains the full range for NAvsREST
         assert nhists==null || nhists.length==_tree._ncols;
         // Assign a new (yet undecided) node to each child, and connect this (the parent) decided node and the newly made histograms to it
-        _nids[way] = nhists == null ? ScoreBuildHistogram.UNDECIDED_CHILD_NODE_ID : makeUndecidedNode(nhists,ncs)._nid;
+        if (nhists == null) {
+          _nids[way] = ScoreBuildHistogram.UNDECIDED_CHILD_NODE_ID;
+        } else {
+          UndecidedNode child = makeUndecidedNode(nhists, ncs);
+          child._parentHs = hs;
+          _nids[way] = child._nid;
+        }
       }
     }
 
@@ -0,0 +1,115 @@
+package hex.tree;
+
+import water.H2O;
+import water.util.ArrayUtils;
+
+/**
+ * Histogram subtraction for growing the trees.
+ *
+ * <p>The rows of two sibling nodes together are exactly the rows of their parent. If the histograms of the parent
+ * and of the siblings use the same bins, the histogram of one sibling can be derived from the (already computed)
+ * histogram of the parent and the histogram of the other sibling. Only the smaller sibling is histogrammed
+ * from the data, the larger sibling gets the difference. This saves the histogram build (the pass over the rows)
+ * of the larger sibling of every pair, the rows of the smaller siblings and of unpaired nodes are still scanned.
+ *
+ * <p>The bins are matched using the global bins of {@link PreBinning}, the trick is therefore only used when
+ * pre-binning is enabled. Histograms that need more than counts and response sums (e.g. with monotone constraints)
+ * are always computed from the data. Can be disabled by -Dsys.ai.h2o.tree.histogramSubtraction=false.
+ */
+final class HistogramSubtraction {
+
+  private HistogramSubtraction() {}
+
+  static boolean enabled() {
+    return H2O.getSysBoolProperty("tree.histogramSubtraction", true);
+  }
+
+  /**
+   * Picks the histograms of the current layer of the tree that will be derived instead of computed.
+   *
+   * @param tree tree being built
+   * @param leafOffset id of the first undecided leaf of the layer
+   * @param hcs histograms of the undecided leaves (indexed by leaf - leafOffset, column)
+   * @param pb global bins of the predictors
+   * @return for each leaf the columns with a derived histogram (null for leaves without any), or null if nothing
+   * can be derived
+   */
+  static boolean[][] plan(DTree tree, int leafOffset, DHistogram[][] hcs, PreBinning pb) {
+    boolean[][] derived = null;
+    for (int leaf = leafOffset; leaf < tree.len(); leaf++) {
+      final DTree.UndecidedNode udn = tree.undecided(leaf);
+      final int sibling = siblingOf(tree, leaf, leafOffset);
+      if (udn._parentHs == null || sibling < 0 || !isLarger(tree, leaf))
+        continue;
+      final DTree.UndecidedNode sdn = tree.undecided(sibling);
+      final DHistogram[] hs = hcs[leaf - leafOffset];
+      for (int col = 0; col < hs.length; col++) {
+        if (!isScored(udn, col) || !isScored(sdn, col))
+          continue;
+        DHistogram h = hs[col], ph = udn._parentHs[col], sh = sdn._hs[col];
+        if (h == null || ph == null || ph._vals == null || sh == null ||
+                h._vals_dim != 3 || ph._vals_dim != 3 || sh._vals_dim != 3 || !pb.isBinned(col) ||
+                pb.binOffset(col, h) == PreBinning.NO_BINS || pb.binOffset(col, ph) == PreBinning.NO_BINS ||
+                pb.binOffset(col, sh) == PreBinning.NO_BINS)
+          continue;
+        if (derived == null) derived = new boolean[hcs.length][];
+        if (derived[leaf - leafOffset] == null) derived[leaf - leafOffset] = new boolean[hs.length];
+        derived[leaf - leafOffset][col] = true;
+      }
+    }
+    return derived;
+  }
+
+  /** Copy of the histograms without the derived ones (these are not computed from the data). */
+  static DHistogram[][] withoutDerived(DHistogram[][] hcs, boolean[][] derived) {
+    DHistogram[][] res = hcs.clone();
+    for (int n = 0; n < res.length; n++) {
+      if (derived[n] == null) continue;
+      res[n] = res[n].clone();
+      for (int col = 0; col < derived[n].length; col++)
+        if (derived[n][col]) res[n][col] = null;
+    }
+    return res;
+  }
+
+  /**
+   * Fills the derived histograms, must be called once the histograms of the layer were computed.
+   *
+   * @param hcs computed histograms of the layer (indexed by leaf - leafOffset, column), derived histograms are
+   *            filled in
+   */
+  static void derive(DTree tree, int leafOffset, DHistogram[][] hcs, boolean[][] derived, PreBinning pb) {
+    for (int n = 0; n < derived.length; n++) {
+      if (derived[n] == null) continue;
+      final int leaf = n + leafOffset;
+      final DTree.UndecidedNode udn = tree.undecided(leaf);
+      final DHistogram[] shs = hcs[siblingOf(tree, leaf, leafOffset) - leafOffset];
+      for (int col = 0; col < derived[n].length; col++) {
+        if (!derived[n][col]) continue;
+        final DHistogram h = udn._hs[col], ph = udn._parentHs[col], sh = shs[col];
+        h.initAsDifference(pb.binOffset(col, h), ph, pb.binOffset(col, ph), sh, pb.binOffset(col, sh), pb, col);
+        hcs[n][col] = h;
+      }
+    }
+  }
+
+  private static int siblingOf(DTree tree, int leaf, int leafOffset) {
+    final DTree.Node node = tree.node(leaf);
+    if (node._pid == DTree.NO_PARENT) return -1;
+    final int[] nids = tree.decided(node._pid)._nids;
+    final int sibling = nids[0] == leaf ? nids[1] : nids[0];
+    return sibling >= leafOffset && sibling < tree.len() ? sibling : -1;
+  }
+
+  // exactly one of the siblings is larger (ties go left)
+  private static boolean isLarger(DTree tree, int leaf) {
+    final DTree.DecidedNode parent = tree.decided(tree.node(leaf)._pid);
+    final boolean left = parent._nids[0] == leaf;
+    return left ? parent._split.n0() >= parent._split.n1() : parent._split.n1() > parent._split.n0();
+  }
+
+  private static boolean isScored(DTree.UndecidedNode udn, int col) {
+    return udn._scoreCols == null || ArrayUtils.find(udn._scoreCols, col) >= 0;
+  }
+
+}
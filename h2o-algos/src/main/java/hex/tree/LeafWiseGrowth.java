@@ -0,0 +1,105 @@
+package hex.tree;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Leaf-wise (best-first) growth of a {@link DTree}.
+ *
+ * <p>Level-wise growth splits every leaf of the current level, including leaves whose best split barely
+ * reduces the error. Leaf-wise growth instead keeps the best splits of all leaves as candidates and
+ * expands only the candidate with the largest error reduction, until the tree reaches the maximum
+ * number of leaves. Each pass over the data therefore builds histograms for the 2 children
+ * of the expanded split only, growing a tree of N leaves takes up to N - 1 passes (level-wise growth takes
+ * max_depth passes).
+ *
+ * <p>The candidates are {@link DTree.DecidedNode}s created without children
+ * ({@link DTree.DecidedNode#isDeferred()}), the rows of the candidate stay in the node until it is expanded.
+ * Candidates that are never expanded are turned into leaves by {@link #finish()}.
+ */
+final class LeafWiseGrowth {
+
+  private final DTree _tree;
+  private final int _maxLeaves;
+  private final int _maxDepth;
+  private final PriorityQueue<DTree.DecidedNode> _candidates;
+  private int _leaves = 1;          // the root
+  private int _depth;               // depth of the deepest leaf
+
+  LeafWiseGrowth(DTree tree, int maxLeaves, int maxDepth) {
+    _tree = tree;
+    _maxLeaves = maxLeaves;
+    _maxDepth = maxDepth;
+    _candidates = new PriorityQueue<>(11, (a, b) -> Double.compare(improvement(b), improvement(a)));
+  }
+
+  /**
+   * Finds the best split of a leaf, the split becomes a candidate for expansion.
+   */
+  DTree.DecidedNode decide(DTree.UndecidedNode udn, DHistogram[] hs) {
+    DTree.DecidedNode dn = new DTree.DecidedNode(udn, hs, udn._cs, false);
+    if (dn._split == null)
+      return dn;
+    if (depth(dn) >= _maxDepth)
+      return dn.dropSplit(); // the children would be too deep
+    _candidates.add(dn);
+    return dn;
+  }
+
+  /**
+   * Expands the best candidate (if the tree can still grow). Children that cannot be split any further get
+   * no histograms; if neither child of the expanded candidate gets any, the next best candidate is expanded
+   * right away, such that the next pass over the data always builds histograms. The order of the expansions
+   * is the same as with one expansion per pass, the children without histograms never become candidates.
+   *
+   * @return the expanded nodes, empty if the tree is done
+   */
+  List<DTree.DecidedNode> expandBest() {
+    List<DTree.DecidedNode> expanded = new ArrayList<>(1);
+    while (canGrow() && !_candidates.isEmpty()) {
+      DTree.DecidedNode dn = _candidates.poll();
+      int depth = depth(dn);
+      _tree._depth = depth; // level of the new children for column sampling (see DTree#actual_mtries)
+      dn.expand();
+      _leaves++;
+      _depth = Math.max(_depth, depth + 1);
+      expanded.add(dn);
+      if (hasChildHistograms(dn))
+        break;
+    }
+    _tree._depth = _depth;
+    return expanded;
+  }
+
+  private static boolean hasChildHistograms(DTree.DecidedNode dn) {
+    for (int nid : dn._nids)
+      if (nid != ScoreBuildHistogram.UNDECIDED_CHILD_NODE_ID) return true;
+    return false;
+  }
+
+  boolean canGrow() {
+    return _leaves < _maxLeaves;
+  }
+
+  void finish() {
+    for (DTree.DecidedNode dn : _candidates)
+      dn.dropSplit();
+    _candidates.clear();
+    _tree._depth = _depth;
+  }
+
+  private int depth(DTree.Node n) {
+    int depth = 0;
+    while (n._pid != DTree.NO_PARENT) {
+      n = _tree.node(n._pid);
+      depth++;
+    }
+    return depth;
+  }
+
+  private static double improvement(DTree.DecidedNode dn) {
+    return dn._split.pre_split_se() - dn._split.se();
+  }
+
+}
@@ -0,0 +1,232 @@
+package hex.tree;
+
+import water.*;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.NewChunk;
+import water.fvec.Vec;
+
+import java.util.Arrays;
+
+/**
+ * Pre-binned (quantised) copy of the predictor columns of the training frame.
+ *
+ * <p>Every tree layer re-reads the raw feature values and bins them row by row in {@link DHistogram#bin(double)}.
+ * The bins of the node histograms are (for most columns) fixed from the beginning of the model building:
+ * histograms of type QuantilesGlobal use a slice of the global split points of the column, and histograms of
+ * integer and categorical columns with unit step use one bin per value. This class materializes the index
+ * of the global bin of each value once - in compact integer Vecs (stored as 1 or 2 byte Chunks) - and
+ * {@link ScoreBuildHistogram2} then builds the histograms from these bin codes instead of the raw doubles.
+ *
+ * <p>A histogram can only use the codes if its bins are a contiguous range of the global bins
+ * ({@link #binOffset(int, DHistogram)}), otherwise the raw column data are used as before.
+ */
+public class PreBinning extends Keyed<PreBinning> {
+
+  /** The column is not pre-binned */
+  static final byte NONE = 0;
+  /** Code is the index of the global split point of the column (histogram type QuantilesGlobal) */
+  static final byte QUANTILES = 1;
+  /** Code is the offset of the (integer) value from the column minimum */
+  static final byte INTEGER = 2;
+
+  /** The histogram doesn't use the global bins of the column */
+  static final int NO_BINS = Integer.MIN_VALUE;
+  /** Code of a missing value */
+  static final int NA_CODE = -1;
+
+  // codes must fit into 2-byte chunks
+  private static final int MAX_CODES = Short.MAX_VALUE;
+
+  final byte[] _types;            // per column: NONE, QUANTILES or INTEGER
+  final int[] _codesIdx;          // per column: index of the column in the Frame of codes or -1
+  final double[][] _splitPts;     // QUANTILES columns: global split points (with canonical zero)
+  final int[] _zeroPos;           // QUANTILES columns: position of zero in the split points
+  final long[] _intMin;           // INTEGER columns: minimum value
+  double[][] _binMin, _binMax;    // QUANTILES columns: observed range of values in each bin
+
+  Frame _codes;                   // bin codes (integer Vecs, aligned with the training frame)
+
+  private PreBinning(Key<PreBinning> key, int ncols) {
+    super(key);
+    _types = new byte[ncols];
+    _codesIdx = new int[ncols];
+    _splitPts = new double[ncols][];
+    _zeroPos = new int[ncols];
+    _intMin = new long[ncols];
+  }
+
+  /**
+   * Pre-bins the predictor columns of the training frame.
+   *
+   * @param key key of the resulting PreBinning
+   * @param fr training frame, predictors are the first {@code ncols} columns
+   * @param ncols number of predictor columns
+   * @param splitPoints global split points of the columns (as calculated by {@link GlobalQuantilesCalc}), can be null
+   * @return PreBinning (stored in DKV), or null if no column could be pre-binned
+   */
+  static PreBinning make(Key<PreBinning> key, Frame fr, int ncols, double[][] splitPoints) {
+    PreBinning pb = new PreBinning(key, ncols);
+    int ncodes = 0;
+    for (int c = 0; c < ncols; c++) {
+      Vec v = fr.vec(c);
+      pb._codesIdx[c] = -1;
+      if (splitPoints != null && splitPoints[c] != null && splitPoints[c].length < MAX_CODES) {
+        pb._types[c] = QUANTILES;
+        double[] sp = splitPoints[c].clone();
+        // same canonical representation of zero as in DHistogram#init
+        for (int i = 0; i < sp.length; i++)
+          if (sp[i] == 0) sp[i] = 0.0d;
+        pb._splitPts[c] = sp;
+        pb._zeroPos[c] = Arrays.binarySearch(sp, 0.0d);
+      } else if ((v.isCategorical() || v.isInt()) && v.naCnt() < v.length() && v.max() - v.min() < MAX_CODES) {
+        pb._types[c] = INTEGER;
+        pb._intMin[c] = (long) v.min();
+      } else
+        continue;
+      pb._codesIdx[c] = ncodes++;
+    }
+    if (ncodes == 0)
+      return null;
+    Frame predictors = new Frame(Arrays.copyOf(fr.names(), ncols), Arrays.copyOf(fr.vecs(), ncols));
+    BinTask bt = new BinTask(pb).doAll(ncodes, Vec.T_NUM, predictors);
+    pb._binMin = bt._binMin;
+    pb._binMax = bt._binMax;
+    pb._codes = bt.outputFrame();
+    DKV.put(pb);
+    return pb;
+  }
+
+  boolean isBinned(int col) {
+    return _types[col] != NONE;
+  }
+
+  Vec codesVec(int col) {
+    return _codes.vec(_codesIdx[col]);
+  }
+
+  /** Global bin of a value, see {@link DHistogram#bin(double)} */
+  int code(int col, double d) {
+    if (Double.isNaN(d))
+      return NA_CODE;
+    switch (_types[col]) {
+      case QUANTILES:
+        double[] sp = _splitPts[col];
+        int idx = d == 0.0 ? _zeroPos[col] : Arrays.binarySearch(sp, d);
+        if (idx < 0) idx = -idx - 2;
+        return Math.max(0, Math.min(idx, sp.length - 1));
+      case INTEGER:
+        return (int) ((long) d - _intMin[col]);
+      default:
+        throw H2O.fail("Column " + col + " is not pre-binned.");
+    }
+  }
+
+  /**
+   * Finds the position of the bins of the histogram in the global bins of the column. The result only depends
+   * on the definition of the histogram (range and type), the histogram doesn't need to be initialized.
+   *
+   * @return index of the global bin corresponding to the first bin of the histogram,
+   * or {@link #NO_BINS} if the histogram bins are not a contiguous range of the global bins
+   */
+  int binOffset(int col, DHistogram h) {
+    switch (_types[col]) {
+      case QUANTILES:
+        if (h._histoType != SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal)
+          return NO_BINS;
+        // same range as ArrayUtils#limitToRange used by DHistogram#init
+        double[] sp = _splitPts[col];
+        int start = Arrays.binarySearch(sp, h._min);
+        if (start < 0) start = -start - 1;
+        if (start == sp.length) start--;
+        if (sp[start] > h._min && start > 0) start--;
+        int end = Arrays.binarySearch(sp, h._maxEx);
+        if (end < 0) end = -end - 1;
+        return end - start > 1 ? start : NO_BINS; // single split point => histogram falls back to uniform bins
+      case INTEGER:
+        if (h._histoType == SharedTreeModel.SharedTreeParameters.HistogramType.Random ||
+                h._step != 1 || h._min != Math.floor(h._min))
+          return NO_BINS;
+        return (int) ((long) h._min - _intMin[col]);
+      default:
+        return NO_BINS;
+    }
+  }
+
+  /** Lower bound of the values in the global bin */
+  double binMin(int col, int code) {
+    return _types[col] == INTEGER ? _intMin[col] + code : _binMin[col][code];
+  }
+
+  /** Upper bound (inclusive) of the values in the global bin */
+  double binMax(int col, int code) {
+    return _types[col] == INTEGER ? _intMin[col] + code : _binMax[col][code];
+  }
+
+  @Override
+  protected Futures remove_impl(Futures fs, boolean cascade) {
+    if (_codes != null)
+      _codes.remove(fs);
+    return super.remove_impl(fs, cascade);
+  }
+
+  private static class BinTask extends MRTask<BinTask> {
+    private final PreBinning _pb;
+    double[][] _binMin, _binMax;
+
+    BinTask(PreBinning pb) {
+      _pb = pb;
+    }
+
+    @Override
+    public void map(Chunk[] cs, NewChunk[] ncs) {
+      final int ncols = _pb._types.length;
+      _binMin = new double[ncols][];
+      _binMax = new double[ncols][];
+      for (int c = 0; c < ncols; c++) {
+        if (!_pb.isBinned(c)) continue;
+        final Chunk chk = cs[c];
+        final NewChunk nc = ncs[_pb._codesIdx[c]];
+        final boolean quantiles = _pb._types[c] == QUANTILES;
+        double[] mins = null, maxs = null;
+        if (quantiles) {
+          mins = _binMin[c] = new double[_pb._splitPts[c].length];
+          maxs = _binMax[c] = new double[_pb._splitPts[c].length];
+          Arrays.fill(mins, Double.POSITIVE_INFINITY);
+          Arrays.fill(maxs, Double.NEGATIVE_INFINITY);
+        }
+        for (int row = 0; row < chk._len; row++) {
+          double d = chk.atd(row);
+          int code = _pb.code(c, d);
+          if (code == NA_CODE) {
+            nc.addNA();
+            continue;
+          }
+          nc.addNum(code);
+          if (quantiles) {
+            if (d < mins[code]) mins[code] = d;
+            if (d > maxs[code]) maxs[code] = d;
+          }
+        }
+      }
+    }
+
+    @Override
+    public void reduce(BinTask bt) {
+      if (bt._binMin == null) return;
+      if (_binMin == null) {
+        _binMin = bt._binMin;
+        _binMax = bt._binMax;
+        return;
+      }
+      for (int c = 0; c < _binMin.length; c++) {
+        if (_binMin[c] == null) continue;
+        for (int b = 0; b < _binMin[c].length; b++) {
+          _binMin[c][b] = Math.min(_binMin[c][b], bt._binMin[c][b]);
+          _binMax[c][b] = Math.max(_binMax[c][b], bt._binMax[c][b]);
+        }
+      }
+    }
+  }
+
+}
@@ -69,13 +69,31 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
   final IcedBitSet _activeCols;
   final int _respIdx;
   final int _predsIdx;
+  final Key<PreBinning> _preBinningKey; // optional global bins of the predictors
+  final int _codesIdx;                  // index of the first column of bin codes
+  final boolean _compactHistograms;     // reduce the histograms across the nodes in single precision
+  transient PreBinning _preBinning;
 
   public ScoreBuildHistogram2(H2O.H2OCountedCompleter cc, int k, int ncols, int nbins, int nbins_cats, DTree tree, int leaf, DHistogram[][] hcs, DistributionFamily family, 
                               int respIdx, int weightIdx, int predsIdx, int workIdx, int nidIdxs) {
+    this(cc, k, ncols, nbins, nbins_cats, tree, leaf, hcs, family, respIdx, weightIdx, predsIdx, workIdx, nidIdxs, null, -1);
+  }
+
+  /**
+   * @param preBinningKey key of the {@link PreBinning} of the predictors (optional)
+   * @param codesIdx index of the first column of bin codes in the frame (the codes are in the same order
+   *                 as the pre-binned predictors)
+   */
+  public ScoreBuildHistogram2(H2O.H2OCountedCompleter cc, int k, int ncols, int nbins, int nbins_cats, DTree tree, int leaf, DHistogram[][] hcs, DistributionFamily family,
+                              int respIdx, int weightIdx, int predsIdx, int workIdx, int nidIdxs, Key<PreBinning> preBinningKey, int codesIdx) {
     super(cc, k, ncols, nbins, nbins_cats, tree, leaf, hcs, family, weightIdx, workIdx, nidIdxs);
     _numLeafs = _hcs.length;
     _respIdx = respIdx;
     _predsIdx = predsIdx;
+    _preBinningKey = preBinningKey;
+    _codesIdx = codesIdx;
+    // nothing is shipped between the nodes in a single-node cloud
+    _compactHistograms = H2O.getSysBoolProperty("tree.compactHistograms", false) && H2O.CLOUD.size() > 1;
 
     int hcslen = _hcs.length;
     IcedBitSet activeCols = new IcedBitSet(ncols);
@@ -156,6 +174,8 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
     addToPendingCount(1);
     // Init all the internal tree fields after shipping over the wire
     _tree.init_tree();
+    if (_preBinningKey != null)
+      _preBinning = DKV.getGet(_preBinningKey); // cached on every node
     Vec v = _fr2.anyVec();
     assert(v!=null);
     _cids = VecUtils.getLocalChunkIds(v);
@@ -301,21 +321,25 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
     @Override
     protected void map(int id){
       double[] cs = null;
+      int[] codes = null;
       double[] resp = null;
       double[] preds = null;
+      final boolean binned = _preBinning != null && _preBinning.isBinned(_col);
       for(int i = _cidx.getAndIncrement(); i < _cids.length; i = _cidx.getAndIncrement()) {
         if (cs == null) {
           cs = MemoryManager.malloc8d(_maxChunkSz);
+          if (binned)
+            codes = MemoryManager.malloc4(_maxChunkSz);
           if (_respIdx >= 0)
             resp = MemoryManager.malloc8d(_maxChunkSz);
           if (_predsIdx >= 0)
             preds = MemoryManager.malloc8d(_maxChunkSz);
         }
-        computeChunk(i, cs, _ws[i], resp, preds);
+        computeChunk(i, cs, codes, _ws[i], resp, preds);
       }
     }
 
-    private void computeChunk(int id, double[] cs, double[] ws, double[] resp, double[] preds){
+    private void computeChunk(int id, double[] cs, int[] codes, double[] ws, double[] resp, double[] preds){
       int [] nh = _nhs[id];
       int [] rs = _rss[id];
       Chunk resChk = _chks[id][_workIdx];
@@ -324,6 +348,8 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
       if(_weightIdx != -1) _chks[id][_weightIdx].getDoubles(ws, 0, len);
       final int hcslen = _lh.length;
       boolean extracted = false;
+      boolean extractedData = false;
+      boolean extractedCodes = false;
       for (int n = 0; n < hcslen; n++) {
         int sCols[] = _tree.undecided(n + _leaf)._scoreCols; // Columns to score (null, or a list of selected cols)
         if (sCols == null || ArrayUtils.find(sCols, _col) >= 0) {
@@ -333,7 +359,6 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
           if (hi == lo || h == null) continue; // Ignore untracked columns in this split
           if (h._vals == null) h.init();
           if (! extracted) {
-            _chks[id][_col].getDoubles(cs, 0, len);
             if (h._vals_dim >= 6) {
               _chks[id][_respIdx].getDoubles(resp, 0, len);
               if (h._vals_dim == 7) {
@@ -342,7 +367,21 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
             }
             extracted = true;
           }
-          h.updateHisto(ws, resp, cs, ys, preds, rs, hi, lo);
+          // Use the bin codes if the histogram bins are the global bins of the column
+          final int binOffset = codes != null ? _preBinning.binOffset(_col, h) : PreBinning.NO_BINS;
+          if (binOffset != PreBinning.NO_BINS && (h._hasQuantiles || _preBinning._types[_col] != PreBinning.QUANTILES)) {
+            if (! extractedCodes) {
+              _chks[id][_codesIdx + _preBinning._codesIdx[_col]].getIntegers(codes, 0, len, PreBinning.NA_CODE);
+              extractedCodes = true;
+            }
+            h.updateHistoBinned(ws, resp, codes, binOffset, _preBinning, _col, ys, preds, rs, hi, lo);
+          } else {
+            if (! extractedData) {
+              _chks[id][_col].getDoubles(cs, 0, len);
+              extractedData = true;
+            }
+            h.updateHisto(ws, resp, cs, ys, preds, rs, hi, lo);
+          }
         }
       }
     }
@@ -354,11 +393,23 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
     }
   }
 
+  @Override
+  protected void closeLocal() {
+    if (!_compactHistograms || _run_local) return;
+    // local histograms are done - ship them to the other nodes (and reduce them) in single precision
+    for (DHistogram[] ary : _hcs) {
+      if (ary == null) continue;
+      for (DHistogram dh : ary)
+        if (dh != null) dh.compact();
+    }
+  }
+
   @Override public void postGlobal(){
     _hcs = ArrayUtils.transpose(_hcs);
     for(DHistogram [] ary:_hcs)
       for(DHistogram dh:ary) {
         if(dh == null) continue;
+        dh.expand();
         dh.reducePrecision();
       }
   }
@@ -76,6 +76,12 @@ public abstract class SharedTree<
   protected transient Frame _trainPredsCache;
   protected transient Frame _validPredsCache;
 
+  // Optional global bins of the predictors, histograms are built from the bin codes instead of the raw data
+  protected transient PreBinning _preBinning;
+
+  // Optional weights of the sampled rows (eg. GOSS), replace the observation weights when building the trees
+  protected transient Vec _sampleWeights;
+
   public boolean isSupervised(){return true;}
 
   @Override public boolean haveMojo() { return true; }
@@ -281,20 +287,31 @@ public abstract class SharedTree<
 
         // top-level quantiles for all columns
         // non-numeric columns get a vector full of NAs
+        final boolean preBinning = preBinningEnabled();
+        double[][] splitPoints = null;
         if (_parms._histogram_type == SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal
                 || _parms._histogram_type == SharedTreeModel.SharedTreeParameters.HistogramType.RoundRobin) {
           _job.update(1, "Computing top-level histogram split-points.");
-          final double[][] splitPoints = GlobalQuantilesCalc.splitPoints(_train, _parms._weights_column, _parms._nbins, _parms._nbins_top_level);
+          splitPoints = GlobalQuantilesCalc.splitPoints(_train, _parms._weights_column, _parms._nbins, _parms._nbins_top_level);
           Futures fs = new Futures();
           for (int i = 0; i < splitPoints.length; i++) {
             Key<DHistogram.HistoQuantiles> key = getGlobalQuantilesKey(i);
             if (splitPoints[i] != null && key != null) {
-              DKV.put(new DHistogram.HistoQuantiles(key, splitPoints[i]), fs);
+              // with pre-binning the histograms need to keep the global bins (no padding of the split points)
+              DKV.put(new DHistogram.HistoQuantiles(key, splitPoints[i], preBinning), fs);
             }
           }
           fs.blockForPending();
         }
 
+        // bin codes of the predictors (global split points for numeric columns, values of integer columns)
+        if (preBinning) {
+          _job.update(0, "Pre-binning the training frame.");
+          Timer t = new Timer();
+          _preBinning = PreBinning.make(Key.<PreBinning>makeSystem(_model._key + "_prebinning"), _train, _ncols, splitPoints);
+          LOG.info("Pre-binning of the training frame took " + t);
+        }
+
         // Also add to the basic working Frame these sets:
         //   nclass Vecs of current forest results (sum across all trees)
         //   nclass Vecs of working/temp data
@@ -342,6 +359,14 @@ public abstract class SharedTree<
       } finally {
         if( _model!=null ) _model.unlock(_job);
         for (Key<?> k : getGlobalQuantilesKeys()) Keyed.remove(k);
+        if (_preBinning != null) {
+          _preBinning.remove();
+          _preBinning = null;
+        }
+        if (_sampleWeights != null) {
+          _sampleWeights.remove();
+          _sampleWeights = null;
+        }
         if (_validWorkspace != null) {
           _validWorkspace.remove();
           _validWorkspace = null;
@@ -372,6 +397,11 @@ public abstract class SharedTree<
 
     protected Frame makeValidWorkspace() { return null; }
 
+    // Pre-binning of the training frame is experimental, enable with -Dsys.ai.h2o.tree.prebinning=true
+    private boolean preBinningEnabled() {
+      return H2O.getSysBoolProperty("tree.prebinning", false);
+    }
+
     // Helpers to store quantiles in DKV - keep a cache on each node (instead of sending around over and over)
     protected Key<DHistogram.HistoQuantiles> getGlobalQuantilesKey(int i) {
       if (_model==null || _model._key == null || _parms._histogram_type!= SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal
@@ -483,15 +513,24 @@ public abstract class SharedTree<
       // Add temporary workspace vectors (optional weights are taken over from fr)
       int respIdx = fr2.find(_parms._response_column);
       int weightIdx = fr2.find(_parms._weights_column);
+      if (_sampleWeights != null && fr.anyVec().group().equals(_sampleWeights.group())) {
+        weightIdx = fr2.numCols(); fr2.add("__sample_weights", _sampleWeights); //weights of the sampled rows
+      }
       int predsIdx = fr2.numCols(); fr2.add(fr._names[idx_tree(k)],vecs[idx_tree(k)]); //tree predictions
       int workIdx =  fr2.numCols(); fr2.add(fr._names[idx_work(k)],vecs[idx_work(k)]); //target value to fit (copy of actual response for DRF, residual for GBM)
       int nidIdx  =  fr2.numCols(); fr2.add(fr._names[idx_nids(k)],vecs[idx_nids(k)]); //node indices for tree construction
+      Key<PreBinning> preBinningKey = null;
+      int codesIdx = -1;
+      if (_preBinning != null && fr.anyVec().group().equals(_preBinning._codes.anyVec().group())) {
+        preBinningKey = _preBinning._key;
+        codesIdx = fr2.numCols(); fr2.add(_preBinning._codes); //bin codes of the predictors
+      }
       if (LOG.isTraceEnabled()) LOG.trace("Building a layer for class " + k + ":\n" + fr2.toTwoDimTable());
       // Async tree building
       // step 1: build histograms
       // step 2: split nodes
       H2O.submitTask(sb1ts[k] = new ScoreBuildOneTree(this,k,nbins, nbins_cats, tree, leafs, hcs, fr2, build_tree_one_node, _improvPerVar, _model._parms._distribution, 
-              respIdx, weightIdx, predsIdx, workIdx, nidIdx));
+              respIdx, weightIdx, predsIdx, workIdx, nidIdx, preBinningKey, codesIdx));
     }
     // Block for all K trees to complete.
     boolean did_split=false;
@@ -532,11 +571,14 @@ public abstract class SharedTree<
     final int _predsIdx;
     final int _workIdx;
     final int _nidIdx;
+    final Key<PreBinning> _preBinningKey;
+    final int _codesIdx;
+    boolean[][] _derived; // histograms derived by histogram subtraction (see HistogramSubtraction)
 
     boolean _did_split;
 
     ScoreBuildOneTree(SharedTree st, int k, int nbins, int nbins_cats, DTree tree, int leafs[], DHistogram hcs[][][], Frame fr2, boolean build_tree_one_node, float[] improvPerVar, DistributionFamily family,
-                      int respIdx, int weightIdx, int predsIdx, int workIdx, int nidIdx) {
+                      int respIdx, int weightIdx, int predsIdx, int workIdx, int nidIdx, Key<PreBinning> preBinningKey, int codesIdx) {
       _st   = st;
       _k    = k;
       _nbins= nbins;
@@ -553,6 +595,8 @@ public abstract class SharedTree<
       _predsIdx = predsIdx;
       _workIdx = workIdx;
       _nidIdx = nidIdx;
+      _preBinningKey = preBinningKey;
+      _codesIdx = codesIdx;
     }
     @Override public void compute2() {
       // Fuse 2 conceptual passes into one:
@@ -564,35 +608,59 @@ public abstract class SharedTree<
       // got assigned into.  Collect counts, mean, variance, min, max per bin,
       // per column.
 //      new ScoreBuildHistogram(this,_k, _st._ncols, _nbins, _nbins_cats, _tree, _leafOffsets[_k], _hcs[_k], _family, _weightIdx, _workIdx, _nidIdx).dfork2(null,_fr2,_build_tree_one_node);
-      new ScoreBuildHistogram2(this,_k, _st._ncols, _nbins, _nbins_cats, _tree, _leafOffsets[_k], _hcs[_k], _family, 
-              _respIdx, _weightIdx, _predsIdx, _workIdx, _nidIdx).dfork2(null,_fr2,_build_tree_one_node);
+      DHistogram[][] hcs = _hcs[_k];
+      if (_preBinningKey != null && HistogramSubtraction.enabled()) {
+        // Histograms of the larger siblings are derived from the parent's histograms - don't compute them
+        _derived = HistogramSubtraction.plan(_tree, _leafOffsets[_k], hcs, _st._preBinning);
+        if (_derived != null)
+          hcs = HistogramSubtraction.withoutDerived(hcs, _derived);
+      }
+      new ScoreBuildHistogram2(this,_k, _st._ncols, _nbins, _nbins_cats, _tree, _leafOffsets[_k], hcs, _family, 
+              _respIdx, _weightIdx, _predsIdx, _workIdx, _nidIdx, _preBinningKey, _codesIdx).dfork2(null,_fr2,_build_tree_one_node);
     }
     @Override public void onCompletion(CountedCompleter caller) {
       ScoreBuildHistogram sbh = (ScoreBuildHistogram) caller;
       final int leafOffset = _leafOffsets[_k];
       int tmax = _tree.len();   // Number of total splits in tree K
+      if (_derived != null)
+        HistogramSubtraction.derive(_tree, leafOffset, sbh._hcs, _derived, _st._preBinning);
+      for (int leaf = leafOffset; leaf < tmax; leaf++)
+        _tree.undecided(leaf)._parentHs = null; // parent histograms are not needed anymore
       for (int leaf = leafOffset; leaf < tmax; leaf++) { // Visit all the new splits (leaves)
         DTree.UndecidedNode udn = _tree.undecided(leaf);
         if (LOG.isTraceEnabled()) LOG.trace((_st._nclass==1?"Regression":("Class "+_st._response.domain()[_k]))+",\n  Undecided node:"+udn);
         // Replace the Undecided with the Split decision
-        DTree.DecidedNode dn = _st.makeDecided(udn, sbh._hcs[leaf - leafOffset], udn._cs);
+        DTree.DecidedNode dn = _tree._leafWise != null ?
+                _tree._leafWise.decide(udn, sbh._hcs[leaf - leafOffset]) :
+                _st.makeDecided(udn, sbh._hcs[leaf - leafOffset], udn._cs);
         if (LOG.isTraceEnabled()) LOG.trace(dn + "\n" + dn._split);
         if (dn._split == null) udn.doNotSplit();
-        else {
+        else if (_tree._leafWise == null) {
           _did_split = true;
-          DTree.Split s = dn._split; // Accumulate squared error improvements per variable
-          float improvement = (float) (s.pre_split_se() - s.se());
-          assert (improvement >= 0);
-          AtomicUtils.FloatArray.add(_improvPerVar, s.col(), improvement);
+          addImprovement(dn._split);
         }
       }
+      if (_tree._leafWise != null) {
+        // Leaf-wise growth: only the best split found so far gets its children
+        for (DTree.DecidedNode dn : _tree._leafWise.expandBest())
+          addImprovement(dn._split);
+        // no need to build histograms of the new leaves once the tree is complete
+        _did_split = _tree.len() > tmax && _tree._leafWise.canGrow();
+      }
       _leafOffsets[_k] = tmax;          // Setup leafs for next tree level
       int new_leafs = _tree.len() - tmax; //new_leafs can be 0 if no actual splits were made
       _hcs[_k] = new DHistogram[new_leafs][/*ncol*/];
       for (int nl = tmax; nl < _tree.len(); nl++)
         _hcs[_k][nl - tmax] = _tree.undecided(nl)._hs;
 //      if (_did_split && new_leafs > 0) _tree._depth++;
-      if (_did_split) _tree._depth++; //
+      if (_did_split && _tree._leafWise == null) _tree._depth++; //
+    }
+
+    // Accumulate squared error improvements per variable
+    private void addImprovement(DTree.Split s) {
+      float improvement = (float) (s.pre_split_se() - s.se());
+      assert (improvement >= 0);
+      AtomicUtils.FloatArray.add(_improvPerVar, s.col(), improvement);
     }
   }
 
@@ -182,6 +182,16 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
       error("_max_abs_leafnode_pred", "max_abs_leafnode_pred must be larger than 0.");
     if (_parms._pred_noise_bandwidth < 0)
       error("_pred_noise_bandwidth", "pred_noise_bandwidth must be >= 0.");
+    if (_parms._max_leaves < 0 || _parms._max_leaves == 1)
+      error("_max_leaves", "max_leaves must be 0 (grow trees level-wise) or at least 2.");
+    if (_parms._goss_top_rate != 0 || _parms._goss_other_rate != 0) {
+      if (!(0 < _parms._goss_top_rate && _parms._goss_top_rate < 1))
+        error("_goss_top_rate", "goss_top_rate must be between 0 and 1 (exclusive).");
+      if (!(0 < _parms._goss_other_rate && _parms._goss_top_rate + _parms._goss_other_rate <= 1))
+        error("_goss_other_rate", "goss_other_rate must be larger than 0 and goss_top_rate + goss_other_rate must not exceed 1.");
+      if (_parms._sample_rate < 1 || _parms._sample_rate_per_class != null)
+        error("_sample_rate", "Row sampling (sample_rate, sample_rate_per_class) cannot be combined with gradient-based one-side sampling.");
+    }
 
     if ((_train != null) && (_parms._monotone_constraints != null)) {
       TreeUtils.checkMonotoneConstraints(this, _train, _parms._monotone_constraints);
@@ -217,6 +227,8 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
     @Override protected boolean doOOBScoring() { return false; }
     @Override protected void initializeModelSpecifics() {
       frameMap = new FrameMap(GBM.this);
+      if (useGoss())
+        _sampleWeights = _response.makeVolatileDoubles(1)[0];
       _mtry_per_tree = Math.max(1, (int)(_parms._col_sample_rate_per_tree * _ncols)); //per-tree
       if (!(1 <= _mtry_per_tree && _mtry_per_tree <= _ncols)) throw new IllegalArgumentException("Computed mtry_per_tree should be in interval <1,"+_ncols+"> but it is " + _mtry_per_tree);
       _mtry = Math.max(1, (int)(_parms._col_sample_rate * _parms._col_sample_rate_per_tree * _ncols)); //per-split
@@ -413,8 +425,15 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
       // ----
       // ESL2, page 387.  Step 2b iii.  Compute the gammas (leaf node predictions === fit best constant), and store them back
       // into the tree leaves.  Includes learn_rate.
-      GammaPass gp = new GammaPass(frameMap, ktrees, leaves, distributionImpl, _nclass);
-      gp.doAll(_train);
+      GammaPass gp;
+      if (_sampleWeights != null) { // leaf values are fitted on the sampled rows, with the amplified weights
+        // all rows (including the ones skipped by the sampling) still need to be routed to their leaves
+        gp = new GammaPass(frameMap, ktrees, leaves, distributionImpl, _nclass, _train.numCols());
+        gp.doAll(new Frame(_train).add("__sample_weights", _sampleWeights));
+      } else {
+        gp = new GammaPass(frameMap, ktrees, leaves, distributionImpl, _nclass);
+        gp.doAll(_train);
+      }
       if (_parms._distribution == DistributionFamily.laplace) {
         fitBestConstantsQuantile(ktrees, leaves[0], 0.5); //special case for Laplace: compute the median for each leaf node and store that as prediction
       } else if (_parms._distribution == DistributionFamily.quantile) {
@@ -467,6 +486,10 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
       return converged;
     }
 
+    private boolean useGoss() {
+      return _parms._goss_top_rate > 0;
+    }
+
     /**
      * How may trees are actually calculated for the number of classes the model uses.
      * @return number of trees
@@ -495,6 +518,8 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
         // Initially setup as-if an empty-split had just happened
         if (_model._output._distribution[k] != 0) {
           ktrees[k] = new DTree(_train, _ncols, _mtry, _mtry_per_tree, rseed, _parms);
+          if (_parms._max_leaves > 0)
+            ktrees[k].growLeafWise(_parms._max_leaves, _parms._max_depth);
           DHistogram[] hist = DHistogram.initialHist(_train, _ncols, adj_nbins, hcs[k][0], rseed, _parms, getGlobalQuantilesKeys(), cs);
           new UndecidedNode(ktrees[k], DTree.NO_PARENT, hist, cs); // The "root" node
         }
@@ -516,16 +541,35 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
         }
       }
 
+      // Gradient-based one-side sampling - one sample for all classes, mark the skipped lines by 'OUT_OF_BAG'
+      if (useGoss()) {
+        List<Vec> works = new ArrayList<>();
+        List<Vec> nids = new ArrayList<>();
+        for (int k = 0; k < _nclass; k++) {
+          if (ktrees[k] != null) {
+            works.add(vec_work(_train, k));
+            nids.add(vec_nids(_train, k));
+          }
+        }
+        long nTop = GossSampling.sample(works.toArray(new Vec[0]), nids.toArray(new Vec[0]), _response,
+                hasWeightCol() ? _weights : null, _sampleWeights, _parms._goss_top_rate, _parms._goss_other_rate,
+                rseed, _parms._build_tree_one_node);
+        LOG.debug("GOSS: " + nTop + " rows with large gradients are used to grow the trees.");
+      }
+
       // ----
       // ESL2, page 387.  Step 2b ii.
       // One Big Loop till the ktrees are of proper depth.
-      // Adds a layer to the trees each pass.
-      int depth = 0;
-      for (; depth < _parms._max_depth; depth++) {
+      // Adds a layer to the trees each pass (leaf-wise growth: expands the best split each pass,
+      // depth is limited for each node; up to max_leaves - 1 passes, growth stops once the leaf budget is spent).
+      int maxPasses = _parms._max_leaves > 0 ? Integer.MAX_VALUE : _parms._max_depth;
+      for (int pass = 0; pass < maxPasses; pass++) {
         hcs = buildLayer(_train, _parms._nbins, _parms._nbins_cats, ktrees, leaves, hcs, _parms._build_tree_one_node);
         // If we did not make any new splits, then the tree is split-to-death
         if (hcs == null) break;
       }
+      for (DTree tree : ktrees)
+        if (tree != null) tree.finishLeafWise();
 
       // Each tree bottomed-out in a DecidedNode; go 1 more level and insert
       // LeafNodes to hold predictions.
@@ -1151,15 +1195,22 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
     private final int[] _leafs;  // Starting index of leaves (per class-tree)
     private final Distribution _dist;
     private final int _nclass;
+    private final int _sampleWeightIndex; // weights of the rows used to fit the gammas (GOSS), -1 if not sampled
     private double[/*tree/klass*/][/*tree-relative node-id*/] _num;
     private double[/*tree/klass*/][/*tree-relative node-id*/] _denom;
 
     public GammaPass(FrameMap frameMap, DTree[] trees, int[] leafs, Distribution distribution, int nClasses) {
+      this(frameMap, trees, leafs, distribution, nClasses, -1);
+    }
+
+    GammaPass(FrameMap frameMap, DTree[] trees, int[] leafs, Distribution distribution, int nClasses,
+              int sampleWeightIndex) {
       fm = frameMap;
       _leafs = leafs;
       _trees = trees;
       _dist = distribution;
       _nclass = nClasses;
+      _sampleWeightIndex = sampleWeightIndex;
     }
 
     double gamma(int tree, int nid) {
@@ -1211,6 +1262,7 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
         final Chunk offset = fm.offsetIndex >= 0 ? chks[fm.offsetIndex] : new C0DChunk(0, chks[0]._len);
         final Chunk preds = chks[fm.tree0Index + k];
         final Chunk weights = fm.weightIndex >= 0 ? chks[fm.weightIndex] : new C0DChunk(1, chks[0]._len);
+        final Chunk sampleWeights = _sampleWeightIndex >= 0 ? chks[_sampleWeightIndex] : null;
 
         // If we have all constant responses, then we do not split even the
         // root and the residuals should be zero.
@@ -1252,6 +1304,8 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
                   || _dist._family == DistributionFamily.huber
                   || _dist._family == DistributionFamily.quantile) continue;
 
+          if (sampleWeights != null)
+            w = sampleWeights.atd(row); // rows skipped by the sampling are OOB (above)
           double z = ress.atd(row);  // residual
           double f = preds.atd(row) + offset.atd(row);
           int idx = leafnid - leaf;
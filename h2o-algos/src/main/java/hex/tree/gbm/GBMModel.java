@@ -28,6 +28,9 @@ public class GBMModel extends SharedTreeModelWithContributions<GBMModel, GBMMode
     public double _max_abs_leafnode_pred;
     public double _pred_noise_bandwidth;
     public KeyValue[] _monotone_constraints;
+    public int _max_leaves; // 0 = trees are grown level-wise, otherwise leaf-wise up to this many leaves
+    public double _goss_top_rate; // 0 = no gradient-based one-side sampling, otherwise fraction of rows with the largest gradients
+    public double _goss_other_rate; // fraction of all rows sampled from the rows with small gradients (GOSS)
 
     public GBMParameters() {
       super();
@@ -39,6 +42,9 @@ public class GBMModel extends SharedTreeModelWithContributions<GBMModel, GBMMode
       _max_depth = 5;
       _max_abs_leafnode_pred = Double.MAX_VALUE;
       _pred_noise_bandwidth =0;
+      _max_leaves = 0;
+      _goss_top_rate = 0;
+      _goss_other_rate = 0;
     }
 
     public String algoName() { return "GBM"; }
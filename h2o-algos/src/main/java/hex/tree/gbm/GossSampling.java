@@ -0,0 +1,119 @@
+package hex.tree.gbm;
+
+import hex.tree.ScoreBuildHistogram;
+import water.MRTask;
+import water.fvec.C4VolatileChunk;
+import water.fvec.C8DVolatileChunk;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.NewChunk;
+import water.fvec.Vec;
+import water.util.MathUtils;
+import water.util.RandomUtils;
+
+import java.util.Random;
+
+/**
+ * Gradient-based one-side sampling (GOSS, Ke et al.: LightGBM: A Highly Efficient Gradient Boosting Decision Tree).
+ *
+ * <p>Rows with small gradients are already well fitted and contribute little to the split gains. GOSS keeps
+ * the fraction {@code topRate} of the rows with the largest gradients and a random sample of the remaining rows,
+ * on average {@code otherRate} of all rows. The sampled small-gradient rows get their weight amplified by
+ * {@code (1 - topRate) / otherRate} so that the histograms (and leaf values) remain unbiased estimates.
+ *
+ * <p>Rows that are not sampled are marked as out-of-bag in the NIDs columns, same as in {@link hex.tree.Sample}.
+ * The weights of the sampled rows are stored in a separate Vec and replace the observation weights for the tree.
+ */
+final class GossSampling {
+
+  private GossSampling() {}
+
+  /**
+   * Samples the rows for the next iteration.
+   *
+   * @param works residuals (negative gradients) of the trees built in this iteration
+   * @param nids node ids of the trees built in this iteration
+   * @param response response column
+   * @param obsWeights observation weights (can be null)
+   * @param sampleWeights output - weights of the sampled rows
+   * @return number of rows with a large gradient (always kept)
+   */
+  static long sample(Vec[] works, Vec[] nids, Vec response, Vec obsWeights, Vec sampleWeights,
+                     double topRate, double otherRate, long seed, boolean runLocal) {
+    Vec grads = new GradientMagnitude().doAll(new byte[]{Vec.T_NUM}, new Frame(works), runLocal).outputFrame().anyVec();
+    try {
+      final double threshold = MathUtils.computeWeightedQuantile(obsWeights, grads, 1 - topRate);
+      Frame fr = new Frame(grads, response, sampleWeights);
+      if (obsWeights != null)
+        fr.add("weights", obsWeights);
+      fr.add(new Frame(nids));
+      return new Sample(threshold, otherRate / (1 - topRate), seed, obsWeights != null).doAll(fr, runLocal)._nTop;
+    } finally {
+      grads.remove();
+    }
+  }
+
+  // Gradient magnitude of a row (sum over all class trees)
+  private static class GradientMagnitude extends MRTask<GradientMagnitude> {
+    @Override
+    public void map(Chunk[] works, NewChunk nc) {
+      for (int row = 0; row < works[0]._len; row++) {
+        double g = 0;
+        for (Chunk work : works)
+          g += Math.abs(work.atd(row));
+        nc.addNum(g);
+      }
+    }
+  }
+
+  private static class Sample extends MRTask<Sample> {
+    // layout of the input frame
+    private static final int GRAD = 0, RESP = 1, SAMPLE_WEIGHTS = 2;
+
+    private final double _threshold;
+    private final double _rate;   // sampling rate of the rows with small gradients
+    private final long _seed;
+    private final boolean _hasWeights;
+    long _nTop;
+
+    Sample(double threshold, double rate, long seed, boolean hasWeights) {
+      _threshold = threshold;
+      _rate = rate;
+      _seed = seed;
+      _hasWeights = hasWeights;
+    }
+
+    @Override
+    public void map(Chunk[] cs) {
+      final Chunk grads = cs[GRAD], ys = cs[RESP];
+      final double[] sampleWeights = ((C8DVolatileChunk) cs[SAMPLE_WEIGHTS]).getValues();
+      final Chunk ws = _hasWeights ? cs[SAMPLE_WEIGHTS + 1] : null;
+      final int nidsStart = _hasWeights ? SAMPLE_WEIGHTS + 2 : SAMPLE_WEIGHTS + 1;
+      final double amplify = 1 / _rate;
+      Random rand = RandomUtils.getRNG(_seed);
+      for (int row = 0; row < grads._len; row++) {
+        double w = ws != null ? ws.atd(row) : 1;
+        boolean skip = ys.isNA(row) || w == 0;
+        if (!skip) {
+          if (grads.atd(row) > _threshold)
+            _nTop++;
+          else {
+            rand.setSeed(_seed + row + grads.start()); //seeding is independent of chunking
+            skip = rand.nextFloat() >= _rate;
+            w *= amplify;
+          }
+        }
+        sampleWeights[row] = skip ? 0 : w;
+        if (skip)
+          for (int i = nidsStart; i < cs.length; i++)
+            ((C4VolatileChunk) cs[i]).getValues()[row] = ScoreBuildHistogram.OUT_OF_BAG; // Flag row as being ignored by sampling
+      }
+    }
+
+    @Override
+    public void reduce(Sample s) {
+      _nTop += s._nTop;
+    }
+  }
+
+}
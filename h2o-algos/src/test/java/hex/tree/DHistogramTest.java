@@ -2,12 +2,14 @@ package hex.tree;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
+import water.AutoBuffer;
 import water.DKV;
 import water.Key;
 import water.Scope;
 import water.TestUtil;
 
 import java.util.Arrays;
+import java.util.Random;
 
 import static org.junit.Assert.*;
 
@@ -115,4 +117,44 @@ public class DHistogramTest extends TestUtil {
     }
   }
 
+  @Test
+  public void compactHistogramsAreMergedInSinglePrecision() {
+    DHistogram expected = makeUniformHisto();
+    DHistogram h1 = makeUniformHisto();
+    DHistogram h2 = makeUniformHisto();
+    expected.init();
+    h1.init();
+    h2.init();
+    Random rnd = new Random(42);
+    for (int i = 0; i < 1000; i++) {
+      double x = i % 100 == 0 ? Double.NaN : rnd.nextDouble() * 10;
+      double y = rnd.nextGaussian();
+      (i % 2 == 0 ? h1 : h2).incr(x, y, 1);
+      expected.incr(x, y, 1);
+    }
+    int size = new AutoBuffer().put(h2).buf().length;
+    h1.compact();
+    h2.compact();
+    // shipped to another node
+    DHistogram received = new AutoBuffer(new AutoBuffer().put(h2).buf()).get();
+    assertTrue(new AutoBuffer().put(h2).buf().length < size);
+    DHistogram empty = makeUniformHisto();
+    empty.add(received);
+    empty.add(h1);
+    empty.expand();
+    for (int b = 0; b < expected.nbins(); b++) {
+      assertEquals(expected.w(b), empty.w(b), 0);
+      assertEquals(expected.wY(b), empty.wY(b), 1e-4);
+      assertEquals(expected.wYY(b), empty.wYY(b), 1e-10); // kept in double precision
+    }
+    assertEquals(expected.wNA(), empty.wNA(), 0);
+    assertEquals(expected.wYNA(), empty.wYNA(), 1e-10); // the NA bin is kept in double precision
+    assertEquals(expected.wYYNA(), empty.wYYNA(), 1e-10);
+  }
+
+  private static DHistogram makeUniformHisto() {
+    return new DHistogram("x", 20, 1024, (byte) 0, 0, 10, true, -0.001,
+            SharedTreeModel.SharedTreeParameters.HistogramType.UniformAdaptive, 42L, null, null);
+  }
+
 }
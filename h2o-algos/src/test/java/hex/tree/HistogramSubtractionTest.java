@@ -0,0 +1,129 @@
+package hex.tree;
+
+import hex.tree.gbm.GBM;
+import hex.tree.gbm.GBMModel;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import water.DKV;
+import water.Key;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.TestFrameBuilder;
+import water.fvec.Vec;
+import water.runner.CloudSize;
+import water.runner.H2ORunner;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+@CloudSize(1)
+@RunWith(H2ORunner.class)
+public class HistogramSubtractionTest extends TestUtil {
+
+  @Test
+  public void testInitAsDifference() {
+    PreBinning pb = null;
+    try {
+      Scope.enter();
+      final int nrows = 1000;
+      Frame fr = new TestFrameBuilder()
+              .withColNames("x")
+              .withVecTypes(Vec.T_NUM)
+              .withRandomDoubleDataForCol(0, nrows, 0, 100, 42)
+              .build();
+      Scope.track(fr);
+      double[][] splitPoints = GlobalQuantilesCalc.splitPoints(fr, null, 20, 64);
+      Key<DHistogram.HistoQuantiles> qKey = Key.make();
+      DKV.put(new DHistogram.HistoQuantiles(qKey, splitPoints[0], true));
+      Scope.track_generic(qKey.get());
+      pb = PreBinning.make(Key.<PreBinning>make(), fr, 1, splitPoints);
+
+      Vec x = fr.vec(0);
+      final double split = 40;
+      final double maxEx = DHistogram.find_maxEx(x.max(), 0);
+      int[] codes = new int[nrows];
+      double[] ys = new double[nrows];
+      double[] ws = new double[nrows];
+      int[] rows = new int[nrows];
+      int nLeft = 0;
+      Random rnd = new Random(42);
+      for (int i = 0; i < nrows; i++) {
+        codes[i] = pb.code(0, x.at(i));
+        ys[i] = rnd.nextGaussian();
+        ws[i] = 1;
+        if (x.at(i) < split) rows[nLeft++] = i;
+      }
+      // right rows follow the left rows
+      for (int i = 0, r = nLeft; i < nrows; i++)
+        if (x.at(i) >= split) rows[r++] = i;
+
+      DHistogram parent = makeHisto(x.min(), maxEx, qKey);
+      parent.init();
+      parent.updateHistoBinned(ws, null, codes, pb.binOffset(0, parent), pb, 0, ys, null, rows, nrows, 0);
+      DHistogram left = makeHisto(x.min(), split, qKey);
+      left.init();
+      left.updateHistoBinned(ws, null, codes, pb.binOffset(0, left), pb, 0, ys, null, rows, nLeft, 0);
+      DHistogram expected = makeHisto(split, maxEx, qKey);
+      expected.init();
+      expected.updateHistoBinned(ws, null, codes, pb.binOffset(0, expected), pb, 0, ys, null, rows, nrows, nLeft);
+
+      DHistogram right = makeHisto(split, maxEx, qKey);
+      right.initAsDifference(pb.binOffset(0, right), parent, pb.binOffset(0, parent), left, pb.binOffset(0, left), pb, 0);
+
+      assertEquals(expected.nbins(), right.nbins());
+      for (int b = 0; b < right.nbins(); b++) {
+        assertEquals(expected.w(b), right.w(b), 0);
+        assertEquals(expected.wY(b), right.wY(b), 1e-4);
+        assertEquals(expected.wYY(b), right.wYY(b), 1e-3);
+      }
+      assertEquals(expected.find_min(), right.find_min(), 0);
+      assertEquals(expected.find_maxIn(), right.find_maxIn(), 0);
+    } finally {
+      if (pb != null) pb.remove();
+      Scope.exit();
+    }
+  }
+
+  private static DHistogram makeHisto(double min, double maxEx, Key<DHistogram.HistoQuantiles> qKey) {
+    return new DHistogram("x", 20, 1024, (byte) 0, min, maxEx, false, 0,
+            SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal, 42, qKey, null);
+  }
+
+  @Test
+  public void testGBMWithHistogramSubtraction() {
+    try {
+      Scope.enter();
+      Frame fr = Scope.track(parse_test_file("smalldata/logreg/prostate.csv"));
+      GBMModel.GBMParameters parms = new GBMModel.GBMParameters();
+      parms._train = fr._key;
+      parms._response_column = "VOL";
+      parms._ignored_columns = new String[]{"ID"};
+      parms._histogram_type = SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal;
+      parms._ntrees = 10;
+      parms._max_depth = 8;
+      parms._seed = 42;
+
+      GBMModel expected, actual;
+      System.setProperty("sys.ai.h2o.tree.prebinning", "true");
+      try {
+        System.setProperty("sys.ai.h2o.tree.histogramSubtraction", "false");
+        expected = new GBM(parms).trainModel().get();
+        Scope.track_generic(expected);
+        System.setProperty("sys.ai.h2o.tree.histogramSubtraction", "true");
+        actual = new GBM(parms).trainModel().get();
+        Scope.track_generic(actual);
+      } finally {
+        System.clearProperty("sys.ai.h2o.tree.prebinning");
+        System.clearProperty("sys.ai.h2o.tree.histogramSubtraction");
+      }
+      double expectedMSE = expected._output._training_metrics.mse();
+      double actualMSE = actual._output._training_metrics.mse();
+      assertEquals(expectedMSE, actualMSE, expectedMSE * 0.05);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+}
@@ -0,0 +1,87 @@
+package hex.tree;
+
+import hex.tree.gbm.GBM;
+import hex.tree.gbm.GBMModel;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import water.Scope;
+import water.TestUtil;
+import water.exceptions.H2OModelBuilderIllegalArgumentException;
+import water.fvec.Frame;
+import water.runner.CloudSize;
+import water.runner.H2ORunner;
+
+import static org.junit.Assert.*;
+
+@CloudSize(1)
+@RunWith(H2ORunner.class)
+public class LeafWiseGrowthTest extends TestUtil {
+
+  private static GBMModel.GBMParameters makeParms(Frame fr) {
+    GBMModel.GBMParameters parms = new GBMModel.GBMParameters();
+    parms._train = fr._key;
+    parms._response_column = "VOL";
+    parms._ignored_columns = new String[]{"ID"};
+    parms._ntrees = 5;
+    parms._seed = 42;
+    return parms;
+  }
+
+  @Test
+  public void testMaxLeavesLimitsTheTrees() {
+    try {
+      Scope.enter();
+      Frame fr = Scope.track(parse_test_file("smalldata/logreg/prostate.csv"));
+      GBMModel.GBMParameters parms = makeParms(fr);
+      parms._max_depth = 0;
+      parms._max_leaves = 6;
+
+      GBMModel gbm = new GBM(parms).trainModel().get();
+      Scope.track_generic(gbm);
+      TreeStats treeStats = gbm._output._treeStats;
+      assertTrue(treeStats._max_leaves <= 6);
+      assertTrue(treeStats._min_leaves >= 2);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testUnboundedLeafWiseGrowthIsLevelWise() {
+    try {
+      Scope.enter();
+      Frame fr = Scope.track(parse_test_file("smalldata/logreg/prostate.csv"));
+      GBMModel.GBMParameters parms = makeParms(fr);
+      parms._max_depth = 4;
+      GBMModel expected = new GBM(parms).trainModel().get();
+      Scope.track_generic(expected);
+
+      // the leaf budget is never reached - all splits are eventually expanded
+      parms._max_leaves = 1 << parms._max_depth;
+      GBMModel actual = new GBM(parms).trainModel().get();
+      Scope.track_generic(actual);
+
+      assertEquals(expected._output._treeStats._max_leaves, actual._output._treeStats._max_leaves);
+      assertEquals(expected._output._treeStats._max_depth, actual._output._treeStats._max_depth);
+      Frame expectedPreds = Scope.track(expected.score(fr));
+      Frame actualPreds = Scope.track(actual.score(fr));
+      assertVecEquals(expectedPreds.vec(0), actualPreds.vec(0), 1e-6);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test(expected = H2OModelBuilderIllegalArgumentException.class)
+  public void testSingleLeafIsRejected() {
+    try {
+      Scope.enter();
+      Frame fr = Scope.track(parse_test_file("smalldata/logreg/prostate.csv"));
+      GBMModel.GBMParameters parms = makeParms(fr);
+      parms._max_leaves = 1;
+      new GBM(parms).trainModel().get();
+    } finally {
+      Scope.exit();
+    }
+  }
+
+}
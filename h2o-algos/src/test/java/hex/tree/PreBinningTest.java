@@ -0,0 +1,141 @@
+package hex.tree;
+
+import hex.tree.gbm.GBM;
+import hex.tree.gbm.GBMModel;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import water.DKV;
+import water.Key;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.Vec;
+import water.runner.CloudSize;
+import water.runner.H2ORunner;
+
+import static org.junit.Assert.*;
+
+@CloudSize(1)
+@RunWith(H2ORunner.class)
+public class PreBinningTest extends TestUtil {
+
+  @Test
+  public void testCodesMatchHistogramBins() {
+    PreBinning pb = null;
+    try {
+      Scope.enter();
+      Frame fr = Scope.track(parse_test_file("smalldata/logreg/prostate.csv"));
+      fr = new Frame(new String[]{"PSA", "VOL", "AGE"}, new Vec[]{fr.vec("PSA"), fr.vec("VOL"), fr.vec("AGE")});
+      DKV.put(fr);
+      Scope.track(fr);
+      double[][] splitPoints = GlobalQuantilesCalc.splitPoints(fr, null, 20, 1024);
+      splitPoints[2] = null; // AGE will be binned by value
+      pb = PreBinning.make(Key.<PreBinning>make(), fr, fr.numCols(), splitPoints);
+      assertNotNull(pb);
+      assertEquals(PreBinning.QUANTILES, pb._types[0]);
+      assertEquals(PreBinning.INTEGER, pb._types[2]);
+
+      for (int c = 0; c < fr.numCols(); c++) {
+        Vec v = fr.vec(c);
+        Vec codes = pb.codesVec(c);
+        Key<DHistogram.HistoQuantiles> qKey = null;
+        SharedTreeModel.SharedTreeParameters.HistogramType histoType =
+                SharedTreeModel.SharedTreeParameters.HistogramType.UniformAdaptive;
+        if (splitPoints[c] != null) {
+          qKey = Key.make();
+          DKV.put(new DHistogram.HistoQuantiles(qKey, splitPoints[c], true));
+          Scope.track_generic(qKey.get());
+          histoType = SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal;
+        }
+        // histogram of a sub-range of the column
+        double min = v.isInt() ? v.min() + 3 : (v.min() + v.max()) / 4;
+        double maxEx = DHistogram.find_maxEx(v.max(), v.isInt() ? 1 : 0);
+        DHistogram h = new DHistogram(fr.name(c), 1024, 1024, (byte) (v.isInt() ? 1 : 0), min, maxEx, false, 0,
+                histoType, 42, qKey, null);
+        h.init();
+        int offset = pb.binOffset(c, h);
+        assertNotEquals(PreBinning.NO_BINS, offset);
+        for (long row = 0; row < v.length(); row++) {
+          double d = v.at(row);
+          if (Double.isNaN(d)) {
+            assertTrue(codes.isNA(row));
+            continue;
+          }
+          int code = (int) codes.at8(row);
+          assertTrue(pb.binMin(c, code) <= d && d <= pb.binMax(c, code));
+          if (d >= min)
+            assertEquals("Column " + c + ", row " + row, h.bin(d), code - offset);
+        }
+      }
+    } finally {
+      if (pb != null) pb.remove();
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testGBMWithPreBinningIsIdenticalForIntegerColumns() {
+    try {
+      Scope.enter();
+      Frame fr = Scope.track(parse_test_file("smalldata/logreg/prostate.csv"));
+      GBMModel.GBMParameters parms = new GBMModel.GBMParameters();
+      parms._train = fr._key;
+      parms._response_column = "VOL";
+      parms._ignored_columns = new String[]{"ID"};
+      parms._ntrees = 10;
+      parms._max_depth = 6;
+      parms._seed = 42;
+
+      GBMModel expected = new GBM(parms).trainModel().get();
+      Scope.track_generic(expected);
+      GBMModel actual;
+      System.setProperty("sys.ai.h2o.tree.prebinning", "true");
+      System.setProperty("sys.ai.h2o.tree.histogramSubtraction", "false"); // derived histograms are not bit-exact
+      try {
+        actual = new GBM(parms).trainModel().get();
+        Scope.track_generic(actual);
+      } finally {
+        System.clearProperty("sys.ai.h2o.tree.prebinning");
+        System.clearProperty("sys.ai.h2o.tree.histogramSubtraction");
+      }
+      Frame expectedPreds = Scope.track(expected.score(fr));
+      Frame actualPreds = Scope.track(actual.score(fr));
+      assertVecEquals(expectedPreds.vec(0), actualPreds.vec(0), 1e-6);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testGBMWithPreBinningQuantilesGlobal() {
+    try {
+      Scope.enter();
+      Frame fr = Scope.track(parse_test_file("smalldata/logreg/prostate.csv"));
+      GBMModel.GBMParameters parms = new GBMModel.GBMParameters();
+      parms._train = fr._key;
+      parms._response_column = "VOL";
+      parms._ignored_columns = new String[]{"ID"};
+      parms._histogram_type = SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal;
+      parms._ntrees = 10;
+      parms._seed = 42;
+
+      GBMModel expected = new GBM(parms).trainModel().get();
+      Scope.track_generic(expected);
+      GBMModel actual;
+      System.setProperty("sys.ai.h2o.tree.prebinning", "true");
+      try {
+        actual = new GBM(parms).trainModel().get();
+        Scope.track_generic(actual);
+      } finally {
+        System.clearProperty("sys.ai.h2o.tree.prebinning");
+      }
+      // node histograms keep the global bins (no padding) - models are similar but not identical
+      double expectedMSE = expected._output._training_metrics.mse();
+      double actualMSE = actual._output._training_metrics.mse();
+      assertEquals(expectedMSE, actualMSE, expectedMSE * 0.1);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+}
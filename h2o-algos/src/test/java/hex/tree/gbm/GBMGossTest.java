@@ -0,0 +1,166 @@
+package hex.tree.gbm;
+
+import hex.genmodel.utils.DistributionFamily;
+import hex.tree.ScoreBuildHistogram;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import water.Scope;
+import water.TestUtil;
+import water.exceptions.H2OModelBuilderIllegalArgumentException;
+import water.fvec.Frame;
+import water.fvec.TestFrameBuilder;
+import water.fvec.Vec;
+import water.runner.CloudSize;
+import water.runner.H2ORunner;
+
+import static org.junit.Assert.*;
+
+@CloudSize(1)
+@RunWith(H2ORunner.class)
+public class GBMGossTest extends TestUtil {
+
+  private static GBMModel.GBMParameters makeParms(Frame fr) {
+    GBMModel.GBMParameters parms = new GBMModel.GBMParameters();
+    parms._train = fr._key;
+    parms._response_column = "VOL";
+    parms._ignored_columns = new String[]{"ID"};
+    parms._ntrees = 20;
+    parms._max_depth = 4;
+    parms._seed = 42;
+    return parms;
+  }
+
+  @Test
+  public void testGossRegression() {
+    try {
+      Scope.enter();
+      Frame fr = Scope.track(parse_test_file("smalldata/logreg/prostate.csv"));
+      GBMModel.GBMParameters parms = makeParms(fr);
+      GBMModel expected = new GBM(parms).trainModel().get();
+      Scope.track_generic(expected);
+
+      parms._goss_top_rate = 0.2;
+      parms._goss_other_rate = 0.1;
+      GBMModel actual = new GBM(parms).trainModel().get();
+      Scope.track_generic(actual);
+
+      double expectedMSE = expected._output._training_metrics.mse();
+      double actualMSE = actual._output._training_metrics.mse();
+      assertTrue("MSE with GOSS: " + actualMSE + ", without GOSS: " + expectedMSE, actualMSE < expectedMSE * 1.5);
+      // trees are built from a sample of the rows
+      assertNotEquals(expectedMSE, actualMSE, 0);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testGossTrainingPredictionsMatchScoring() {
+    try {
+      Scope.enter();
+      Frame fr = Scope.track(parse_test_file("smalldata/logreg/prostate.csv"));
+      GBMModel.GBMParameters parms = makeParms(fr);
+      parms._goss_top_rate = 0.2;
+      parms._goss_other_rate = 0.1;
+      GBMModel gbm = new GBM(parms).trainModel().get();
+      Scope.track_generic(gbm);
+
+      // training metrics are computed from the tree predictions accumulated in the training frame, rows skipped
+      // by the sampling need to get the contributions of all trees too
+      Scope.track(gbm.score(fr));
+      hex.ModelMetricsRegression mm = hex.ModelMetricsRegression.getFromDKV(gbm, fr);
+      assertEquals(mm.mse(), gbm._output._training_metrics.mse(), 1e-6 * mm.mse());
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testGossMultinomial() {
+    try {
+      Scope.enter();
+      Frame fr = Scope.track(parse_test_file("smalldata/logreg/prostate.csv"));
+      fr.toCategoricalCol("GLEASON");
+      GBMModel.GBMParameters parms = makeParms(fr);
+      parms._response_column = "GLEASON";
+      parms._distribution = DistributionFamily.multinomial;
+      parms._goss_top_rate = 0.3;
+      parms._goss_other_rate = 0.2;
+      GBMModel gbm = new GBM(parms).trainModel().get();
+      Scope.track_generic(gbm);
+
+      assertEquals(parms._ntrees, gbm._output._ntrees);
+      assertFalse(Double.isNaN(gbm._output._training_metrics.mse()));
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test(expected = H2OModelBuilderIllegalArgumentException.class)
+  public void testGossWithRowSamplingIsRejected() {
+    try {
+      Scope.enter();
+      Frame fr = Scope.track(parse_test_file("smalldata/logreg/prostate.csv"));
+      GBMModel.GBMParameters parms = makeParms(fr);
+      parms._goss_top_rate = 0.2;
+      parms._goss_other_rate = 0.1;
+      parms._sample_rate = 0.8;
+      new GBM(parms).trainModel().get();
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testGossSamplingKeepsLargeGradients() {
+    try {
+      Scope.enter();
+      final int n = 1000;
+      double[] work = new double[n];
+      double[] ys = new double[n];
+      for (int i = 0; i < n; i++) {
+        work[i] = i % 2 == 0 ? i : -i; // magnitude of the gradient matters, not the sign
+        ys[i] = 1;
+      }
+      Frame fr = Scope.track(new TestFrameBuilder()
+              .withColNames("work", "y")
+              .withVecTypes(Vec.T_NUM, Vec.T_NUM)
+              .withDataForCol(0, work)
+              .withDataForCol(1, ys)
+              .withChunkLayout(300, 300, 400)
+              .build());
+      Vec nids = fr.anyVec().makeVolatileInts(new int[]{0})[0];
+      Vec sampleWeights = fr.anyVec().makeVolatileDoubles(1)[0];
+      Scope.track(new Frame(nids, sampleWeights));
+
+      final double topRate = 0.2, otherRate = 0.1;
+      long nTop = GossSampling.sample(new Vec[]{fr.vec("work")}, new Vec[]{nids}, fr.vec("y"), null, sampleWeights,
+              topRate, otherRate, 42, false);
+      assertEquals(topRate * n, nTop, 1);
+
+      final double amplified = (1 - topRate) / otherRate;
+      int nSampled = 0;
+      for (int i = 0; i < n; i++) {
+        double w = sampleWeights.at(i);
+        boolean oob = nids.at8(i) == ScoreBuildHistogram.OUT_OF_BAG;
+        if (i >= n - nTop) {
+          // the rows with the largest gradients are always kept with their original weight
+          assertEquals("row " + i, 1, w, 0);
+          assertFalse("row " + i, oob);
+        } else if (w == 0) {
+          assertTrue("row " + i, oob);
+        } else {
+          // sampled rows with a small gradient have their weight amplified
+          assertEquals("row " + i, amplified, w, 1e-10);
+          assertFalse("row " + i, oob);
+          nSampled++;
+        }
+      }
+      // on average otherRate of all rows are sampled from the small gradients
+      assertEquals(otherRate * n, nSampled, 0.4 * otherRate * n);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+}
@@ -94,6 +94,31 @@ public class ChunkBench {
     return sum;
   }
 
+  @Benchmark
+  public double colsRowsWithBulkReadNAMask() {
+    double sum = 0;
+    double [] vals = new double[chunks[0]._len];
+    boolean [] nas = new boolean[chunks[0]._len];
+    for (int col = 0; col < cols; ++col) {
+      chunks[col].getDoubles(vals, nas, 0, rows);
+      for (int i = 0; i < rows; ++i)
+        if (!nas[i]) sum += vals[i];
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public long colsRowsWithBulkLongRead() {
+    long sum = 0;
+    long [] vals = new long[chunks[0]._len];
+    for (int col = 0; col < cols; ++col) {
+      chunks[col].getLongs(vals, 0, rows, 0);
+      for (int i = 0; i < rows; ++i)
+        sum += vals[i];
+    }
+    return sum;
+  }
+
   @Benchmark
   public double colsRowsReadWithFinalChunk() {
     double sum = 0;
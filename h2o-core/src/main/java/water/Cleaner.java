@@ -4,6 +4,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.Arrays;
 import water.fvec.Chunk;
+import water.persist.ChunkPrefetcher;
 import water.util.Log;
 import water.util.PrettyPrint;
 
@@ -62,6 +63,18 @@ class Cleaner extends Thread {
     return H2O.getPM().getIce().getUsableSpace();
   }
 
+  // Only home Chunks which are not kept in one of the in-memory tiers
+  // (off-heap or compressed) are written out to the ice directory.
+  static boolean spillToDisk(Value val, boolean diskFull) {
+    return !val.isPersisted() && !val.isOffHeap() && !val.isCompressed() && !diskFull && val._key.home();
+  }
+
+  // Compressed-only home Chunks are written out before the compressed tier
+  // is dropped under pressure; else that tier would grow without bound.
+  static boolean spillCompressed(Value val, boolean diskFull) {
+    return val.isCompressed() && !val.isPersisted() && !val.isOffHeap() && !diskFull && val._key.home();
+  }
+
   // Cleaner thread runs in a forever loop.  (This call cannot be synchronized,
   // lest we hold the lock during a (very long) clean process - and various
   // async callbacks attempt to "kick" the Cleaner awake - which will require
@@ -100,6 +113,8 @@ class Cleaner extends Thread {
       boolean force = (h._cached >= DESIRED || !MemoryManager.CAN_ALLOC); // Forced to clean
       if( force && diskFull )   // Try to clean the diskFull flag
         diskFull = isDiskFull();
+      // Read-ahead buffers of remote files are not part of the K/V store, drop them first
+      if( force ) ChunkPrefetcher.dropAll();
       long clean_to_age = h.clean_to(force ? DESIRED : (DESIRED>>1));
       // If not forced cleaning, expand the cleaning age to allows Values
       // more than 5sec old
@@ -111,6 +126,8 @@ class Cleaner extends Thread {
       if( MemoryManager.canAlloc() ) Log.debug(s);
       else                           System.err.println(s);
       long cleaned = 0;         // Disk i/o bytes
+      long offheaped = 0;       // Bytes moved to the off-heap tier
+      long compressed = 0;      // Bytes compressed in memory
       long freed = 0;           // memory freed bytes
       long io_ns = 0;           // i/o ns writing
 
@@ -127,12 +144,13 @@ class Cleaner extends Thread {
         Value val = (Value)ov;
         byte[] m = val.rawMem();
         Object p = val.rawPOJO();
-        if( m == null && p == null ) continue; // Nothing to throw out
+        byte[] z = val.rawCompressed();
+        if( m == null && p == null && z == null ) continue; // Nothing to throw out
         if( val.isLockable() ) continue; // we do not want to throw out Lockables.
         boolean isChunk = p instanceof Chunk && !((Chunk)p).isVolatile();
         // Ignore things younger than the required age.  In particular, do
         // not spill-to-disk all dirty things we find.
-        long touched = val._lastAccessedTime;
+        long touched = EvictionPolicy.POLICY.priority(val);
         if( touched > clean_to_age ) { // Too recently touched?
           // But can toss out a byte-array if already deserialized & on disk
           // (no need for both forms).  Note no savings for Chunks, for which m==p._mem
@@ -140,7 +158,7 @@ class Cleaner extends Thread {
             val.freeMem();      // Toss serialized form, since can rebuild from POJO
             freed += val._max;
           }
-          dirty_store(touched); // But may write it out later
+          dirty_store(val._lastAccessedTime); // But may write it out later
           continue;             // Too young
         }
         // Spiller turned off?
@@ -150,9 +168,48 @@ class Cleaner extends Thread {
         // Too many POJOs are written to dynamically; cannot spill & reload
         // them without losing changes.
 
+        // Compressed-only Chunks are the coldest in-memory tier.  Under
+        // pressure write them out (decompressing once) and drop them too.
+        if( m == null && p == null ) {
+          if( force && spillCompressed(val, diskFull) ) {
+            long now_ns = System.nanoTime();
+            try { val.storePersist(); } // Write the decompressed bits to disk
+            catch( FileNotFoundException fnfe ) { continue; } // Can happen due to racing key delete/remove
+            catch( IOException e ) {
+              Log.warn("Disk swapping failed! " + e.getMessage());
+              diskFull = true;
+            }
+            if( val.isPersisted() ) {
+              cleaned += val._max;
+              val.freeMem();    // Drop the temporary decompressed copy
+            }
+            io_ns += System.nanoTime() - now_ns;
+          }
+          if( force && (val.isPersisted() || val.isOffHeap() || !((Key)ok).home()) ) {
+            val.freeCompressed();
+            freed += z.length;
+            EvictionPolicy.POLICY.evicted(val);
+          }
+          continue;
+        }
+
+        // Under pressure, prefer moving cold Chunks off-heap: dropping the
+        // heap copy then costs no disk i/o, and reloading is a memcpy.
+        if( isChunk && force && MemoryManager.offHeapEnabled() && !val.isOffHeap() && !val.isPersisted() && ((Key)ok).home() ) {
+          if( val.storeOffHeap() ) offheaped += val._max;
+        }
+        // Else keep them in RAM compressed, if they compress well
+        if( isChunk && force && MemoryManager.compressionEnabled() && !val.isOffHeap() && z == null ) {
+          if( val.storeCompressed() ) {
+            z = val.rawCompressed();
+            compressed += val._max;
+            freed -= z.length;
+          }
+        }
+
         // Should I write this value out to disk?
         // Should I further force it from memory?
-        if( isChunk && !val.isPersisted() && !diskFull && ((Key)ok).home() ) { // && (force || (lazyPersist() && lazy_clean(key)))) {
+        if( isChunk && spillToDisk(val, diskFull) ) { // && (force || (lazyPersist() && lazy_clean(key)))) {
           long now_ns = System.nanoTime();
           try { val.storePersist(); } // Write to disk
           catch( FileNotFoundException fnfe ) { continue; } // Can happen due to racing key delete/remove
@@ -169,10 +226,11 @@ class Cleaner extends Thread {
           io_ns += System.nanoTime() - now_ns; // Accumulate i/o time
         }
         // And, under pressure, free all
-        if( isChunk && force && (val.isPersisted() || !((Key)ok).home()) ) {
+        if( isChunk && force && (val.isPersisted() || val.isOffHeap() || z != null || !((Key)ok).home()) ) {
           val.freeMem ();  if( m != null ) freed += val._max;  m = null;
           val.freePOJO();  if( p != null ) freed += val._max;  p = null;
           if( isChunk ) freed -= val._max; // Double-counted freed mem for Chunks since val._pojo._mem & val._mem are the same.
+          if( z == null ) EvictionPolicy.POLICY.evicted(val); // Compressed Chunks are still cached
         }
         // If we have both forms, toss the byte[] form - can be had by
         // serializing again.
@@ -186,12 +244,15 @@ class Cleaner extends Thread {
         force = (h._cached >= DESIRED || !MemoryManager.CAN_ALLOC); // Forced to clean
       }
 
+      EvictionPolicy.POLICY.sweep();
+
       String s1 = "Cleaner pass took: "+PrettyPrint.msecs(System.currentTimeMillis()-now,true)+
-                  ", spilled "+PrettyPrint.bytes(cleaned)+" in "+PrettyPrint.usecs(io_ns>>10);
+                  ", spilled "+PrettyPrint.bytes(cleaned)+" in "+PrettyPrint.usecs(io_ns>>10)+
+                  ", moved off-heap "+PrettyPrint.bytes(offheaped)+", compressed "+PrettyPrint.bytes(compressed);
       h = Histo.current(true); // Force a new histogram
       MemoryManager.set_goals("postclean",false);
       // No logging if under memory pressure: can deadlock the cleaner thread
-      String s2 = h+" diski_o="+PrettyPrint.bytes(cleaned)+", freed="+(freed>>20)+"M, DESIRED="+(DESIRED>>20)+"M";
+      String s2 = h+" diski_o="+PrettyPrint.bytes(cleaned)+", freed="+(freed>>20)+"M, offheap="+(MemoryManager.offHeapUsed()>>20)+"M, DESIRED="+(DESIRED>>20)+"M";
       if( MemoryManager.canAlloc() ) Log.debug(s1,s2);
       else                           System.err.println(s1+"\n"+s2);
       // For testing thread
@@ -268,15 +329,18 @@ class Cleaner extends Thread {
         if( m != null ) len += val._max;
         if( p != null ) len += val._max;
         if( m != null && p instanceof Chunk ) len -= val._max; // Do not double-count Chunks
+        byte[] z = val.rawCompressed();
+        if( z != null ) len += z.length;
         if( len == 0 ) continue;
         cached += len; // Accumulate total amount of cached keys
 
-        if( val._lastAccessedTime < oldest ) { // Found an older Value?
+        long priority = EvictionPolicy.POLICY.priority(val);
+        if( priority < oldest ) { // Found an older Value?
           vold = val; // Record oldest Value seen
-          oldest = val._lastAccessedTime;
+          oldest = priority;
         }
         // Compute histogram bucket
-        int idx = (int)((val._lastAccessedTime - eldest)/_hStep);
+        int idx = (int)((priority - eldest)/_hStep);
         if( idx < 0 ) idx = 0;
         else if( idx >= _hs.length ) idx = _hs.length-1;
         _hs[idx] += len;      // Bump histogram bucket
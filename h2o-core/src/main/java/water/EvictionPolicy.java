@@ -0,0 +1,95 @@
+package water;
+
+import water.util.Log;
+
+/**
+ * Decides which cached Values the {@link Cleaner} throws out first.
+ * <p>
+ * The Cleaner keeps a histogram of cached bytes by <em>priority</em>, a
+ * pseudo-timestamp per Value, and under memory pressure it tosses out Values
+ * with the lowest priority until the cache is back below the desired level.
+ * A priority must never be later than the Value's last access time, so that
+ * emergency cleaning can always reach every Value.
+ * <p>
+ * The policy is picked with {@code -Dsys.ai.h2o.cleaner.eviction.policy}:
+ * <ul>
+ * <li>{@code lru} (default) - least-recently-used, by last access time.</li>
+ * <li>{@code frequency} - last access time, pushed back for rarely touched
+ * Values; see {@link Frequency}.</li>
+ * <li>the class name of a custom subclass with a public no-arg constructor.</li>
+ * </ul>
+ */
+public abstract class EvictionPolicy {
+
+  /** Eviction priority of a cached Value: lower is evicted first.  Must be
+   *  cheap, it is called for every Value on every Cleaner pass. */
+  public abstract long priority(Value val);
+
+  /** Called after the Cleaner dropped the in-memory copy of a Value. */
+  public void evicted(Value val) { }
+
+  /** Called by the Cleaner after every pass over the K/V store. */
+  public void sweep() { }
+
+  static final EvictionPolicy POLICY = make(H2O.getSysProperty("cleaner.eviction.policy", "lru"));
+
+  static EvictionPolicy make(String name) {
+    switch( name.toLowerCase() ) {
+    case "lru":       return new LRU();
+    case "frequency": return new Frequency(Long.parseLong(H2O.getSysProperty("cleaner.eviction.frequency.penaltyMs", "10000")),
+                                           Integer.parseInt(H2O.getSysProperty("cleaner.eviction.frequency.agingSweeps", "10")));
+    default:
+      try {
+        return (EvictionPolicy)Class.forName(name).newInstance();
+      } catch( ReflectiveOperationException | ClassCastException e ) {
+        Log.warn("Unknown eviction policy '"+name+"', using LRU: "+e);
+        return new LRU();
+      }
+    }
+  }
+
+  /** Plain least-recently-used */
+  public static class LRU extends EvictionPolicy {
+    @Override public long priority(Value val) { return val._lastAccessedTime; }
+  }
+
+  /**
+   * Frequency-aware LRU, resistant to scans slightly bigger than memory.
+   * <p>
+   * A Value touched fewer than {@link #MAX_TOUCHES} times looks older than it
+   * is, by {@code penaltyMs} per missing touch.  Eviction halves the touch
+   * count, so Values which keep being evicted and reloaded are the first to
+   * go again while the frequently used, resident working set stays put.
+   * Under plain LRU, a repeated scan of a frame bigger than the cache evicts
+   * every Chunk just before it is needed again.
+   * <p>
+   * Touch counts also age: every {@code agingSweeps} Cleaner passes all of
+   * them are halved, so a Value which was hot once but is not used anymore
+   * loses its bonus instead of being pinned by its old count.
+   */
+  public static class Frequency extends EvictionPolicy {
+    static final int MAX_TOUCHES = 8;
+    private final long _penaltyMs;
+    private final int _agingSweeps;
+    private int _sweeps;        // Cleaner passes since the last aging; only the Cleaner thread updates it
+
+    public Frequency() { this(10000, 10); }
+    public Frequency(long penaltyMs, int agingSweeps) { _penaltyMs = penaltyMs; _agingSweeps = Math.max(1, agingSweeps); }
+
+    @Override public long priority(Value val) {
+      int touches = Math.min(val._touches, MAX_TOUCHES);
+      return val._lastAccessedTime - (MAX_TOUCHES - touches) * _penaltyMs;
+    }
+    @Override public void evicted(Value val) { val._touches >>= 1; }
+
+    @Override public void sweep() {
+      if( ++_sweeps < _agingSweeps ) return;
+      _sweeps = 0;
+      // In the raw backing array, Keys and Values alternate in slots; slots 0,1 hold meta-data
+      Object[] kvs = H2O.STORE.raw_array();
+      for( int i=2; i<kvs.length; i += 2 )
+        if( kvs[i+1] instanceof Value )
+          ((Value)kvs[i+1])._touches >>= 1;
+    }
+  }
+}
@@ -2052,6 +2052,7 @@ final public class H2O {
     // If the K/V mapping is changing, let the store cleaner just overwrite.
     // If the K/V mapping is new, let the store cleaner just create
     if( old != null && val == null ) old.removePersist(); // Remove the old guy
+    if( old != null && val != null && old != val ) old.releaseOffHeap(); // Replaced; give back the off-heap budget
     if( val != null ) {
       Cleaner.dirty_store(); // Start storing the new guy
       if( old==null ) Scope.track_internal(key); // New Key - start tracking
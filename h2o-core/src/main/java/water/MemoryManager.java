@@ -2,12 +2,15 @@ package water;
 
 import jsr166y.ForkJoinPool;
 import jsr166y.ForkJoinPool.ManagedBlocker;
+import water.util.CompressionFactory;
 import water.util.Log;
 import water.util.PrettyPrint;
 
 import javax.management.Notification;
 import javax.management.NotificationEmitter;
+import java.io.IOException;
 import java.lang.management.*;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -80,7 +83,7 @@ abstract public class MemoryManager {
     // NO LOGGING UNDER LOCK!
     Log.warn("Pausing to swap to disk; more memory may help");
   }
-  static boolean canAlloc() { return CAN_ALLOC; }
+  public static boolean canAlloc() { return CAN_ALLOC; }
 
   static void set_goals( String msg, boolean oom){
     set_goals(msg, oom, 0);
@@ -314,6 +317,97 @@ abstract public class MemoryManager {
   public static float  [] arrayCopyOf( float [] orig, int sz) { return arrayCopyOfRange(orig,0,sz); }
   public static double [] arrayCopyOf( double[] orig, int sz) { return arrayCopyOfRange(orig,0,sz); }
 
+  // Off-heap tier for cold Chunk payloads: direct ByteBuffers living outside
+  // the Java heap, so they are never scanned nor copied by the GC.  The
+  // Cleaner moves cold Chunks here before considering the disk.  Bounded by
+  // MEM_OFFHEAP_MAX bytes; zero (the default) turns the tier off.  Direct
+  // memory is also bounded by the JVM's -XX:MaxDirectMemorySize.
+  static volatile long MEM_OFFHEAP_MAX = Long.parseLong(H2O.getSysProperty("mem.offheap.maxMB", "0")) << 20;
+  private static final AtomicLong _offHeapUsed = new AtomicLong();
+
+  static boolean offHeapEnabled() { return MEM_OFFHEAP_MAX > 0; }
+  /** Bytes currently held in the off-heap tier */
+  public static long offHeapUsed() { return _offHeapUsed.get(); }
+
+  /**
+   * Copy the given bytes into a fresh off-heap buffer.
+   *
+   * @param mem - bytes to copy
+   * @return a read-only direct buffer holding a copy of mem, or null if the
+   * off-heap tier is disabled or full
+   */
+  static ByteBuffer mallocOffHeap(byte[] mem) {
+    final int len = mem.length;
+    if( _offHeapUsed.addAndGet(len) > MEM_OFFHEAP_MAX ) {
+      _offHeapUsed.addAndGet(-len);
+      return null;
+    }
+    try {
+      ByteBuffer bb = ByteBuffer.allocateDirect(len);
+      bb.put(mem).flip();
+      return bb.asReadOnlyBuffer();
+    } catch( OutOfMemoryError e ) { // Hit -XX:MaxDirectMemorySize; just stop using the tier
+      _offHeapUsed.addAndGet(-len);
+      return null;
+    }
+  }
+
+  /**
+   * Account for an off-heap buffer which is no longer referenced.  The
+   * native memory itself is reclaimed when the GC collects the buffer, so
+   * racing readers still holding it remain safe.
+   * @param bb - buffer previously returned from mallocOffHeap
+   */
+  static void freeOffHeap(ByteBuffer bb) {
+    _offHeapUsed.addAndGet(-bb.capacity());
+  }
+
+  // Compressed in-memory tier for cold Chunks: before considering the disk,
+  // the Cleaner replaces the heap copy of a cold Chunk with a compressed one.
+  // The codec is any name accepted by CompressionFactory (eg "gzip", or the
+  // class name of an LZ4/Zstd OutputStream); unset (the default) turns the
+  // tier off.
+  static volatile CompressionFactory MEM_COMPRESSION = makeMemCompression(H2O.getSysProperty("mem.compression", null));
+  // Keep compressed copies only if they save at least 1/4 of the bytes
+  private static final int MIN_COMPRESSION_SAVINGS_SHIFT = 2;
+
+  static CompressionFactory makeMemCompression(String codec) {
+    if( codec == null ) return null;
+    try {
+      CompressionFactory cf = CompressionFactory.make(codec);
+      cf.decompress(cf.compress(new byte[1]), 1); // Also check we can decompress
+      return cf;
+    } catch( IOException | RuntimeException e ) {
+      Log.warn("In-memory compression '"+codec+"' is not available, compressed memory tier disabled: "+e);
+      return null;
+    }
+  }
+
+  static boolean compressionEnabled() { return MEM_COMPRESSION != null; }
+
+  /**
+   * Compress bytes for the compressed in-memory tier.
+   * @param mem - bytes to compress
+   * @return compressed bytes, or null if disabled, failed or not worth it
+   */
+  static byte[] compress(byte[] mem) {
+    CompressionFactory cf = MEM_COMPRESSION;
+    if( cf == null ) return null;
+    try {
+      byte[] z = cf.compress(mem);
+      return z.length <= mem.length - (mem.length >> MIN_COMPRESSION_SAVINGS_SHIFT) ? z : null;
+    } catch( IOException e ) {
+      Log.debug("Compression of a cold Value failed: "+e);
+      return null;
+    }
+  }
+
+  static byte[] decompress(byte[] z, int len) {
+    try {
+      return MEM_COMPRESSION.decompress(z, len);
+    } catch( IOException e ) { throw Log.throwErr(e); }
+  }
+
   // Memory available for tasks (we assume 3/4 of the heap is available for tasks)
   static final AtomicLong _taskMem = new AtomicLong(MEM_MAX-(MEM_MAX>>2));
 
@@ -1,6 +1,7 @@
 package water;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import jsr166y.ForkJoinPool;
@@ -79,6 +80,40 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
   private volatile byte[] _mem;
   final byte[] rawMem() { return _mem; }
 
+  // ---
+  // An off-heap copy of the _mem array, or NULL.  Filled in by the Cleaner for
+  // cold Chunks (see MemoryManager.mallocOffHeap), so the heap copy can be
+  // dropped without any disk i/o.  Like the disk copy it is immutable and
+  // stays valid until the Value is removed.
+  private transient volatile ByteBuffer _offHeap;
+  private static final AtomicReferenceFieldUpdater<Value,ByteBuffer> OFFHEAP_UPDATER =
+    AtomicReferenceFieldUpdater.newUpdater(Value.class,ByteBuffer.class, "_offHeap");
+  // The same buffer while it is charged to the MemoryManager off-heap budget.
+  // Whoever clears it gives the bytes back, so the budget is returned exactly
+  // once - when the Value is removed or replaced in the K/V store.
+  private transient volatile ByteBuffer _offHeapCharged;
+  private static final AtomicReferenceFieldUpdater<Value,ByteBuffer> OFFHEAP_CHARGED_UPDATER =
+    AtomicReferenceFieldUpdater.newUpdater(Value.class,ByteBuffer.class, "_offHeapCharged");
+  // Set once the Value is removed or replaced; no new off-heap copies after that
+  private transient volatile boolean _offHeapClosed;
+  /** Check if the backing byte[] has a copy in the off-heap tier */
+  public final boolean isOffHeap() { return _offHeap != null; }
+
+  // ---
+  // A compressed copy of the _mem array, or NULL.  Filled in by the Cleaner
+  // for cold Chunks (see MemoryManager.compress), letting them stay in RAM at
+  // a fraction of their size instead of going to disk.  Immutable like _mem.
+  private transient volatile byte[] _memZ;
+  final byte[] rawCompressed() { return _memZ; }
+  /** Check if the backing byte[] has a compressed in-memory copy */
+  public final boolean isCompressed() { return _memZ != null; }
+  /** Invalidate the compressed copy.  Only used when the Value can be had
+   *  some other way. */
+  final void freeCompressed() {
+    assert isPersisted() || _pojo != null || _mem != null || _offHeap != null || !_key.home();
+    _memZ = null;
+  }
+
   // ---
   // A POJO version of the _mem array, or null if the _mem has not been
   // serialized or if _mem is primitive data and not a POJO.  Cleared to null
@@ -93,6 +128,8 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
   //   disk and/or the byte array back to it's original form, losing your changes.
   private volatile Freezable _pojo;
   Freezable rawPOJO() { return _pojo; }
+  /** Check if the Value is available without any (disk/remote) i/o */
+  public final boolean isInMemory() { return _mem != null || _pojo != null || _memZ != null || _offHeap != null; }
 
   /** Invalidate byte[] cache.  Only used to eagerly free memory, for data
    *  which is expected to be read-once. */
@@ -103,7 +140,7 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
   /** Invalidate POJO cache.  Only used to eagerly free memory, for data
    *  which is expected to be read-once. */
   public final void freePOJO() {
-    assert isPersisted() || _mem != null;
+    assert isPersisted() || _mem != null || _offHeap != null || _memZ != null;
     _pojo = null;
   }
 
@@ -117,11 +154,17 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
     if( pojo != null )          // Has the POJO, make raw bytes
       return _mem = pojo.asBytes();
     if( _max == 0 ) return (_mem = new byte[0]);
+    byte[] z = _memZ;           // Read once!
+    if( z != null )             // Has a compressed copy, no disk i/o needed
+      return (_mem = MemoryManager.decompress(z,_max));
+    ByteBuffer off = _offHeap;  // Read once!
+    if( off != null )           // Has an off-heap copy, no disk i/o needed
+      return (_mem = loadOffHeap(off));
     return (_mem = loadPersist());
   }
   // Just an empty shell of a Value, no local data but the Value is "real".
   // Any attempt to look at the Value will require a remote fetch.
-  final boolean isEmpty() { return _max > 0 && _mem==null && _pojo == null && !isPersisted(); }
+  final boolean isEmpty() { return _max > 0 && _mem==null && _pojo == null && _offHeap == null && _memZ == null && !isPersisted(); }
 
   /** The FAST path get-POJO as an {@link Iced} subclass - final method for
    *  speed.  Will (re)build the POJO from the _mem array.  Never returns NULL.
@@ -157,7 +200,16 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
   // ---
   // Time of last access to this value.
   transient long _lastAccessedTime = System.currentTimeMillis();
-  private void touch() {_lastAccessedTime = System.currentTimeMillis();}
+  // Number of accesses, for frequency-aware eviction; racy and approximate.
+  transient int _touches;
+  private void touch() {
+    _lastAccessedTime = System.currentTimeMillis();
+    if( _touches < Integer.MAX_VALUE ) _touches++;
+  }
+  /** Time of last access, for {@link EvictionPolicy} implementations */
+  public final long lastAccessedTime() { return _lastAccessedTime; }
+  /** Approximate number of accesses, for {@link EvictionPolicy} implementations */
+  public final int touches() { return _touches; }
   // Exposed and used for testing only; used to trigger premature cleaning/disk-swapping
   void touchAt(long time) {_lastAccessedTime = time;}
 
@@ -224,6 +276,7 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
     // 01       double delete; do nothing
     // 10 -> 11 delete
     // 11       double delete; do nothing
+    freeOffHeap();              // Racing gets holding the buffer can still read it
     if( !onICE() ) return;      // Wrong filestore?
     if( isDeleted() ) return;   // Already deleted?
     setDel();                   // Set del bit BEFORE testing isPersist
@@ -244,6 +297,59 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
     } catch( IOException ioe ) { throw Log.throwErr(ioe); }
   }
 
+  /** Copy the serialized form of this Value into the off-heap tier.  Only
+   *  the Cleaner calls this.
+   *  @return true if the Value now has an off-heap copy, false if the tier is
+   *  disabled or full */
+  boolean storeOffHeap() {
+    if( _offHeap != null ) return true;
+    if( _offHeapClosed || isDeleted() ) return false;
+    ByteBuffer bb = MemoryManager.mallocOffHeap(memOrLoad());
+    if( bb == null ) return false;
+    if( !OFFHEAP_UPDATER.compareAndSet(this,null,bb) ) {
+      MemoryManager.freeOffHeap(bb); // Lost the race, another copy is charged
+      return true;
+    }
+    _offHeapCharged = bb;
+    if( _offHeapClosed ) releaseOffHeap(); // Check AFTER charging; close race with a removing or replacing thread
+    return true;
+  }
+
+  /** Keep a compressed copy of the serialized form of this Value.  Only the
+   *  Cleaner calls this.
+   *  @return true if the Value now has a compressed copy, false if the tier
+   *  is disabled or the data does not compress well */
+  boolean storeCompressed() {
+    if( _memZ != null ) return true;
+    byte[] z = MemoryManager.compress(memOrLoad());
+    if( z == null ) return false;
+    _memZ = z;
+    return true;
+  }
+
+  // The Value is removed: drop the off-heap copy and return its budget
+  private void freeOffHeap() {
+    _offHeapClosed = true;
+    _offHeap = null;
+    releaseOffHeap();
+  }
+
+  /** The Value was replaced in the K/V store: return the off-heap budget.
+   *  The buffer itself stays readable for racing gets still holding this
+   *  Value, the GC reclaims it together with the Value. */
+  final void releaseOffHeap() {
+    _offHeapClosed = true;
+    ByteBuffer bb = _offHeapCharged;
+    if( bb != null && OFFHEAP_CHARGED_UPDATER.compareAndSet(this,bb,null) )
+      MemoryManager.freeOffHeap(bb);
+  }
+
+  private byte[] loadOffHeap(ByteBuffer off) {
+    byte[] mem = MemoryManager.malloc1(_max);
+    off.duplicate().get(mem); // Private position, racing loads do not interfere
+    return mem;
+  }
+
   String nameOfPersist() { return nameOfPersist(backend()); }
   /** One of ICE, HDFS, S3, GCS, NFS or TCP, according to where this Value is persisted.
    *  @return Short String of the persitance name */
@@ -46,6 +46,12 @@ class ParseHandler extends Handler {
             && ((setup.getSkippedColumns() != null) && (setup.getSkippedColumns().length >0)))
       throw new H2OIllegalArgumentException("Parser: skipped_columns are not supported for SVMlight or Avro parsers.");
 
+    if (parse.row_filter != null && parse.row_filter.length > 0) {
+      if (!setup.getParseType().name().equalsIgnoreCase("parquet"))
+        throw new H2OIllegalArgumentException("Parser: row_filter is only supported by the Parquet parser.");
+      setup.setRowFilter(RowFilter.parse(parse.row_filter));
+    }
+
     if (setup.getSkippedColumns() !=null &&
             ((setup.get_parse_columns_indices()==null) || (setup.get_parse_columns_indices().length==0)))
       throw new H2OIllegalArgumentException("Parser:  all columns in the file are skipped and no H2OFrame" +
@@ -38,6 +38,10 @@ public class ParseV3 extends RequestSchemaV3<Iced, ParseV3> {
   @API(help="Skipped columns indices", direction=API.Direction.INOUT)
   public int[] skipped_columns;
 
+  @API(help="Row filter conditions 'column op value' (op is one of < <= > >= == !=), all of them have to match; " +
+          "only supported by the Parquet parser", direction=API.Direction.INPUT)
+  public String[] row_filter;
+
   @API(help="Domains for categorical columns")
   public String[][] domains;
 
@@ -2,6 +2,8 @@ package water.fvec;
 
 import water.util.UnsafeUtils;
 
+import java.util.Arrays;
+
 /**
  * The constant 'long' column.
  */
@@ -40,6 +42,15 @@ public class C0LChunk extends Chunk {
     return _len;
   }
 
+  @Override public double [] getDoubles(double [] vals, int from, int to, double NA){
+    Arrays.fill(vals,0,to-from,_con);
+    return vals;
+  }
+  @Override public long [] getLongs(long [] vals, int from, int to, long NA){
+    Arrays.fill(vals,0,to-from,_con);
+    return vals;
+  }
+
   @Override
   public <T extends ChunkVisitor> T processRows(T v, int from, int to){
     if(_con == 0)
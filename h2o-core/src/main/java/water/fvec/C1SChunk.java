@@ -56,6 +56,10 @@ public final class C1SChunk extends CSChunk {
    */
   @Override
   public double [] getDoubles(double [] vals, int from, int to, double NA){
+    for(int i = from; i < to; ++i)
+      vals[i-from] = 0xFF&_mem[_OFF+i];
+    if(scaleInPlace(vals,to-from,C1Chunk._NA,NA))
+      return vals;
     for(int i = from; i < to; ++i)
       vals[i-from] = getD(0xFF&_mem[_OFF+i],C1Chunk._NA,NA);
     return vals;
@@ -57,6 +57,14 @@ public class C2Chunk extends Chunk {
     return vals;
   }
 
+  @Override public long [] getLongs(long [] vals, int from, int to, long NA){
+    for(int i = from; i < to; i++) {
+      int x = UnsafeUtils.get2(_mem, 2*i);
+      vals[i-from] = (x == _NA)?NA:x;
+    }
+    return vals;
+  }
+
   @Override
   public int [] getIntegers(int [] vals, int from, int to, int NA){
     for(int i = from; i < to; i++) {
@@ -51,6 +51,10 @@ public class C2SChunk extends CSChunk {
   @Override boolean setNA_impl(int idx) {setMantissa(idx,(short)C2Chunk._NA); return true; }
 
   @Override public double [] getDoubles(double [] vals, int from, int to, double NA){
+    for(int i = from; i < to; i++)
+      vals[i-from] = getMantissa(i);
+    if(scaleInPlace(vals,to-from,C2Chunk._NA,NA))
+      return vals;
     for(int i = from; i < to; i++)
       vals[i-from] = getD(getMantissa(i),C2Chunk._NA,NA);
     return vals;
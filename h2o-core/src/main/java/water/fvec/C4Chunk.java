@@ -69,6 +69,14 @@ public class C4Chunk extends Chunk {
     return vals;
   }
 
+  @Override public long [] getLongs(long [] vals, int from, int to, long NA){
+    for(int i = from; i < to; i++) {
+      int x = UnsafeUtils.get4(_mem, 4*i);
+      vals[i-from] = (x == _NA)?NA:x;
+    }
+    return vals;
+  }
+
   @Override public int [] getIntegers(int [] vals, int from, int to, int NA){
     for(int i = from; i < to; i++) {
       int x = UnsafeUtils.get4(_mem, 4*i);
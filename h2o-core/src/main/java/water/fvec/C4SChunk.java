@@ -43,6 +43,10 @@ public class C4SChunk extends CSChunk {
   @Override boolean setNA_impl(int idx) {setMantissa(idx,C4Chunk._NA); return true; }
 
   @Override public double [] getDoubles(double [] vals, int from, int to, double NA){
+    for(int i = from; i < to; i++)
+      vals[i-from] = getMantissa(i);
+    if(scaleInPlace(vals,to-from,C4Chunk._NA,NA))
+      return vals;
     for(int i = from; i < to; i++)
       vals[i-from] = getD(getMantissa(i),C4Chunk._NA,NA);
     return vals;
@@ -0,0 +1,140 @@
+package water.fvec;
+
+import water.util.UnsafeUtils;
+
+/**
+ * The small-dictionary-compression function, for columns with few distinct
+ * values spread over a range too wide for a narrow fixed-width encoding: the
+ * distinct values are stored once and each row holds a 1-byte index.
+ * Values are stored as longs (NA is {@link C8Chunk#_NA}) for integer data, or
+ * as double bits (NA is NaN) otherwise.  See also {@link CUDChunk}.
+ * <p>
+ * Layout: len (4), number of values (4), flags (4), values (8 per value),
+ * row indices (1 per row).
+ */
+public class CDictChunk extends Chunk {
+  static final int _OFF = 4 + 4 + 4;
+  public static final int MAX_VALUES = 256;
+  private static final int FLAG_DOUBLE = 1;
+  private transient int _nvals;
+  private transient boolean _isDouble;
+
+  public static int computeByteSize(int values, int len) { return _OFF + (values << 3) + len; }
+
+  CDictChunk() {}
+  /**
+   * @param dict distinct values, as long or as raw double bits
+   * @param idx index into dict for each row
+   */
+  CDictChunk(int len, int nvals, long[] dict, byte[] idx, boolean isDouble) {
+    assert nvals <= MAX_VALUES;
+    _mem = new byte[computeByteSize(nvals, len)];
+    _start = -1;
+    set_len(len);
+    _nvals = nvals;
+    _isDouble = isDouble;
+    UnsafeUtils.set4(_mem, 0, len);
+    UnsafeUtils.set4(_mem, 4, nvals);
+    UnsafeUtils.set4(_mem, 8, isDouble ? FLAG_DOUBLE : 0);
+    for (int j = 0; j < nvals; ++j)
+      UnsafeUtils.set8(_mem, _OFF + (j << 3), dict[j]);
+    System.arraycopy(idx, 0, _mem, idxOff(), len);
+  }
+
+  private int idxOff() { return _OFF + (_nvals << 3); }
+  private long bits(int i) { return UnsafeUtils.get8(_mem, _OFF + ((0xFF & _mem[idxOff() + i]) << 3)); }
+
+  private boolean isNA(long bits) {
+    return _isDouble ? Double.isNaN(Double.longBitsToDouble(bits)) : bits == C8Chunk._NA;
+  }
+
+  @Override public boolean hasFloat() { return _isDouble; }
+
+  @Override protected final long at8_impl(int i) {
+    long bits = bits(i);
+    if (isNA(bits)) throw new IllegalArgumentException("at8_abs but value is missing");
+    return _isDouble ? (long) Double.longBitsToDouble(bits) : bits;
+  }
+  @Override protected final double atd_impl(int i) {
+    long bits = bits(i);
+    if (_isDouble) return Double.longBitsToDouble(bits);
+    return bits == C8Chunk._NA ? Double.NaN : bits;
+  }
+  @Override protected final boolean isNA_impl(int i) { return isNA(bits(i)); }
+
+  // Writes succeed only for values already in the dictionary
+  private boolean setBits(int i, long bits) {
+    for (int j = 0; j < _nvals; ++j)
+      if (UnsafeUtils.get8(_mem, _OFF + (j << 3)) == bits) {
+        _mem[idxOff() + i] = (byte) j;
+        return true;
+      }
+    return false;
+  }
+  @Override boolean set_impl(int idx, long l) {
+    if (_isDouble) return (double) l == l && set_impl(idx, (double) l);
+    return l != C8Chunk._NA && setBits(idx, l);
+  }
+  @Override boolean set_impl(int i, double d) {
+    if (Double.isNaN(d)) return setNA_impl(i);
+    if (_isDouble) return setBits(i, Double.doubleToLongBits(d));
+    return (long) d == d && setBits(i, (long) d);
+  }
+  @Override boolean set_impl(int i, float f) { return set_impl(i, (double) f); }
+  @Override boolean setNA_impl(int idx) {
+    return setBits(idx, _isDouble ? Double.doubleToLongBits(Double.NaN) : C8Chunk._NA);
+  }
+
+  @Override public double[] getDoubles(double[] vals, int from, int to, double NA) {
+    final int off = idxOff();
+    if (_isDouble) {
+      for (int i = from; i < to; ++i) {
+        double d = Double.longBitsToDouble(UnsafeUtils.get8(_mem, _OFF + ((0xFF & _mem[off + i]) << 3)));
+        vals[i - from] = Double.isNaN(d) ? NA : d;
+      }
+    } else {
+      for (int i = from; i < to; ++i) {
+        long l = UnsafeUtils.get8(_mem, _OFF + ((0xFF & _mem[off + i]) << 3));
+        vals[i - from] = l == C8Chunk._NA ? NA : l;
+      }
+    }
+    return vals;
+  }
+
+  @Override public long[] getLongs(long[] vals, int from, int to, long NA) {
+    if (_isDouble) return super.getLongs(vals, from, to, NA);
+    final int off = idxOff();
+    for (int i = from; i < to; ++i) {
+      long l = UnsafeUtils.get8(_mem, _OFF + ((0xFF & _mem[off + i]) << 3));
+      vals[i - from] = l == C8Chunk._NA ? NA : l;
+    }
+    return vals;
+  }
+
+  private void processRow(ChunkVisitor v, int i) {
+    long bits = bits(i);
+    if (isNA(bits)) v.addNAs(1);
+    else if (_isDouble) v.addValue(Double.longBitsToDouble(bits));
+    else v.addValue(bits);
+  }
+
+  @Override
+  public <T extends ChunkVisitor> T processRows(T v, int from, int to) {
+    for (int i = from; i < to; ++i) processRow(v, i);
+    return v;
+  }
+
+  @Override
+  public <T extends ChunkVisitor> T processRows(T v, int[] ids) {
+    for (int i : ids) processRow(v, i);
+    return v;
+  }
+
+  @Override protected final void initFromBytes() {
+    _start = -1;  _cidx = -1;
+    set_len(UnsafeUtils.get4(_mem, 0));
+    _nvals = UnsafeUtils.get4(_mem, 4);
+    _isDouble = (UnsafeUtils.get4(_mem, 8) & FLAG_DOUBLE) != 0;
+    assert _mem.length == computeByteSize(_nvals, _len);
+  }
+}
@@ -0,0 +1,201 @@
+package water.fvec;
+
+import water.util.UnsafeUtils;
+
+/**
+ * The frame-of-reference-compression function, for integer columns whose
+ * values are close to their neighbours, such as monotonic timestamps or
+ * counters.  Rows are split in blocks of {@link #BLOCK} rows; each block
+ * stores its minimum once and every row as its unsigned offset from that
+ * minimum, bit-packed with just as many bits as the block's range needs.
+ * A column of nanosecond timestamps ~1us apart needs ~16 bits a row instead
+ * of 64, while any row can still be read in constant time.
+ * <p>
+ * If a block has missing values, its all-ones offset marks them.
+ * <p>
+ * Layout: len (4), number of blocks (4), then per block a 16 byte header:
+ * minimum (8), data offset (4), bits per row (1), flags (1), padding (2);
+ * then the packed data of all blocks, as 8-byte words.
+ */
+public class CFORChunk extends Chunk {
+  static final int _OFF = 4 + 4;
+  static final int LOG_BLOCK = 6;
+  static final int BLOCK = 1 << LOG_BLOCK;
+  private static final int HDR = 16;
+  private static final int FLAG_NA = 1;
+  private transient int _nblocks;
+
+  /** Bits per row needed for a block with the given range of values */
+  static int width(long min, long max, boolean hasNA) {
+    long range = max - min;       // Unsigned
+    if( hasNA ) range++;          // The all-ones offset is the NA
+    return 64 - Long.numberOfLeadingZeros(range);
+  }
+  /** Bytes needed for the header and data of a block */
+  static int blockBytes(int rows, int width) { return HDR + (((rows * width) + 63) >>> 6 << 3); }
+
+  CFORChunk() {}
+  /**
+   * @param vals values of all rows, with {@link C8Chunk#_NA} for missing ones
+   */
+  CFORChunk(long[] vals, int len) {
+    _start = -1;
+    set_len(len);
+    _nblocks = (len + BLOCK - 1) >>> LOG_BLOCK;
+    long[] mins = new long[_nblocks];
+    int[] widths = new int[_nblocks];
+    boolean[] nas = new boolean[_nblocks];
+    int bytes = _OFF;
+    for( int b = 0; b < _nblocks; ++b ) {
+      int from = b << LOG_BLOCK, to = Math.min(from + BLOCK, len);
+      long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+      for( int i = from; i < to; ++i ) {
+        long l = vals[i];
+        if( l == C8Chunk._NA ) { nas[b] = true; continue; }
+        if( l < min ) min = l;
+        if( l > max ) max = l;
+      }
+      if( min > max ) min = max = 0; // All NAs
+      mins[b] = min;
+      widths[b] = width(min, max, nas[b]);
+      bytes += blockBytes(to - from, widths[b]);
+    }
+    _mem = new byte[bytes];
+    UnsafeUtils.set4(_mem, 0, len);
+    UnsafeUtils.set4(_mem, 4, _nblocks);
+    int off = 0;
+    for( int b = 0; b < _nblocks; ++b ) {
+      int hdr = _OFF + b * HDR, w = widths[b];
+      UnsafeUtils.set8(_mem, hdr, mins[b]);
+      UnsafeUtils.set4(_mem, hdr + 8, off);
+      _mem[hdr + 12] = (byte) w;
+      _mem[hdr + 13] = (byte) (nas[b] ? FLAG_NA : 0);
+      int from = b << LOG_BLOCK, to = Math.min(from + BLOCK, len);
+      int data = dataOff(off);
+      for( int i = from; i < to; ++i )
+        pack(data, (i - from) * w, w, vals[i] == C8Chunk._NA ? mask(w) : vals[i] - mins[b]);
+      off += blockBytes(to - from, w) - HDR;
+    }
+  }
+
+  private int dataOff(int off) { return _OFF + _nblocks * HDR + off; }
+  private static long mask(int w) { return w == 64 ? -1L : (1L << w) - 1; }
+
+  private void pack(int data, int bit, int w, long code) {
+    if( w == 0 ) return;
+    int word = data + ((bit >>> 6) << 3), sh = bit & 63;
+    long m = mask(w);
+    UnsafeUtils.set8(_mem, word, (UnsafeUtils.get8(_mem, word) & ~(m << sh)) | (code << sh));
+    if( sh + w > 64 ) {
+      int word2 = word + 8;
+      long m2 = m >>> (64 - sh);
+      UnsafeUtils.set8(_mem, word2, (UnsafeUtils.get8(_mem, word2) & ~m2) | (code >>> (64 - sh)));
+    }
+  }
+
+  private long unpack(int data, int bit, int w) {
+    if( w == 0 ) return 0;
+    int word = data + ((bit >>> 6) << 3), sh = bit & 63;
+    long v = UnsafeUtils.get8(_mem, word) >>> sh;
+    if( sh + w > 64 ) v |= UnsafeUtils.get8(_mem, word + 8) << (64 - sh);
+    return v & mask(w);
+  }
+
+  private int hdr(int i) { return _OFF + (i >>> LOG_BLOCK) * HDR; }
+  private int width(int hdr) { return 0xFF & _mem[hdr + 12]; }
+  private boolean hasNA(int hdr) { return (_mem[hdr + 13] & FLAG_NA) != 0; }
+  private long code(int hdr, int i) {
+    int w = width(hdr);
+    return unpack(dataOff(UnsafeUtils.get4(_mem, hdr + 8)), (i & (BLOCK - 1)) * w, w);
+  }
+  private boolean isNA(int hdr, long code) { return hasNA(hdr) && code == mask(width(hdr)); }
+
+  @Override public boolean hasFloat() { return false; }
+
+  @Override protected final long at8_impl(int i) {
+    int hdr = hdr(i);
+    long code = code(hdr, i);
+    if( isNA(hdr, code) ) throw new IllegalArgumentException("at8_abs but value is missing");
+    return UnsafeUtils.get8(_mem, hdr) + code;
+  }
+  @Override protected final double atd_impl(int i) {
+    int hdr = hdr(i);
+    long code = code(hdr, i);
+    return isNA(hdr, code) ? Double.NaN : UnsafeUtils.get8(_mem, hdr) + code;
+  }
+  @Override protected final boolean isNA_impl(int i) { int hdr = hdr(i); return isNA(hdr, code(hdr, i)); }
+
+  // Writes succeed if the value fits the block's range
+  @Override boolean set_impl(int i, long l) {
+    int hdr = hdr(i), w = width(hdr);
+    long code = l - UnsafeUtils.get8(_mem, hdr);
+    long max = hasNA(hdr) ? mask(w) - 1 : mask(w);
+    if( l == C8Chunk._NA || Long.compareUnsigned(code, max) > 0 ) return false;
+    pack(dataOff(UnsafeUtils.get4(_mem, hdr + 8)), (i & (BLOCK - 1)) * w, w, code);
+    return true;
+  }
+  @Override boolean set_impl(int i, double d) {
+    if( Double.isNaN(d) ) return setNA_impl(i);
+    return (long) d == d && set_impl(i, (long) d);
+  }
+  @Override boolean set_impl(int i, float f) { return set_impl(i, (double) f); }
+  @Override boolean setNA_impl(int i) {
+    int hdr = hdr(i), w = width(hdr);
+    if( !hasNA(hdr) ) return false;
+    pack(dataOff(UnsafeUtils.get4(_mem, hdr + 8)), (i & (BLOCK - 1)) * w, w, mask(w));
+    return true;
+  }
+
+  @Override public double[] getDoubles(double[] vals, int from, int to, double NA) {
+    for( int i = from; i < to; ) {
+      int hdr = hdr(i), w = width(hdr), end = Math.min(((i >>> LOG_BLOCK) + 1) << LOG_BLOCK, to);
+      int data = dataOff(UnsafeUtils.get4(_mem, hdr + 8));
+      long min = UnsafeUtils.get8(_mem, hdr), na = mask(w);
+      boolean hasNA = hasNA(hdr);
+      for( ; i < end; ++i ) {
+        long code = unpack(data, (i & (BLOCK - 1)) * w, w);
+        vals[i - from] = hasNA && code == na ? NA : min + code;
+      }
+    }
+    return vals;
+  }
+
+  @Override public long[] getLongs(long[] vals, int from, int to, long NA) {
+    for( int i = from; i < to; ) {
+      int hdr = hdr(i), w = width(hdr), end = Math.min(((i >>> LOG_BLOCK) + 1) << LOG_BLOCK, to);
+      int data = dataOff(UnsafeUtils.get4(_mem, hdr + 8));
+      long min = UnsafeUtils.get8(_mem, hdr), na = mask(w);
+      boolean hasNA = hasNA(hdr);
+      for( ; i < end; ++i ) {
+        long code = unpack(data, (i & (BLOCK - 1)) * w, w);
+        vals[i - from] = hasNA && code == na ? NA : min + code;
+      }
+    }
+    return vals;
+  }
+
+  private void processRow(ChunkVisitor v, int i) {
+    int hdr = hdr(i);
+    long code = code(hdr, i);
+    if( isNA(hdr, code) ) v.addNAs(1);
+    else v.addValue(UnsafeUtils.get8(_mem, hdr) + code);
+  }
+
+  @Override
+  public <T extends ChunkVisitor> T processRows(T v, int from, int to) {
+    for( int i = from; i < to; ++i ) processRow(v, i);
+    return v;
+  }
+
+  @Override
+  public <T extends ChunkVisitor> T processRows(T v, int[] ids) {
+    for( int i : ids ) processRow(v, i);
+    return v;
+  }
+
+  @Override protected final void initFromBytes() {
+    _start = -1;  _cidx = -1;
+    set_len(UnsafeUtils.get4(_mem, 0));
+    _nblocks = UnsafeUtils.get4(_mem, 4);
+  }
+}
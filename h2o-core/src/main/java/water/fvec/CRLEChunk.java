@@ -0,0 +1,145 @@
+package water.fvec;
+
+import water.util.UnsafeUtils;
+
+import java.util.Arrays;
+
+/**
+ * The run-length-compression function, for sorted or otherwise repetitive
+ * columns: each run of equal values is stored once, with its starting row.
+ * Values are stored as longs (NA is {@link C8Chunk#_NA}) for integer data, or
+ * as double bits (NA is NaN) otherwise.
+ * <p>
+ * Layout: len (4), number of runs (4), flags (4), run start rows (4 per run),
+ * run values (8 per run).
+ */
+public class CRLEChunk extends Chunk {
+  static final int _OFF = 4 + 4 + 4;
+  private static final int FLAG_DOUBLE = 1;
+  private transient int _nruns;
+  private transient boolean _isDouble;
+  private transient int _lastRun; // Run of the last random access; a racy hint only
+
+  public static int computeByteSize(int runs) { return _OFF + runs * (4 + 8); }
+
+  CRLEChunk() {}
+  /**
+   * @param starts first row of each run, in increasing order, starts[0] == 0
+   * @param vals value of each run, as long or as raw double bits
+   */
+  CRLEChunk(int len, int runs, int[] starts, long[] vals, boolean isDouble) {
+    _mem = new byte[computeByteSize(runs)];
+    _start = -1;
+    set_len(len);
+    _nruns = runs;
+    _isDouble = isDouble;
+    UnsafeUtils.set4(_mem, 0, len);
+    UnsafeUtils.set4(_mem, 4, runs);
+    UnsafeUtils.set4(_mem, 8, isDouble ? FLAG_DOUBLE : 0);
+    for (int r = 0; r < runs; ++r) {
+      UnsafeUtils.set4(_mem, _OFF + (r << 2), starts[r]);
+      UnsafeUtils.set8(_mem, valOff(r), vals[r]);
+    }
+  }
+
+  private int runStart(int r) { return r == _nruns ? _len : UnsafeUtils.get4(_mem, _OFF + (r << 2)); }
+  private int valOff(int r) { return _OFF + (_nruns << 2) + (r << 3); }
+  private long bits(int r) { return UnsafeUtils.get8(_mem, valOff(r)); }
+
+  private boolean isNA(long bits) {
+    return _isDouble ? Double.isNaN(Double.longBitsToDouble(bits)) : bits == C8Chunk._NA;
+  }
+  private double value(long bits, double NA) {
+    if (_isDouble) {
+      double d = Double.longBitsToDouble(bits);
+      return Double.isNaN(d) ? NA : d;
+    }
+    return bits == C8Chunk._NA ? NA : bits;
+  }
+
+  // Run holding row i: checks the last run used first, as rows are mostly
+  // read in order, then binary-searches the run starts
+  private int run(int i) {
+    int r = _lastRun;
+    if (r < _nruns && runStart(r) <= i && i < runStart(r + 1)) return r;
+    if (r + 1 < _nruns && runStart(r + 1) <= i && i < runStart(r + 2)) return _lastRun = r + 1;
+    int lo = 0, hi = _nruns - 1;
+    while (lo < hi) {
+      int mid = (lo + hi + 1) >>> 1;
+      if (runStart(mid) <= i) lo = mid;
+      else hi = mid - 1;
+    }
+    return _lastRun = lo;
+  }
+
+  @Override public boolean hasFloat() { return _isDouble; }
+
+  @Override protected final long at8_impl(int i) {
+    long bits = bits(run(i));
+    if (isNA(bits)) throw new IllegalArgumentException("at8_abs but value is missing");
+    return _isDouble ? (long) Double.longBitsToDouble(bits) : bits;
+  }
+  @Override protected final double atd_impl(int i) { return value(bits(run(i)), Double.NaN); }
+  @Override protected final boolean isNA_impl(int i) { return isNA(bits(run(i))); }
+
+  // Changing a single row would split a run
+  @Override boolean set_impl(int idx, long l) { return false; }
+  @Override boolean set_impl(int i, double d) { return false; }
+  @Override boolean set_impl(int i, float f) { return false; }
+  @Override boolean setNA_impl(int idx) { return false; }
+
+  @Override public double[] getDoubles(double[] vals, int from, int to, double NA) {
+    for (int i = from, r = run(from); i < to; ++r) {
+      int end = Math.min(runStart(r + 1), to);
+      Arrays.fill(vals, i - from, end - from, value(bits(r), NA));
+      i = end;
+    }
+    return vals;
+  }
+
+  @Override public long[] getLongs(long[] vals, int from, int to, long NA) {
+    if (_isDouble) return super.getLongs(vals, from, to, NA);
+    for (int i = from, r = run(from); i < to; ++r) {
+      int end = Math.min(runStart(r + 1), to);
+      long bits = bits(r);
+      Arrays.fill(vals, i - from, end - from, bits == C8Chunk._NA ? NA : bits);
+      i = end;
+    }
+    return vals;
+  }
+
+  private void processRun(ChunkVisitor v, long bits, int n) {
+    if (isNA(bits)) v.addNAs(n);
+    else if (bits == 0) v.addZeros(n);
+    else if (_isDouble) {
+      double d = Double.longBitsToDouble(bits);
+      for (int k = 0; k < n; ++k) v.addValue(d);
+    } else
+      for (int k = 0; k < n; ++k) v.addValue(bits);
+  }
+
+  @Override
+  public <T extends ChunkVisitor> T processRows(T v, int from, int to) {
+    for (int i = from, r = run(from); i < to; ++r) {
+      int end = Math.min(runStart(r + 1), to);
+      processRun(v, bits(r), end - i);
+      i = end;
+    }
+    return v;
+  }
+
+  @Override
+  public <T extends ChunkVisitor> T processRows(T v, int[] ids) {
+    for (int i : ids)
+      processRun(v, bits(run(i)), 1);
+    return v;
+  }
+
+  @Override protected final void initFromBytes() {
+    _start = -1;  _cidx = -1;
+    set_len(UnsafeUtils.get4(_mem, 0));
+    _nruns = UnsafeUtils.get4(_mem, 4);
+    _isDouble = (UnsafeUtils.get4(_mem, 8) & FLAG_DOUBLE) != 0;
+    assert _mem.length == computeByteSize(_nruns);
+  }
+}
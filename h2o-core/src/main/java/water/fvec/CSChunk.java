@@ -54,6 +54,38 @@ public abstract class CSChunk extends Chunk {
 
   protected final long get8(int x) { return (_bias + x)*(long)(_scale); }
 
+  // Above 2^53 the bias is not exact as a double, and (_bias + x) must be
+  // summed as a long to match getD.
+  private static final long MAX_EXACT_BIAS = 1L << 53;
+
+  /**
+   * Bulk decode helper.  The caller has already copied the stored (unscaled)
+   * values of len rows into vals; rewrite them in place as getD would.
+   * <p>
+   * This keeps the decode in two flat loops without calls or loop-carried
+   * branches, one per scale direction, so that the JIT can unroll and use
+   * SIMD instructions where the CPU has them.  Returns false, leaving vals
+   * untouched, when the bias is too large for double arithmetic; callers
+   * then have to decode element by element.
+   */
+  protected final boolean scaleInPlace(double [] vals, int len, int NA, double naImpute){
+    final long lbias = _bias;
+    if( lbias >= MAX_EXACT_BIAS || lbias <= -MAX_EXACT_BIAS ) return false;
+    final double bias = lbias, scale = _scale, na = NA;
+    if( _isDecimal ) {
+      for( int i = 0; i < len; i++ ) {
+        double x = vals[i];
+        vals[i] = x == na ? naImpute : (bias + x)/scale;
+      }
+    } else {
+      for( int i = 0; i < len; i++ ) {
+        double x = vals[i];
+        vals[i] = x == na ? naImpute : (bias + x)*scale;
+      }
+    }
+    return true;
+  }
+
   @Override public final boolean hasFloat(){ return _isDecimal || _scale < 1; }
 
   @Override public final void initFromBytes () {
@@ -7,6 +7,7 @@ import water.util.UnsafeUtils;
 import water.parser.BufferedString;
 
 import java.util.Arrays;
+import java.util.function.Function;
 
 /**
  * The empty-compression function, where data is in 'string's.
@@ -16,6 +17,9 @@ public class CStrChunk extends Chunk {
   static protected final int _OFF=4+1;
   private int _valstart;
   public boolean _isAllASCII = false;
+  private boolean _isDictionary;
+  private static final byte FLAG_ASCII = 1;
+  private static final byte FLAG_DICTIONARY = 2;
 
   public CStrChunk() {}
 
@@ -28,7 +32,7 @@ public class CStrChunk extends Chunk {
     byte[] sBytes = StringUtils.bytesOf(s);
     sBytes = Arrays.copyOf(sBytes,sBytes.length+1);
     sBytes[sBytes.length-1] = 0;
-    init(sBytes.length, StringUtils.bytesOf(s),len,len,null,null);
+    init(sBytes.length, sBytes,len,len,null,null,true);
   }
 
   /**
@@ -41,10 +45,20 @@ public class CStrChunk extends Chunk {
    * @param is Index of strings - holds offsets into ss[]. is[i] == -1 means NA/sparse
    */
   public CStrChunk(int sslen, byte[] ss, int sparseLen, int idxLen, int[] id, int[] is) {
-    init(sslen,ss,sparseLen,idxLen,id,is);
+    this(sslen,ss,sparseLen,idxLen,id,is,false);
   }
 
-  private void init (int sslen, byte[] ss, int sparseLen, int idxLen, int[] id, int[] is) {
+  /**
+   * Empty-compression function, where data is in 'string's.
+   * @param isDictionary true if ss holds each distinct string exactly once,
+   *                     back to back, and rows only point to their starts
+   * @see #isDictionary()
+   */
+  public CStrChunk(int sslen, byte[] ss, int sparseLen, int idxLen, int[] id, int[] is, boolean isDictionary) {
+    init(sslen,ss,sparseLen,idxLen,id,is,isDictionary);
+  }
+
+  private void init (int sslen, byte[] ss, int sparseLen, int idxLen, int[] id, int[] is, boolean isDictionary) {
     _start = -1;
     _valstart = idx(idxLen);
     _len = idxLen;
@@ -63,7 +77,8 @@ public class CStrChunk extends Chunk {
         break;
       }
     }
-    UnsafeUtils.set1(_mem, 4, (byte) (_isAllASCII ? 1 : 0)); // isAllASCII flag
+    _isDictionary = isDictionary;
+    UnsafeUtils.set1(_mem, 4, (byte) ((_isAllASCII ? FLAG_ASCII : 0) | (_isDictionary ? FLAG_DICTIONARY : 0)));
   }
 
   private int idx(int i) { return _OFF+(i<<2); }
@@ -100,10 +115,87 @@ public class CStrChunk extends Chunk {
     _start = -1;  _cidx = -1;
     _valstart = UnsafeUtils.get4(_mem, 0);
     byte b = UnsafeUtils.get1(_mem,4);
-    _isAllASCII = b != 0;
+    _isAllASCII = (b & FLAG_ASCII) != 0;
+    _isDictionary = (b & FLAG_DICTIONARY) != 0;
     set_len((_valstart-_OFF)>>2);
   }
 
+  /**
+   * True if this chunk is dictionary-encoded: the string bytes hold every
+   * distinct value of the chunk exactly once, and rows with equal strings
+   * share the same offset, which then serves as the row's dictionary code.
+   * Operations can then work once per distinct value, see
+   * {@link #dictionaryOffsets()}.
+   */
+  public boolean isDictionary() { return _isDictionary; }
+
+  /**
+   * Offsets of the distinct strings of a dictionary-encoded chunk, in
+   * ascending order.  The dictionary index of row i is the position of
+   * {@code intAt(i)} in this array, e.g. found with
+   * {@link Arrays#binarySearch(int[], int)}.
+   */
+  public int[] dictionaryOffsets() {
+    assert _isDictionary;
+    int n = 0;
+    for (int i = _valstart; i < _mem.length; ++i)
+      if (_mem[i] == 0) n++;
+    int[] offs = new int[n];
+    for (int i = _valstart, k = 0, start = 0; i < _mem.length; ++i)
+      if (_mem[i] == 0) {
+        offs[k++] = start;
+        start = i - _valstart + 1;
+      }
+    return offs;
+  }
+
+  /**
+   * Dictionary index of each row of a dictionary-encoded chunk, -1 for NAs.
+   * @param offs the chunk's {@link #dictionaryOffsets()}
+   */
+  public int[] dictionaryCodes(int[] offs) {
+    int[] codes = new int[_len];
+    for (int i = 0; i < _len; ++i) {
+      int off = intAt(i);
+      codes[i] = off == NA ? -1 : Arrays.binarySearch(offs, off);
+    }
+    return codes;
+  }
+
+  /** The string at the given offset of the string bytes */
+  public BufferedString atOffset(BufferedString bStr, int off) {
+    return bStr.set(_mem,_valstart+off,lengthAtOffset(off));
+  }
+
+  /**
+   * Fills nc with fn applied to the string of each row, NAs stay NAs.  fn is
+   * called once per distinct string of a dictionary-encoded chunk, once per
+   * row otherwise.
+   *
+   * @param nc NewChunk to be filled with the mapped strings
+   * @param fn mapping of a string
+   * @return Filled NewChunk
+   */
+  public NewChunk mapStrings(NewChunk nc, Function<String,String> fn) {
+    BufferedString tmpStr = new BufferedString();
+    if (!_isDictionary) {
+      for (int i = 0; i < _len; i++) {
+        if (isNA(i)) nc.addNA();
+        else nc.addStr(fn.apply(atStr(tmpStr, i).toString()));
+      }
+      return nc;
+    }
+    int[] offs = dictionaryOffsets();
+    BufferedString[] mapped = new BufferedString[offs.length];
+    for (int j = 0; j < offs.length; j++)
+      mapped[j] = new BufferedString(fn.apply(atOffset(tmpStr, offs[j]).toString()));
+    for (int code : dictionaryCodes(offs)) {
+      if (code < 0) nc.addNA();
+      else nc.addStr(mapped[code]);
+    }
+    return nc;
+  }
+
   @Override public ChunkVisitor processRows(ChunkVisitor nc, int from, int to){
     BufferedString bs = new BufferedString();
     for(int i = from; i < to; i++)
@@ -173,6 +265,8 @@ public class CStrChunk extends Chunk {
    * @return Filled NewChunk
    */
   public NewChunk asciiTrim(NewChunk nc) {
+    // rows of a dictionary share their strings, the copy below would not be laid out like _mem
+    if (_isDictionary) return mapStrings(nc, String::trim);
     // copy existing data
     nc = this.extractRows(nc, 0,_len);
     //update offsets and byte array
@@ -205,6 +299,10 @@ public class CStrChunk extends Chunk {
    * @return Filled NewChunk
    */
   public NewChunk asciiSubstring(NewChunk nc, int startIndex, int endIndex) {
+    // rows of a dictionary share their strings, the copy below would not be laid out like _mem
+    if (_isDictionary)
+      return mapStrings(nc, str -> startIndex >= str.length() || endIndex <= startIndex ? "" :
+              str.substring(startIndex, Math.min(endIndex, str.length())));
     // copy existing data
     nc = this.extractRows(nc, 0,_len);
     //update offsets and byte array
@@ -3,6 +3,8 @@ package water.fvec;
 import water.H2O;
 import water.util.UnsafeUtils;
 
+import java.util.Arrays;
+
 // Sparse chunk.
 public class CXFChunk extends CXIChunk {
   protected CXFChunk(byte [] mem){
@@ -39,6 +41,21 @@ public class CXFChunk extends CXIChunk {
   public Chunk deepCopy() {return new CXFChunk(_mem.clone());}
 
 
+  @Override public double [] getDoubles(double [] vals, int from, int to, double NA){
+    Arrays.fill(vals,0,to-from,_isNA?NA:0);
+    for(int x = firstOffset(from); x < _mem.length; x += _elem_sz){
+      int id = getId(x);
+      if(id >= to) break;
+      double val = getVal(x);
+      vals[id-from] = Double.isNaN(val)?NA:val;
+    }
+    return vals;
+  }
+
+  @Override public long [] getLongs(long [] vals, int from, int to, long NA){
+    return processRows(new ChunkVisitor.LongAryVisitor(vals,NA),from,to).vals;
+  }
+
   @Override
   public <T extends ChunkVisitor> T processRows(T v, int from, int to){
     int prevId = from-1;
@@ -3,6 +3,8 @@ package water.fvec;
 import water.H2O;
 import water.util.UnsafeUtils;
 
+import java.util.Arrays;
+
 // Sparse chunk.
 public class CXIChunk extends Chunk {
   private static long [] _NAS = new long[]{-1/* not used, binary chunks can't have NAs */,/* not used*/-1,C2Chunk._NA,-1,C4Chunk._NA,-1,-1,-1,C8Chunk._NA};
@@ -157,6 +159,34 @@ public class CXIChunk extends Chunk {
     return onlyTrueZero && _isNA ? rid + 1 : nextNZ(rid);
   }
 
+  // Offset of the first stored element with id >= from
+  protected final int firstOffset(int from){
+    int x = from == 0?_OFF: findOffset(from);
+    return x < 0?-x-1:x;
+  }
+
+  @Override public double [] getDoubles(double [] vals, int from, int to, double NA){
+    Arrays.fill(vals,0,to-from,_isNA?NA:0);
+    for(int x = firstOffset(from); x < _mem.length; x += _elem_sz){
+      int id = getId(x);
+      if(id >= to) break;
+      long val = getVal(x);
+      vals[id-from] = val == _NAS[_val_sz]?NA:val;
+    }
+    return vals;
+  }
+
+  @Override public long [] getLongs(long [] vals, int from, int to, long NA){
+    Arrays.fill(vals,0,to-from,_isNA?NA:0);
+    for(int x = firstOffset(from); x < _mem.length; x += _elem_sz){
+      int id = getId(x);
+      if(id >= to) break;
+      long val = getVal(x);
+      vals[id-from] = val == _NAS[_val_sz]?NA:val;
+    }
+    return vals;
+  }
+
   @Override
   public <T extends ChunkVisitor> T processRows(T v, int from, int to){
     int prevId = from-1;
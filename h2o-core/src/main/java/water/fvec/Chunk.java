@@ -789,6 +789,42 @@ public abstract class Chunk extends Iced<Chunk> implements Vec.Holder {
   public int [] getIntegers(int [] vals, int from, int to, int NA){
     return processRows(new ChunkVisitor.IntAryVisitor(vals,NA),from,to).vals;
   }
+  /**
+   * Dense bulk interface for integer columns, fetch values from the given range
+   * @param vals receives the values of rows from..to-1
+   * @param NA value stored for missing rows
+   * @throws RuntimeException if a value is not an integer
+   */
+  public long [] getLongs(long [] vals, int from, int to, long NA){
+    return processRows(new ChunkVisitor.LongAryVisitor(vals,NA),from,to).vals;
+  }
+  /**
+   * Dense bulk interface with a missing-value mask, fetch values from the
+   * given range.  Missing rows are NaN in vals and flagged in nas.
+   * @param vals receives the values of rows from..to-1
+   * @param nas receives true for missing rows, false otherwise
+   */
+  public final double [] getDoubles(double [] vals, boolean [] nas, int from, int to){
+    getDoubles(vals,from,to,Double.NaN);
+    for(int i = 0; i < to-from; i++)
+      nas[i] = Double.isNaN(vals[i]);
+    return vals;
+  }
+  /**
+   * Dense bulk interface for integer columns with a missing-value mask, fetch
+   * values from the given range.  Missing rows are 0 in vals and flagged in nas.
+   * @param vals receives the values of rows from..to-1
+   * @param nas receives true for missing rows, false otherwise
+   */
+  public final long [] getLongs(long [] vals, boolean [] nas, int from, int to){
+    getLongs(vals,from,to,C8Chunk._NA); // Never a valid value in any chunk type
+    for(int i = 0; i < to-from; i++) {
+      boolean na = vals[i] == C8Chunk._NA;
+      nas[i] = na;
+      if(na) vals[i] = 0;
+    }
+    return vals;
+  }
   /**
    * Dense bulk interface, fetch values from the given ids
    * @param vals
@@ -1581,6 +1581,10 @@ public class Frame extends Lockable<Frame> {
       return this;
     }
 
+    public boolean hasHeaders() {
+      return _headers;
+    }
+
     public CSVStreamParams noHeader() {
       setHeaders(false);
       return this;
@@ -1636,18 +1640,19 @@ public class Frame extends Lockable<Frame> {
     }
 
     public CSVStream(Chunk[] chks, String[] names, int nChunks, CSVStreamParams parms) {
+      this(chks, names, nChunks, parms, null);
+    }
+
+    /**
+     * @param escapedDomains categorical domains escaped by {@link #escapeCategoricalDomains}, null to escape
+     *                       the domains of the given chunks
+     */
+    public CSVStream(Chunk[] chks, String[] names, int nChunks, CSVStreamParams parms, String[][] escapedDomains) {
       if (chks == null) nChunks = 0;
       _lastChkIdx = (chks != null) ? chks[0].cidx() + nChunks - 1 : -1;
       _parms = Objects.requireNonNull(parms);
-      if (_parms._escapeCharacter != CSVStreamParams.DEFAULT_ESCAPE) {
-        String escapeCharacterEscaped =
-            (SPECIAL_CHARS.contains(_parms._escapeCharacter) ? "\\" : "") + _parms._escapeCharacter;
-        escapingPattern = Pattern.compile("(\"|" + escapeCharacterEscaped + ")");
-        escapeReplacement = escapeCharacterEscaped + "$1";
-      } else {
-        escapingPattern = DOUBLE_QUOTE_PATTERN;
-        escapeReplacement = "\"\"";
-      }
+      escapingPattern = escapingPattern(_parms);
+      escapeReplacement = escapeReplacement(_parms);
       StringBuilder sb = new StringBuilder();
       if (names != null) {
         appendColumnName(sb, names[0]);
@@ -1658,7 +1663,31 @@ public class Frame extends Lockable<Frame> {
       _line = StringUtils.bytesOf(sb);
       _chkRow = -1; // first process the header line
       _curChks = chks;
-      _escapedCategoricalVecDomains = escapeCategoricalVecDomains(_curChks);
+      _escapedCategoricalVecDomains = escapedDomains != null || chks == null ? escapedDomains :
+              escapeCategoricalDomains(vecs(chks), _parms);
+    }
+
+    private static Pattern escapingPattern(CSVStreamParams parms) {
+      if (parms._escapeCharacter == CSVStreamParams.DEFAULT_ESCAPE)
+        return DOUBLE_QUOTE_PATTERN;
+      return Pattern.compile("(\"|" + escapeCharacterEscaped(parms) + ")");
+    }
+
+    private static String escapeReplacement(CSVStreamParams parms) {
+      if (parms._escapeCharacter == CSVStreamParams.DEFAULT_ESCAPE)
+        return "\"\"";
+      return escapeCharacterEscaped(parms) + "$1";
+    }
+
+    private static String escapeCharacterEscaped(CSVStreamParams parms) {
+      return (SPECIAL_CHARS.contains(parms._escapeCharacter) ? "\\" : "") + parms._escapeCharacter;
+    }
+
+    private static Vec[] vecs(Chunk[] chunks) {
+      Vec[] vecs = new Vec[chunks.length];
+      for (int i = 0; i < chunks.length; i++)
+        vecs[i] = chunks[i].vec();
+      return vecs;
     }
 
     private void appendColumnName(StringBuilder sb, String name) {
@@ -1685,17 +1714,20 @@ public class Frame extends Lockable<Frame> {
      * Escapes categorical levels of vectors and puts them in a map of escaped categorical levels.
      * Only the domains with at least one level with an escaped quote are saved. If a domain does not need
      * any escaping, it is considered better practice to reach to the `vec.domain()` method itself and not duplicate entries
-     * in memory here.
+     * in memory here. The result is the same for all chunks of a frame, it can be computed once and passed to the
+     * streams of the individual chunks.
      *
-     * @param chunks
+     * @param vecs
+     * @param parms
      * @return A 2D array of String[][]. Elements can be null of give domain does not need escaping.
      */
-    private String[][] escapeCategoricalVecDomains(final Chunk[] chunks) {
-      if(chunks == null) return null;
-      final String[][] localEscapedCategoricalVecDomains = new String[chunks.length][];
+    public static String[][] escapeCategoricalDomains(final Vec[] vecs, final CSVStreamParams parms) {
+      final Pattern pattern = escapingPattern(parms);
+      final String replacement = escapeReplacement(parms);
+      final String[][] localEscapedCategoricalVecDomains = new String[vecs.length][];
 
-      for (int i = 0; i < chunks.length; i++) {
-        final Vec vec = chunks[i].vec();
+      for (int i = 0; i < vecs.length; i++) {
+        final Vec vec = vecs[i];
         if (!vec.isCategorical()) continue;
 
         final String[] originalDomain = vec.domain();
@@ -1703,7 +1735,7 @@ public class Frame extends Lockable<Frame> {
 
         boolean escapingRequired = false;
         for (int level = 0; level < originalDomain.length; level++) {
-          escapedDomain[level] = escapeQuotesForCsv(originalDomain[level]);
+          escapedDomain[level] = escapeQuotesForCsv(originalDomain[level], parms, pattern, replacement);
           escapingRequired = escapingRequired || !escapedDomain[level].equals(originalDomain[level]);
         }
 
@@ -1767,8 +1799,13 @@ public class Frame extends Lockable<Frame> {
      * @return String with escaped double-quotes, if found.
      */
     private String escapeQuotesForCsv(final String unescapedString) {
-      if (!_parms._escapeQuotes) return unescapedString;
-      return escapingPattern.matcher(unescapedString).replaceAll(escapeReplacement);
+      return escapeQuotesForCsv(unescapedString, _parms, escapingPattern, escapeReplacement);
+    }
+
+    private static String escapeQuotesForCsv(final String unescapedString, final CSVStreamParams parms,
+                                             final Pattern pattern, final String replacement) {
+      if (!parms._escapeQuotes) return unescapedString;
+      return pattern.matcher(unescapedString).replaceAll(replacement);
     }
 
     @Override
@@ -0,0 +1,209 @@
+package water.fvec;
+
+import water.*;
+import water.exceptions.H2OIllegalArgumentException;
+import water.util.Log;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Appends the rows of one Frame to another Frame in place.
+ *
+ * The Chunks of the appended frame become the last Chunks of the Vecs of the target frame (the Vecs keep their keys,
+ * only their row layout changes), the Chunks of the target frame are not touched. New categorical levels are added
+ * at the end of the existing domains so that the existing Chunks stay valid; only the appended Chunks are re-coded.
+ * Rollup stats of the target Vecs (if already computed) are updated incrementally by scanning the appended Chunks.
+ *
+ * The Vecs are modified in place. A Frame sharing some of the Vecs with the target frame would end up with columns
+ * of different lengths, appending is therefore refused if any other Frame in DKV references a Vec of the target
+ * (make a deep copy of the target first). Frames which are not in DKV are not checked: holders of such Frames must
+ * not append to their Vecs.
+ */
+public class FrameAppender {
+
+  /**
+   * Appends the rows of {@code tail} to {@code target}, {@code tail} is deleted.
+   *
+   * @param target frame to be extended, needs to be write-lockable by the job
+   * @param tail rows to append, columns need to match the target frame by name and type (all-missing columns of
+   *             the target take the type of the appended column)
+   * @param jobKey job performing the append (or null)
+   * @return the extended target frame
+   */
+  public static Frame append(Frame target, Frame tail, Key<Job> jobKey) {
+    checkCompatible(target, tail);
+    checkNotShared(target);
+    target.write_lock(jobKey);
+    try {
+      final Vec[] vecs = target.vecs();
+      final Vec[] tailVecs = tail.vecs();
+      final int baseChunks = target.anyVec().nChunks();
+      final long baseLength = target.numRows();
+      // Merge the categorical domains
+      final String[][] domains = new String[vecs.length][];
+      final int[][] catMaps = new int[vecs.length][];
+      final byte[] types = new byte[vecs.length];
+      for (int i = 0; i < vecs.length; i++) {
+        domains[i] = vecs[i].domain();
+        types[i] = vecs[i].get_type();
+        if (vecs[i].get_type() == Vec.T_BAD) {
+          // all-missing column: its Chunks hold only NAs, the column takes the type (and domain) of the appended rows
+          domains[i] = tailVecs[i].domain();
+          types[i] = tailVecs[i].get_type();
+        } else if (vecs[i].isCategorical() && tailVecs[i].isCategorical()) {
+          catMaps[i] = new int[tailVecs[i].domain().length];
+          domains[i] = mergeDomains(vecs[i].domain(), tailVecs[i].domain(), catMaps[i]);
+          if (isIdentity(catMaps[i]))
+            catMaps[i] = null;
+        }
+      }
+      final RollupStats[] rollups = new RollupStats[vecs.length];
+      final Key[] vecKeys = new Key[vecs.length];
+      for (int i = 0; i < vecs.length; i++) {
+        // rollups of a column changing its type are recomputed from scratch
+        rollups[i] = types[i] == vecs[i].get_type() ? RollupStats.getOrNull(vecs[i], vecs[i].rollupStatsKey()) : null;
+        vecKeys[i] = vecs[i]._key;
+      }
+      // Install the Chunks of the tail as the last Chunks of the target Vecs
+      final RollupStats[] appendedRollups = new MoveChunks(vecKeys, catMaps, baseChunks, baseLength).doAll(tail)._rs;
+      long[] espc = vecs[0].espc();
+      long[] tailEspc = tailVecs[0].espc();
+      long[] newEspc = Arrays.copyOf(espc, espc.length + tailEspc.length - 1);
+      for (int c = 1; c < tailEspc.length; c++)
+        newEspc[espc.length - 1 + c] = baseLength + tailEspc[c];
+      final int rowLayout = Vec.ESPC.rowLayout(vecKeys[0], newEspc);
+      Futures fs = new Futures();
+      Vec[] appended = new Vec[vecs.length];
+      for (int i = 0; i < vecs.length; i++) {
+        appended[i] = new Vec(vecKeys[i], rowLayout, domains[i], types[i]);
+        DKV.put(appended[i], fs);
+      }
+      fs.blockForPending();
+      for (int i = 0; i < vecs.length; i++)
+        RollupStats.installAppended(appended[i], rollups[i], appendedRollups[i], vecs[i].domain(), baseChunks, baseLength);
+      target.reloadVecs();
+      target.update(jobKey);
+      Log.info("Appended " + (newEspc[newEspc.length - 1] - baseLength) + " rows to frame " + target._key + ".");
+    } finally {
+      target.unlock(jobKey);
+    }
+    tail.delete();
+    return target;
+  }
+
+  private static void checkCompatible(Frame target, Frame tail) {
+    if (target.numCols() != tail.numCols())
+      throw new H2OIllegalArgumentException("Cannot append a frame with " + tail.numCols() + " columns to a frame with " +
+              target.numCols() + " columns.");
+    for (int i = 0; i < target.numCols(); i++) {
+      Vec v = target.vec(i), tv = tail.vec(i);
+      if (!target.name(i).equals(tail.name(i)))
+        throw new H2OIllegalArgumentException("Column #" + i + " is named '" + tail.name(i) + "', expected '" +
+                target.name(i) + "'.");
+      if (v.getClass() != Vec.class)
+        throw new H2OIllegalArgumentException("Column '" + target.name(i) + "' is not a plain Vec (" +
+                v.getClass().getSimpleName() + "), it cannot be appended to.");
+      // all-missing columns are compatible with any type
+      boolean allMissing = v.get_type() == Vec.T_BAD || (tv.get_type() == Vec.T_BAD && !v.isString());
+      if (v.get_type() != tv.get_type() && !allMissing)
+        throw new H2OIllegalArgumentException("Column '" + target.name(i) + "' is of type " + v.get_type_str() +
+                ", cannot append values of type " + tv.get_type_str() + ".");
+    }
+  }
+
+  private static void checkNotShared(Frame target) {
+    final Set<Key> vecKeys = new HashSet<>(Arrays.asList(target.keys()));
+    for (Key k : KeySnapshot.globalKeysOfClass(Frame.class)) {
+      if (k.equals(target._key)) continue;
+      Frame fr = DKV.getGet(k);
+      if (fr == null) continue; // removed meanwhile
+      for (int i = 0; i < fr.numCols(); i++)
+        if (vecKeys.contains(fr.keys()[i]))
+          throw new H2OIllegalArgumentException("Column '" + fr.name(i) + "' of frame " + k + " is shared with frame " +
+                  target._key + ", cannot append to shared columns. Append to a deep copy of the frame instead.");
+    }
+  }
+
+  /**
+   * Extends the domain by the new levels of another domain.
+   * @param map output, mapping of the levels of the other domain to the extended domain
+   */
+  static String[] mergeDomains(String[] domain, String[] other, int[] map) {
+    Map<String, Integer> levels = new HashMap<>();
+    for (int i = 0; i < domain.length; i++)
+      levels.put(domain[i], i);
+    String[] result = Arrays.copyOf(domain, domain.length + other.length);
+    int len = domain.length;
+    for (int i = 0; i < other.length; i++) {
+      Integer level = levels.get(other[i]);
+      if (level == null) {
+        level = len;
+        levels.put(other[i], len);
+        result[len++] = other[i];
+      }
+      map[i] = level;
+    }
+    return Arrays.copyOf(result, len);
+  }
+
+  private static boolean isIdentity(int[] map) {
+    for (int i = 0; i < map.length; i++)
+      if (map[i] != i) return false;
+    return true;
+  }
+
+  private static class MoveChunks extends MRTask<MoveChunks> {
+    private final Key[] _vecKeys;
+    private final int[][] _catMaps;
+    private final int _baseChunks;
+    private final long _baseLength;
+    // Rollups of the moved Chunks, per column (merged into the rollups of the target Vecs)
+    RollupStats[] _rs;
+
+    MoveChunks(Key[] vecKeys, int[][] catMaps, int baseChunks, long baseLength) {
+      _vecKeys = vecKeys;
+      _catMaps = catMaps;
+      _baseChunks = baseChunks;
+      _baseLength = baseLength;
+    }
+
+    @Override
+    public void map(Chunk[] cs) {
+      for (int i = 0; i < cs.length; i++) {
+        final Chunk c = cs[i];
+        final Chunk moved;
+        if (_catMaps[i] == null) {
+          moved = c.deepCopy();
+        } else {
+          NewChunk nc = new NewChunk(c.vec(), c.cidx());
+          for (int r = 0; r < c._len; r++) {
+            if (c.isNA(r)) nc.addNA();
+            else nc.addNum(_catMaps[i][(int) c.at8(r)], 0);
+          }
+          moved = nc.compress();
+        }
+        DKV.put(Vec.chunkKey(_vecKeys[i], _baseChunks + c.cidx()), moved, _fs);
+        if (_rs == null) _rs = new RollupStats[cs.length];
+        _rs[i] = RollupStats.mergeAppended(_rs[i], RollupStats.ofAppended(moved, c.vec(), _baseLength + c.start()));
+      }
+    }
+
+    @Override
+    public void reduce(MoveChunks mc) {
+      if (_rs == null) _rs = mc._rs;
+      else if (mc._rs != null)
+        for (int i = 0; i < _rs.length; i++)
+          _rs[i] = RollupStats.mergeAppended(_rs[i], mc._rs[i]);
+    }
+
+    @Override
+    public void postGlobal() {
+      if (_rs == null) _rs = new RollupStats[_vecKeys.length]; // nothing appended
+    }
+  }
+
+}
@@ -337,6 +337,9 @@ public class NewChunk extends Chunk {
 
   public int _timCnt = 0;
   protected static final int MIN_SPARSE_RATIO = 8;
+  // Smallest Chunk worth scanning for a run-length, dictionary or
+  // frame-of-reference encoding
+  protected static final int MIN_RECODE_LEN = 1024;
   private int _sparseRatio = MIN_SPARSE_RATIO;
   public boolean _isAllASCII = true; //For cat/string col, are all characters in chunk ASCII?
 
@@ -1133,7 +1136,7 @@ public class NewChunk extends Chunk {
   // Study this NewVector and determine an appropriate compression scheme.
   // Return the data so compressed.
   public Chunk compress() {
-    Chunk res = compress2();
+    Chunk res = chunkFOR(chunkRunsOrDict(compress2()));
     byte type = type();
     assert _vec == null ||  // Various testing scenarios do not set a Vec
       type == _vec._type || // Equal types
@@ -1174,7 +1177,7 @@ public class NewChunk extends Chunk {
     if( mode==Vec.T_BAD ) // ALL NAs, nothing to do
       return new C0DChunk(Double.NaN, _len);
     if( mode==Vec.T_STR )
-      return new CStrChunk(_sslen, _ss, _sparseLen, _len, _id, _is);
+      return chunkStr();
     boolean rerun=false;
     if(mode == Vec.T_CAT) {
       for(int i = 0; i< _sparseLen; i++ )
@@ -1574,6 +1577,154 @@ public class NewChunk extends Chunk {
       return new C8DChunk(bs);
   }
 
+  // Re-encode a dense fixed-width Chunk as runs (CRLEChunk) or as a small
+  // dictionary (CDictChunk), if either takes at most 80% of its bytes.
+  // Sorted or low-cardinality columns with a wide value range compress well
+  // this way.  The scan gives up as soon as both encodings are out of budget.
+  // Runs must average at least 4 rows, since random access to a CRLEChunk
+  // costs a binary search; this also bounds the scan of high-entropy data.
+  private Chunk chunkRunsOrDict(Chunk fixed) {
+    if( _len < MIN_RECODE_LEN ||
+        !(fixed instanceof CSChunk || fixed instanceof C1NChunk || fixed instanceof C1Chunk ||
+          fixed instanceof C2Chunk || fixed instanceof C4Chunk || fixed instanceof C4FChunk ||
+          fixed instanceof C8Chunk || fixed instanceof C8DChunk || fixed instanceof CUDChunk) )
+      return fixed;
+    final boolean isDouble = fixed.hasFloat();
+    final int budget = (int)(0.8 * fixed._mem.length);
+    final int maxRuns = Math.min((budget - CRLEChunk._OFF) / (4 + 8), _len >> 2);
+    // CUD already is a dictionary
+    final int maxVals = fixed instanceof CUDChunk ? 0
+      : Math.min(CDictChunk.MAX_VALUES, (budget - CDictChunk._OFF - _len) >> 3);
+    int[] starts = new int[Math.max(Math.min(maxRuns, 64), 1)];
+    long[] runVals = new long[starts.length];
+    int runs = 0;
+    // Open-addressed set of the distinct values, in insertion order in dict
+    long[] dict = maxVals > 0 ? new long[maxVals] : null;
+    int[] slots = maxVals > 0 ? new int[2 * CDictChunk.MAX_VALUES] : null;
+    int nvals = 0;
+    long prev = 0;
+    for( int i = 0; i < _len; ++i ) {
+      long bits = chunkBits(fixed, i, isDouble);
+      if( runs <= maxRuns && (i == 0 || bits != prev) ) {
+        if( runs < maxRuns ) {
+          if( runs == starts.length ) {
+            starts = Arrays.copyOf(starts, Math.min(runs << 1, maxRuns));
+            runVals = Arrays.copyOf(runVals, starts.length);
+          }
+          starts[runs] = i;
+          runVals[runs] = bits;
+        }
+        runs++;
+      }
+      prev = bits;
+      if( dict != null && dictSlot(slots, dict, bits) < 0 ) {
+        if( nvals == maxVals ) dict = null; // Too many distinct values
+        else dictAdd(slots, dict, nvals++, bits);
+      }
+      if( runs > maxRuns && dict == null )
+        return fixed;
+    }
+    int rleSize  = runs <= maxRuns ? CRLEChunk.computeByteSize(runs) : Integer.MAX_VALUE;
+    int dictSize = dict != null ? CDictChunk.computeByteSize(nvals, _len) : Integer.MAX_VALUE;
+    if( rleSize <= dictSize )
+      return new CRLEChunk(_len, runs, starts, runVals, isDouble);
+    byte[] idx = MemoryManager.malloc1(_len);
+    for( int i = 0; i < _len; ++i )
+      idx[i] = (byte)dict[slots[dictSlot(slots, dict, chunkBits(fixed, i, isDouble))] - 1];
+    return new CDictChunk(_len, nvals, dict, idx, isDouble);
+  }
+
+  // Re-encode an integer Chunk as blocks of bit-packed offsets from the block
+  // minimum (CFORChunk), if that takes at most 80% of its bytes.  Monotonic
+  // or slowly varying columns, e.g. timestamps or counters, shrink to a few
+  // bits per row.  The scan gives up once the blocks seen so far are over
+  // their share of the budget.
+  private Chunk chunkFOR(Chunk c) {
+    if( _len < MIN_RECODE_LEN || c.hasFloat() ||
+        !(c instanceof CSChunk || c instanceof C1NChunk || c instanceof C1Chunk || c instanceof C2Chunk ||
+          c instanceof C4Chunk || c instanceof C8Chunk || c instanceof CRLEChunk || c instanceof CDictChunk) )
+      return c;
+    final long budget = (long)(0.8 * c._mem.length);
+    long bytes = CFORChunk._OFF;
+    long[] vals = new long[CFORChunk.BLOCK];
+    for( int from = 0; from < _len; from += CFORChunk.BLOCK ) {
+      int to = Math.min(from + CFORChunk.BLOCK, _len);
+      c.getLongs(vals, from, to, C8Chunk._NA);  // Exact for integer chunks
+      long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+      boolean hasNA = false;
+      for( int i = from; i < to; ++i ) {
+        long l = vals[i - from];
+        if( l == C8Chunk._NA ) { hasNA = true; continue; }
+        if( l < min ) min = l;
+        if( l > max ) max = l;
+      }
+      if( min > max ) min = max = 0;
+      bytes += CFORChunk.blockBytes(to - from, CFORChunk.width(min, max, hasNA));
+      // Allow a few outlier blocks at the start
+      if( from >= 4 * CFORChunk.BLOCK && bytes * _len > budget * to )
+        return c;
+    }
+    if( bytes > budget ) return c;
+    return new CFORChunk(c.getLongs(MemoryManager.malloc8(_len), 0, _len, C8Chunk._NA), _len);
+  }
+
+  // Row value as an exact long (NA is C8Chunk._NA) or as canonical double bits
+  private static long chunkBits(Chunk c, int i, boolean isDouble) {
+    if( isDouble ) return Double.doubleToLongBits(c.atd(i));
+    return c.isNA(i) ? C8Chunk._NA : c.at8(i);
+  }
+
+  // Slot of bits in the dictionary hash table, or -1 if absent.  Slots hold
+  // the dictionary index + 1, 0 marks a free slot.
+  private static int dictSlot(int[] slots, long[] dict, long bits) {
+    int mask = slots.length - 1;
+    for( int s = dictHash(bits) & mask; ; s = (s + 1) & mask ) {
+      if( slots[s] == 0 ) return -1;
+      if( dict[slots[s] - 1] == bits ) return s;
+    }
+  }
+  private static void dictAdd(int[] slots, long[] dict, int j, long bits) {
+    int mask = slots.length - 1, s = dictHash(bits) & mask;
+    while( slots[s] != 0 ) s = (s + 1) & mask;
+    slots[s] = j + 1;
+    dict[j] = bits;
+  }
+  private static int dictHash(long bits) {
+    int h = (int)(bits ^ (bits >>> 32));
+    return h ^ (h >>> 16) ^ (h >>> 8);
+  }
+
+  // Rows sampled before deciding whether a string Chunk repeats enough to be
+  // dictionary-encoded
+  private static final int STR_DICT_SAMPLE = 1024;
+
+  // Compute a string Chunk, dictionary-encoded (see CStrChunk.isDictionary)
+  // when strings repeat: each distinct string is stored once and rows share
+  // its offset.  Mostly-unique columns are left alone after a sample.
+  private Chunk chunkStr() {
+    HashMap<BufferedString,Integer> dict = new HashMap<>();
+    BufferedString probe = new BufferedString();
+    byte[] ss = MemoryManager.malloc1(_sslen);
+    int[] is = MemoryManager.malloc4(_sparseLen);
+    int sslen = 0;
+    for( int i = 0; i < _sparseLen; i++ ) {
+      if( i == STR_DICT_SAMPLE && dict.size() > (STR_DICT_SAMPLE >> 1) )
+        return new CStrChunk(_sslen, _ss, _sparseLen, _len, _id, _is);
+      int off = _is[i];
+      if( off == CStrChunk.NA ) { is[i] = CStrChunk.NA; continue; }
+      int len = 0;
+      while( _ss[off + len] != 0 ) len++;
+      Integer code = dict.get(probe.set(_ss, off, len));
+      if( code == null ) {
+        System.arraycopy(_ss, off, ss, sslen, len + 1); // With the trailing 0
+        dict.put(new BufferedString(ss, sslen, len), code = sslen);
+        sslen += len + 1;
+      }
+      is[i] = code;
+    }
+    return new CStrChunk(sslen, ss, _sparseLen, _len, _id, is, true);
+  }
+
   // Compute a compressed UUID buffer
   private Chunk chunkUUID() {
     final byte [] bs = MemoryManager.malloc1(_len *16,true);
@@ -53,6 +53,22 @@ public class RebalanceDataSet extends H2O.H2OCountedCompleter {
     _vg = new Vec.VectorGroup();
   }
 
+  /**
+   * Constructor for rebalancing to a given row layout.
+   *
+   * @param espc element-start per chunk of the output (one more entry than chunks, the last being the number of rows)
+   */
+  public RebalanceDataSet(Frame srcFrame, Key dstKey, long[] espc, H2O.H2OCountedCompleter cmp, Key jobKey) {
+    super(cmp);
+    assert espc[espc.length - 1] == srcFrame.numRows();
+    _in = srcFrame;
+    _nchunks = espc.length - 1;
+    _jobKey = jobKey;
+    _okey = dstKey;
+    _espc = espc;
+    _vg = new Vec.VectorGroup();
+  }
+
   public Frame getResult(){join(); return _out;}
 
   @Override public void compute2() {
@@ -88,15 +88,16 @@ final class RollupStats extends Iced {
   private static RollupStats makeComputing() { return new RollupStats(-1); }
   static RollupStats makeMutating () { return new RollupStats(-2); }
 
-  private RollupStats map( Chunk c ) {
+  private RollupStats map( Chunk c ) { return map(c, c._vec, c._start); }
+  // Rollups of a Chunk of the given Vec, starting at the given row
+  private RollupStats map( Chunk c, Vec vec, long start ) {
     _size = c.byteSize();
-    boolean isUUID = c._vec.isUUID();
-    boolean isString = c._vec.isString();
+    boolean isUUID = vec.isUUID();
+    boolean isString = vec.isString();
     BufferedString tmpStr = new BufferedString();
     if (isString) _isInt = false;
     // Checksum support
     long checksum = 0;
-    long start = c._start;
     long l = 81985529216486895L;
 
     // Check for popular easy cases: All Constant
@@ -272,33 +273,7 @@ final class RollupStats extends Iced {
     Roll( H2OCountedCompleter cmp, Key rskey ) { super(cmp); _rskey=rskey; }
     @Override public void map( Chunk c ) { _rs = new RollupStats(0).map(c); }
     @Override public void reduce( Roll roll ) { _rs.reduce(roll._rs); }
-    @Override public void postGlobal() {
-      if( _rs == null )
-        _rs = new RollupStats(0);
-      else {
-        _rs._sigma = Math.sqrt(_rs._sigma/(_rs._rows-1));
-        if (_rs._rows == 1) _rs._sigma = 0;
-        if (_rs._rows < 5) for (int i=0; i<5-_rs._rows; i++) {  // Fix PUBDEV-150 for files under 5 rows
-          _rs._maxs[4-i] = Double.NaN;
-          _rs._mins[4-i] = Double.NaN;
-        }
-      }
-      // mean & sigma not allowed on more than 2 classes; for 2 classes the assumption is that it's true/false
-      Vec vec = _fr.anyVec();
-      String[] ss = vec.domain();
-      if( vec.isCategorical() && ss.length > 2 )
-        _rs._mean = _rs._sigma = Double.NaN;
-      if( ss != null ) {
-        long dsz = (2/*hdr*/+1/*len*/+ss.length)*8;  // Size of base domain array
-        for( String s : vec.domain() )
-          if( s != null )
-            dsz += 2*s.length() + (2/*hdr*/+1/*value*/+1/*hash*/+2/*hdr*/+1/*len*/)*8;
-        _rs._size += dsz;             // Account for domain size in Vec size
-        // Account for Chunk key size
-        int keysize = (2/*hdr*/+1/*kb*/+1/*hash*/+2/*hdr*/+1/*len*/)*8+ vec._key._kb.length;
-        _rs._size += vec.nChunks()*(keysize*4/*key+value ptr in DKV, plus 50% fill rate*/);
-      }
-    }
+    @Override public void postGlobal() { _rs = finish(_rs, _fr.anyVec()); }
     // Just toooo common to report always.  Drowning in multi-megabyte log file writes.
     @Override public boolean logVerbose() { return false; }
 
@@ -312,6 +287,86 @@ final class RollupStats extends Iced {
     }
   }
 
+  // Finishing touches of the reduced rollups of all Chunks of the Vec
+  private static RollupStats finish( RollupStats rs, Vec vec ) {
+    if( rs == null )
+      rs = new RollupStats(0);
+    else {
+      rs._sigma = Math.sqrt(rs._sigma/(rs._rows-1));
+      if (rs._rows == 1) rs._sigma = 0;
+      if (rs._rows < 5) for (int i=0; i<5-rs._rows; i++) {  // Fix PUBDEV-150 for files under 5 rows
+        rs._maxs[4-i] = Double.NaN;
+        rs._mins[4-i] = Double.NaN;
+      }
+    }
+    // mean & sigma not allowed on more than 2 classes; for 2 classes the assumption is that it's true/false
+    String[] ss = vec.domain();
+    if( vec.isCategorical() && ss.length > 2 )
+      rs._mean = rs._sigma = Double.NaN;
+    rs._size += domainSize(ss, vec.nChunks(), vec._key);
+    return rs;
+  }
+
+  // Size of the domain (and of the Chunk keys) accounted for in the Vec size
+  private static long domainSize( String[] ss, int nChunks, Key vecKey ) {
+    if( ss == null ) return 0;
+    long dsz = (2/*hdr*/+1/*len*/+ss.length)*8;  // Size of base domain array
+    for( String s : ss )
+      if( s != null )
+        dsz += 2*s.length() + (2/*hdr*/+1/*value*/+1/*hash*/+2/*hdr*/+1/*len*/)*8;
+    // Account for Chunk key size
+    int keysize = (2/*hdr*/+1/*kb*/+1/*hash*/+2/*hdr*/+1/*len*/)*8+ vecKey._kb.length;
+    return dsz + nChunks*(keysize*4/*key+value ptr in DKV, plus 50% fill rate*/);
+  }
+
+  /**
+   * Partial rollups of a Chunk appended to a Vec, to be merged by {@link #mergeAppended} and installed by
+   * {@link #installAppended}.  The Chunk does not need to be installed in the Vec yet.
+   *
+   * @param c appended Chunk
+   * @param vec Vec the Chunk is appended to (for its type)
+   * @param start row of the Vec where the Chunk starts
+   */
+  static RollupStats ofAppended( Chunk c, Vec vec, long start ) { return new RollupStats(0).map(c, vec, start); }
+
+  /** Merges partial rollups of appended Chunks, either can be null */
+  static RollupStats mergeAppended( RollupStats rs, RollupStats other ) {
+    if( rs == null ) return other;
+    if( other != null ) rs.reduce(other);
+    return rs;
+  }
+
+  /**
+   * Installs the rollups of a Vec made by appending chunks to a Vec with known rollups. The appended chunks are
+   * scanned by the caller (see {@link #ofAppended}) while they are being appended, the original chunks are not
+   * touched at all. The result is the same as computing the rollups from scratch (histograms are computed lazily).
+   * If the rollups of the original Vec were not computed, nothing is installed and the rollups are computed
+   * on demand as usual.
+   *
+   * @param vec extended Vec, first {@code baseChunks} chunks are the chunks of the original Vec
+   * @param base rollups of the original Vec (or null)
+   * @param appended merged partial rollups of the appended chunks (or null if there are none)
+   * @param baseDomain domain of the original Vec
+   * @param baseLength number of rows of the original Vec
+   */
+  static void installAppended( Vec vec, RollupStats base, RollupStats appended, String[] baseDomain,
+                               int baseChunks, long baseLength ) {
+    final Key rskey = vec.rollupStatsKey();
+    if( base == null || !base.isReady() ) {
+      DKV.remove(rskey);
+      return;
+    }
+    // Undo the finishing touches of the base rollups (see finish) and merge them with the new chunks
+    RollupStats rs = new RollupStats(0);
+    rs.reduce(base);
+    rs._sigma = base._rows > 1 ? base._sigma*base._sigma*(base._rows-1) : 0;
+    rs._checksum ^= baseLength;
+    rs._size -= domainSize(baseDomain, baseChunks, vec._key);
+    rs = finish(mergeAppended(rs, appended), vec);
+    rs._checksum ^= vec.length();
+    DKV.put(rskey, rs);
+  }
+
   @Override
   public String toString() {
     return "RollupStats{" +
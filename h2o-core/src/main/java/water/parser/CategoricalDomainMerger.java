@@ -0,0 +1,418 @@
+package water.parser;
+
+import water.*;
+import water.nbhm.NonBlockingHashMap;
+import water.util.Log;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Distributed, sort-based unification of the categorical domains collected by the parse on the individual nodes.
+ *
+ * The (sorted) global domain is range-partitioned across the cloud: splitters are chosen from a sample of the
+ * sorted node-local domains and every node merges the slices of all node-local domains that fall into its range.
+ * The global domain is the concatenation of the partitions in node order, the global id of a level is its position
+ * within its partition plus the sizes of all preceding partitions. Each node builds the local-to-global id maps
+ * for its own levels from the positions reported back by the owners of the partitions - no node needs to merge
+ * or scan the whole global domain, the work is spread evenly across the cloud.
+ *
+ * Usage (on the driver): {@link #mergeDomains()}, {@link #domains(boolean[])}, {@link #installUpdateMaps()} and
+ * finally {@link #cleanup()} to release the node-local state.
+ */
+class CategoricalDomainMerger {
+
+  static final boolean ENABLED = H2O.getSysBoolProperty("parse.categorical.distributedMerge", true);
+  // number of levels sampled from each node-local domain to pick the splitters
+  private static final int SAMPLES_PER_NODE = 256;
+
+  // node-local state of the concurrent merges, keyed by the key of the parse categoricals
+  private static final NonBlockingHashMap<Key, LocalDomains> _local = new NonBlockingHashMap<>();
+
+  private final Key _cKey;
+  private final int[] _cols; // indices of the categorical columns in the parse categoricals
+  private byte[][] _splitters; // per column, packed splitters (at most #nodes - 1)
+  private int[][] _partitionSizes; // per column, per node
+
+  CategoricalDomainMerger(Key cKey, int[] ecols, int[] parseColumns) {
+    _cKey = cKey;
+    _cols = new int[ecols.length];
+    for (int i = 0; i < ecols.length; i++)
+      _cols[i] = parseColumns[ecols[i]];
+  }
+
+  /**
+   * Merges the node-local domains into range partitions on the nodes.
+   * @return size of the global domain of each categorical column
+   */
+  int[] mergeDomains() {
+    final int nodes = H2O.CLOUD.size();
+    SampleTask st = new SampleTask(_cKey, _cols).doAllNodes();
+    _splitters = new byte[_cols.length][];
+    for (int i = 0; i < _cols.length; i++)
+      _splitters[i] = PackedDomains.pack(pickSplitters(PackedDomains.unpackToBufferedStrings(st._samples[i]), nodes));
+    RPC<MergePartitionTask>[] rpcs = new RPC[nodes];
+    for (int n = 0; n < nodes; n++)
+      rpcs[n] = new RPC<>(H2O.CLOUD.members()[n], new MergePartitionTask(_cKey, _splitters)).call();
+    _partitionSizes = new int[_cols.length][nodes];
+    int[] sizes = new int[_cols.length];
+    for (int n = 0; n < nodes; n++) {
+      int[] partSizes = rpcs[n].get()._sizes;
+      for (int i = 0; i < _cols.length; i++) {
+        _partitionSizes[i][n] = partSizes[i];
+        sizes[i] += partSizes[i];
+      }
+    }
+    Log.trace("Done merging categorical domains in " + nodes + " partitions.");
+    return sizes;
+  }
+
+  /**
+   * Collects the global domains of the selected columns.
+   */
+  String[][] domains(boolean[] cols) {
+    final int nodes = H2O.CLOUD.size();
+    RPC<FetchPartitionTask>[] rpcs = new RPC[nodes];
+    for (int n = 0; n < nodes; n++)
+      rpcs[n] = new RPC<>(H2O.CLOUD.members()[n], new FetchPartitionTask(_cKey, cols)).call();
+    String[][] domains = new String[_cols.length][];
+    int[] pos = new int[_cols.length];
+    for (int i = 0; i < _cols.length; i++)
+      if (cols[i]) domains[i] = new String[sum(_partitionSizes[i])];
+    for (int n = 0; n < nodes; n++) {
+      byte[][] partitions = rpcs[n].get()._partitions;
+      for (int i = 0; i < _cols.length; i++) {
+        if (!cols[i]) continue;
+        String[] part = PackedDomains.unpackToStrings(partitions[i]);
+        System.arraycopy(part, 0, domains[i], pos[i], part.length);
+        pos[i] += part.length;
+      }
+    }
+    return domains;
+  }
+
+  /**
+   * Builds the node-local to global id maps on all nodes and stores them in DKV for
+   * the {@link ParseDataset} categorical update.
+   */
+  void installUpdateMaps() {
+    final int nodes = H2O.CLOUD.size();
+    int[][] offsets = new int[_cols.length][nodes];
+    for (int i = 0; i < _cols.length; i++)
+      for (int n = 1; n < nodes; n++)
+        offsets[i][n] = offsets[i][n - 1] + _partitionSizes[i][n - 1];
+    RPC<BuildUpdateMapTask>[] rpcs = new RPC[nodes];
+    for (int n = 0; n < nodes; n++)
+      rpcs[n] = new RPC<>(H2O.CLOUD.members()[n], new BuildUpdateMapTask(_cKey, _cols, _splitters, offsets)).call();
+    for (RPC rpc : rpcs)
+      rpc.get();
+  }
+
+  void cleanup() {
+    new CleanupTask(_cKey).doAllNodes();
+  }
+
+  private static int sum(int[] a) {
+    int sum = 0;
+    for (int x : a) sum += x;
+    return sum;
+  }
+
+  /**
+   * Picks (at most) nodes - 1 splitters from sorted samples, partition j holds the levels l
+   * such that splitter[j - 1] &lt;= l &lt; splitter[j].
+   */
+  static BufferedString[] pickSplitters(BufferedString[] samples, int nodes) {
+    if (samples.length == 0)
+      return new BufferedString[0];
+    BufferedString[] splitters = new BufferedString[nodes - 1];
+    for (int j = 1; j < nodes; j++)
+      splitters[j - 1] = samples[(int) ((long) j * samples.length / nodes)];
+    return splitters;
+  }
+
+  /**
+   * Start indices of the partitions in a sorted domain (nodes + 1 entries).
+   */
+  static int[] partitionBounds(BufferedString[] sorted, BufferedString[] splitters, int nodes) {
+    int[] bounds = new int[nodes + 1];
+    for (int j = 1; j < nodes; j++)
+      bounds[j] = j - 1 < splitters.length ? lowerBound(sorted, splitters[j - 1]) : sorted.length;
+    bounds[nodes] = sorted.length;
+    return bounds;
+  }
+
+  private static int lowerBound(BufferedString[] sorted, BufferedString key) {
+    int lo = 0, hi = sorted.length;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (sorted[mid].compareTo(key) < 0) lo = mid + 1;
+      else hi = mid;
+    }
+    return lo;
+  }
+
+  /**
+   * Merges sorted slices of levels.
+   * @param slices packed sorted slices
+   * @param positions output, for each slice the positions of its levels in the merged result
+   * @return packed merged domain
+   */
+  static byte[] mergeSlices(byte[][] slices, int[][] positions) {
+    final BufferedString[][] src = new BufferedString[slices.length][];
+    final int[] heads = new int[slices.length];
+    int total = 0;
+    for (int s = 0; s < slices.length; s++) {
+      src[s] = PackedDomains.unpackToBufferedStrings(slices[s]);
+      positions[s] = new int[src[s].length];
+      total += src[s].length;
+    }
+    PriorityQueue<Integer> heap = new PriorityQueue<>(Math.max(1, slices.length),
+            (a, b) -> src[a][heads[a]].compareTo(src[b][heads[b]]));
+    for (int s = 0; s < slices.length; s++)
+      if (src[s].length > 0) heap.add(s);
+    List<BufferedString> merged = new ArrayList<>(total);
+    while (!heap.isEmpty()) {
+      int s = heap.poll();
+      BufferedString level = src[s][heads[s]];
+      if (merged.isEmpty() || merged.get(merged.size() - 1).compareTo(level) != 0)
+        merged.add(level);
+      positions[s][heads[s]] = merged.size() - 1;
+      if (++heads[s] < src[s].length) heap.add(s);
+    }
+    return PackedDomains.pack(merged.toArray(new BufferedString[merged.size()]));
+  }
+
+  private static LocalDomains local(Key cKey) {
+    LocalDomains local = _local.get(cKey);
+    if (local == null)
+      throw new IllegalStateException("Categorical domains of parse " + cKey + " were not collected on node " + H2O.SELF);
+    return local;
+  }
+
+  private static class LocalDomains {
+    final BufferedString[][] _sorted; // per column, sorted node-local levels
+    final int[][] _ids; // per column, node-local ids of the sorted levels
+    byte[][] _partition; // per column, packed merged partition owned by this node
+    int[][][] _positions; // per source node, per column: positions of the source's levels in the partition
+
+    LocalDomains(int ncols) {
+      _sorted = new BufferedString[ncols][];
+      _ids = new int[ncols][];
+    }
+  }
+
+  /** Base of the tasks sent between the nodes, they can block on each other => bump the priority. */
+  private static abstract class MergerTask<T extends MergerTask<T>> extends DTask<T> {
+    MergerTask() {
+      super((byte) (Thread.currentThread() instanceof H2O.FJWThr ? currThrPriority() + 1 : H2O.MIN_HI_PRIORITY - 2));
+    }
+  }
+
+  /** Sorts the node-local domains and samples them. */
+  private static class SampleTask extends MRTask<SampleTask> {
+    private final Key _cKey;
+    private final int[] _cols;
+    byte[][] _samples; // per column, packed
+
+    SampleTask(Key cKey, int[] cols) {
+      _cKey = cKey;
+      _cols = cols;
+    }
+
+    @Override
+    public void setupLocal() {
+      final Categorical[] cats = ParseDataset.localCategoricals(_cKey); // null if this node didn't parse anything
+      final LocalDomains local = new LocalDomains(_cols.length);
+      _samples = new byte[_cols.length][];
+      for (int i = 0; i < _cols.length; i++) {
+        BufferedString[] sorted = new BufferedString[0];
+        int[] ids = new int[0];
+        if (cats != null && cats[_cols[i]].size() > 0) {
+          final Categorical cat = cats[_cols[i]];
+          cat.convertToUTF8(_cols[i] + 1);
+          sorted = cat.getColumnDomain();
+          Arrays.sort(sorted);
+          ids = new int[sorted.length];
+          for (int k = 0; k < sorted.length; k++)
+            ids[k] = cat.getTokenId(sorted[k]);
+        }
+        local._sorted[i] = sorted;
+        local._ids[i] = ids;
+        BufferedString[] samples = new BufferedString[Math.min(sorted.length, SAMPLES_PER_NODE)];
+        for (int k = 0; k < samples.length; k++)
+          samples[k] = sorted[(int) ((long) k * sorted.length / samples.length)];
+        _samples[i] = PackedDomains.pack(samples);
+      }
+      _local.put(_cKey, local);
+    }
+
+    @Override
+    public void reduce(SampleTask mrt) {
+      if (_samples == null) _samples = mrt._samples;
+      else if (mrt._samples != null)
+        for (int i = 0; i < _samples.length; i++)
+          _samples[i] = PackedDomains.merge(_samples[i], mrt._samples[i]);
+    }
+  }
+
+  /** Merges the slices of all node-local domains falling into the range of this node. */
+  private static class MergePartitionTask extends MergerTask<MergePartitionTask> {
+    private final Key _cKey;
+    private final byte[][] _splitters;
+    int[] _sizes; // output
+
+    MergePartitionTask(Key cKey, byte[][] splitters) {
+      _cKey = cKey;
+      _splitters = splitters;
+    }
+
+    @Override
+    public void compute2() {
+      final LocalDomains local = local(_cKey);
+      final int nodes = H2O.CLOUD.size();
+      RPC<SliceTask>[] rpcs = new RPC[nodes];
+      for (int n = 0; n < nodes; n++)
+        rpcs[n] = new RPC<>(H2O.CLOUD.members()[n], new SliceTask(_cKey, _splitters, H2O.SELF.index())).call();
+      byte[][][] slices = new byte[_splitters.length][nodes][];
+      for (int n = 0; n < nodes; n++) {
+        byte[][] nodeSlices = rpcs[n].get()._slices;
+        for (int i = 0; i < _splitters.length; i++)
+          slices[i][n] = nodeSlices[i];
+      }
+      byte[][] partition = new byte[_splitters.length][];
+      int[][][] positions = new int[nodes][_splitters.length][];
+      int[][] colPositions = new int[nodes][];
+      _sizes = new int[_splitters.length];
+      for (int i = 0; i < _splitters.length; i++) {
+        partition[i] = mergeSlices(slices[i], colPositions);
+        for (int n = 0; n < nodes; n++)
+          positions[n][i] = colPositions[n];
+        _sizes[i] = PackedDomains.sizeOf(partition[i]);
+      }
+      local._partition = partition;
+      local._positions = positions;
+      tryComplete();
+    }
+  }
+
+  /** Returns the slices of the node-local domains belonging to the partition of a given node. */
+  private static class SliceTask extends MergerTask<SliceTask> {
+    private final Key _cKey;
+    private final byte[][] _splitters;
+    private final int _partition;
+    byte[][] _slices; // output
+
+    SliceTask(Key cKey, byte[][] splitters, int partition) {
+      _cKey = cKey;
+      _splitters = splitters;
+      _partition = partition;
+    }
+
+    @Override
+    public void compute2() {
+      final LocalDomains local = local(_cKey);
+      final int nodes = H2O.CLOUD.size();
+      _slices = new byte[_splitters.length][];
+      for (int i = 0; i < _splitters.length; i++) {
+        int[] bounds = partitionBounds(local._sorted[i], PackedDomains.unpackToBufferedStrings(_splitters[i]), nodes);
+        _slices[i] = PackedDomains.pack(Arrays.copyOfRange(local._sorted[i], bounds[_partition], bounds[_partition + 1]));
+      }
+      tryComplete();
+    }
+  }
+
+  /** Returns the merged partitions owned by a node. */
+  private static class FetchPartitionTask extends MergerTask<FetchPartitionTask> {
+    private final Key _cKey;
+    private final boolean[] _cols;
+    byte[][] _partitions; // output
+
+    FetchPartitionTask(Key cKey, boolean[] cols) {
+      _cKey = cKey;
+      _cols = cols;
+    }
+
+    @Override
+    public void compute2() {
+      final LocalDomains local = local(_cKey);
+      _partitions = new byte[_cols.length][];
+      for (int i = 0; i < _cols.length; i++)
+        if (_cols[i]) _partitions[i] = local._partition[i];
+      tryComplete();
+    }
+  }
+
+  /** Returns the positions of the levels of a given source node in the partitions owned by this node. */
+  private static class FetchPositionsTask extends MergerTask<FetchPositionsTask> {
+    private final Key _cKey;
+    private final int _source;
+    int[][] _positions; // output
+
+    FetchPositionsTask(Key cKey, int source) {
+      _cKey = cKey;
+      _source = source;
+    }
+
+    @Override
+    public void compute2() {
+      _positions = local(_cKey)._positions[_source];
+      tryComplete();
+    }
+  }
+
+  /** Builds the node-local to global id maps of a node. */
+  private static class BuildUpdateMapTask extends MergerTask<BuildUpdateMapTask> {
+    private final Key _cKey;
+    private final int[] _cols;
+    private final byte[][] _splitters;
+    private final int[][] _offsets; // per column, per node: global id of the first level of the partition
+
+    BuildUpdateMapTask(Key cKey, int[] cols, byte[][] splitters, int[][] offsets) {
+      _cKey = cKey;
+      _cols = cols;
+      _splitters = splitters;
+      _offsets = offsets;
+    }
+
+    @Override
+    public void compute2() {
+      final LocalDomains local = local(_cKey);
+      final Categorical[] cats = ParseDataset.localCategoricals(_cKey);
+      final int nodes = H2O.CLOUD.size();
+      RPC<FetchPositionsTask>[] rpcs = new RPC[nodes];
+      for (int n = 0; n < nodes; n++)
+        rpcs[n] = new RPC<>(H2O.CLOUD.members()[n], new FetchPositionsTask(_cKey, H2O.SELF.index())).call();
+      int[][][] positions = new int[nodes][][];
+      for (int n = 0; n < nodes; n++)
+        positions[n] = rpcs[n].get()._positions;
+      int[][] maps = new int[_cols.length][];
+      for (int i = 0; i < _cols.length; i++) {
+        final BufferedString[] sorted = local._sorted[i];
+        if (sorted.length == 0) continue;
+        maps[i] = MemoryManager.malloc4(cats[_cols[i]].maxId() + 1);
+        Arrays.fill(maps[i], -1);
+        int[] bounds = partitionBounds(sorted, PackedDomains.unpackToBufferedStrings(_splitters[i]), nodes);
+        for (int n = 0; n < nodes; n++)
+          for (int k = bounds[n]; k < bounds[n + 1]; k++)
+            maps[i][local._ids[i][k]] = _offsets[i][n] + positions[n][i][k - bounds[n]];
+      }
+      DKV.put(ParseDataset.categoricalUpdateMapKey(_cKey, H2O.SELF.index()), new ParseDataset.CategoricalUpdateMap(maps));
+      tryComplete();
+    }
+  }
+
+  private static class CleanupTask extends MRTask<CleanupTask> {
+    private final Key _cKey;
+
+    CleanupTask(Key cKey) { _cKey = cKey; }
+
+    @Override
+    public void setupLocal() {
+      _local.remove(_cKey);
+    }
+  }
+
+}
@@ -1,13 +1,16 @@
 package water.parser;
 
 import org.apache.commons.lang.math.NumberUtils;
+import water.H2O;
 import water.Key;
 import water.fvec.FileVec;
 import water.fvec.Vec;
 import water.util.ArrayUtils;
 import water.util.StringUtils;
+import water.util.UnsafeUtils;
 
 import java.io.ByteArrayOutputStream;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.Arrays;
 
@@ -18,9 +21,10 @@ public class CsvParser extends Parser {
   private static final int NO_HEADER = ParseSetup.NO_HEADER;
   private static final int GUESS_HEADER = ParseSetup.GUESS_HEADER;
   private static final int HAS_HEADER = ParseSetup.HAS_HEADER;
-  private static final byte[] NON_DATA_LINE_MARKERS_DEFAULT = {'#'};
+  static final byte[] NON_DATA_LINE_MARKERS_DEFAULT = {'#'};
 
   private final byte[] _nonDataLineMarkers; 
+  private final boolean _numericFastPath;
 
   CsvParser( ParseSetup ps, Key jobKey ) {
     this(ps, NON_DATA_LINE_MARKERS_DEFAULT, jobKey);
@@ -29,6 +33,7 @@ public class CsvParser extends Parser {
   CsvParser(ParseSetup ps, byte[] defaultNonDataLineMarkers, Key jobKey) {
     super(ps, jobKey);
     _nonDataLineMarkers = ps._nonDataLineMarkers != null ? ps._nonDataLineMarkers : defaultNonDataLineMarkers;
+    _numericFastPath = NUMERIC_FAST_PATH && isNumericFastPathSeparator(CHAR_SEPARATOR);
   }
 
   // Parse this one Chunk (in parallel with other Chunks)
@@ -90,6 +95,7 @@ public class CsvParser extends Parser {
       _setup.setParseColumnIndices(_setup.getNumberColumns(), _setup.getSkippedColumns());
     }
     int parseIndexNum = _setup._parse_columns_indices.length-1;
+    final NumericLine numericLine = _numericFastPath ? new NumericLine(colIndexNum + 1) : null;
 MAIN_LOOP:
     while (true) {
       final boolean forcedCategorical = forceable && colIdx < _setup._column_types.length &&
@@ -230,6 +236,15 @@ MAIN_LOOP:
             state = SKIP_LINE;
             break;
           }
+          if (numericLine != null && firstChunk) {
+            int eol = parseNumericLine(bits, offset, dout, forceable, colIndexNum, parseIndexNum, numericLine);
+            if (eol >= 0) {     // Whole line done, continue with its line end
+              offset = eol;
+              c = bits[offset];
+              state = (c == CHAR_CR) ? EXPECT_COND_LF : POSSIBLE_EMPTY_LINE;
+              break;
+            }
+          }
           // fallthrough to WHITESPACE_BEFORE_TOKEN
         // ---------------------------------------------------------------------
         case WHITESPACE_BEFORE_TOKEN:
@@ -516,6 +531,149 @@ MAIN_LOOP:
     return dout;
   }
 
+  // ==========================================================================
+  // Fast path for lines of plain numbers.
+  //
+  // Most bytes of a typical numeric CSV are digits, minus signs, decimal
+  // points and separators.  For such lines the line end is found 8 bytes at a
+  // time (SWAR on long words), then the fields are converted in a tight loop
+  // without per-byte state transitions.  A line with any other byte (quotes,
+  // spaces, letters, exponents, ...), a line running past the end of the
+  // chunk, or a field the state machine would not parse as a plain number is
+  // left to the state machine, which remains the reference behaviour.
+  //
+  // Disable with -Dsys.ai.h2o.parser.csv.numericFastPath=false
+
+  private static final boolean NUMERIC_FAST_PATH = H2O.getSysBoolProperty("parser.csv.numericFastPath", true);
+  private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+  private static final long SWAR_ONES = 0x0101010101010101L;
+  private static final long SWAR_HIGH = 0x8080808080808080L;
+  private static final long SWAR_LOW7 = 0x7F7F7F7F7F7F7F7FL;
+  // No overflow handling needed below this many digits, see LARGEST_DIGIT_NUMBER
+  private static final int MAX_FAST_DIGITS = 17;
+
+  private static boolean isNumericFastPathSeparator(byte sep) {
+    // Runs of spaces are a single separator; the rest clash with numbers or quoting
+    return sep != CHAR_SPACE && sep != GUESS_SEP && !isEOL(sep) && !(sep >= '0' && sep <= '9') &&
+        sep != '-' && sep != '.' && sep != CHAR_DOUBLE_QUOTE && sep != CHAR_SINGLE_QUOTE;
+  }
+
+  /** Scratch space for the fields of one line */
+  private static final class NumericLine {
+    long[] _nums;
+    int[] _exps;
+    int[] _cols;                // Parsed column, or -1 for a skipped column
+    boolean[] _empty;
+    NumericLine(int n) { grow(Math.max(n, 4)); }
+    void grow(int n) {
+      _nums = new long[n]; _exps = new int[n]; _cols = new int[n]; _empty = new boolean[n];
+    }
+    void ensure(int n) {
+      if (n < _nums.length) return;
+      long[] nums = _nums; int[] exps = _exps, cols = _cols; boolean[] empty = _empty;
+      grow(n << 1);
+      System.arraycopy(nums, 0, _nums, 0, nums.length);
+      System.arraycopy(exps, 0, _exps, 0, exps.length);
+      System.arraycopy(cols, 0, _cols, 0, cols.length);
+      System.arraycopy(empty, 0, _empty, 0, empty.length);
+    }
+  }
+
+  // High bit set in each byte of w equal to the byte broadcast in pattern
+  private static long swarEq(long w, long pattern) {
+    long t = w ^ pattern;
+    return ~(((t & SWAR_LOW7) + SWAR_LOW7) | t | SWAR_LOW7);
+  }
+
+  private boolean isNumericByte(byte b) {
+    return (b >= '0' && b <= '9') || b == '-' || b == CHAR_DECIMAL_SEP || b == CHAR_SEPARATOR;
+  }
+
+  /** Offset of the first byte from off on which is not a digit, minus sign,
+   *  decimal point or separator; -1 if there is no such byte. */
+  private int scanNumericBytes(byte[] bits, int off) {
+    final long sep = SWAR_ONES * (0xFF & CHAR_SEPARATOR);
+    final long dec = SWAR_ONES * CHAR_DECIMAL_SEP;
+    final long minus = SWAR_ONES * '-';
+    for (; off + 8 <= bits.length; off += 8) {
+      long w = UnsafeUtils.get8(bits, off);
+      long low = w & SWAR_LOW7;   // No carries between bytes below
+      long digit = (low + SWAR_ONES * (0x80 - '0')) & ~(low + SWAR_ONES * (0x80 - '9' - 1));
+      long ok = digit | swarEq(w, sep) | swarEq(w, dec) | swarEq(w, minus);
+      long bad = (~ok | w) & SWAR_HIGH;  // Non-ASCII bytes are never ok
+      if (bad != 0)
+        return off + ((LITTLE_ENDIAN ? Long.numberOfTrailingZeros(bad) : Long.numberOfLeadingZeros(bad)) >>> 3);
+    }
+    for (; off < bits.length; off++)
+      if (!isNumericByte(bits[off])) return off;
+    return -1;
+  }
+
+  /**
+   * Parses a whole line of plain numbers, as the state machine would, into
+   * dout.  Nothing is written if the line does not qualify.
+   * @return offset of the line end, or -1 if the line was not parsed
+   */
+  private int parseNumericLine(byte[] bits, int start, ParseWriter dout, boolean forceable,
+                               int colIndexNum, int parseIndexNum, NumericLine line) {
+    int eol = scanNumericBytes(bits, start);
+    if (eol < 0 || !isEOL(bits[eol])) return -1;
+    int nfields = 0;
+    int colIdx = 0, parsedColumnCounter = 0;
+    for (int i = start; ; ) {
+      line.ensure(nfields);
+      boolean keep = colIdx <= colIndexNum && _keepColumns[colIdx];
+      line._cols[nfields] = keep ? parsedColumnCounter : -1;
+      if (i == eol || bits[i] == CHAR_SEPARATOR) {
+        line._empty[nfields] = true;
+      } else {
+        boolean neg = bits[i] == '-';
+        if (neg) i++;
+        long number = 0;
+        int digits = 0, dot = -1;
+        for (; i < eol; i++) {
+          byte b = bits[i];
+          if (b == CHAR_SEPARATOR) break;
+          if (b == CHAR_DECIMAL_SEP) {
+            if (dot >= 0) return -1;
+            dot = i;
+          } else if (b == '-') {
+            return -1;
+          } else {
+            number = number * 10 + (b - '0');
+            digits++;
+          }
+        }
+        if (digits == 0 || digits > MAX_FAST_DIGITS) return -1;
+        if (keep && (dout.isString(parsedColumnCounter) ||
+            isForcedStringOrCategorical(forceable, colIdx, parsedColumnCounter)))
+          return -1;            // Parsed as a string token
+        line._empty[nfields] = false;
+        line._nums[nfields] = neg ? -number : number;
+        line._exps[nfields] = dot < 0 ? 0 : dot - i + 1;
+      }
+      nfields++;
+      if (colIdx <= colIndexNum && _keepColumns[colIdx++] && parsedColumnCounter < parseIndexNum)
+        parsedColumnCounter++;
+      if (i == eol) break;
+      i++;                      // Skip the separator
+    }
+    for (int f = 0; f < nfields; f++) {
+      int col = line._cols[f];
+      if (col < 0) continue;
+      if (line._empty[f]) dout.addInvalidCol(col);
+      else dout.addNumCol(col, line._nums[f], line._exps[f]);
+    }
+    dout.newLine();
+    return eol;
+  }
+
+  private boolean isForcedStringOrCategorical(boolean forceable, int colIdx, int parsedColumnCounter) {
+    if (!forceable || colIdx >= _setup._column_types.length) return false;
+    byte type = _setup._column_types[_setup._parse_columns_indices[parsedColumnCounter]];
+    return type == Vec.T_CAT || type == Vec.T_STR;
+  }
+
   @Override protected int fileHasHeader(byte[] bits, ParseSetup ps) {
     boolean hasHdr = true;
     String[] lines = getFirstLines(bits, ps._single_quotes, _nonDataLineMarkers);
@@ -126,8 +126,20 @@ public class FVecParseWriter extends Iced implements StreamParseWriter {
     _nvs = null;  // Free for GC
     return this;
   }
+  /** Compressed size of the parsed data, the Chunks are not stored (see {@link ParseChunkBalancer}). */
+  long compressedSize() {
+    long bytes = 0;
+    for (NewChunk nv : _nvs)
+      bytes += nv.compress().byteSize();
+    return bytes;
+  }
   @Override public FVecParseWriter nextChunk(){
-    return new FVecParseWriter(_vg, _cidx+1, _categoricals, _ctypes, _chunkSize, _vecs, _parse_columns_indices, _jobKey);
+    return chunkWriter(_cidx+1);
+  }
+
+  /** Writer of another Chunk of the same Vecs (for parsing several Chunks of a stream concurrently). */
+  FVecParseWriter chunkWriter(int cidx){
+    return new FVecParseWriter(_vg, cidx, _categoricals, _ctypes, _chunkSize, _vecs, _parse_columns_indices, _jobKey);
   }
 
   @Override public void newLine() {
@@ -189,7 +201,7 @@ public class FVecParseWriter extends Iced implements StreamParseWriter {
           } else
             _nvs[colIdx].addCategorical(id);
         } else { // maxed out categorical map
-          throw new ParseDataset.H2OParseException("Exceeded categorical limit on column #"+(colIdx+1)+" (using 1-based indexing).  Consider reparsing this column as a string.");
+          throw categoricalLimitExceeded(colIdx);
         }
       }
     }
@@ -248,6 +260,64 @@ public class FVecParseWriter extends Iced implements StreamParseWriter {
     ++_errCnt;
   }
 
+  // Columnar writes, for parsers which decode a whole column at a time (eg.
+  // Parquet): the rows of one column are appended before the next column's,
+  // without newLine calls, so the rows have to be counted with addLines.
+
+  /** Counts rows which were written one column at a time. */
+  public void addLines(long n) {
+    _nLines += n;
+  }
+
+  /**
+   * Appends a whole column of doubles; NaNs and infinities are NAs, as in
+   * {@link #addNumCol(int, double)}.  An empty NewChunk takes over the array
+   * as is, without copying or decomposing the values.
+   */
+  public void addNumCols(int colIdx, double[] ds) {
+    if (colIdx >= _nCols) return;
+    boolean finite = true, numbers = false;
+    for (double d : ds) {
+      if (Double.isInfinite(d)) { finite = false; break; }
+      numbers |= !Double.isNaN(d);
+    }
+    if (finite && _nvs[colIdx].len() == 0) {
+      _nvs[_col = colIdx].setDoubles(ds);
+      if (numbers && _ctypes != null && _ctypes[colIdx] == Vec.T_BAD) _ctypes[colIdx] = Vec.T_NUM;
+    } else {
+      for (double d : ds) addNumCol(colIdx, d);
+    }
+  }
+
+  /** Is column colIdx known to be categorical? */
+  public boolean isCategorical(int colIdx) {
+    return colIdx < _nCols && _ctypes != null && _ctypes[colIdx] == Vec.T_CAT;
+  }
+
+  /**
+   * Id of str in the domain of categorical column colIdx, as addStrCol would
+   * assign it.  Lets a parser map each distinct value once (eg. each entry of
+   * the dictionary of a dictionary-encoded column) and then add the values by
+   * id with {@link #addCategoricalId}.
+   */
+  public int categoricalId(int colIdx, BufferedString str) {
+    assert isCategorical(colIdx);
+    if (_categoricals[colIdx].isMapFull()) throw categoricalLimitExceeded(colIdx);
+    return _categoricals[colIdx].addKey(str);
+  }
+
+  /** Adds a value of a categorical column by its id, see {@link #categoricalId}. */
+  public void addCategoricalId(int colIdx, int id) {
+    if (colIdx < _nCols) {
+      if (_categoricals[colIdx].isMapFull()) throw categoricalLimitExceeded(colIdx);
+      _nvs[_col = colIdx].addCategorical(id);
+    }
+  }
+
+  private static ParseDataset.H2OParseException categoricalLimitExceeded(int colIdx) {
+    return new ParseDataset.H2OParseException("Exceeded categorical limit on column #"+(colIdx+1)+" (using 1-based indexing).  Consider reparsing this column as a string.");
+  }
+
   public NewChunk[] getNvs() {
     return _nvs;
   }
@@ -24,6 +24,22 @@ public class PackedDomains {
     return out;
   }
 
+  /**
+   * Unpacks the domain as BufferedStrings backed by the packed array (no copies are made).
+   */
+  static BufferedString[] unpackToBufferedStrings(byte[] domain) {
+    final int n = sizeOf(domain);
+    BufferedString[] out = new BufferedString[n];
+    int pos = 4;
+    for (int i = 0; i < n; i++) {
+      int len = encodeAsInt(domain, pos);
+      pos += 4;
+      out[i] = new BufferedString(domain, pos, len);
+      pos += len;
+    }
+    return out;
+  }
+
   public static byte[] pack(BufferedString[] source) {
     int len = 0;
     for (BufferedString bs : source)
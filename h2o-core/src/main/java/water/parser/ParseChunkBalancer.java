@@ -0,0 +1,156 @@
+package water.parser;
+
+import water.H2O;
+import water.Key;
+import water.fvec.AppendableVec;
+import water.fvec.ByteVec;
+import water.fvec.Vec;
+import water.util.Log;
+import water.util.PrettyPrint;
+
+import java.util.Arrays;
+
+/**
+ * Chooses the parse chunk size based on the measured (compressed) size of the parsed data.
+ *
+ * The parse chunk size is chosen from the size of the input before parsing (see FileVec.calcOptimalChunkSize),
+ * so wide sparse data and narrow dense data end up with very different amounts of data per chunk. Before the
+ * distributed parse starts, the first {@link #PROBE_BYTES} of the input are parsed locally into compressed Chunks
+ * which are only measured (nothing is stored). The ratio of parsed to input bytes predicts the size of every parsed
+ * chunk; if the layout would be far from the target (too few chunks to keep all cores busy or chunks much bigger
+ * than the target size) the input chunk size is reduced such that each parsed chunk holds about the target number
+ * of bytes. The chunk boundaries are therefore set by the parse itself, the parsed data is never moved.
+ *
+ * Only uncompressed CSV input is probed. Small chunks are never merged, the chunk size might have been chosen
+ * explicitly. Can be disabled by setting sys.ai.h2o.parse.chunk.rebalance=false.
+ */
+class ParseChunkBalancer {
+
+  static final boolean ENABLED = H2O.getSysBoolProperty("parse.chunk.rebalance", true);
+  // target size of a chunk (summed over all columns)
+  static final long TARGET_BYTES = Long.parseLong(H2O.getSysProperty("parse.chunk.targetBytes", String.valueOf(4 << 20)));
+  // minimum number of chunks per core
+  static final int CORES_MULTIPLE = Integer.parseInt(H2O.getSysProperty("parse.chunk.coresMultiple", "4"));
+  // never create chunks smaller than this (small data stays as is)
+  static final long MIN_BYTES = 1 << 20;
+  // number of input bytes parsed to measure the density of the data
+  static final int PROBE_BYTES = 1 << 20;
+  // don't create more than 2M Chunk POJOs per node (same as FileVec.calcOptimalChunkSize)
+  private static final long PER_NODE_CHUNK_COUNT_LIMIT = 1 << 21;
+  // don't read less than this many bytes / lines per chunk (same as FileVec.calcOptimalChunkSize)
+  private static final int MIN_PARSE_CHUNK_SIZE = 1 << 12;
+  private static final int MIN_LINES_PER_CHUNK = 10;
+
+  /** Measured density of the parsed data. */
+  static class Probe {
+    final long _inputBytes;
+    final long _parsedBytes;
+    final long _lines;
+    final int _maxLineLength;
+
+    Probe(long inputBytes, long parsedBytes, long lines, int maxLineLength) {
+      _inputBytes = inputBytes;
+      _parsedBytes = parsedBytes;
+      _lines = lines;
+      _maxLineLength = maxLineLength;
+    }
+  }
+
+  /**
+   * Parse chunk size for the given input.
+   * @return the chunk size of the setup unless the resulting layout is off target
+   */
+  static int chunkSize(Key[] keys, ParseSetup setup, long totalParseSize) {
+    if (!ENABLED || keys.length == 0 || totalParseSize <= setup._chunk_size ||
+            !setup._parse_type.equals(DefaultParserProviders.CSV_INFO))
+      return setup._chunk_size;
+    ByteVec bv = ParseDataset.getByteVec(keys[0]);
+    byte[] bits = bv.getFirstBytes();
+    if (ZipUtil.guessCompressionMethod(bits) != ZipUtil.Compression.NONE)
+      return setup._chunk_size;
+    Probe p = probe(bits, bits.length < bv.length(), setup);
+    if (p == null)
+      return setup._chunk_size;
+    int cores = H2O.ARGS.nthreads > 0 ? H2O.ARGS.nthreads : H2O.NUMCPUS;
+    int numCols = setup._parse_columns_indices != null ? setup._parse_columns_indices.length : setup._number_columns;
+    long maxChunks = PER_NODE_CHUNK_COUNT_LIMIT * H2O.getCloudSize() / Math.max(1, numCols);
+    int chunkSize = balancedChunkSize(totalParseSize, p, setup._chunk_size,
+            (long) cores * H2O.getCloudSize() * CORES_MULTIPLE, maxChunks);
+    if (chunkSize != setup._chunk_size)
+      Log.info("Parsed data is estimated to take " + PrettyPrint.bytes((long) (totalParseSize * density(p))) +
+              ", reducing the parse chunk size from " + setup._chunk_size + " to " + chunkSize + ".");
+    return chunkSize;
+  }
+
+  /**
+   * Parses the beginning of the input into compressed Chunks, which are only measured.
+   * @param more is there more input after the given bits?
+   * @return null if there is not a single complete line
+   */
+  static Probe probe(byte[] bits, boolean more, ParseSetup setup) {
+    int len = Math.min(bits.length, PROBE_BYTES);
+    if (more || len < bits.length) // cut at a line end
+      len = new PipelinedStreamParser.LineCutter(setup).lastLineEnd(bits, len);
+    if (len <= 0)
+      return null;
+    int[] cols = setup._parse_columns_indices;
+    if (cols == null) {
+      cols = new int[setup._number_columns];
+      for (int i = 0; i < cols.length; i++) cols[i] = i;
+    }
+    AppendableVec[] avs = new AppendableVec[cols.length];
+    for (int i = 0; i < avs.length; i++)
+      avs[i] = new AppendableVec(Vec.newKey(), setup._column_types[cols[i]]);
+    Categorical[] categoricals = new Categorical[setup._number_columns];
+    for (int i = 0; i < categoricals.length; i++) categoricals[i] = new Categorical();
+    FVecParseWriter dout = new FVecParseWriter(null, 0, categoricals, setup._column_types, setup._chunk_size,
+            avs, cols, null);
+    setup.parser(null).parseChunk(0, new Parser.ByteAryData(Arrays.copyOf(bits, len), 0), dout);
+    if (dout.lineNum() == 0)
+      return null;
+    return new Probe(len, dout.compressedSize(), dout.lineNum(), maxLineLength(bits, len));
+  }
+
+  private static int maxLineLength(byte[] bits, int len) {
+    int max = 0;
+    int start = 0;
+    for (int i = 0; i < len; i++)
+      if (bits[i] == Parser.CHAR_LF) {
+        max = Math.max(max, i + 1 - start);
+        start = i + 1;
+      }
+    return Math.max(max, len - start);
+  }
+
+  private static double density(Probe p) {
+    return (double) p._parsedBytes / p._inputBytes;
+  }
+
+  /**
+   * Input chunk size giving parsed chunks of about the target size. The given chunk size is kept if it is already
+   * close enough: not less than half of the optimal number of chunks and no chunk more than twice the optimal size.
+   */
+  static int balancedChunkSize(long totalParseSize, Probe p, int chunkSize, long minChunks, long maxChunks) {
+    final double density = density(p);
+    final long totalBytes = (long) (totalParseSize * density);
+    final long rows = Math.max(1, (long) ((double) totalParseSize * p._lines / p._inputBytes));
+    int nChunks = optimalChunkCount(totalBytes, rows, TARGET_BYTES, minChunks, maxChunks);
+    long curChunks = (totalParseSize + chunkSize - 1) / chunkSize;
+    long curChunkBytes = (long) (chunkSize * density);
+    boolean offTarget = 2 * curChunks < nChunks ||
+            (curChunks > 1 && curChunkBytes > 2 * Math.max(totalBytes / nChunks, MIN_BYTES));
+    if (!offTarget)
+      return chunkSize;
+    long size = (totalParseSize + nChunks - 1) / nChunks;
+    size = Math.max(size, Math.max(MIN_PARSE_CHUNK_SIZE, (long) MIN_LINES_PER_CHUNK * p._maxLineLength));
+    return (int) Math.min(size, chunkSize); // small chunks are never merged
+  }
+
+  static int optimalChunkCount(long totalBytes, long rows, long targetBytes, long minChunks, long maxChunks) {
+    long n = Math.max((totalBytes + targetBytes - 1) / targetBytes, minChunks);
+    n = Math.min(n, Math.max(1, totalBytes / MIN_BYTES));
+    n = Math.min(n, Math.max(1, maxChunks));
+    return (int) Math.max(1, Math.min(n, rows));
+  }
+
+}
@@ -153,6 +153,8 @@ public final class ParseDataset {
 
     // no need to set this for ORC, it is already done:
     if (!setup.getParseType().name().contains("ORC")) {
+      // adapt the chunk size to the measured density of the parsed data
+      setup.setChunkSize(ParseChunkBalancer.chunkSize(keys, setup, totalParseSize));
       for( int i = 0; i < keys.length; ++i ) {
         Iced ice = DKV.getGet(keys[i]);
 
@@ -180,6 +182,54 @@ public final class ParseDataset {
     return pds;
   }
 
+  /**
+   * Parses the input files and appends the rows to an existing frame in place (see {@link FrameAppender}).
+   * The files are parsed using the column names and types of the existing frame; categorical columns get
+   * the new levels appended to their domains.
+   *
+   * @param target key of the frame to append the rows to
+   * @param keys input keys
+   * @param userSetup setup guidance (separator, header,...), can be null; column names and types are always
+   *                  taken from the target frame
+   * @param deleteOnDone delete input data when finished
+   * @return a new append job, its result is the target frame
+   */
+  public static Job<Frame> forkAppendParse(final Key<Frame> target, final Key[] keys, ParseSetup userSetup,
+                                           final boolean deleteOnDone) {
+    final Frame fr = DKV.getGet(target);
+    if (fr == null)
+      throw new H2OIllegalArgumentException("target", "forkAppendParse", "Frame " + target + " not found.");
+    final ParseSetup setup = userSetup != null ?
+            ParseSetup.guessSetup(keys, userSetup) : ParseSetup.guessSetup(keys, false, ParseSetup.GUESS_HEADER);
+    if (setup._number_columns != fr.numCols())
+      throw new H2OIllegalArgumentException("Cannot append files with " + setup._number_columns +
+              " columns to frame " + target + " with " + fr.numCols() + " columns.");
+    if (setup._check_header == ParseSetup.HAS_HEADER && !Arrays.equals(setup._column_names, fr.names()))
+      throw new H2OIllegalArgumentException("Column names of the appended files " + Arrays.toString(setup._column_names) +
+              " differ from the column names of frame " + target + ".");
+    setup._column_names = fr.names();
+    byte[] types = fr.types();
+    for (int i = 0; i < types.length; i++)
+      if (types[i] == Vec.T_BAD) types[i] = setup._column_types[i]; // all-missing column, adopts the type of the new rows
+    setup._column_types = types;
+
+    final Job<Frame> job = new Job<>(target, Frame.class.getName(), "Append parse");
+    return job.start(new H2OCountedCompleter() {
+      @Override
+      public void compute2() {
+        Frame tail = forkParseDataset(Key.<Frame>make(), keys, setup, deleteOnDone)._job.get();
+        try {
+          FrameAppender.append(DKV.<Frame>getGet(target), tail, job._key);
+        } catch (RuntimeException e) {
+          tail.delete();
+          throw e;
+        }
+        job.update(1);
+        tryComplete();
+      }
+    }, 1);
+  }
+
   // Setup a private background parse job
   private ParseDataset(Key<Frame> dest) {
     _job = new Job<>(dest, Frame.class.getName(), "Parse");
@@ -232,10 +282,20 @@ public final class ParseDataset {
     }
   }
 
-  private static class CategoricalUpdateMap extends Iced {
+  static class CategoricalUpdateMap extends Iced {
     final int [][] map;
     public CategoricalUpdateMap(int[][] map){this.map = map;}
   }
+
+  /** Key of the map of the node-local categorical ids to the global ids used by the parse on a given node. */
+  static Key categoricalUpdateMapKey(Key parseCatMapsKey, int nodeIdx) {
+    return Key.make(parseCatMapsKey.toString() + "parseCatMapNode" + nodeIdx);
+  }
+
+  /** Node-local categoricals collected by a parse (null if the node did not parse any data). */
+  static Categorical[] localCategoricals(Key parseCatMapsKey) {
+    return MultiFileParseTask._categoricals.get(parseCatMapsKey);
+  }
   // --------------------------------------------------------------------------
   // Top-level parser driver
   private static ParseDataset parseAllKeys(ParseDataset pds, Key[] fkeys, ParseSetup setup, boolean deleteOnDone) {
@@ -301,7 +361,31 @@ public final class ParseDataset {
     ParseFinalizer finalizer = ParseFinalizer.get(setup);
     // If we have any, go gather unified categorical domains
     if( n > 0 ) {
-      if (!setup.getParseType().isDomainProvided) { // Domains are not provided via setup we need to collect them
+      CategoricalDomainMerger merger = null;
+      if (!setup.getParseType().isDomainProvided && CategoricalDomainMerger.ENABLED) {
+        job.update(0, "Merging categorical domains across nodes.");
+        merger = new CategoricalDomainMerger(mfpt._cKey, ecols, mfpt._parseSetup._parse_columns_indices);
+        int[] domainSizes = merger.mergeDomains();
+        boolean[] validDomains = new boolean[ecols.length];
+        List<String> offendingColNames = new ArrayList<>();
+        for (int i = 0; i < ecols.length; i++) {
+          validDomains[i] = domainSizes[i] > 0 && domainSizes[i] < Categorical.MAX_CATEGORICAL_COUNT;
+          if (domainSizes[i] >= Categorical.MAX_CATEGORICAL_COUNT)
+            offendingColNames.add(setup._column_names[ecols[i]]);
+        }
+        if (offendingColNames.size() > 0) {
+          merger.cleanup();
+          throw new H2OParseException("Exceeded categorical limit on columns "+ offendingColNames+".   " +
+                  "Consider reparsing these columns as a string or skip parsing the offending columns by setting" +
+                  " the skipped_columns list in Python/R/Java APIs.");
+        }
+        String[][] domains = merger.domains(validDomains);
+        for (int i = 0; i < ecols.length; i++) {
+          if (domainSizes[i] == 0) avs[ecols[i]].setBad(); // The all-NA column
+          else avs[ecols[i]].setDomain(domains[i]);
+        }
+        Log.trace("Done merging categorical domains across nodes.");
+      } else if (!setup.getParseType().isDomainProvided) { // Domains are not provided via setup we need to collect them
         job.update(0, "Collecting categorical domains across nodes.");
         {
           GatherCategoricalDomainsTask gcdt = new GatherCategoricalDomainsTask(mfpt._cKey, ecols,
@@ -339,7 +423,11 @@ public final class ParseDataset {
         Vec[] evecs = new Vec[ecols.length];
         for( int i = 0; i < evecs.length; ++i ) evecs[i] = fr.vecs()[ecols[i]];
         job.update(0, "Unifying categorical domains across nodes.");
-        {
+        if (merger != null) {
+          // the maps are built by every node for its own levels only
+          merger.installUpdateMaps();
+          merger.cleanup();
+        } else {
           // new CreateParse2GlobalCategoricalMaps(mfpt._cKey).doAll(evecs);
           // Using Dtask since it starts and returns faster than an MRTask
           CreateParse2GlobalCategoricalMaps[] fcdt = new CreateParse2GlobalCategoricalMaps[H2O.CLOUD.size()];
@@ -351,10 +439,9 @@ public final class ParseDataset {
           }
           for (RPC rpc : rpcs)
             rpc.get();
-
-          new UpdateCategoricalChunksTask(mfpt._cKey, mfpt._chunk2ParseNodeMap).doAll(evecs);
-          MultiFileParseTask._categoricals.remove(mfpt._cKey);
         }
+        new UpdateCategoricalChunksTask(mfpt._cKey, mfpt._chunk2ParseNodeMap).doAll(evecs);
+        MultiFileParseTask._categoricals.remove(mfpt._cKey);
         Log.trace("Done unifying categoricals across nodes.");
       }
     } else {                    // No categoricals case
@@ -461,7 +548,7 @@ public final class ParseDataset {
           }
         }
         // Store the local->global ordinal maps in DKV by node parse categorical key and node index
-        DKV.put(Key.make(_parseCatMapsKey.toString() + "parseCatMapNode" + H2O.SELF.index()), new CategoricalUpdateMap(_nodeOrdMaps));
+        DKV.put(categoricalUpdateMapKey(_parseCatMapsKey, H2O.SELF.index()), new CategoricalUpdateMap(_nodeOrdMaps));
       tryComplete();
     }
   }
@@ -482,7 +569,7 @@ public final class ParseDataset {
     }
 
     @Override public void map(Chunk [] chks){
-      CategoricalUpdateMap temp = DKV.getGet(Key.make(_parseCatMapsKey.toString() + "parseCatMapNode" + _chunk2ParseNodeMap[chks[0].cidx()]));
+      CategoricalUpdateMap temp = DKV.getGet(categoricalUpdateMapKey(_parseCatMapsKey, _chunk2ParseNodeMap[chks[0].cidx()]));
       if ( temp == null || temp.map == null)
         throw new H2OIllegalValueException("Missing categorical update map",this);
       int[][] _parse2GlobalCatMaps = temp.map;
@@ -512,7 +599,7 @@ public final class ParseDataset {
     }
     @Override public void postGlobal() {
       for (int i=0; i < H2O.CLOUD.size(); i++)
-        DKV.remove(Key.make(_parseCatMapsKey.toString() + "parseCatMapNode" + i));
+        DKV.remove(categoricalUpdateMapKey(_parseCatMapsKey, i));
     }
   }
   private static class GatherCategoricalDomainsTask extends MRTask<GatherCategoricalDomainsTask> {
@@ -832,9 +919,12 @@ public final class ParseDataset {
         case GZIP: {
           localSetup = ParserService.INSTANCE.getByInfo(localSetup._parse_type).setupLocal(vec,localSetup);
           InputStream bvs = vec.openStream(_jobKey);
-          // Zipped file; no parallel decompression;
-          _dout[_lo] = streamParse(decryptionTool.decryptInputStream(new GZIPInputStream(bvs)),
-                  localSetup, makeDout(localSetup,chunkStartIdx,vec.nChunks()),bvs);
+          InputStream dec = decryptionTool.decryptInputStream(new GZIPInputStream(bvs));
+          FVecParseWriter dout = makeDout(localSetup,chunkStartIdx,vec.nChunks());
+          if (PipelinedStreamParser.supports(localSetup)) // single decompression thread, parallel parse
+            _dout[_lo] = PipelinedStreamParser.parse(dec, bvs, localSetup, dout, _jobKey);
+          else // Zipped file; no parallel decompression;
+            _dout[_lo] = streamParse(dec, localSetup, dout, bvs);
           _errors = _dout[_lo].removeErrors();
           // set this node as the one which processed all the chunks
           chunksAreLocal(vec,chunkStartIdx,key);
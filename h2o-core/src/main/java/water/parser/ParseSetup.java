@@ -43,6 +43,7 @@ public class ParseSetup extends Iced {
   String[][] _na_strings;       // Strings for NA in a given column
   String[][] _data;           // First few rows of parsed/tokenized data
   int[] _parse_columns_indices; // store column indices to be parsed into the final file
+  RowFilter _row_filter;      // Rows to keep (null keeps all), only supported by some parsers
   byte[] _nonDataLineMarkers;
 
   String[] _synthetic_column_names; // Columns with constant values to be added to parsed Frame
@@ -71,6 +72,7 @@ public class ParseSetup extends Iced {
             ps._column_names, ps._column_types, ps._domains, ps._na_strings, ps._data,
             new ParseWriter.ParseErr[0], ps._chunk_size, ps._decrypt_tool, ps._skipped_columns,
             ps._nonDataLineMarkers);
+    _row_filter = ps._row_filter;
   }
 
   public static ParseSetup makeSVMLightSetup(){
@@ -216,6 +218,7 @@ public class ParseSetup extends Iced {
   public String[] getColumnNames() { return _column_names; }
   public int[] getSkippedColumns() { return _skipped_columns; }
   public int[] get_parse_columns_indices() { return _parse_columns_indices; }
+  public RowFilter getRowFilter() { return _row_filter; }
   public String[][] getData() { return _data; }
 
   public String[] getColumnTypeStrings() {
@@ -824,6 +827,30 @@ public class ParseSetup extends Iced {
     return this;
   }
 
+  /**
+   * Parses only the given columns, all other columns are skipped; the inverse of {@link #setSkippedColumns}.
+   * Column names need to be known already.
+   */
+  public ParseSetup setProjection(String... columns) {
+    if (_column_names == null)
+      throw new H2OIllegalArgumentException("Column names need to be known to project columns.");
+    int[] skipped = new int[0];
+    for (int i = 0; i < _column_names.length; i++)
+      if (!ArrayUtils.contains(columns, _column_names[i]))
+        skipped = ArrayUtils.append(skipped, i);
+    for (String column : columns)
+      if (!ArrayUtils.contains(_column_names, column))
+        throw new H2OIllegalArgumentException("Projected column '" + column + "' not found.");
+    _skipped_columns = skipped.length > 0 ? skipped : null;
+    setParseColumnIndices(_column_names.length, _skipped_columns);
+    return this;
+  }
+
+  public ParseSetup setRowFilter(RowFilter row_filter) {
+    this._row_filter = row_filter;
+    return this;
+  }
+
   public ParseSetup setColumnTypes(byte[] column_types) {
     this._column_types = column_types;
     return this;
@@ -0,0 +1,212 @@
+package water.parser;
+
+import water.H2O;
+import water.Job;
+import water.Key;
+import water.util.ArrayUtils;
+import water.util.Log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * Parses a (decompressed) stream using multiple threads.
+ *
+ * The calling thread only decompresses the input: the data is cut into blocks at the line boundary closest to the
+ * end of each Chunk of the compressed input (the same Chunk layout the sequential stream parse produces). Every block
+ * is parsed into its own output Chunk by a separate task. At most {@link #PIPELINE_DEPTH} blocks are in flight
+ * at any time, this bounds the memory used for the decompressed data.
+ *
+ * Blocks are only cut at line breaks outside of quoted fields (see {@link LineCutter}), a line with a quoted line
+ * break is never split. When no safe cut is found the block keeps growing, in the worst case the rest of the stream
+ * is parsed as a single block, exactly like the sequential parse. This is only supported for the CSV parser
+ * and can be disabled by setting sys.ai.h2o.parse.stream.pipelined=false.
+ */
+class PipelinedStreamParser {
+
+  static final boolean ENABLED = H2O.getSysBoolProperty("parse.stream.pipelined", true);
+  static final int PIPELINE_DEPTH = Integer.parseInt(H2O.getSysProperty("parse.stream.pipelineDepth",
+          String.valueOf(Math.max(2, H2O.ARGS.nthreads > 0 ? H2O.ARGS.nthreads : H2O.NUMCPUS))));
+
+  private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+  static boolean supports(ParseSetup setup) {
+    return ENABLED && setup._parse_type.equals(DefaultParserProviders.CSV_INFO);
+  }
+
+  /**
+   * Parses the stream.
+   *
+   * @param is decompressed input
+   * @param bvs underlying ByteVec stream (used to track the index of the current input Chunk)
+   * @param dout writer of the first output Chunk, the writers of the following Chunks are derived from it
+   * @return dout with the errors of all blocks
+   */
+  static FVecParseWriter parse(InputStream is, InputStream bvs, ParseSetup setup, FVecParseWriter dout,
+                               Key<Job> jobKey) throws IOException {
+    final ParseSetup noHeaderSetup = new ParseSetup(setup).setCheckHeader(ParseSetup.NO_HEADER);
+    final ArrayDeque<BlockParseTask> inFlight = new ArrayDeque<>(PIPELINE_DEPTH);
+    final byte[] buf = new byte[READ_BUFFER_SIZE];
+    byte[] block = new byte[READ_BUFFER_SIZE];
+    int blockLen = 0;
+    int nBlocks = 0;
+    long blockOffset = 0;
+    final LineCutter cutter = new LineCutter(setup);
+    int zidx = bvs.read(null, 0, 0); // Back-channel read of chunk index
+    try {
+      int len;
+      while ((len = is.read(buf)) != -1) {
+        if (blockLen + len > block.length)
+          block = Arrays.copyOf(block, Math.max(block.length * 2, blockLen + len));
+        System.arraycopy(buf, 0, block, blockLen, len);
+        blockLen += len;
+        int xidx = bvs.read(null, 0, 0);
+        if (xidx <= zidx) continue;
+        // Advanced chunk index of underlying ByteVec stream => cut a block
+        zidx = xidx;
+        int end = cutter.lastLineEnd(block, blockLen);
+        if (end <= 0) continue; // no complete line yet
+        if (jobKey != null && jobKey.get().stop_requested()) break;
+        byte[] bits = Arrays.copyOf(block, end);
+        System.arraycopy(block, end, block, 0, blockLen - end);
+        blockLen -= end;
+        cutter.shift(end);
+        submit(inFlight, new BlockParseTask(bits, blockOffset, nBlocks == 0 ? setup : noHeaderSetup,
+                nBlocks == 0 ? dout : dout.chunkWriter(dout._cidx + nBlocks), nBlocks, jobKey), dout);
+        blockOffset += bits.length;
+        nBlocks++;
+      }
+      if (blockLen > 0 && (jobKey == null || !jobKey.get().stop_requested())) {
+        submit(inFlight, new BlockParseTask(Arrays.copyOf(block, blockLen), blockOffset, nBlocks == 0 ? setup : noHeaderSetup,
+                nBlocks == 0 ? dout : dout.chunkWriter(dout._cidx + nBlocks), nBlocks, jobKey), dout);
+        nBlocks++;
+      }
+      while (!inFlight.isEmpty())
+        complete(inFlight.poll(), dout);
+    } finally {
+      bvs.close();
+      is.close();
+    }
+    dout.close(); // no-op unless the stream was empty
+    Log.debug("Stream parsed in " + nBlocks + " blocks using a pipeline of depth " + PIPELINE_DEPTH + ".");
+    return dout;
+  }
+
+  private static void submit(ArrayDeque<BlockParseTask> inFlight, BlockParseTask task, FVecParseWriter dout) {
+    if (inFlight.size() >= PIPELINE_DEPTH)
+      complete(inFlight.poll(), dout);
+    H2O.submitTask(task);
+    inFlight.add(task);
+  }
+
+  private static void complete(BlockParseTask task, FVecParseWriter dout) {
+    task.join();
+    if (task._dout != dout)
+      dout.reduce(task._dout);
+  }
+
+  /**
+   * Finds the end of the last complete line outside of quoted fields. Follows the quoting rules of the CsvParser:
+   * a quote opens a field only at the beginning of the field, a doubled quote inside the field is an escaped quote
+   * and quotes are not recognized in non-data (comment) lines and in Hive files.
+   *
+   * The data is scanned incrementally: the state of the scan is kept between calls and after a cut the scan
+   * continues with the remaining data (which starts at a line boundary outside of quotes).
+   */
+  static class LineCutter {
+    private final byte _sep;
+    private final boolean _singleQuotes;
+    private final byte[] _nonDataLineMarkers;
+    private int _pos;          // next byte to scan
+    private int _lastCut;      // end of the last complete line seen so far
+    private byte _quote;       // quote char of the current quoted field, 0 outside of quotes
+    private boolean _lineStart = true;
+    private boolean _fieldStart = true;
+    private boolean _comment;
+
+    LineCutter(ParseSetup setup) {
+      this(setup._separator, setup._single_quotes, setup._nonDataLineMarkers != null ?
+              setup._nonDataLineMarkers : CsvParser.NON_DATA_LINE_MARKERS_DEFAULT);
+    }
+
+    LineCutter(byte sep, boolean singleQuotes, byte[] nonDataLineMarkers) {
+      _sep = sep;
+      _singleQuotes = singleQuotes;
+      _nonDataLineMarkers = nonDataLineMarkers;
+    }
+
+    /** End of the last complete line in the data (0 if there is none). */
+    int lastLineEnd(byte[] bits, int len) {
+      for (; _pos < len; _pos++) {
+        byte c = bits[_pos];
+        if (_quote != 0) {
+          if (c != _quote) continue;
+          if (_pos + 1 == len) break; // escaped or closing quote? => decide once more data is available
+          if (bits[_pos + 1] == _quote) _pos++; // escaped quote
+          else _quote = 0;
+          _fieldStart = false;
+        } else if (Parser.isEOL(c)) {
+          _lastCut = _pos + 1;
+          _lineStart = _fieldStart = true;
+          _comment = false;
+        } else if (_comment) {
+          // skip the rest of the line
+        } else if (_lineStart && ArrayUtils.contains(_nonDataLineMarkers, c)) {
+          _comment = true;
+        } else if (c == _sep) {
+          _lineStart = false;
+          _fieldStart = true;
+        } else if (c == Parser.CHAR_SPACE || c == Parser.CHAR_TAB) {
+          _lineStart = false; // whitespace before a token doesn't end the field start
+        } else {
+          if (_fieldStart && _sep != CsvParser.HIVE_SEP &&
+                  (c == Parser.CHAR_DOUBLE_QUOTE || (_singleQuotes && c == Parser.CHAR_SINGLE_QUOTE)))
+            _quote = c;
+          _lineStart = _fieldStart = false;
+        }
+      }
+      return _lastCut;
+    }
+
+    /** The first {@code end} bytes were cut off the data. */
+    void shift(int end) {
+      assert end == _lastCut;
+      _pos -= end;
+      _lastCut = 0;
+    }
+  }
+
+  private static class BlockParseTask extends H2O.H2OCountedCompleter<BlockParseTask> {
+    private final byte[] _bits;
+    private final long _offset;
+    private final ParseSetup _setup;
+    private final int _blockIdx;
+    private final Key<Job> _jobKey;
+    final FVecParseWriter _dout;
+
+    BlockParseTask(byte[] bits, long offset, ParseSetup setup, FVecParseWriter dout, int blockIdx, Key<Job> jobKey) {
+      super(currThrPriority());
+      _bits = bits;
+      _offset = offset;
+      _setup = setup;
+      _dout = dout;
+      _blockIdx = blockIdx;
+      _jobKey = jobKey;
+    }
+
+    @Override
+    public void compute2() {
+      Parser p = _setup.parser(_jobKey);
+      // every block starts at a line boundary => parse it as a first chunk
+      p.parseChunk(0, new Parser.ByteAryData(_bits, _offset), _dout);
+      if (_dout._errs != null)
+        for (ParseWriter.ParseErr err : _dout._errs)
+          err._cidx = _blockIdx;
+      _dout.close();
+      tryComplete();
+    }
+  }
+
+}
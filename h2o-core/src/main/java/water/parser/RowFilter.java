@@ -0,0 +1,135 @@
+package water.parser;
+
+import water.Iced;
+import water.exceptions.H2OIllegalArgumentException;
+import water.util.ArrayUtils;
+
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Conjunction of simple comparisons {@code column op value} restricting the rows kept by a parse,
+ * e.g. {@code date >= 1483228800000} and {@code dept == "sales"}.
+ *
+ * Numeric and time columns are compared with numbers (time in milliseconds since the epoch), categorical
+ * and string columns with strings (equality only). A row with a missing value in a filtered column never
+ * matches. Parsers supporting it (currently Parquet) skip whole row groups using their column statistics
+ * and drop the remaining non-matching rows while parsing.
+ */
+public class RowFilter extends Iced<RowFilter> {
+
+  public enum Op {
+    LT("<"), LE("<="), GT(">"), GE(">="), EQ("=="), NE("!=");
+
+    private final String _symbol;
+
+    Op(String symbol) { _symbol = symbol; }
+
+    public String symbol() { return _symbol; }
+
+    public boolean test(double x, double value) {
+      switch (this) {
+        case LT: return x < value;
+        case LE: return x <= value;
+        case GT: return x > value;
+        case GE: return x >= value;
+        case EQ: return x == value;
+        case NE: return x != value;
+        default: throw new IllegalStateException("Unknown operator " + this);
+      }
+    }
+
+    static Op fromSymbol(String symbol) {
+      for (Op op : values())
+        if (op._symbol.equals(symbol)) return op;
+      throw new H2OIllegalArgumentException("Unknown comparison operator: " + symbol);
+    }
+  }
+
+  private static final Pattern CONDITION = Pattern.compile("^\\s*(.+?)\\s*(<=|>=|==|!=|<|>)\\s*(.*?)\\s*$");
+
+  private String[] _columns = new String[0];
+  private Op[] _ops = new Op[0];
+  private double[] _nums = new double[0];  // NaN if the value is not a number
+  private String[] _strs = new String[0];
+
+  /** Adds a comparison of a numeric or time column */
+  public RowFilter and(String column, Op op, double value) {
+    if (Double.isNaN(value))
+      throw new H2OIllegalArgumentException("Cannot compare column '" + column + "' with NaN.");
+    return add(column, op, value, Double.toString(value));
+  }
+
+  /** Adds a comparison of a categorical or string column, only EQ and NE are supported */
+  public RowFilter and(String column, Op op, String value) {
+    if (op != Op.EQ && op != Op.NE)
+      throw new H2OIllegalArgumentException("Column '" + column + "' can only be compared with a string using == or !=.");
+    return add(column, op, Double.NaN, value);
+  }
+
+  private RowFilter add(String column, Op op, double num, String str) {
+    if (column == null || op == null || str == null)
+      throw new H2OIllegalArgumentException("Row filter condition needs a column, an operator and a value.");
+    _columns = ArrayUtils.append(_columns, column);
+    _ops = ArrayUtils.append(_ops, op);
+    _nums = Arrays.copyOf(_nums, _nums.length + 1);
+    _nums[_nums.length - 1] = num;
+    _strs = ArrayUtils.append(_strs, str);
+    return this;
+  }
+
+  /**
+   * Parses conditions of the form {@code column op value}, op being one of {@code < <= > >= == !=}.
+   * Quoted values (single or double quotes) are always strings, other values are numbers if they parse as ones.
+   *
+   * @return the filter, or null if there are no conditions
+   */
+  public static RowFilter parse(String... conditions) {
+    if (conditions == null || conditions.length == 0) return null;
+    RowFilter filter = new RowFilter();
+    for (String condition : conditions) {
+      Matcher m = condition == null ? null : CONDITION.matcher(condition);
+      if (m == null || !m.matches() || m.group(3).isEmpty())
+        throw new H2OIllegalArgumentException("Invalid row filter condition '" + condition + "', expected 'column op value'.");
+      String column = m.group(1);
+      Op op = Op.fromSymbol(m.group(2));
+      String value = m.group(3);
+      if (value.length() >= 2 && (value.charAt(0) == '"' || value.charAt(0) == '\'') &&
+              value.charAt(value.length() - 1) == value.charAt(0)) {
+        filter.and(column, op, value.substring(1, value.length() - 1));
+        continue;
+      }
+      double num;
+      try {
+        num = Double.parseDouble(value);
+      } catch (NumberFormatException e) {
+        num = Double.NaN;
+      }
+      if (Double.isNaN(num)) filter.and(column, op, value);
+      else filter.add(column, op, num, value);
+    }
+    return filter;
+  }
+
+  public int numConditions() { return _columns.length; }
+  public String column(int i) { return _columns[i]; }
+  public Op op(int i) { return _ops[i]; }
+  /** Numeric value of the i-th condition, NaN if the value is not a number */
+  public double num(int i) { return _nums[i]; }
+  /** Value of the i-th condition as written */
+  public String str(int i) { return _strs[i]; }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < _columns.length; i++) {
+      if (i > 0) sb.append(" AND ");
+      sb.append(_columns[i]).append(' ').append(_ops[i].symbol()).append(' ');
+      if (Double.isNaN(_nums[i])) sb.append('"').append(_strs[i]).append('"');
+      else sb.append(_strs[i]);
+    }
+    return sb.toString();
+  }
+
+}
@@ -0,0 +1,202 @@
+package water.persist;
+
+import water.H2O;
+import water.Key;
+import water.MemoryManager;
+import water.Value;
+import water.fvec.FileVec;
+import water.fvec.Vec;
+import water.util.Log;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-ahead for the Chunks of remote files (HTTP, S3, ...) where the latency of a request, not the bandwidth,
+ * limits the read throughput.
+ *
+ * Loading a Chunk of a {@link FileVec} schedules ranged reads of the next Chunks of the same file homed on this
+ * node - these are the Chunks the parser on this node is going to ask for next. The reads run concurrently on a
+ * pool of {@code persist.prefetch.parallelism} threads and the data is buffered until the Chunk is loaded.
+ * The buffer is bounded ({@code persist.prefetch.maxBytes} per node and persist backend, by default 1/32 of the heap
+ * but at most 256MB), Chunks which don't fit are simply read on demand. Buffered data is dropped as soon as it is
+ * claimed, or when it is not claimed within {@code persist.prefetch.staleAfterMs}. The buffers are not part of the
+ * K/V store, under memory pressure the Cleaner drops all of them ({@link #dropAll()}) and no new
+ * reads are scheduled until memory can be allocated again.
+ */
+public class ChunkPrefetcher {
+
+  /** Reads a range of bytes of the file the given Chunk belongs to. */
+  public interface RangeReader {
+    byte[] read(Key chunkKey, long offset, int length) throws IOException;
+  }
+
+  static final int PARALLELISM = Integer.parseInt(H2O.getSysProperty("persist.prefetch.parallelism", "8"));
+  static final int READ_AHEAD_CHUNKS = Integer.parseInt(H2O.getSysProperty("persist.prefetch.chunks", "8"));
+  static final long MAX_BUFFERED_BYTES = Long.parseLong(H2O.getSysProperty("persist.prefetch.maxBytes",
+          String.valueOf(Math.min(256L << 20, MemoryManager.MEM_MAX / 32))));
+  static final long STALE_AFTER_MS = Long.parseLong(H2O.getSysProperty("persist.prefetch.staleAfterMs", "60000"));
+
+  // all active prefetchers, the Cleaner drops their buffers under memory pressure
+  private static final CopyOnWriteArrayList<ChunkPrefetcher> PREFETCHERS = new CopyOnWriteArrayList<>();
+
+  private final String _name;
+  private final RangeReader _reader;
+  private final int _readAhead;
+  private final long _maxBufferedBytes;
+  private final ExecutorService _pool;
+  private final ConcurrentHashMap<Key, Prefetch> _prefetched = new ConcurrentHashMap<>();
+  private final AtomicLong _buffered = new AtomicLong();
+
+  public ChunkPrefetcher(String name, RangeReader reader) {
+    this(name, reader, PARALLELISM, READ_AHEAD_CHUNKS, MAX_BUFFERED_BYTES);
+  }
+
+  ChunkPrefetcher(final String name, RangeReader reader, int parallelism, int readAhead, long maxBufferedBytes) {
+    _name = name;
+    _reader = reader;
+    _readAhead = readAhead;
+    _maxBufferedBytes = maxBufferedBytes;
+    final AtomicInteger threadCnt = new AtomicInteger();
+    _pool = Executors.newFixedThreadPool(Math.max(1, parallelism), new ThreadFactory() {
+      @Override
+      public Thread newThread(Runnable r) {
+        Thread t = new Thread(r, name + "-prefetch-" + threadCnt.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+      }
+    });
+    PREFETCHERS.add(this);
+  }
+
+  /** Drops the buffered data of all prefetchers, called by the Cleaner when memory runs low. */
+  public static long dropAll() {
+    long dropped = 0;
+    for (ChunkPrefetcher p : PREFETCHERS)
+      dropped += p.evict(Long.MAX_VALUE);
+    return dropped;
+  }
+
+  /** Drops all buffered data and stops the read-ahead threads. */
+  void shutdown() {
+    PREFETCHERS.remove(this);
+    _pool.shutdownNow();
+    evict(Long.MAX_VALUE);
+  }
+
+  /**
+   * Loads the data of the Value, either from the prefetch buffer or directly from the source, and schedules
+   * the read-ahead of the following Chunks.
+   */
+  public byte[] load(Value v) throws IOException {
+    final Key k = v._key;
+    if (k._kb[0] != Key.CHK || _readAhead <= 0)
+      return _reader.read(k, 0, v._max);
+    final long offset = FileVec.chunkOffset(k);
+    final Prefetch p = _prefetched.remove(k);
+    scheduleReadAhead(k, offset);
+    if (p != null) {
+      try {
+        byte[] data = p._task.get();
+        if (data.length == v._max)
+          return data;
+      } catch (ExecutionException e) {
+        Log.debug("Prefetch of " + k + " failed, reading again.", e.getCause());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        _buffered.addAndGet(-p._len);
+      }
+    }
+    return _reader.read(k, offset, v._max);
+  }
+
+  private void scheduleReadAhead(Key chunkKey, long offset) {
+    final Key vecKey = Vec.getVecKey(chunkKey);
+    final FileVec fv = (FileVec) vecKey.get();
+    if (fv == null)
+      return;
+    evict(System.currentTimeMillis() - STALE_AFTER_MS);
+    if (!MemoryManager.canAlloc())
+      return; // don't add to the memory pressure
+    final int nChunks = fv.nChunks();
+    final int cidx = (int) (offset / fv._chunkSize);
+    int scheduled = 0;
+    for (int c = cidx + 1; c < nChunks && scheduled < _readAhead; c++) {
+      final Key ck = Vec.chunkKey(vecKey, c);
+      if (!ck.home())
+        continue; // will be loaded by another node
+      scheduled++;
+      if (_prefetched.containsKey(ck))
+        continue;
+      Value cv = Value.STORE_get(ck);
+      if (cv != null && cv.isInMemory())
+        continue; // already loaded
+      final long chunkOffset = (long) c * fv._chunkSize;
+      final int len = (int) (c < nChunks - 1 ? fv._chunkSize : fv.length() - chunkOffset);
+      if (!reserve(len))
+        break;
+      FutureTask<byte[]> task = new FutureTask<>(new Callable<byte[]>() {
+        @Override
+        public byte[] call() throws Exception {
+          return _reader.read(ck, chunkOffset, len);
+        }
+      });
+      if (_prefetched.putIfAbsent(ck, new Prefetch(task, len)) == null)
+        _pool.execute(task);
+      else
+        _buffered.addAndGet(-len);
+    }
+  }
+
+  private boolean reserve(int len) {
+    if (_buffered.addAndGet(len) <= _maxBufferedBytes)
+      return true;
+    _buffered.addAndGet(-len);
+    return false;
+  }
+
+  /**
+   * Drops prefetched data that was not claimed since the given time (eg. the parse was cancelled).
+   * @return number of dropped bytes
+   */
+  long evict(long createdBefore) {
+    int evicted = 0;
+    long bytes = 0;
+    for (Map.Entry<Key, Prefetch> e : _prefetched.entrySet()) {
+      Prefetch p = e.getValue();
+      if (p._created < createdBefore && _prefetched.remove(e.getKey(), p)) {
+        p._task.cancel(true);
+        _buffered.addAndGet(-p._len);
+        bytes += p._len;
+        evicted++;
+      }
+    }
+    if (evicted > 0)
+      Log.debug("Dropped " + evicted + " unclaimed prefetched chunks of " + _name + ".");
+    return bytes;
+  }
+
+  int prefetchedCount() {
+    return _prefetched.size();
+  }
+
+  long bufferedBytes() {
+    return _buffered.get();
+  }
+
+  private static class Prefetch {
+    final FutureTask<byte[]> _task;
+    final int _len;
+    final long _created = System.currentTimeMillis();
+
+    Prefetch(FutureTask<byte[]> task, int len) {
+      _task = task;
+      _len = len;
+    }
+  }
+
+}
@@ -0,0 +1,145 @@
+package water.persist;
+
+import water.Key;
+import water.MemoryManager;
+import water.Value;
+import water.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Memory-mapped ice store used by {@link PersistFS} for user-mode swapping.
+ * <p>
+ * Instead of one file per spilled Value, Values are appended to large
+ * segment files.  Each segment is memory-mapped read-only once, so reloading
+ * a spilled Value is served straight from the OS page cache: a page fault and
+ * a single copy into the new byte[], instead of an open/read/close and a
+ * copy through an intermediate I/O buffer.  Stores still go through
+ * {@link FileChannel#write} so a full disk surfaces as an IOException rather
+ * than a fault on a mapped page.
+ * <p>
+ * A segment file is deleted once it is sealed (no longer appended to) and
+ * all Values stored in it have been deleted.
+ */
+final class IceSegments {
+  // Default size of a segment file; Values larger than this get their own segment
+  static final int SEGMENT_SIZE = 1<<28;
+
+  private final File _dir;
+  private final int _segmentSize;
+  private final ConcurrentHashMap<Key,Slot> _slots = new ConcurrentHashMap<>();
+  private final AtomicInteger _nextId = new AtomicInteger();
+  private Segment _current;     // Segment being appended to; guarded by this
+
+  IceSegments(File dir) { this(dir, SEGMENT_SIZE); }
+  IceSegments(File dir, int segmentSize) { _dir = dir; _segmentSize = segmentSize; }
+
+  /** A segment file with a read-only mapping over its whole length */
+  private final class Segment {
+    final File _file;
+    final RandomAccessFile _raf;
+    final MappedByteBuffer _map;
+    final int _cap;
+    int _size;                  // Bytes appended so far; guarded by IceSegments.this
+    boolean _sealed;            // No more appends; guarded by IceSegments.this
+    final AtomicInteger _live = new AtomicInteger(); // Values stored and not yet deleted
+
+    Segment(int cap) throws IOException {
+      if( !_dir.mkdirs() && !_dir.exists() )
+        throw new IOException("mkdirs failed making " + _dir);
+      _cap = cap;
+      _file = new File(_dir, "segment_" + _nextId.getAndIncrement());
+      _raf = new RandomAccessFile(_file, "rw");
+      _raf.setLength(cap);      // Sparse on most file systems
+      _map = _raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, cap);
+    }
+
+    void release() {
+      try { _raf.close(); } catch( IOException ignore ) { }
+      // The mapping is unmapped when the GC collects it; racing loads still
+      // holding it read the (unlinked) file safely.
+      if( !_file.delete() ) Log.debug("Could not delete ice segment " + _file);
+    }
+  }
+
+  /** Location of a stored Value */
+  private static final class Slot {
+    final Segment _seg;
+    final int _off, _len;
+    Slot(Segment seg, int off, int len) { _seg = seg; _off = off; _len = len; }
+  }
+
+  // Reserve room for len bytes, rolling over to a new segment as needed
+  private synchronized Slot reserve(int len) throws IOException {
+    Segment seg = _current;
+    if( seg == null || seg._size + len > seg._cap ) {
+      if( seg != null ) seal(seg);
+      seg = new Segment(Math.max(_segmentSize, len));
+      if( len <= _segmentSize ) _current = seg;
+      else seal(seg);           // Oversized Value: single-use segment
+    }
+    Slot slot = new Slot(seg, seg._size, len);
+    seg._size += len;
+    seg._live.incrementAndGet();
+    return slot;
+  }
+
+  private synchronized void seal(Segment seg) {
+    seg._sealed = true;
+    if( _current == seg ) _current = null;
+    if( seg._live.get() == 0 ) seg.release();
+  }
+
+  private void unref(Slot slot) {
+    if( slot._seg._live.decrementAndGet() == 0 )
+      synchronized( this ) {
+        if( slot._seg._sealed && slot._seg._live.get() == 0 ) slot._seg.release();
+      }
+  }
+
+  void store(Value v) throws IOException {
+    byte[] m = v.memOrLoad();   // we are not single threaded anymore
+    if( m.length != v._max ) {
+      Log.warn("Value size mismatch? " + v._key + " byte[].len=" + m.length + " v._max=" + v._max);
+      v._max = m.length; // Implies update of underlying POJO, then re-serializing it without K/V storing it
+    }
+    Slot slot = reserve(m.length);
+    try {
+      FileChannel ch = slot._seg._raf.getChannel();
+      ByteBuffer bb = ByteBuffer.wrap(m);
+      long pos = slot._off;
+      while( bb.hasRemaining() ) pos += ch.write(bb, pos);
+    } catch( IOException e ) {
+      unref(slot);
+      throw e;
+    }
+    Slot old = _slots.put(v._key, slot); // K/V mapping changed; new bits overwrite old
+    if( old != null ) unref(old);
+  }
+
+  byte[] load(Value v) {
+    Slot slot = _slots.get(v._key);
+    if( slot == null || slot._len < v._max ) { // Should be fully on disk...
+      // or it's a racey delete of a spilled value
+      assert !v.isPersisted() : v._key;
+      return null; // No value
+    }
+    byte[] b = MemoryManager.malloc1(v._max);
+    ByteBuffer view = slot._seg._map.duplicate(); // Private position, racing loads do not interfere
+    view.position(slot._off);
+    view.get(b);
+    return b;
+  }
+
+  void delete(Value v) {
+    Slot slot = _slots.remove(v._key);
+    if( slot != null ) unref(slot);
+  }
+}
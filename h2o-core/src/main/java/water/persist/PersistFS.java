@@ -13,12 +13,17 @@ import water.util.Log;
  * Persistence backend using local file system.
  */
 public final class PersistFS extends Persist {
+  /** Swap into memory-mapped segment files instead of one file per Value */
+  private static final boolean USE_SEGMENTS = H2O.getSysBoolProperty("persist.ice.mmap", false);
+
   final File _root;
   final File _dir;
+  private final IceSegments _segments;
 
   PersistFS(File root) {
     _root = root;
     _dir = new File(root, "ice" + H2O.API_PORT);
+    _segments = USE_SEGMENTS ? new IceSegments(new File(_dir, "segments")) : null;
     //deleteRecursive(_dir);
     // Make the directory as-needed
     root.mkdirs();
@@ -47,6 +52,7 @@ public final class PersistFS extends Persist {
   }
 
   @Override public byte[] load(Value v) throws IOException {
+    if( _segments != null ) return _segments.load(v);
     File f = getFile(v);
     if( f.length() < v._max ) { // Should be fully on disk...
       // or it's a racey delete of a spilled value
@@ -65,6 +71,7 @@ public final class PersistFS extends Persist {
   @Override
   public void store(Value v) throws IOException {
     assert !v.isPersisted();
+    if( _segments != null ) { _segments.store(v); return; }
     File dirs = new File(_dir, getIceDirectory(v._key));
     if (!dirs.mkdirs() && !dirs.exists())
       throw new java.io.IOException("mkdirs failed making " + dirs);
@@ -86,6 +93,7 @@ public final class PersistFS extends Persist {
   }
 
   @Override public void delete(Value v) {
+    if( _segments != null ) { _segments.delete(v); return; }
     getFile(v).delete();        // Silently ignore errors
     // Attempt to delete empty containing directory
     new File(_dir, getIceDirectory(v._key)).delete();
@@ -0,0 +1,292 @@
+package water.rapids;
+
+import water.H2O;
+import water.Iced;
+import water.MRTask;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.NewChunk;
+import water.fvec.Vec;
+import water.rapids.ast.AstExec;
+import water.rapids.ast.AstPrimitive;
+import water.rapids.ast.AstRoot;
+import water.rapids.ast.params.AstId;
+import water.rapids.ast.prims.math.AstUniOp;
+import water.rapids.ast.prims.operators.AstBinOp;
+import water.rapids.vals.ValFrame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Lazy, fused evaluation of nested element-wise expressions.
+ * <p>
+ * Executed one prim at a time, {@code (log (+ (* a b) c))} runs three
+ * MRTasks and materializes two temporary Frames just to throw them away.
+ * Instead, the outermost element-wise prim collects the whole tree of nested
+ * {@link AstUniOp} and {@link AstBinOp} applications, evaluates only the
+ * leaves (Frames and numbers), and computes the result in a single pass:
+ * each output Chunk is built from bulk reads of the leaf Chunks, with the ops
+ * applied over chunk-sized buffers.
+ * <p>
+ * Only the cases where a fused pass gives exactly the same answer are
+ * fused: all-numeric (or time) leaf Frames with matching rows, and columns
+ * either matching or broadcast from a single column.  Anything else -
+ * categoricals, strings, rows, single-row broadcasts, errors - falls back to
+ * applying the prims one by one to the already evaluated leaves, so every
+ * argument is still evaluated exactly once and in the usual order.
+ * <p>
+ * Disable with {@code -Dsys.ai.h2o.rapids.fusion=false}.
+ */
+public final class Fusion {
+  static boolean ENABLED = H2O.getSysBoolProperty("rapids.fusion", true);
+
+  private Fusion() {}
+
+  /**
+   * Whether the arguments of an element-wise prim hold more element-wise
+   * prims, so that {@link #apply} has anything to fuse.
+   */
+  public static boolean canFuse(Env env, AstRoot[] asts) {
+    if (!ENABLED) return false;
+    for (int i = 1; i < asts.length; i++)
+      if (fusablePrim(env, asts[i]) != null) return true;
+    return false;
+  }
+
+  /**
+   * Apply the element-wise prim {@code fun} to its (not yet evaluated)
+   * arguments, fusing nested element-wise prims into one pass.
+   */
+  public static Val apply(AstPrimitive fun, Env env, Env.StackHelp stk, AstRoot[] asts) {
+    Node root = build(fun, env, stk, asts);
+    if (root._fused >= 2 && root.check())
+      return root.fuse();
+    return root.eval(env, stk, true);
+  }
+
+  // The prim applied by this AST, if it is an element-wise one we can fuse
+  private static AstPrimitive fusablePrim(Env env, AstRoot ast) {
+    if (!(ast instanceof AstExec)) return null;
+    AstRoot[] asts = ((AstExec) ast)._asts;
+    if (!(asts[0] instanceof AstId)) return null; // Looking up an id has no side effects
+    Val fun;
+    try {
+      fun = env.lookup(asts[0].str());
+    } catch (RuntimeException e) {
+      return null;                      // Fails again, properly, when executed
+    }
+    if (fun == null || !fun.isFun()) return null;
+    AstPrimitive prim = fun.getFun();
+    if (prim.nargs() != asts.length) return null;
+    if (prim instanceof AstUniOp) return prim;
+    if (prim instanceof AstBinOp && ((AstBinOp) prim).fusable()) return prim;
+    return null;
+  }
+
+  // Evaluate the leaves, left to right, and build the tree above them
+  private static Node build(AstPrimitive fun, Env env, Env.StackHelp stk, AstRoot[] asts) {
+    Node[] kids = new Node[asts.length - 1];
+    for (int i = 1; i < asts.length; i++) {
+      AstPrimitive prim = fusablePrim(env, asts[i]);
+      kids[i - 1] = prim != null
+          ? build(prim, env, stk, ((AstExec) asts[i])._asts)
+          : new Node(stk.track(asts[i].exec(env)));
+    }
+    return new Node(fun, kids);
+  }
+
+  /** A node of the expression tree: an evaluated leaf, or a prim over other nodes */
+  private static class Node {
+    final AstPrimitive _fun;
+    final Node[] _kids;
+    final Val _val;
+    final int _fused;                   // Number of prims over Frames in this subtree
+    int _ncols;                         // Result columns, once checked
+    String[] _names;                    // Result names, once checked
+
+    Node(Val val) { _fun = null; _kids = null; _val = val; _fused = 0; }
+    Node(AstPrimitive fun, Node[] kids) {
+      _fun = fun; _kids = kids; _val = null;
+      int fused = 0;
+      boolean frame = false;
+      for (Node kid : kids) {
+        fused += kid._fused;
+        frame |= kid.isFrame();
+      }
+      _fused = fused + (frame ? 1 : 0);
+    }
+
+    boolean isLeaf() { return _fun == null; }
+    boolean isFrame() { return isLeaf() ? _val.isFrame() : _fused > 0; }
+
+    // Can this subtree be computed in a fused pass, with the same result as
+    // applying the prims one by one?  Fills in result columns and names.
+    boolean check() {
+      if (isLeaf()) {
+        if (_val.isNum()) return true;
+        if (!_val.isFrame()) return false;
+        Frame fr = _val.getFrame();
+        if (fr.numCols() == 0) return false;
+        for (Vec v : fr.vecs())
+          if (!v.isNumeric() && !v.isTime()) return false;
+        _ncols = fr.numCols();
+        _names = fr.names();
+        return true;
+      }
+      for (Node kid : _kids)
+        if (!kid.check()) return false;
+      if (_kids.length == 1) {
+        Node kid = _kids[0];
+        if (!kid.isFrame()) return true;
+        if (kid.isLeaf())               // Unary ops refuse non-numeric columns
+          for (Vec v : kid._val.getFrame().vecs())
+            if (!v.isNumeric()) return false;
+        _ncols = kid._ncols;
+        _names = new String[_ncols];
+        for (int i = 0; i < _ncols; i++)
+          _names[i] = _fun.str() + "(" + kid._names[i] + ")";
+        return true;
+      }
+      Node l = _kids[0], r = _kids[1];
+      if (!l.isFrame() && !r.isFrame()) return true;
+      if (!r.isFrame()) { _ncols = l._ncols; _names = l._names; return true; }
+      if (!l.isFrame()) { _ncols = r._ncols; _names = r._names; return true; }
+      if (l.nrows() != r.nrows()) return false;
+      if (l._ncols == r._ncols || r._ncols == 1) { _ncols = l._ncols; _names = l._names; return true; }
+      if (l._ncols == 1) { _ncols = r._ncols; _names = r._names; return true; }
+      return false;
+    }
+
+    long nrows() {
+      if (isLeaf()) return _val.getFrame().numRows();
+      for (Node kid : _kids)
+        if (kid.isFrame()) return kid.nrows();
+      throw H2O.fail();
+    }
+
+    // Apply the prims one by one, as if executed without fusion
+    Val eval(Env env, Env.StackHelp stk, boolean root) {
+      if (isLeaf()) return _val;
+      Val res;
+      if (_kids.length == 1)
+        res = ((AstUniOp) _fun).exec(new Val[]{null, _kids[0].eval(env, stk, false)});
+      else {
+        Val l = _kids[0].eval(env, stk, false);
+        Val r = _kids[1].eval(env, stk, false);
+        res = ((AstBinOp) _fun).prim_apply(l, r);
+      }
+      return root || !res.isFrame() ? res : stk.track(env.returning(res));
+    }
+
+    // One pass over the leaf Frames computing all of the ops
+    ValFrame fuse() {
+      ArrayList<Vec> vecs = new ArrayList<>();
+      Program prog = new Program();
+      compile(prog, vecs);
+      Frame res = new FusedTask(prog.done(), _ncols)
+          .doAll(_ncols, Vec.T_NUM, new Frame(vecs.toArray(new Vec[vecs.size()])))
+          .outputFrame(_names, null);
+      return new ValFrame(res);
+    }
+
+    // Emit postfix code for this subtree; numbers-only subtrees are folded
+    void compile(Program prog, ArrayList<Vec> vecs) {
+      if (!isFrame()) {
+        prog.constant(isLeaf() ? _val.getNum() : eval(null, null, true).getNum());
+        return;
+      }
+      if (isLeaf()) {
+        prog.load(vecs.size(), _ncols);
+        vecs.addAll(Arrays.asList(_val.getFrame().vecs()));
+        return;
+      }
+      for (Node kid : _kids)
+        kid.compile(prog, vecs);
+      prog.op(_fun);
+    }
+  }
+
+  /** Postfix code of a fused expression; loads broadcast single columns */
+  private static class Program extends Iced<Program> {
+    static final int LOAD = 0, CONST = 1, UNI = 2, BIN = 3;
+    int[] _code = new int[0];           // Instruction, argument pairs
+    double[] _consts = new double[0];
+    int[] _cols = new int[0];           // Columns of each loaded Frame
+    AstPrimitive[] _ops = new AstPrimitive[0];
+    int _depth, _maxDepth;
+
+    private void emit(int instr, int arg, int push) {
+      _code = Arrays.copyOf(_code, _code.length + 2);
+      _code[_code.length - 2] = instr;
+      _code[_code.length - 1] = arg;
+      _depth += push;
+      _maxDepth = Math.max(_maxDepth, _depth);
+    }
+    void load(int firstVec, int ncols) {
+      _cols = Arrays.copyOf(_cols, _cols.length + 2);
+      _cols[_cols.length - 2] = firstVec;
+      _cols[_cols.length - 1] = ncols;
+      emit(LOAD, (_cols.length >> 1) - 1, 1);
+    }
+    void constant(double d) {
+      _consts = Arrays.copyOf(_consts, _consts.length + 1);
+      _consts[_consts.length - 1] = d;
+      emit(CONST, _consts.length - 1, 1);
+    }
+    void op(AstPrimitive fun) {
+      _ops = Arrays.copyOf(_ops, _ops.length + 1);
+      _ops[_ops.length - 1] = fun;
+      if (fun instanceof AstUniOp) emit(UNI, _ops.length - 1, 0);
+      else emit(BIN, _ops.length - 1, -1);
+    }
+    Program done() { assert _depth == 1; return this; }
+  }
+
+  private static class FusedTask extends MRTask<FusedTask> {
+    final Program _prog;
+    final int _ncols;
+
+    FusedTask(Program prog, int ncols) { _prog = prog; _ncols = ncols; }
+
+    @Override
+    public void map(Chunk[] cs, NewChunk[] ncs) {
+      final int len = cs[0]._len;
+      final int[] code = _prog._code;
+      double[][] stack = new double[_prog._maxDepth][len];
+      for (int col = 0; col < _ncols; col++) {
+        int sp = 0;
+        for (int pc = 0; pc < code.length; pc += 2) {
+          int arg = code[pc + 1];
+          switch (code[pc]) {
+            case Program.LOAD: {
+              int first = _prog._cols[arg << 1], ncols = _prog._cols[(arg << 1) + 1];
+              cs[first + (ncols == 1 ? 0 : col)].getDoubles(stack[sp++], 0, len);
+              break;
+            }
+            case Program.CONST:
+              Arrays.fill(stack[sp++], _prog._consts[arg]);
+              break;
+            case Program.UNI: {
+              AstUniOp op = (AstUniOp) _prog._ops[arg];
+              double[] x = stack[sp - 1];
+              for (int i = 0; i < len; i++) x[i] = op.op(x[i]);
+              break;
+            }
+            case Program.BIN: {
+              AstBinOp op = (AstBinOp) _prog._ops[arg];
+              double[] l = stack[sp - 2], r = stack[--sp];
+              for (int i = 0; i < len; i++) l[i] = op.op(l[i], r[i]);
+              break;
+            }
+            default:
+              throw H2O.fail();
+          }
+        }
+        NewChunk nc = ncs[col];
+        double[] res = stack[0];
+        for (int i = 0; i < len; i++) nc.addNum(res[i]);
+      }
+    }
+  }
+}
@@ -36,6 +36,7 @@ abstract public class AstBinOp extends AstPrimitive {
 
   @Override
   public Val apply(Env env, Env.StackHelp stk, AstRoot asts[]) {
+    if (Fusion.canFuse(env, asts)) return Fusion.apply(this, env, stk, asts);
     Val left = stk.track(asts[1].exec(env));
     Val rite = stk.track(asts[2].exec(env));
     return prim_apply(left, rite);
@@ -471,6 +472,18 @@ abstract public class AstBinOp extends AstPrimitive {
     return cleanCategorical(fr, res); // Cleanup categorical misuse
   }
 
+  /**
+   * Can this operation be fused with nested element-wise operations into a
+   * single pass, see {@link Fusion}?  Not for operations which may skip
+   * evaluating an argument, nor for operations which override the frame
+   * methods (eg. {@link #frame_op_scalar}) with a different behavior.
+   *
+   * @return True if the operation only ever applies {@link #op(double, double)} to evaluated arguments.
+   */
+  public boolean fusable() {
+    return true;
+  }
+
   /**
    * Does it make sense to run this operation on a categorical variable ?
    *
@@ -43,6 +43,11 @@ public class AstEq extends AstBinOp {
     }.doAll(fr.numCols(), Vec.T_NUM, fr).outputFrame());
   }
 
+  @Override
+  public boolean fusable() {
+    return false;
+  }  // frame_op_scalar treats non-numeric (e.g. time) and string columns specially
+
   @Override
   public boolean categoricalOK() {
     return true;
@@ -24,6 +24,11 @@ public class AstLAnd extends AstBinOp {
     return prim_apply(left, rite);
   }
 
+  @Override
+  public boolean fusable() {
+    return false;
+  }
+
   // 0 trumps NA, and NA trumps 1
   public double op(double l, double r) {
     return and_op(l, r);
@@ -24,6 +24,11 @@ public class AstLOr extends AstBinOp {
     return prim_apply(left, rite);
   }
 
+  @Override
+  public boolean fusable() {
+    return false;
+  }
+
   //  1 trumps NA, and NA trumps 0.
   public double op(double l, double r) {
     return or_op(l, r);
@@ -2,6 +2,7 @@ package water.rapids.ast.prims.string;
 
 import water.Iced;
 import water.MRTask;
+import water.fvec.CStrChunk;
 import water.fvec.Chunk;
 import water.fvec.Frame;
 import water.fvec.NewChunk;
@@ -122,6 +123,19 @@ public class AstGrep extends AstBuiltin<AstGrep> {
       Matcher m = p.matcher("");
       BufferedString bs = new BufferedString();
       int rows = c._len;
+      if (c instanceof CStrChunk && ((CStrChunk) c).isDictionary()) { // match each distinct string once
+        CStrChunk cs = (CStrChunk) c;
+        int[] offs = cs.dictionaryOffsets();
+        boolean[] matched = new boolean[offs.length];
+        for (int j = 0; j < offs.length; j++)
+          matched[j] = m.reset(cs.atOffset(bs, offs[j]).toString()).find();
+        int[] codes = cs.dictionaryCodes(offs);
+        for (int r = 0; r < rows; r++) {
+          if (codes[r] < 0) w.addNA(r);
+          else w.addRow(r, matched[codes[r]]);
+        }
+        return;
+      }
       for (int r = 0; r < rows; r++) {
         if (c.isNA(r)) {
           w.addNA(r);
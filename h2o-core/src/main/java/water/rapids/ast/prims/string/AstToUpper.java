@@ -2,7 +2,6 @@ package water.rapids.ast.prims.string;
 
 import water.MRTask;
 import water.fvec.*;
-import water.parser.BufferedString;
 import water.rapids.Env;
 import water.rapids.Val;
 import water.rapids.vals.ValFrame;
@@ -73,16 +72,13 @@ public class AstToUpper extends AstPrimitive {
         if (chk instanceof C0DChunk) // all NAs
           for (int i = 0; i < chk.len(); i++)
             newChk.addNA();
-        else if (((CStrChunk) chk)._isAllASCII) { // fast-path operations
+        else if (((CStrChunk) chk).isDictionary()) { // once per distinct string
+          ((CStrChunk) chk).mapStrings(newChk, s -> s.toUpperCase(Locale.ENGLISH));
+        } else if (((CStrChunk) chk)._isAllASCII) { // fast-path operations
           ((CStrChunk) chk).asciiToUpper(newChk);
         } else { //UTF requires Java string methods for accuracy
-          BufferedString tmpStr = new BufferedString();
-          for (int i = 0; i < chk._len; i++) {
-            if (chk.isNA(i))
-              newChk.addNA();
-            else // Locale.ENGLISH to give the correct results for local insensitive strings
-              newChk.addStr(chk.atStr(tmpStr, i).toString().toUpperCase(Locale.ENGLISH));
-          }
+          // Locale.ENGLISH to give the correct results for local insensitive strings
+          ((CStrChunk) chk).mapStrings(newChk, s -> s.toUpperCase(Locale.ENGLISH));
         }
       }
     }.doAll(new byte[]{Vec.T_STR}, vec).outputFrame().anyVec();
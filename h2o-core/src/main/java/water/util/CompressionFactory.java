@@ -1,11 +1,16 @@
 package water.util;
 
 import water.Iced;
+import water.MemoryManager;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.Constructor;
+import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
 public class CompressionFactory extends Iced<CompressionFactory> {
@@ -30,6 +35,72 @@ public class CompressionFactory extends Iced<CompressionFactory> {
     }
   }
 
+  /**
+   * Can independently compressed blocks of data be concatenated into a single valid compressed stream?
+   * True for formats made of self-contained members (gzip).
+   */
+  boolean isConcatenable() {
+    return "gzip".equals(_name.toLowerCase());
+  }
+
+  /**
+   * Wraps a stream of data compressed by {@link #wrapOutputStream}.  Custom
+   * compressors are expected to follow the common naming convention of
+   * pairing a FooOutputStream with a FooInputStream.
+   */
+  InputStream wrapInputStream(InputStream is) throws IOException {
+    final String n = _name.toLowerCase();
+    switch (n) {
+      case "gzip":
+        return new GZIPInputStream(is);
+      case "bzip2":
+        return wrapDynamic("org.python.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream", is);
+      case "snappy":
+        return wrapDynamic("org.xerial.snappy.SnappyInputStream", is);
+      default:
+        return wrapDynamic(_name.replace("OutputStream", "InputStream"), is);
+    }
+  }
+
+  /**
+   * Compresses a whole byte array in memory.
+   */
+  public byte[] compress(byte[] bytes) throws IOException {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream(Math.max(32, bytes.length >> 2));
+    try (OutputStream os = wrapOutputStream(bos)) {
+      os.write(bytes);
+    }
+    return bos.toByteArray();
+  }
+
+  /**
+   * Decompresses a byte array produced by {@link #compress}.
+   * @param len length of the uncompressed data
+   */
+  public byte[] decompress(byte[] bytes, int len) throws IOException {
+    byte[] res = MemoryManager.malloc1(len);
+    try (InputStream is = wrapInputStream(new ByteArrayInputStream(bytes))) {
+      int off = 0;
+      while (off < len) {
+        int r = is.read(res, off, len - off);
+        if (r < 0)
+          throw new EOFException("Expected " + len + " bytes, got only " + off);
+        off += r;
+      }
+    }
+    return res;
+  }
+
+  private InputStream wrapDynamic(String className, InputStream is) {
+    try {
+      Class<?> cls = Class.forName(className);
+      Constructor<?> constructor = cls.getConstructor(InputStream.class);
+      return (InputStream) constructor.newInstance(is);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalArgumentException("Cannot create a decompressor using class " + className, e);
+    }
+  }
+
   private OutputStream wrapDynamic(String className, OutputStream os) {
     try {
       Class<?> cls = Class.forName(className);
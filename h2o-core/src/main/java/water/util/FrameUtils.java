@@ -13,6 +13,7 @@ import water.parser.ParseSetup;
 import java.io.*;
 import java.net.URI;
 import java.net.URL;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -328,6 +329,10 @@ public class FrameUtils {
     private static int BUFFER_SIZE = 4 * 1024 * 1024;
     private static long DEFAULT_TARGET_PART_SIZE = 134217728L; // 128MB, default HDFS block size
     private static int AUTO_PARTS_MAX = 128; // maximum number of parts if automatic determination is enabled
+    // render chunks on the nodes holding them, in parallel, instead of streaming all rows through the writer
+    private static final boolean PIPELINED_EXPORT = H2O.getSysBoolProperty("export.csv.pipelined", true);
+    // maximum number of chunks rendered ahead of the chunk being written (per output file)
+    private static final int PIPELINE_DEPTH = Integer.parseInt(H2O.getSysProperty("export.csv.pipelineDepth", "4"));
     final Frame _frame;
     final String _path;
     final String _frameName;
@@ -336,6 +341,7 @@ public class FrameUtils {
     int _nParts;
     final CompressionFactory _compressor;
     final Frame.CSVStreamParams _csv_parms;
+    final String[][] _escapedDomains; // escaped once here and shipped to the nodes rendering the chunks
 
     public ExportTaskDriver(Frame frame, String path, String frameName, boolean overwrite, Job j, int nParts,
                             CompressionFactory compressor, Frame.CSVStreamParams csvParms) {
@@ -347,6 +353,7 @@ public class FrameUtils {
       _nParts = nParts;
       _compressor = compressor;
       _csv_parms = csvParms;
+      _escapedDomains = Frame.CSVStream.escapeCategoricalDomains(frame.vecs(), csvParms);
     }
 
     @Override
@@ -355,8 +362,12 @@ public class FrameUtils {
       if (_nParts == 1) {
         // Single file export, the file should be created by the node that was asked to export the data
         // (this is for non-distributed filesystems, we want the file to go to the local filesystem of the node)
-        Frame.CSVStream is = new Frame.CSVStream(_frame, _csv_parms);
-        exportCSVStream(is, _path, 0);
+        if (PIPELINED_EXPORT) {
+          exportChunks(_path, 0, _frame.anyVec().nChunks(), _csv_parms.hasHeaders() ? _frame.names() : null);
+        } else {
+          Frame.CSVStream is = new Frame.CSVStream(_frame, _csv_parms);
+          exportCSVStream(is, _path, 0);
+        }
         tryComplete();
       } else {
         // Multi-part export
@@ -478,6 +489,39 @@ public class FrameUtils {
       }
     }
 
+    /**
+     * Writes chunks [firstChkIdx, firstChkIdx + nChunks) of the frame to a single file. Each chunk is rendered to CSV
+     * by the node holding it; the compression is done there as well if compressed blocks can be concatenated
+     * (gzip), other compressors are applied by the writer. At most PIPELINE_DEPTH rendered chunks are buffered,
+     * the writer itself only does the I/O.
+     */
+    private void exportChunks(String path, int firstChkIdx, int nChunks, String[] header) {
+      final boolean compressRemotely = _compressor != null && _compressor.isConcatenable();
+      final Vec anyVec = _frame.anyVec();
+      final ArrayDeque<RPC<RenderCSVChunkTask>> pending = new ArrayDeque<>(PIPELINE_DEPTH);
+      final int endChkIdx = firstChkIdx + nChunks;
+      long written = 0;
+      try (OutputStream os = H2O.getPM().create(path, _overwrite);
+           OutputStream out = _compressor != null && !compressRemotely ? _compressor.wrapOutputStream(os) : os) {
+        int nextChkIdx = firstChkIdx;
+        while (nextChkIdx < endChkIdx || !pending.isEmpty()) {
+          for (; nextChkIdx < endChkIdx && pending.size() < PIPELINE_DEPTH; nextChkIdx++) {
+            RenderCSVChunkTask task = new RenderCSVChunkTask(_frame, nextChkIdx, nextChkIdx == firstChkIdx ? header : null,
+                    _csv_parms, _escapedDomains, compressRemotely ? _compressor : null);
+            pending.add(new RPC<>(anyVec.chunkKey(nextChkIdx).home_node(), task).call());
+          }
+          byte[] bytes = pending.poll().get()._bytes;
+          out.write(bytes);
+          written += bytes.length;
+          if (_j.stop_requested()) throw new Job.JobCancelledException();
+          _j.update(1);
+        }
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+      Log.info("Written " + written + " bytes of key '" + _frameName + "' to " + path + ".");
+    }
+
     class PartExportTask extends MRTask<PartExportTask> {
       final String[] _colNames;
       final int _length;
@@ -498,8 +542,13 @@ public class FrameUtils {
         }
         int partIdx = anyChunk.cidx() / _length;
         String partPath = _path + "/part-m-" + String.valueOf(100000 + partIdx).substring(1);
-        Frame.CSVStream is = new Frame.CSVStream(cs, _colNames, _length, _csv_parms);
-        exportCSVStream(is, partPath, anyChunk.cidx());
+        if (PIPELINED_EXPORT) {
+          int nChunks = Math.min(_length, anyChunk.vec().nChunks() - anyChunk.cidx());
+          exportChunks(partPath, anyChunk.cidx(), nChunks, _colNames);
+        } else {
+          Frame.CSVStream is = new Frame.CSVStream(cs, _colNames, _length, _csv_parms, _escapedDomains);
+          exportCSVStream(is, partPath, anyChunk.cidx());
+        }
       }
 
       @Override
@@ -510,6 +559,50 @@ public class FrameUtils {
     }
   }
 
+  /**
+   * Renders a single chunk of a frame to CSV on the node holding the chunk (optionally compressed).
+   */
+  static class RenderCSVChunkTask extends DTask<RenderCSVChunkTask> {
+    private static int BUFFER_SIZE = 64 * 1024;
+    // IN
+    private final Frame _frame;
+    private final int _cidx;
+    private final String[] _header;
+    private final Frame.CSVStreamParams _csv_parms;
+    private final String[][] _escapedDomains;
+    private final CompressionFactory _compressor;
+    // OUT
+    byte[] _bytes;
+
+    RenderCSVChunkTask(Frame frame, int cidx, String[] header, Frame.CSVStreamParams csvParms,
+                       String[][] escapedDomains, CompressionFactory compressor) {
+      _frame = frame;
+      _cidx = cidx;
+      _header = header;
+      _csv_parms = csvParms;
+      _escapedDomains = escapedDomains;
+      _compressor = compressor;
+    }
+
+    @Override
+    public void compute2() {
+      Chunk[] cs = new Chunk[_frame.numCols()];
+      for (int i = 0; i < cs.length; i++)
+        cs[i] = _frame.vec(i).chunkForChunkIdx(_cidx);
+      ByteArrayOutputStream bos = new ByteArrayOutputStream(BUFFER_SIZE);
+      try (Frame.CSVStream is = new Frame.CSVStream(cs, _header, 1, _csv_parms, _escapedDomains);
+           OutputStream os = _compressor != null ? _compressor.wrapOutputStream(bos) : bos) {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        for (int count; (count = is.read(buffer, 0, BUFFER_SIZE)) > 0; )
+          os.write(buffer, 0, count);
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+      _bytes = bos.toByteArray();
+      tryComplete();
+    }
+  }
+
   public static class CategoricalOneHotEncoder extends Iced {
     final Frame _frame;
     Job<Frame> _job;
@@ -0,0 +1,103 @@
+package water;
+
+import org.junit.*;
+import water.fvec.Vec;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+import static water.fvec.VecHelper.vecChunkIdx;
+
+public class CompressedMemTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  private water.util.CompressionFactory _old;
+  @Before public void enableCompression() { _old = MemoryManager.MEM_COMPRESSION; MemoryManager.MEM_COMPRESSION = MemoryManager.makeMemCompression("gzip"); }
+  @After  public void restoreCompression() { MemoryManager.MEM_COMPRESSION = _old; }
+
+  @Test public void testCompressAndReload() {
+    Vec vec = Vec.makeRepSeq(100000, 3); // Repetitive data, compresses well
+    try {
+      Value val = vecChunkIdx(vec, 0);
+      byte[] expected = val.memOrLoad().clone();
+
+      assertTrue(val.storeCompressed());
+      assertTrue(val.isCompressed());
+      assertTrue(val.rawCompressed().length < val._max);
+
+      // Drop the heap copies; the Value must rebuild itself from the compressed copy
+      val.freeMem();
+      val.freePOJO();
+      assertNull(val.rawMem());
+      assertTrue(Arrays.equals(expected, val.memOrLoad()));
+      assertEquals(0, vec.at(0), 0);
+      assertEquals(1, vec.at(4), 0);
+    } finally {
+      vec.remove();
+    }
+  }
+
+  @Test public void testCompressedChunkIsNotSpilled() {
+    Vec vcmp = Vec.makeRepSeq(100000, 3); // Repetitive data, compresses well
+    Vec vcon = Vec.makeCon(0,100000,1);
+    Vec vrnd = vcon.makeRand(0xDECAFL);   // Random doubles, do not compress well
+    vcon.remove();
+    try {
+      Value val = vecChunkIdx(vcmp, 0);
+      assertTrue(Cleaner.spillToDisk(val, false));
+      assertTrue(val.storeCompressed());
+      // Kept in RAM compressed; the Cleaner must not also write it out
+      assertFalse(Cleaner.spillToDisk(val, false));
+      assertFalse(val.isPersisted());
+
+      Value rnd = vecChunkIdx(vrnd, 0);
+      assertFalse(rnd.storeCompressed());
+      assertTrue(Cleaner.spillToDisk(rnd, false)); // Falls through to disk
+      assertFalse(Cleaner.spillToDisk(rnd, true));  // ... unless the disk is full
+    } finally {
+      vcmp.remove();
+      vrnd.remove();
+    }
+  }
+
+  @Test public void testCleanerSpillsCompressedUnderPressure() throws InterruptedException {
+    Vec vec = Vec.makeRepSeq(100000, 3); // Repetitive data, compresses well
+    try {
+      Value val = vecChunkIdx(vec, 0);
+      byte[] expected = val.memOrLoad().clone();
+      assertTrue(val.storeCompressed());
+      val.freeMem();
+      val.freePOJO();
+      assertTrue(val.isCompressed());
+      assertFalse(val.isPersisted());
+      long ago = System.currentTimeMillis()-1000L*1000L;
+      val.touchAt(ago);
+
+      synchronized(Cleaner.THE_CLEANER) {
+        Cleaner.DESIRED = -1; // Force everything out
+        Cleaner.dirty_store(ago);
+        Cleaner.kick_store_cleaner();
+        Cleaner.block_for_test();
+      }
+      // Written out and dropped from the compressed tier
+      assertTrue(val.isPersisted());
+      assertFalse(val.isCompressed());
+      assertNull(val.rawMem());
+      assertTrue(Arrays.equals(expected, val.memOrLoad()));
+    } finally {
+      vec.remove();
+    }
+  }
+
+  @Test public void testDisabled() {
+    MemoryManager.MEM_COMPRESSION = null;
+    Vec vec = Vec.makeRepSeq(100000, 3);
+    try {
+      Value val = vecChunkIdx(vec, 0);
+      assertFalse(val.storeCompressed());
+      assertFalse(val.isCompressed());
+    } finally {
+      vec.remove();
+    }
+  }
+}
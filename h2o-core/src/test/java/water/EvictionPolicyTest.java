@@ -0,0 +1,74 @@
+package water;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.util.IcedInt;
+
+import static org.junit.Assert.*;
+
+public class EvictionPolicyTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  @Test public void testMake() {
+    assertTrue(EvictionPolicy.make("lru") instanceof EvictionPolicy.LRU);
+    assertTrue(EvictionPolicy.make("Frequency") instanceof EvictionPolicy.Frequency);
+    assertTrue(EvictionPolicy.make(EvictionPolicy.Frequency.class.getName()) instanceof EvictionPolicy.Frequency);
+    assertTrue(EvictionPolicy.make("no.such.Policy") instanceof EvictionPolicy.LRU);
+  }
+
+  @Test public void testLRU() {
+    Value v = new Value(Key.make("eviction_lru"), new byte[10]);
+    v.touchAt(1234);
+    assertEquals(1234, new EvictionPolicy.LRU().priority(v));
+  }
+
+  @Test public void testFrequency() {
+    EvictionPolicy policy = new EvictionPolicy.Frequency(100, 10);
+    Value hot  = new Value(Key.make("eviction_hot" ), new IcedInt(1));
+    Value cold = new Value(Key.make("eviction_cold"), new IcedInt(2));
+    for( int i = 0; i < 20; i++ ) hot.get(); // get() touches the Value
+    cold.get();
+    hot .touchAt(1000);
+    cold.touchAt(1000);
+
+    // Never later than the last access, and rarely used Values look older
+    assertEquals(1000, policy.priority(hot));
+    assertEquals(1000 - (EvictionPolicy.Frequency.MAX_TOUCHES - 1) * 100, policy.priority(cold));
+
+    // Eviction decays the frequency
+    policy.evicted(hot);
+    assertEquals(10, hot.touches());
+    assertEquals(1000, policy.priority(hot));
+    policy.evicted(hot);
+    policy.evicted(hot);
+    assertEquals(2, hot.touches());
+    assertEquals(1000 - (EvictionPolicy.Frequency.MAX_TOUCHES - 2) * 100, policy.priority(hot));
+  }
+
+  @Test public void testFrequencyAging() {
+    EvictionPolicy policy = new EvictionPolicy.Frequency(100, 2);
+    Key kOld = Key.make("eviction_once_hot"), kNew = Key.make("eviction_now_hot");
+    try {
+      Value once = new Value(kOld, new IcedInt(1));
+      DKV.put(kOld, once);
+      for( int i = 0; i < 20; i++ ) once.get(); // Hot once ...
+      once.touchAt(1000);
+      assertEquals(1000, policy.priority(once));
+
+      // ... then only scanned: a few Cleaner passes later it lost the bonus
+      for( int i = 0; i < 8; i++ ) policy.sweep();
+      assertEquals(1, once.touches()); // Halved 4 times, 20 -> 1
+      assertEquals(1000 - (EvictionPolicy.Frequency.MAX_TOUCHES - 1) * 100, policy.priority(once));
+
+      // A Value which is hot now outranks it, even though it was accessed earlier
+      Value now = new Value(kNew, new IcedInt(2));
+      DKV.put(kNew, now);
+      for( int i = 0; i < 8; i++ ) now.get();
+      now.touchAt(900);
+      assertTrue(policy.priority(now) > policy.priority(once));
+    } finally {
+      DKV.remove(kOld);
+      DKV.remove(kNew);
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package water;
+
+import org.junit.*;
+import water.fvec.Vec;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+import static water.fvec.VecHelper.vecChunkIdx;
+
+public class OffHeapTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  private long _oldMax;
+  @Before public void enableOffHeap() { _oldMax = MemoryManager.MEM_OFFHEAP_MAX; MemoryManager.MEM_OFFHEAP_MAX = 1L<<30; }
+  @After  public void restoreOffHeap() { MemoryManager.MEM_OFFHEAP_MAX = _oldMax; }
+
+  @Test public void testStoreAndReload() {
+    Vec vcon = Vec.makeCon(0,1024,6);
+    Vec vrnd = vcon.makeRand(0xDECAFL);
+    vcon.remove();
+    try {
+      long used0 = MemoryManager.offHeapUsed();
+      Value val = vecChunkIdx(vrnd, 0);
+      byte[] expected = val.memOrLoad().clone();
+      double expectedAt = vrnd.at(0);
+
+      assertTrue(val.storeOffHeap());
+      assertTrue(val.isOffHeap());
+      assertEquals(used0 + val._max, MemoryManager.offHeapUsed());
+
+      // Drop the heap copies; the Value must rebuild itself from the off-heap copy
+      val.freeMem();
+      val.freePOJO();
+      assertNull(val.rawMem());
+      assertTrue(Arrays.equals(expected, val.memOrLoad()));
+      assertEquals(expectedAt, vrnd.at(0), 0);
+
+      // Removing the Vec releases the off-heap accounting
+      vrnd.remove();
+      vrnd = null;
+      assertFalse(val.isOffHeap());
+      assertEquals(used0, MemoryManager.offHeapUsed());
+    } finally {
+      if( vrnd != null ) vrnd.remove();
+    }
+  }
+
+  @Test public void testOverwriteReleasesOffHeap() {
+    Key key = Key.make();
+    byte[] mem = new byte[4096];
+    try {
+      long used0 = MemoryManager.offHeapUsed();
+      for( int i = 0; i < 10; i++ ) {
+        mem[0] = (byte)i;
+        Value val = new Value(key, mem.clone());
+        DKV.put(key, val);
+        assertTrue(val.storeOffHeap());
+        // Only the current Value is charged, replaced ones gave their budget back
+        assertEquals(used0 + mem.length, MemoryManager.offHeapUsed());
+      }
+      DKV.remove(key);
+      assertEquals(used0, MemoryManager.offHeapUsed());
+    } finally {
+      DKV.remove(key);
+    }
+  }
+
+  @Test public void testFullTier() {
+    MemoryManager.MEM_OFFHEAP_MAX = 1;
+    Vec vcon = Vec.makeCon(0,1024,6);
+    Vec vrnd = vcon.makeRand(0xDECAFL);
+    vcon.remove();
+    try {
+      long used0 = MemoryManager.offHeapUsed();
+      Value val = vecChunkIdx(vrnd, 0);
+      assertFalse(val.storeOffHeap());
+      assertFalse(val.isOffHeap());
+      assertEquals(used0, MemoryManager.offHeapUsed());
+    } finally {
+      vrnd.remove();
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package water.fvec;
+
+import org.junit.*;
+
+import water.IcedUtils;
+import water.TestUtil;
+
+import java.util.Arrays;
+
+public class CDictChunkTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  private static final int LEN = 2048;
+
+  private static void checkChunk(Chunk cc, double[] vals) {
+    Assert.assertEquals(vals.length, cc._len);
+    for (int i = 0; i < vals.length; ++i) {
+      Assert.assertEquals(Double.isNaN(vals[i]), cc.isNA(i));
+      if (!cc.isNA(i)) Assert.assertEquals(vals[i], cc.atd(i), 0);
+    }
+    double[] dense = new double[vals.length];
+    for (int[] r : new int[][]{{0, LEN}, {3, 17}, {1000, LEN}}) {
+      cc.getDoubles(dense, r[0], r[1]);
+      for (int i = r[0]; i < r[1]; ++i)
+        Assert.assertEquals(vals[i], dense[i - r[0]], 0);
+    }
+  }
+
+  @Test
+  public void test_integer_dictionary() {
+    long[] uniques = new long[]{1000000000000L, 5, -7, 123456789};
+    NewChunk nc = new NewChunk(null, 0);
+    double[] vals = new double[LEN];
+    for (int i = 0; i < LEN; ++i) {
+      if (i % 100 == 0) {
+        vals[i] = Double.NaN;
+        nc.addNA();
+      } else {
+        vals[i] = uniques[i % uniques.length];
+        nc.addNum(uniques[i % uniques.length], 0);
+      }
+    }
+    Chunk cc = nc.compress();
+    Assert.assertTrue(cc instanceof CDictChunk);
+    Assert.assertFalse(cc.hasFloat());
+    Assert.assertEquals(CDictChunk.computeByteSize(uniques.length + 1, LEN), cc._mem.length);
+    checkChunk(cc, vals);
+    Assert.assertEquals(5, cc.at8(1));
+    Assert.assertEquals(1000000000000L, cc.at8(4));
+
+    long[] longs = cc.getLongs(new long[LEN], 0, LEN, -1);
+    for (int i = 0; i < LEN; ++i)
+      Assert.assertEquals(Double.isNaN(vals[i]) ? -1 : (long) vals[i], longs[i]);
+
+    Chunk cc2 = IcedUtils.deepCopy(cc);
+    Assert.assertTrue(cc2 instanceof CDictChunk);
+    checkChunk(cc2, vals);
+
+    nc = cc.extractRows(new NewChunk(null, 0), 0, LEN);
+    Chunk cc3 = nc.compress();
+    Assert.assertTrue(cc3 instanceof CDictChunk);
+    Assert.assertTrue(Arrays.equals(cc._mem, cc3._mem));
+  }
+
+  @Test
+  public void test_set() {
+    long[] uniques = new long[]{1L << 40, 3, 1L << 33};
+    NewChunk nc = new NewChunk(null, 0);
+    for (int i = 0; i < LEN; ++i)
+      nc.addNum(uniques[i % uniques.length], 0);
+    Chunk cc = nc.compress();
+    Assert.assertTrue(cc instanceof CDictChunk);
+    // Values already in the dictionary are written in place
+    Assert.assertTrue(cc.set_impl(0, 3L));
+    Assert.assertTrue(cc.set_impl(1, (double) (1L << 33)));
+    Assert.assertEquals(3, cc.at8(0));
+    Assert.assertEquals(1L << 33, cc.at8(1));
+    Assert.assertEquals(1L << 33, cc.at8(2));
+    // Others need an inflated chunk
+    Assert.assertFalse(cc.set_impl(1, 4L));
+    Assert.assertFalse(cc.set_impl(1, 0.5));
+    Assert.assertFalse(cc.setNA_impl(1));
+    Assert.assertEquals(1L << 33, cc.at8(1));
+  }
+}
@@ -0,0 +1,100 @@
+package water.fvec;
+
+import org.junit.*;
+
+import water.IcedUtils;
+import water.TestUtil;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class CFORChunkTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  private static final int LEN = 4000;
+
+  // Nanosecond timestamps about 1us apart, with a few missing
+  private static long[] timestamps() {
+    Random r = new Random(0xF0F0);
+    long[] vals = new long[LEN];
+    long t = 1600000000000000000L;
+    for (int i = 0; i < LEN; ++i) {
+      t += 1000 + r.nextInt(100);
+      vals[i] = i % 500 == 7 ? C8Chunk._NA : t;
+    }
+    return vals;
+  }
+
+  private static Chunk compress(long[] vals) {
+    NewChunk nc = new NewChunk(null, 0);
+    for (long l : vals)
+      if (l == C8Chunk._NA) nc.addNA();
+      else nc.addNum(l, 0);
+    return nc.compress();
+  }
+
+  private static void checkChunk(Chunk cc, long[] vals) {
+    Assert.assertEquals(vals.length, cc._len);
+    for (int i = 0; i < vals.length; ++i) {
+      Assert.assertEquals(vals[i] == C8Chunk._NA, cc.isNA(i));
+      if (!cc.isNA(i)) Assert.assertEquals(vals[i], cc.at8(i));
+    }
+    long[] longs = new long[vals.length];
+    boolean[] nas = new boolean[vals.length];
+    for (int[] r : new int[][]{{0, LEN}, {5, 70}, {63, 65}, {3000, LEN}}) {
+      cc.getLongs(longs, nas, r[0], r[1]);
+      for (int i = r[0]; i < r[1]; ++i) {
+        Assert.assertEquals(vals[i] == C8Chunk._NA, nas[i - r[0]]);
+        if (!nas[i - r[0]]) Assert.assertEquals(vals[i], longs[i - r[0]]);
+      }
+    }
+    double[] dense = cc.getDoubles(new double[vals.length], 0, LEN);
+    for (int i = 0; i < vals.length; ++i)
+      Assert.assertEquals(vals[i] == C8Chunk._NA ? Double.NaN : (double) vals[i], dense[i], 0);
+  }
+
+  @Test
+  public void test_timestamps() {
+    long[] vals = timestamps();
+    Chunk cc = compress(vals);
+    Assert.assertTrue(cc instanceof CFORChunk);
+    Assert.assertFalse(cc.hasFloat());
+    // ~64us per block needs 17 bits a row, instead of 64
+    Assert.assertTrue(cc._mem.length < LEN * 8 / 3);
+    checkChunk(cc, vals);
+
+    Chunk cc2 = IcedUtils.deepCopy(cc);
+    Assert.assertTrue(cc2 instanceof CFORChunk);
+    checkChunk(cc2, vals);
+
+    Chunk cc3 = cc.extractRows(new NewChunk(null, 0), 0, LEN).compress();
+    Assert.assertTrue(cc3 instanceof CFORChunk);
+    Assert.assertTrue(Arrays.equals(cc._mem, cc3._mem));
+  }
+
+  @Test
+  public void test_set() {
+    long[] vals = timestamps();
+    Chunk cc = compress(vals);
+    Assert.assertTrue(cc instanceof CFORChunk);
+    // Values within the block's range are written in place
+    Assert.assertTrue(cc.set_impl(1, vals[0]));
+    Assert.assertEquals(vals[0], cc.at8(1));
+    Assert.assertEquals(vals[2], cc.at8(2));
+    Assert.assertFalse(cc.set_impl(1, vals[0] - 1000000));
+    Assert.assertFalse(cc.set_impl(1, 0.5));
+    // Only blocks which had NAs can take NAs
+    Assert.assertTrue(cc.setNA_impl(1));
+    Assert.assertTrue(cc.isNA(1));
+    Assert.assertFalse(cc.setNA_impl(LEN - 1));
+    Assert.assertEquals(vals[LEN - 1], cc.at8(LEN - 1));
+  }
+
+  @Test
+  public void test_random_longs_stay_C8() {
+    Random r = new Random(42);
+    long[] vals = new long[LEN];
+    for (int i = 0; i < LEN; ++i) vals[i] = r.nextLong() >> 1;
+    Assert.assertTrue(compress(vals) instanceof C8Chunk);
+  }
+}
@@ -0,0 +1,113 @@
+package water.fvec;
+
+import org.junit.*;
+
+import water.IcedUtils;
+import water.TestUtil;
+
+import java.util.Arrays;
+
+public class CRLEChunkTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  private static final int LEN = 2048;
+
+  private static void checkChunk(Chunk cc, double[] vals) {
+    Assert.assertEquals(vals.length, cc._len);
+    for (int i = 0; i < vals.length; ++i) {
+      Assert.assertEquals(Double.isNaN(vals[i]), cc.isNA(i));
+      if (!cc.isNA(i)) Assert.assertEquals(vals[i], cc.atd(i), 0);
+    }
+    // Random access, going backwards
+    for (int i = vals.length - 1; i >= 0; i -= 37)
+      Assert.assertEquals(Double.isNaN(vals[i]), cc.isNA(i));
+    double[] dense = new double[vals.length];
+    for (int[] r : new int[][]{{0, LEN}, {1, 300}, {255, 257}, {1000, LEN}}) {
+      cc.getDoubles(dense, r[0], r[1]);
+      for (int i = r[0]; i < r[1]; ++i)
+        Assert.assertEquals(vals[i], dense[i - r[0]], 0);
+    }
+  }
+
+  @Test
+  public void test_integer_runs() {
+    // A sorted timestamp column, with one run of NAs
+    NewChunk nc = new NewChunk(null, 0);
+    double[] vals = new double[LEN];
+    for (int i = 0; i < LEN; ++i) {
+      if (i / 256 == 2) {
+        vals[i] = Double.NaN;
+        nc.addNA();
+      } else {
+        long l = 1600000000000L + (i / 256) * 1000;
+        vals[i] = l;
+        nc.addNum(l, 0);
+      }
+    }
+    Chunk cc = nc.compress();
+    Assert.assertTrue(cc instanceof CRLEChunk);
+    Assert.assertFalse(cc.hasFloat());
+    Assert.assertEquals(CRLEChunk.computeByteSize(LEN / 256), cc._mem.length);
+    checkChunk(cc, vals);
+    Assert.assertEquals(1600000000000L, cc.at8(0));
+
+    long[] longs = new long[LEN];
+    boolean[] nas = new boolean[LEN];
+    cc.getLongs(longs, nas, 0, LEN);
+    for (int i = 0; i < LEN; ++i) {
+      Assert.assertEquals(Double.isNaN(vals[i]), nas[i]);
+      if (!nas[i]) Assert.assertEquals((long) vals[i], longs[i]);
+    }
+
+    Chunk cc2 = IcedUtils.deepCopy(cc);
+    Assert.assertTrue(cc2 instanceof CRLEChunk);
+    checkChunk(cc2, vals);
+
+    nc = cc.extractRows(new NewChunk(null, 0), 0, LEN);
+    Chunk cc3 = nc.compress();
+    Assert.assertTrue(cc3 instanceof CRLEChunk);
+    Assert.assertTrue(Arrays.equals(cc._mem, cc3._mem));
+  }
+
+  @Test
+  public void test_double_runs() {
+    NewChunk nc = new NewChunk(null, 0);
+    double[] vals = new double[LEN];
+    for (int i = 0; i < LEN; ++i) {
+      vals[i] = i / 128 == 0 ? 0 : Math.PI * (i / 128);
+      nc.addNum(vals[i]);
+    }
+    Chunk cc = nc.compress();
+    Assert.assertTrue(cc instanceof CRLEChunk);
+    Assert.assertTrue(cc.hasFloat());
+    checkChunk(cc, vals);
+    checkChunk(IcedUtils.deepCopy(cc), vals);
+  }
+
+  @Test
+  public void test_short_or_random_chunks_are_not_rle() {
+    NewChunk nc = new NewChunk(null, 0);
+    for (int i = 0; i < NewChunk.MIN_RECODE_LEN - 1; ++i)
+      nc.addNum(1000000 + i / 256, 0);
+    Assert.assertFalse(nc.compress() instanceof CRLEChunk);
+
+    nc = new NewChunk(null, 0);
+    for (int i = 0; i < LEN; ++i)
+      nc.addNum((i * 7919) % 30011, 0);
+    Assert.assertTrue(nc.compress() instanceof C2Chunk);
+  }
+
+  @Test
+  public void test_set() {
+    NewChunk nc = new NewChunk(null, 0);
+    for (int i = 0; i < LEN; ++i)
+      nc.addNum(100000 + i / 512, 0);
+    Chunk cc = nc.compress();
+    Assert.assertTrue(cc instanceof CRLEChunk);
+    // Writes would split a run, the chunk has to be inflated
+    Assert.assertFalse(cc.set_impl(5, 7L));
+    Assert.assertFalse(cc.set_impl(5, 100000L));
+    Assert.assertFalse(cc.setNA_impl(5));
+    Assert.assertEquals(100000, cc.at8(5));
+  }
+}
@@ -110,6 +110,75 @@ public class CStrChunkTest extends TestUtil {
     Assert.assertTrue("Sparse string has values: expected `bar`, got " + bufferedString, bufferedString.equalsAsciiString("bar"));
   }
   
+  @Test
+  public void test_dictionary() {
+    String[] words = {"alpha", "", "beta", "gamma"};
+    NewChunk nc = new NewChunk(null, 0);
+    for (int i = 0; i < 3000; i++)
+      if (i % 10 == 9) nc.addNA();
+      else nc.addStr(words[i % words.length]);
+    CStrChunk cc = (CStrChunk) nc.compress();
+    assertTrue(cc.isDictionary());
+    BufferedString tmpStr = new BufferedString();
+    for (int i = 0; i < 3000; i++) {
+      assertEquals(i % 10 == 9, cc.isNA(i));
+      if (i % 10 != 9) assertEquals(words[i % words.length], cc.atStr(tmpStr, i).toString());
+    }
+    // Each distinct string is stored once
+    int[] offs = cc.dictionaryOffsets();
+    assertEquals(words.length, offs.length);
+    int[] codes = cc.dictionaryCodes(offs);
+    for (int i = 0; i < 3000; i++)
+      if (i % 10 == 9) assertEquals(-1, codes[i]);
+      else assertEquals(words[i % words.length], cc.atOffset(tmpStr, offs[codes[i]]).toString());
+
+    CStrChunk cc2 = IcedUtils.deepCopy(cc);
+    assertTrue(cc2.isDictionary());
+    assertTrue(Arrays.equals(cc._mem, cc2._mem));
+
+    final int[] calls = new int[1];
+    CStrChunk upper = (CStrChunk) cc.mapStrings(new NewChunk(null, 0), s -> { calls[0]++; return s.toUpperCase(); }).compress();
+    assertEquals(words.length, calls[0]);
+    for (int i = 0; i < 3000; i++)
+      if (i % 10 == 9) assertTrue(upper.isNA(i));
+      else assertEquals(words[i % words.length].toUpperCase(), upper.atStr(tmpStr, i).toString());
+  }
+
+  @Test
+  public void test_dictionary_trim_substring() {
+    String[] words = {"  ab ", "xyz", " ab", "  ab ", "", "xyz"};
+    NewChunk nc = new NewChunk(null, 0);
+    for (int i = 0; i < 100; i++) // small chunk, dictionary-encoded
+      if (i % 7 == 6) nc.addNA();
+      else nc.addStr(words[i % words.length]);
+    CStrChunk cc = (CStrChunk) nc.compress();
+    assertTrue(cc.isDictionary());
+
+    BufferedString tmpStr = new BufferedString();
+    Chunk trimmed = cc.asciiTrim(new NewChunk(null, 0)).compress();
+    Chunk sub = cc.asciiSubstring(new NewChunk(null, 0), 1, 3).compress();
+    for (int i = 0; i < 100; i++) {
+      if (i % 7 == 6) {
+        assertTrue(trimmed.isNA(i));
+        assertTrue(sub.isNA(i));
+        continue;
+      }
+      String w = words[i % words.length];
+      assertEquals(w.trim(), trimmed.atStr(tmpStr, i).toString());
+      assertEquals(w.length() > 1 ? w.substring(1, Math.min(3, w.length())) : "", sub.atStr(tmpStr, i).toString());
+    }
+  }
+
+  @Test
+  public void test_unique_strings_not_dictionary() {
+    NewChunk nc = new NewChunk(null, 0);
+    for (int i = 0; i < 3000; i++)
+      nc.addStr("row" + i);
+    CStrChunk cc = (CStrChunk) nc.compress();
+    assertFalse(cc.isDictionary());
+    assertEquals("row2999", cc.atStr(new BufferedString(), 2999).toString());
+  }
+
   @Test
   public void test_lstrip() {
     final List<String> content = Arrays.asList(
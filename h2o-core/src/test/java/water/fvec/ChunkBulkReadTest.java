@@ -0,0 +1,97 @@
+package water.fvec;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.TestUtil;
+import water.util.UnsafeUtils;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ChunkBulkReadTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  private static final int LEN = 1000;
+
+  private static double[][] columns() {
+    Random r = new Random(42);
+    double[][] cols = new double[15][LEN];
+    for (int i = 0; i < LEN; i++) {
+      cols[0][i] = i % 200;                                  // C1N
+      cols[1][i] = i % 7 == 0 ? Double.NaN : i % 200;        // C1
+      cols[2][i] = i % 7 == 0 ? Double.NaN : i % 30000;      // C2
+      cols[3][i] = i % 7 == 0 ? Double.NaN : i * 100003;     // C4
+      cols[4][i] = i % 7 == 0 ? Double.NaN : (long) i << 40; // C8
+      cols[5][i] = 17;                                       // C0L
+      cols[6][i] = 0.25;                                     // C0D
+      cols[7][i] = Double.NaN;                               // C0D, all NA
+      cols[8][i] = i % 7 == 0 ? Double.NaN : r.nextGaussian() * 1e6; // CUD
+      cols[9][i] = i % 7 == 0 ? Double.NaN : r.nextDouble(); // C8D
+      cols[10][i] = i % 50 == 0 ? i : 0;                     // CXI
+      cols[11][i] = i % 50 == 0 ? i + 0.5 : 0;               // CXF
+      cols[12][i] = i % 7 == 0 ? Double.NaN : 0.1 * (i % 100); // C1S
+      cols[13][i] = i % 7 == 0 ? Double.NaN : 0.01 * i - 3;   // C2S
+      cols[14][i] = i % 7 == 0 ? Double.NaN : 0.001 * i * 99991; // C4S
+    }
+    return cols;
+  }
+
+  private static List<Chunk> chunks() {
+    List<Chunk> chunks = new ArrayList<>();
+    for (double[] col : columns())
+      chunks.add(new NewChunk(col).compress());
+    // NewChunk never picks C4F on its own
+    byte[] floats = new byte[LEN * 4];
+    for (int i = 0; i < LEN; i++)
+      UnsafeUtils.set4f(floats, i * 4, i % 7 == 0 ? Float.NaN : i / 3f);
+    chunks.add(new C4FChunk(floats));
+    // Bias too big to be exact as a double
+    NewChunk nc = new NewChunk(null, 0);
+    for (int i = 0; i < LEN; i++)
+      if (i % 7 == 0) nc.addNA();
+      else nc.addNum((1L << 60) + i % 100, 0);
+    chunks.add(nc.compress());
+    return chunks;
+  }
+
+  @Test
+  public void testBulkReadsMatchElementReads() {
+    Set<Class<?>> seen = new HashSet<>();
+    for (Chunk c : chunks()) {
+      seen.add(c.getClass());
+      assertEquals(LEN, c._len);
+      for (int[] range : new int[][]{{0, LEN}, {1, LEN}, {123, 457}, {999, LEN}, {500, 500}}) {
+        int from = range[0], to = range[1];
+        double[] dvals = new double[to - from];
+        boolean[] dnas = new boolean[to - from];
+        c.getDoubles(dvals, dnas, from, to);
+        for (int i = from; i < to; i++) {
+          assertEquals(c.getClass() + " row " + i, c.isNA(i), dnas[i - from]);
+          if (!c.isNA(i))
+            assertEquals(c.getClass() + " row " + i, c.atd(i), dvals[i - from], 0);
+        }
+        if (c.hasFloat())
+          continue;
+        long[] lvals = new long[to - from];
+        boolean[] lnas = new boolean[to - from];
+        c.getLongs(lvals, lnas, from, to);
+        for (int i = from; i < to; i++) {
+          assertEquals(c.getClass() + " row " + i, c.isNA(i), lnas[i - from]);
+          assertEquals(c.getClass() + " row " + i, c.isNA(i) ? 0 : c.at8(i), lvals[i - from]);
+        }
+      }
+    }
+    for (Class<?> clazz : new Class<?>[]{C1NChunk.class, C1Chunk.class, C2Chunk.class, C4Chunk.class, C8Chunk.class,
+            C0LChunk.class, C0DChunk.class, C4FChunk.class, C8DChunk.class, CXIChunk.class, CXFChunk.class,
+            C1SChunk.class, C2SChunk.class, C4SChunk.class})
+      assertTrue("not covered: " + clazz, seen.contains(clazz));
+  }
+
+  @Test
+  public void testGetLongsUsesGivenNA() {
+    Chunk c = new NewChunk(new double[]{1, Double.NaN, 3}).compress();
+    assertArrayEquals(new long[]{1, -1, 3}, c.getLongs(new long[3], 0, 3, -1));
+  }
+
+}
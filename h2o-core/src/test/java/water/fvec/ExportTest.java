@@ -8,8 +8,11 @@ import water.*;
 import water.parser.ParseDataset;
 import water.util.Log;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 
@@ -66,6 +69,63 @@ public class ExportTest extends TestUtil {
     fr.delete();
   }
 
+  @Test public void testExportCompressed() throws IOException {
+    Frame fr = parse_test_file("smalldata/airlines/airlineUUID.csv");
+    Key rebalancedKey = Key.make("rebalanced");
+    Frame rebalanced = null;
+    Frame imported = null;
+    int[] partSpec = {1, 4};
+    try {
+      rebalanced = rebalance(fr, rebalancedKey, 17);
+      for (int parts : partSpec) {
+        File folder = tmpFolder.newFolder("export_gzip_" + parts);
+        File target = (parts == 1) ? new File(folder, "data.csv.gz") : folder;
+        // chunks are compressed independently and the gzip members concatenated
+        Frame.export(rebalanced, target.getPath(), "export", false, parts, "gzip", new Frame.CSVStreamParams()).get();
+        assertEquals(parts, folder.listFiles().length);
+        imported = parseFolder(folder);
+        TestUtil.assertBitIdentical(fr, imported);
+        imported.delete();
+        imported = null;
+      }
+    } finally {
+      if (rebalanced != null) rebalanced.delete();
+      if (imported != null) imported.delete();
+      fr.delete();
+    }
+  }
+
+  @Test public void testExportEscapedCategoricals() throws IOException {
+    Frame fr = new TestFrameBuilder()
+            .withColNames("cat", "num")
+            .withVecTypes(Vec.T_CAT, Vec.T_NUM)
+            .withDataForCol(0, ar("a\"b", "plain", "c\\d\"", "plain", "\"q\"", "a\"b"))
+            .withDataForCol(1, ard(1, 2, 3, 4, 5, 6))
+            .withChunkLayout(2, 2, 2)
+            .build();
+    try {
+      Frame.CSVStreamParams[] parmsSpec = {new Frame.CSVStreamParams(), new Frame.CSVStreamParams().setEscapeChar('\\')};
+      for (int i = 0; i < parmsSpec.length; i++) {
+        File target = new File(tmpFolder.newFolder("export_escaped_" + i), "data.csv");
+        // the domains are escaped once by the driver, the chunks are rendered by their home nodes
+        Frame.export(fr, target.getPath(), "export", false, 1, null, parmsSpec[i]).get();
+        String expected = readFully(new Frame.CSVStream(fr, parmsSpec[i]));
+        assertEquals(expected, new String(Files.readAllBytes(target.toPath()), "UTF-8"));
+      }
+    } finally {
+      fr.delete();
+    }
+  }
+
+  private static String readFully(InputStream is) throws IOException {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    byte[] buffer = new byte[1024];
+    for (int count; (count = is.read(buffer, 0, buffer.length)) > 0; )
+      bos.write(buffer, 0, count);
+    is.close();
+    return new String(bos.toByteArray(), "UTF-8");
+  }
+
   private static Frame rebalance(Frame fr, Key targetKey, int nChunks) {
     RebalanceDataSet rb = new RebalanceDataSet(fr, targetKey, nChunks);
     H2O.submitTask(rb);
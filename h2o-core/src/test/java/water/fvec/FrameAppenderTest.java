@@ -0,0 +1,203 @@
+package water.fvec;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import water.DKV;
+import water.Key;
+import water.Scope;
+import water.TestUtil;
+import water.exceptions.H2OIllegalArgumentException;
+import water.parser.ParseDataset;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+import static org.junit.Assert.*;
+
+public class FrameAppenderTest extends TestUtil {
+
+  @Rule
+  public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  @BeforeClass public static void setup() { stall_till_cloudsize(1); }
+
+  @Test public void testAppend() {
+    try {
+      Scope.enter();
+      Frame target = new TestFrameBuilder()
+              .withName("target")
+              .withColNames("num", "cat")
+              .withVecTypes(Vec.T_NUM, Vec.T_CAT)
+              .withDataForCol(0, ard(1, 2, Double.NaN, 4, 5))
+              .withDataForCol(1, ar("b", "a", "b", null, "c"))
+              .withChunkLayout(2, 3)
+              .build();
+      Scope.track(target);
+      Frame tail = new TestFrameBuilder()
+              .withName("tail")
+              .withColNames("num", "cat")
+              .withVecTypes(Vec.T_NUM, Vec.T_CAT)
+              .withDataForCol(0, ard(6.5, 0, -1))
+              .withDataForCol(1, ar("d", "a", "c"))
+              .withChunkLayout(1, 2)
+              .build();
+      double mean = target.vec(0).mean(); // rollups of the target are known => computed incrementally
+      assertEquals(3, mean, 0);
+
+      FrameAppender.append(target, tail, null);
+
+      Frame fr = DKV.getGet(target._key);
+      assertEquals(8, fr.numRows());
+      assertEquals(4, fr.anyVec().nChunks());
+      assertNull(DKV.get(tail._key));
+      Vec num = fr.vec(0), cat = fr.vec(1);
+      double[] expectedNums = ard(1, 2, Double.NaN, 4, 5, 6.5, 0, -1);
+      for (int i = 0; i < expectedNums.length; i++)
+        assertEquals(expectedNums[i], num.at(i), 0);
+      assertArrayEquals(ar("a", "b", "c", "d"), cat.domain());
+      String[] expectedCats = ar("b", "a", "b", null, "c", "d", "a", "c");
+      for (int i = 0; i < expectedCats.length; i++)
+        assertEquals(expectedCats[i], cat.isNA(i) ? null : cat.domain()[(int) cat.at8(i)]);
+
+      // incremental rollups are the same as the rollups computed from scratch
+      double[] stats = {num.mean(), num.sigma(), num.min(), num.max(), num.naCnt(), num.nzCnt(), cat.naCnt()};
+      long checksum = num.checksum_impl();
+      long size = num.byteSize();
+      DKV.remove(num.rollupStatsKey());
+      DKV.remove(cat.rollupStatsKey());
+      assertArrayEquals(new double[]{num.mean(), num.sigma(), num.min(), num.max(), num.naCnt(), num.nzCnt(), cat.naCnt()},
+              stats, 1e-12);
+      assertEquals(num.checksum_impl(), checksum);
+      assertEquals(num.byteSize(), size);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test public void testAppendTypeMismatch() {
+    try {
+      Scope.enter();
+      Frame target = Scope.track(new TestFrameBuilder()
+              .withColNames("x")
+              .withVecTypes(Vec.T_NUM)
+              .withDataForCol(0, ard(1, 2))
+              .build());
+      Frame tail = Scope.track(new TestFrameBuilder()
+              .withColNames("x")
+              .withVecTypes(Vec.T_STR)
+              .withDataForCol(0, ar("a", "b"))
+              .build());
+      try {
+        FrameAppender.append(target, tail, null);
+        fail("Appending strings to a numeric column should fail");
+      } catch (H2OIllegalArgumentException e) {
+        assertTrue(e.getMessage().contains("cannot append values of type String"));
+      }
+      assertEquals(2, ((Frame) DKV.getGet(target._key)).numRows());
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test public void testAppendSharedVecIsRejected() {
+    try {
+      Scope.enter();
+      Frame target = Scope.track(new TestFrameBuilder()
+              .withName("target")
+              .withColNames("x", "y")
+              .withVecTypes(Vec.T_NUM, Vec.T_NUM)
+              .withDataForCol(0, ard(1, 2))
+              .withDataForCol(1, ard(3, 4))
+              .build());
+      // another frame holding one of the target's Vecs
+      Frame other = new Frame(Key.<Frame>make("other"), new String[]{"x", "z"},
+              new Vec[]{target.vec("x"), target.vec("y").makeCopy()});
+      DKV.put(other);
+      Scope.track(other);
+      Frame tail = Scope.track(new TestFrameBuilder()
+              .withColNames("x", "y")
+              .withVecTypes(Vec.T_NUM, Vec.T_NUM)
+              .withDataForCol(0, ard(5))
+              .withDataForCol(1, ard(6))
+              .build());
+      try {
+        FrameAppender.append(target, tail, null);
+        fail("Appending to a Vec shared with another frame should fail");
+      } catch (H2OIllegalArgumentException e) {
+        assertTrue(e.getMessage().contains("shared"));
+      }
+      // neither frame changed, the columns of the other frame still have the same layout
+      assertEquals(2, ((Frame) DKV.getGet(target._key)).numRows());
+      Frame fr = DKV.getGet(other._key);
+      assertEquals(2, fr.numRows());
+      assertTrue(fr.vec(0).isCompatibleWith(fr.vec(1)));
+
+      // a deep copy can be appended to
+      Frame copy = Scope.track(target.deepCopy("copy"));
+      DKV.put(copy);
+      FrameAppender.append(copy, tail, null);
+      assertEquals(3, ((Frame) DKV.getGet(copy._key)).numRows());
+      assertEquals(2, ((Frame) DKV.getGet(other._key)).numRows());
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test public void testAppendParse() throws IOException {
+    try {
+      Scope.enter();
+      File first = writeCsv("first.csv", "id,color\n1,red\n2,green\n");
+      File second = writeCsv("second.csv", "id,color\n3,blue\n4,red\n");
+      Frame fr = Scope.track(ParseDataset.parse(Key.make("appended"), NFSFileVec.make(first)._key));
+      ParseDataset.forkAppendParse(fr._key, new Key[]{NFSFileVec.make(second)._key}, null, true).get();
+
+      fr = DKV.getGet(fr._key);
+      assertEquals(4, fr.numRows());
+      assertArrayEquals(ar("green", "red", "blue"), fr.vec("color").domain());
+      assertEquals(3, fr.vec("id").at8(2));
+      assertEquals("blue", fr.vec("color").domain()[(int) fr.vec("color").at8(2)]);
+      assertEquals("red", fr.vec("color").domain()[(int) fr.vec("color").at8(3)]);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test public void testAppendParseToAllMissingColumns() throws IOException {
+    try {
+      Scope.enter();
+      File first = writeCsv("first.csv", "id,color,size\n1,,\n2,,\n");
+      File second = writeCsv("second.csv", "id,color,size\n3,blue,1.5\n4,red,\n");
+      Frame fr = Scope.track(ParseDataset.parse(Key.make("appended"), NFSFileVec.make(first)._key));
+      assertEquals(Vec.T_BAD, fr.vec("color").get_type());
+      assertEquals(Vec.T_BAD, fr.vec("size").get_type());
+      ParseDataset.forkAppendParse(fr._key, new Key[]{NFSFileVec.make(second)._key}, null, true).get();
+
+      fr = DKV.getGet(fr._key);
+      assertEquals(4, fr.numRows());
+      Vec color = fr.vec("color"), size = fr.vec("size");
+      assertEquals(Vec.T_CAT, color.get_type());
+      assertArrayEquals(ar("blue", "red"), color.domain());
+      assertTrue(color.isNA(0) && color.isNA(1));
+      assertEquals("blue", color.domain()[(int) color.at8(2)]);
+      assertEquals("red", color.domain()[(int) color.at8(3)]);
+      assertEquals(Vec.T_NUM, size.get_type());
+      assertEquals(3, size.naCnt());
+      assertEquals(1.5, size.at(2), 0);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  private File writeCsv(String name, String content) throws IOException {
+    File f = tmpFolder.newFile(name);
+    try (Writer w = new FileWriter(f)) {
+      w.write(content);
+    }
+    return f;
+  }
+
+}
@@ -0,0 +1,93 @@
+package water.parser;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import water.Key;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.NFSFileVec;
+import water.fvec.Vec;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+public class CategoricalDomainMergerTest extends TestUtil {
+
+  @Rule
+  public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  @BeforeClass
+  static public void setup() { stall_till_cloudsize(1); }
+
+  private static BufferedString[] bs(String... strings) {
+    return BufferedString.toBufferedString(strings);
+  }
+
+  private static String[] unpack(byte[] packed) {
+    return PackedDomains.unpackToStrings(packed);
+  }
+
+  @Test
+  public void testMergeSlices() {
+    byte[][] slices = new byte[][]{
+            PackedDomains.pack(bs("a", "c", "d")),
+            PackedDomains.pack(bs()),
+            PackedDomains.pack(bs("b", "c", "e"))
+    };
+    int[][] positions = new int[slices.length][];
+    byte[] merged = CategoricalDomainMerger.mergeSlices(slices, positions);
+    assertArrayEquals(new String[]{"a", "b", "c", "d", "e"}, unpack(merged));
+    assertArrayEquals(new int[]{0, 2, 3}, positions[0]);
+    assertArrayEquals(new int[0], positions[1]);
+    assertArrayEquals(new int[]{1, 2, 4}, positions[2]);
+  }
+
+  @Test
+  public void testPartitionBounds() {
+    BufferedString[] samples = bs("a", "b", "c", "d", "e", "f");
+    BufferedString[] splitters = CategoricalDomainMerger.pickSplitters(samples, 3);
+    assertEquals(2, splitters.length);
+    assertEquals("c", splitters[0].toString());
+    assertEquals("e", splitters[1].toString());
+    assertArrayEquals(new int[]{0, 2, 3, 4},
+            CategoricalDomainMerger.partitionBounds(bs("a", "bb", "d", "x"), splitters, 3));
+    // no samples => everything goes to the first partition
+    assertArrayEquals(new int[]{0, 2, 2, 2},
+            CategoricalDomainMerger.partitionBounds(bs("a", "b"), CategoricalDomainMerger.pickSplitters(bs(), 3), 3));
+  }
+
+  @Test
+  public void testParseHighCardinality() throws IOException {
+    try {
+      Scope.enter();
+      final int rows = 20000;
+      TreeSet<String> levels = new TreeSet<>();
+      File f = tmpFolder.newFile("levels.csv");
+      try (Writer w = new FileWriter(f)) {
+        w.write("id,level\n");
+        for (int i = 0; i < rows; i++) {
+          String level = "L" + Integer.toHexString((i * 7919) % 503);
+          levels.add(level);
+          w.write(i + "," + level + "\n");
+        }
+      }
+      Frame fr = Scope.track(ParseDataset.parse(Key.make(), NFSFileVec.make(f)._key));
+      Vec v = fr.vec("level");
+      assertTrue(v.isCategorical());
+      assertArrayEquals(levels.toArray(new String[0]), v.domain());
+      for (int i = 0; i < rows; i += 97)
+        assertEquals("L" + Integer.toHexString((i * 7919) % 503), v.domain()[(int) v.at8(i)]);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+}
@@ -5,8 +5,10 @@ import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
+import water.Key;
 import water.Scope;
 import water.TestUtil;
+import water.fvec.FVecFactory;
 import water.fvec.FileVec;
 import water.fvec.Frame;
 import water.fvec.Vec;
@@ -384,6 +386,41 @@ public class CsvParserTest extends TestUtil {
       assertEquals("unquoted", outWriter._data[2][1]);
       assertFalse(outWriter.hasErrors());
     }
+
+    /**
+     * Lines of plain numbers take the numeric fast path, any other line the
+     * state machine; both must agree on every token.
+     */
+    @Test
+    public void testNumericFastPathTokens() {
+      Scope.enter();
+      try {
+        Key k = FVecFactory.makeByteVec(
+            "1,-2,3.25\n" +
+            "1.,.5,-.5\n" +
+            "-0,007,12345678901234567\n" +
+            ",,\n" +
+            "4,\"5\",6\r\n" +
+            "9 ,1e2,  7\n" +
+            "8,9,10");
+        Frame fr = Scope.track(ParseDataset.parse(Key.make("numeric_fast_path"), k));
+        double[][] exp = new double[][]{
+            ard(1, -2, 3.25),
+            ard(1, 0.5, -0.5),
+            ard(0, 7, 12345678901234567.0),
+            ard(Double.NaN, Double.NaN, Double.NaN),
+            ard(4, 5, 6),
+            ard(9, 100, 7),
+            ard(8, 9, 10)
+        };
+        assertEquals(exp.length, fr.numRows());
+        for (int r = 0; r < exp.length; r++)
+          for (int c = 0; c < 3; c++)
+            assertEquals("row " + r + " col " + c, exp[r][c], fr.vec(c).at(r), 0);
+      } finally {
+        Scope.exit();
+      }
+    }
   }
 
 
@@ -0,0 +1,97 @@
+package water.parser;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.Rule;
+import org.junit.rules.TemporaryFolder;
+import water.Key;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.NFSFileVec;
+import water.fvec.Vec;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import static org.junit.Assert.*;
+
+public class ParseChunkBalancerTest extends TestUtil {
+
+  @Rule
+  public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  @BeforeClass
+  static public void setup() { stall_till_cloudsize(1); }
+
+  @Test
+  public void testOptimalChunkCount() {
+    final long MB = 1 << 20;
+    // small data stays in a single chunk
+    assertEquals(1, ParseChunkBalancer.optimalChunkCount(100_000, 1000, 4 * MB, 32, Long.MAX_VALUE));
+    // enough chunks to keep all cores busy, but no chunks smaller than the minimum size
+    assertEquals(10, ParseChunkBalancer.optimalChunkCount(10 * MB, 100_000, 4 * MB, 32, Long.MAX_VALUE));
+    assertEquals(32, ParseChunkBalancer.optimalChunkCount(100 * MB, 100_000, 4 * MB, 32, Long.MAX_VALUE));
+    // big data is split by the target size
+    assertEquals(250, ParseChunkBalancer.optimalChunkCount(1000 * MB, 10_000_000, 4 * MB, 32, Long.MAX_VALUE));
+    // bounded by the number of rows and the chunk count limit
+    assertEquals(20, ParseChunkBalancer.optimalChunkCount(1000 * MB, 20, 4 * MB, 32, Long.MAX_VALUE));
+    assertEquals(100, ParseChunkBalancer.optimalChunkCount(1000 * MB, 10_000_000, 4 * MB, 32, 100));
+  }
+
+  @Test
+  public void testBalancedChunkSize() {
+    final int MB = 1 << 20;
+    final long total = 1000L * MB;
+    // parsed data as big as the input => 4MB chunks are on target
+    ParseChunkBalancer.Probe same = new ParseChunkBalancer.Probe(MB, MB, 10000, 100);
+    assertEquals(4 * MB, ParseChunkBalancer.balancedChunkSize(total, same, 4 * MB, 32, Long.MAX_VALUE));
+    // dense data, parsed 8x bigger than the input => smaller input chunks
+    ParseChunkBalancer.Probe dense = new ParseChunkBalancer.Probe(MB, 8 * MB, 10000, 100);
+    assertEquals(MB / 2, ParseChunkBalancer.balancedChunkSize(total, dense, 4 * MB, 32, Long.MAX_VALUE));
+    // ... but never less than 10 lines per chunk
+    ParseChunkBalancer.Probe longLines = new ParseChunkBalancer.Probe(MB, 8 * MB, 10, 100000);
+    assertEquals(1000000, ParseChunkBalancer.balancedChunkSize(total, longLines, 4 * MB, 32, Long.MAX_VALUE));
+    // sparse data, parsed 8x smaller than the input => small chunks are not merged
+    ParseChunkBalancer.Probe sparse = new ParseChunkBalancer.Probe(8 * MB, MB, 10000, 100);
+    assertEquals(4 * MB, ParseChunkBalancer.balancedChunkSize(total, sparse, 4 * MB, 32, Long.MAX_VALUE));
+    // too few chunks to keep all cores busy
+    assertEquals(2 * MB, ParseChunkBalancer.balancedChunkSize(16L * MB, same, 16 * MB, 8, Long.MAX_VALUE));
+  }
+
+  @Test
+  public void testProbeMeasuresParsedData() throws IOException {
+    try {
+      Scope.enter();
+      File f = tmpFolder.newFile("probe.csv");
+      try (Writer w = new OutputStreamWriter(new FileOutputStream(f))) {
+        w.write("id,x,color\n");
+        for (int i = 0; i < 1000; i++)
+          w.write(i + "," + (i * 0.25) + "," + (char) ('a' + i % 5) + "\n");
+      }
+      NFSFileVec vec = NFSFileVec.make(f);
+      ParseSetup setup = ParseSetup.guessSetup(new Key[]{vec._key}, false, ParseSetup.HAS_HEADER);
+      ParseChunkBalancer.Probe p = ParseChunkBalancer.probe(vec.getFirstBytes(), false, setup);
+      assertNotNull(p);
+      assertEquals(f.length(), p._inputBytes);
+      assertEquals(1000, p._lines);
+      assertEquals("999,249.75,e\n".length(), p._maxLineLength);
+
+      // the probe predicts the size of the parsed data
+      Frame fr = Scope.track(ParseDataset.parse(Key.make(), vec._key));
+      assertEquals(1, fr.anyVec().nChunks());
+      long parsedBytes = 0;
+      for (Vec v : fr.vecs())
+        parsedBytes += v.chunkForChunkIdx(0).byteSize();
+      assertEquals(parsedBytes, p._parsedBytes, 0.1 * parsedBytes);
+      // nothing was stored by the probe
+      assertEquals(3, fr.numCols());
+    } finally {
+      Scope.exit();
+    }
+  }
+
+}
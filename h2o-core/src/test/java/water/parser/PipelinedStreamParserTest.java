@@ -0,0 +1,143 @@
+package water.parser;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import water.Key;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.NFSFileVec;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.*;
+
+public class PipelinedStreamParserTest extends TestUtil {
+
+  @Rule
+  public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  @BeforeClass
+  static public void setup() { stall_till_cloudsize(1); }
+
+  private static int lastLineEnd(String data) {
+    return lastLineEnd(data, false);
+  }
+
+  private static int lastLineEnd(String data, boolean singleQuotes) {
+    byte[] bits = data.getBytes();
+    return new PipelinedStreamParser.LineCutter((byte) ',', singleQuotes, new byte[]{'#'}).lastLineEnd(bits, bits.length);
+  }
+
+  @Test
+  public void testLastLineEnd() {
+    assertEquals(4, lastLineEnd("a,b\nc,d"));
+    assertEquals(9, lastLineEnd("a,b\r\nc,d\n"));
+    assertEquals(4, lastLineEnd("a,b\rc,d"));
+    assertEquals(0, lastLineEnd("a,b,c,d"));
+  }
+
+  @Test
+  public void testLastLineEndOutsideOfQuotes() {
+    assertEquals(4, lastLineEnd("a,b\nc,\"d\ne\""));
+    assertEquals(12, lastLineEnd("a,b\nc,\"d\ne\"\nf"));
+    assertEquals(4, lastLineEnd("a,b\nc,\"d\"\"\ne\"\"\"")); // escaped quotes
+    assertEquals(0, lastLineEnd("a,\"b\"")); // closing quote at the end of the data is not decided yet
+    assertEquals(8, lastLineEnd("a,b\nc\"d\ne")); // quote in the middle of a field
+    assertEquals(11, lastLineEnd("a,  \"b\n\",c\n")); // whitespace before the quote
+    assertEquals(6, lastLineEnd("#\"abc\nd,e\n".substring(0, 6))); // no quotes in comments
+    assertEquals(7, lastLineEnd("a,b\n'c\nd'", false));
+    assertEquals(0, lastLineEnd("a,b\n'c\nd'".substring(4), true));
+  }
+
+  @Test
+  public void testLastLineEndIncremental() {
+    PipelinedStreamParser.LineCutter cutter = new PipelinedStreamParser.LineCutter((byte) ',', false, new byte[]{'#'});
+    byte[] bits = "a,\"b\nc\"\nd,\"e\n".getBytes();
+    assertEquals(0, cutter.lastLineEnd(bits, 5)); // inside of the quoted field
+    assertEquals(8, cutter.lastLineEnd(bits, bits.length));
+    cutter.shift(8);
+    byte[] rest = Arrays.copyOfRange(bits, 8, bits.length);
+    assertEquals(0, cutter.lastLineEnd(rest, rest.length)); // still inside of the second quoted field
+  }
+
+  @Test
+  public void testParseGzipInBlocks() throws IOException {
+    try {
+      Scope.enter();
+      File plain = tmpFolder.newFile("data.csv");
+      File gzipped = tmpFolder.newFile("data.csv.gz");
+      Random r = new Random(42);
+      try (Writer csv = new OutputStreamWriter(new FileOutputStream(plain));
+           Writer gz = new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(gzipped)))) {
+        String header = "id,x,color\n";
+        csv.write(header);
+        gz.write(header);
+        for (int i = 0; i < 100000; i++) {
+          String line = i + "," + r.nextGaussian() + "," + (char) ('a' + r.nextInt(10)) + "\n";
+          csv.write(line);
+          gz.write(line);
+        }
+      }
+      NFSFileVec gzVec = NFSFileVec.make(gzipped);
+      gzVec.setChunkSize(64 * 1024); // many input chunks => many blocks
+      assertTrue(gzVec.nChunks() > 4);
+      Frame expected = Scope.track(ParseDataset.parse(Key.make(), NFSFileVec.make(plain)._key));
+      Frame actual = Scope.track(ParseDataset.parse(Key.make(), gzVec._key));
+      assertArrayEquals(expected.names(), actual.names());
+      assertEquals(100000, actual.numRows());
+      assertTrue(actual.anyVec().nChunks() > 1);
+      assertVecEquals(expected.vec("id"), actual.vec("id"), 0);
+      assertVecEquals(expected.vec("x"), actual.vec("x"), 0);
+      assertCatVecEquals(expected.vec("color"), actual.vec("color"));
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testParseGzipWithQuotedLineBreaks() throws IOException {
+    try {
+      Scope.enter();
+      File plain = tmpFolder.newFile("quoted.csv");
+      File gzipped = tmpFolder.newFile("quoted.csv.gz");
+      Random r = new Random(42);
+      try (Writer csv = new OutputStreamWriter(new FileOutputStream(plain));
+           Writer gz = new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(gzipped)))) {
+        String header = "id,text\n";
+        csv.write(header);
+        gz.write(header);
+        for (int i = 0; i < 50000; i++) {
+          // long multi-line fields => line breaks inside of quotes end up at the input chunk boundaries
+          StringBuilder text = new StringBuilder();
+          for (int j = r.nextInt(20); j >= 0; j--)
+            text.append("line ").append(j).append(j % 3 == 0 ? "\n" : " ");
+          String line = i + ",\"" + text + "\"\n";
+          csv.write(line);
+          gz.write(line);
+        }
+      }
+      NFSFileVec gzVec = NFSFileVec.make(gzipped);
+      gzVec.setChunkSize(16 * 1024);
+      assertTrue(gzVec.nChunks() > 4);
+      Frame expected = Scope.track(ParseDataset.parse(Key.make(), NFSFileVec.make(plain)._key));
+      Frame actual = Scope.track(ParseDataset.parse(Key.make(), gzVec._key));
+      assertEquals(50000, actual.numRows());
+      assertTrue(actual.anyVec().nChunks() > 1);
+      assertVecEquals(expected.vec("id"), actual.vec("id"), 0);
+      assertStringVecEquals(expected.vec("text"), actual.vec("text"));
+    } finally {
+      Scope.exit();
+    }
+  }
+
+}
@@ -0,0 +1,49 @@
+package water.parser;
+
+import org.junit.Test;
+import water.exceptions.H2OIllegalArgumentException;
+
+import static org.junit.Assert.*;
+
+public class RowFilterTest {
+
+  @Test
+  public void testParse() {
+    RowFilter filter = RowFilter.parse("date >= 1483228800000", "dept == 'sales'", " x!=-2.5 ", "zip == 12345");
+    assertEquals(4, filter.numConditions());
+    assertEquals("date", filter.column(0));
+    assertEquals(RowFilter.Op.GE, filter.op(0));
+    assertEquals(1483228800000d, filter.num(0), 0);
+    assertEquals("dept", filter.column(1));
+    assertEquals(RowFilter.Op.EQ, filter.op(1));
+    assertTrue(Double.isNaN(filter.num(1)));
+    assertEquals("sales", filter.str(1));
+    assertEquals(RowFilter.Op.NE, filter.op(2));
+    assertEquals(-2.5, filter.num(2), 0);
+    assertEquals(12345, filter.num(3), 0);
+    assertEquals("12345", filter.str(3));
+    assertNull(RowFilter.parse());
+  }
+
+  @Test(expected = H2OIllegalArgumentException.class)
+  public void testStringsOnlyCompareForEquality() {
+    RowFilter.parse("dept < sales");
+  }
+
+  @Test(expected = H2OIllegalArgumentException.class)
+  public void testInvalidCondition() {
+    RowFilter.parse("date 1483228800000");
+  }
+
+  @Test
+  public void testOps() {
+    assertTrue(RowFilter.Op.LT.test(1, 2));
+    assertFalse(RowFilter.Op.LT.test(2, 2));
+    assertTrue(RowFilter.Op.LE.test(2, 2));
+    assertTrue(RowFilter.Op.GT.test(3, 2));
+    assertTrue(RowFilter.Op.GE.test(2, 2));
+    assertTrue(RowFilter.Op.EQ.test(2, 2));
+    assertTrue(RowFilter.Op.NE.test(1, 2));
+  }
+
+}
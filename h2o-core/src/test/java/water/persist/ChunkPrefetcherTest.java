@@ -0,0 +1,138 @@
+package water.persist;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import water.Key;
+import water.TestUtil;
+import water.fvec.FileVec;
+import water.fvec.NFSFileVec;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.Assert.*;
+
+public class ChunkPrefetcherTest extends TestUtil {
+
+  @Rule
+  public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  @BeforeClass
+  static public void setup() { stall_till_cloudsize(1); }
+
+  private static class ArrayReader implements ChunkPrefetcher.RangeReader {
+    final byte[] _data;
+    final ConcurrentLinkedQueue<Long> _offsets = new ConcurrentLinkedQueue<>();
+
+    ArrayReader(byte[] data) { _data = data; }
+
+    @Override
+    public byte[] read(Key chunkKey, long offset, int length) {
+      _offsets.add(offset);
+      return Arrays.copyOfRange(_data, (int) offset, (int) offset + length);
+    }
+  }
+
+  @Test
+  public void testReadAhead() throws Exception {
+    final int chunkSize = 1024;
+    byte[] data = new byte[10 * chunkSize + 100];
+    for (int i = 0; i < data.length; i++)
+      data[i] = (byte) i;
+    File f = tmpFolder.newFile("data.bin");
+    try (OutputStream os = new FileOutputStream(f)) {
+      os.write(data);
+    }
+    NFSFileVec vec = NFSFileVec.make(f);
+    try {
+      vec.setChunkSize(chunkSize);
+      assertEquals(11, vec.nChunks());
+      ArrayReader reader = new ArrayReader(data);
+      ChunkPrefetcher prefetcher = new ChunkPrefetcher("test", reader, 2, 3, 2 * chunkSize + 100);
+
+      // first load is on-demand, next chunks are scheduled (as many as fit in the buffer)
+      assertArrayEquals(Arrays.copyOfRange(data, 0, chunkSize), prefetcher.load(vec.chunkIdx(0)));
+      assertEquals(2, prefetcher.prefetchedCount());
+      assertEquals(2 * chunkSize, prefetcher.bufferedBytes());
+
+      // served from the buffer, more chunks are scheduled
+      assertArrayEquals(Arrays.copyOfRange(data, chunkSize, 2 * chunkSize), prefetcher.load(vec.chunkIdx(1)));
+      assertArrayEquals(Arrays.copyOfRange(data, 2 * chunkSize, 3 * chunkSize), prefetcher.load(vec.chunkIdx(2)));
+      // last chunk is longer
+      assertArrayEquals(Arrays.copyOfRange(data, 10 * chunkSize, data.length), prefetcher.load(vec.chunkIdx(10)));
+      // the buffer never exceeds its limit
+      assertTrue(prefetcher.bufferedBytes() <= 2 * chunkSize + 100);
+
+      // every chunk was read exactly once
+      long[] offsets = new long[reader._offsets.size()];
+      int i = 0;
+      for (long o : reader._offsets) offsets[i++] = o;
+      Arrays.sort(offsets);
+      for (int j = 1; j < offsets.length; j++)
+        assertTrue(offsets[j - 1] != offsets[j]);
+      prefetcher.shutdown();
+    } finally {
+      vec.remove();
+    }
+  }
+
+  @Test
+  public void testDropUnclaimed() throws Exception {
+    final int chunkSize = 1024;
+    byte[] data = new byte[8 * chunkSize];
+    File f = tmpFolder.newFile("unclaimed.bin");
+    try (OutputStream os = new FileOutputStream(f)) {
+      os.write(data);
+    }
+    NFSFileVec vec = NFSFileVec.make(f);
+    try {
+      vec.setChunkSize(chunkSize);
+      ChunkPrefetcher prefetcher = new ChunkPrefetcher("test", new ArrayReader(data), 2, 4, 8 * chunkSize);
+      prefetcher.load(vec.chunkIdx(0));
+      assertEquals(4, prefetcher.prefetchedCount());
+      assertEquals(4 * chunkSize, prefetcher.bufferedBytes());
+      // claimed data is released right away
+      prefetcher.load(vec.chunkIdx(1));
+      assertEquals(4, prefetcher.prefetchedCount()); // chunks 2-5
+      assertEquals(4 * chunkSize, prefetcher.bufferedBytes());
+      // nothing is old enough
+      assertEquals(0, prefetcher.evict(System.currentTimeMillis() - 60000));
+      assertEquals(4, prefetcher.prefetchedCount());
+      // under memory pressure all buffers are dropped
+      assertEquals(4 * chunkSize, ChunkPrefetcher.dropAll());
+      assertEquals(0, prefetcher.prefetchedCount());
+      assertEquals(0, prefetcher.bufferedBytes());
+      // dropped chunks are read on demand
+      assertArrayEquals(Arrays.copyOfRange(data, 2 * chunkSize, 3 * chunkSize), prefetcher.load(vec.chunkIdx(2)));
+      prefetcher.shutdown();
+      assertEquals(0, prefetcher.bufferedBytes());
+    } finally {
+      vec.remove();
+    }
+  }
+
+  @Test
+  public void testNoReadAhead() throws IOException {
+    File f = tmpFolder.newFile("small.bin");
+    try (OutputStream os = new FileOutputStream(f)) {
+      os.write(new byte[]{1, 2, 3});
+    }
+    FileVec vec = NFSFileVec.make(f);
+    try {
+      ArrayReader reader = new ArrayReader(new byte[]{1, 2, 3});
+      ChunkPrefetcher prefetcher = new ChunkPrefetcher("test", reader, 1, 0, 1024);
+      assertArrayEquals(new byte[]{1, 2, 3}, prefetcher.load(vec.chunkIdx(0)));
+      assertEquals(0, prefetcher.prefetchedCount());
+      prefetcher.shutdown();
+    } finally {
+      vec.remove();
+    }
+  }
+
+}
@@ -0,0 +1,66 @@
+package water.persist;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import water.Key;
+import water.TestUtil;
+import water.Value;
+
+import java.io.File;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class IceSegmentsTest extends TestUtil {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Before
+    public void setUp() {
+        stall_till_cloudsize(1);
+    }
+
+    private static Value makeValue(String name, int len, long seed) {
+        byte[] bytes = new byte[len];
+        new Random(seed).nextBytes(bytes);
+        return new Value(Key.make(name), bytes);
+    }
+
+    @Test
+    public void storeLoadDelete() throws Exception {
+        File dir = tmp.newFolder("segments");
+        IceSegments segments = new IceSegments(dir, 1 << 16);
+        Value v1 = makeValue("ice_seg_1", 1000, 1);
+        Value v2 = makeValue("ice_seg_2", 3000, 2);
+        segments.store(v1);
+        segments.store(v2);
+        assertEquals(1, dir.listFiles().length); // both Values share one segment
+
+        assertArrayEquals(v1.memOrLoad(), segments.load(v1));
+        assertArrayEquals(v2.memOrLoad(), segments.load(v2));
+
+        segments.delete(v1);
+        assertNull(segments.load(v1));
+        assertArrayEquals(v2.memOrLoad(), segments.load(v2));
+    }
+
+    @Test
+    public void oversizedValueGetsOwnSegmentWhichIsReleased() throws Exception {
+        File dir = tmp.newFolder("segments");
+        IceSegments segments = new IceSegments(dir, 1024);
+        Value small = makeValue("ice_seg_small", 10, 3);
+        Value big = makeValue("ice_seg_big", 1025, 4);
+        segments.store(small);
+        segments.store(big);
+        assertEquals(2, dir.listFiles().length);
+        assertArrayEquals(big.memOrLoad(), segments.load(big));
+
+        segments.delete(big);
+        assertEquals(1, dir.listFiles().length);
+        assertArrayEquals(small.memOrLoad(), segments.load(small));
+    }
+
+}
@@ -0,0 +1,106 @@
+package water.rapids;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.TestFrameBuilder;
+import water.fvec.Vec;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class FusionTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  private static Frame exec(String rapids, boolean fused) {
+    boolean was = Fusion.ENABLED;
+    Fusion.ENABLED = fused;
+    try {
+      return Scope.track(Rapids.exec(rapids).getFrame());
+    } finally {
+      Fusion.ENABLED = was;
+    }
+  }
+
+  private static void assertSameAsUnfused(String rapids) {
+    Frame fused = exec(rapids, true);
+    Frame unfused = exec(rapids, false);
+    assertEquals(rapids, Arrays.asList(unfused.names()), Arrays.asList(fused.names()));
+    assertBitIdentical(unfused, fused);
+  }
+
+  @Test
+  public void testFusedMatchesUnfused() {
+    Scope.enter();
+    try {
+      Scope.track(new TestFrameBuilder()
+          .withName("fusion_ab")
+          .withColNames("a", "b")
+          .withVecTypes(Vec.T_NUM, Vec.T_NUM)
+          .withDataForCol(0, ard(1, 2, Double.NaN, -4, 5.5, 0))
+          .withDataForCol(1, ard(0.5, -1, 3, Double.NaN, 2, 7))
+          .withChunkLayout(2, 4)
+          .build());
+      Scope.track(new TestFrameBuilder()
+          .withName("fusion_c")
+          .withColNames("c")
+          .withVecTypes(Vec.T_NUM)
+          .withDataForCol(0, ard(10, 20, 30, 40, Double.NaN, 60))
+          .withChunkLayout(2, 4)
+          .build());
+      assertSameAsUnfused("(log (+ (* fusion_ab fusion_ab) fusion_c))");
+      assertSameAsUnfused("(abs (- (* 2 (+ 1 3)) fusion_ab))");
+      assertSameAsUnfused("(sqrt (/ fusion_c (+ fusion_ab 1)))");
+      assertSameAsUnfused("(> (round fusion_ab 0) (cols fusion_ab [1]))");
+      assertSameAsUnfused("(&& (> fusion_c 15) (< fusion_ab 3))");
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testFallsBackOnCategoricals() {
+    Scope.enter();
+    try {
+      Scope.track(new TestFrameBuilder()
+          .withName("fusion_cat")
+          .withColNames("x", "y")
+          .withVecTypes(Vec.T_CAT, Vec.T_NUM)
+          .withDataForCol(0, ar("a", "b", "a"))
+          .withDataForCol(1, ard(1, 2, 3))
+          .build());
+      assertSameAsUnfused("(+ (* fusion_cat 2) 1)");
+      Frame fr = exec("(+ (* fusion_cat 2) 1)", true);
+      assertTrue(Double.isNaN(fr.vec(0).at(0)));
+      assertEquals(7, fr.vec(1).at(2), 0);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testEqualityOverTimeColumns() {
+    Scope.enter();
+    try {
+      Scope.track(new TestFrameBuilder()
+          .withName("fusion_time")
+          .withColNames("t", "n")
+          .withVecTypes(Vec.T_TIME, Vec.T_NUM)
+          .withDataForCol(0, ar(0L, 1500000000000L, 0L))
+          .withDataForCol(1, ard(0, 1, 2))
+          .build());
+      assertSameAsUnfused("(* (== fusion_time 0) 2)");
+      assertSameAsUnfused("(+ (!= fusion_time 0) 1)");
+      // equality on a time column is all zeros, with or without fusion
+      Frame fr = exec("(* (== fusion_time 0) 2)", true);
+      assertEquals(0, fr.vec(0).at(0), 0);
+      assertEquals(2, fr.vec(1).at(0), 0);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+}
@@ -38,6 +38,17 @@ public class CompressionFactoryTest {
     }
   }
 
+  @Test
+  public void testGzipRoundTrip() throws IOException {
+    CompressionFactory cf = CompressionFactory.make("gzip");
+    byte[] data = new byte[10000];
+    for (int i = 0; i < data.length; i++)
+      data[i] = (byte) (i % 7);
+    byte[] compressed = cf.compress(data);
+    assertTrue(compressed.length < data.length);
+    assertArrayEquals(data, cf.decompress(compressed, data.length));
+  }
+
   @Test
   public void testMissing() throws IOException {
     ee.expectMessage("Cannot create a compressor using class MISSING");
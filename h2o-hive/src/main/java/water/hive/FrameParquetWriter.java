@@ -8,6 +8,7 @@ import org.apache.parquet.avro.AvroParquetWriter;
 import org.apache.parquet.hadoop.ParquetWriter;
 import water.H2O;
 import water.Key;
+import water.MRTask;
 import water.fvec.Chunk;
 import water.fvec.Frame;
 import water.fvec.Vec;
@@ -31,13 +32,7 @@ public class FrameParquetWriter {
                 for (int col = 0; col < frame.numCols(); col++) {
                     chunks[col] = frame.vec(col).chunkForChunkIdx(cidx);
                 }
-                for (int crow = 0; crow < chunks[0].len(); crow++) {
-                    GenericRecordBuilder builder = new GenericRecordBuilder(schema);
-                    for (int col = 0; col < frame.numCols(); col++) {
-                        builder.set(frame.name(col), getValue(chunks[col], crow, tmpStr));
-                    }
-                    writer.write(builder.build());
-                }
+                writeChunks(writer, schema, frame.names(), chunks, tmpStr);
                 for (int col = 0; col < frame.numCols(); col++) {
                     Key chunkKey = chunks[col].vec().chunkKey(cidx);
                     if (!chunkKey.home()) {
@@ -48,7 +43,47 @@ public class FrameParquetWriter {
         }
     }
 
-    private Object getValue(Chunk chunk, int crow, BufferedString tmpStr) {
+    /**
+     * Writes the frame to a directory of Parquet part files, one part file per chunk. The part files are written
+     * in parallel, each by the node holding the chunks.
+     */
+    public void writeParts(Frame frame, String dirName) {
+        new PartWriterTask(dirName, makeSchema(frame).toString()).doAll(frame);
+    }
+
+    private static class PartWriterTask extends MRTask<PartWriterTask> {
+        private final String _dirName;
+        private final String _schema; // Avro schema is not serializable, it is passed as JSON
+
+        PartWriterTask(String dirName, String schema) {
+            _dirName = dirName;
+            _schema = schema;
+        }
+
+        @Override
+        public void map(Chunk[] cs) {
+            Schema schema = new Schema.Parser().parse(_schema);
+            String partName = _dirName + "/part-m-" + String.valueOf(100000 + cs[0].cidx()).substring(1) + ".parquet";
+            try (ParquetWriter<GenericRecord> writer = openWriter(partName, schema)) {
+                writeChunks(writer, schema, _fr.names(), cs, new BufferedString());
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to write part file " + partName, e);
+            }
+        }
+    }
+
+    private static void writeChunks(ParquetWriter<GenericRecord> writer, Schema schema, String[] names,
+                                    Chunk[] chunks, BufferedString tmpStr) throws IOException {
+        for (int crow = 0; crow < chunks[0].len(); crow++) {
+            GenericRecordBuilder builder = new GenericRecordBuilder(schema);
+            for (int col = 0; col < chunks.length; col++) {
+                builder.set(names[col], getValue(chunks[col], crow, tmpStr));
+            }
+            writer.write(builder.build());
+        }
+    }
+
+    private static Object getValue(Chunk chunk, int crow, BufferedString tmpStr) {
         Vec v = chunk.vec();
         if (!chunk.isNA(crow)) {
             if (v.isCategorical()) {
@@ -67,7 +102,7 @@ public class FrameParquetWriter {
         }
     }
 
-    private ParquetWriter<GenericRecord> openWriter(String fileName, Schema schema) throws IOException {
+    private static ParquetWriter<GenericRecord> openWriter(String fileName, Schema schema) throws IOException {
         return AvroParquetWriter.<GenericRecord>builder(new Path(fileName))
             .withSchema(schema)
             .withConf(PersistHdfs.CONF)
@@ -117,8 +117,9 @@ public class HiveFrameSaverImpl extends AbstractH2OExtension implements SaveToHi
         }
     }
 
-    private void writeFrameAsParquet(Frame frame, String filePath) throws IOException {
-        new FrameParquetWriter().write(frame, filePath);
+    private void writeFrameAsParquet(Frame frame, String filePath) {
+        // filePath becomes a directory of part files written in parallel, LOAD DATA moves all of them
+        new FrameParquetWriter().writeParts(frame, filePath);
     }
 
     private void writeFrameAsCsv(Frame f, String filePath) throws IOException {
@@ -4,14 +4,20 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
+import water.Key;
 import water.Scope;
 import water.fvec.Frame;
+import water.fvec.NFSFileVec;
+import water.parser.ParseDataset;
 import water.runner.CloudSize;
 import water.runner.H2ORunner;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static water.TestUtil.assertFrameEquals;
 import static water.TestUtil.parse_test_file;
 
@@ -37,4 +43,25 @@ public class FrameParquetWriterTest {
         }
     }
 
+    @Test
+    public void testSaveFrameParts() throws IOException {
+        Scope.enter();
+        try {
+            Frame fr = Scope.track(parse_test_file("./smalldata/airlines/AirlinesTrain.csv"));
+            File partsDir = tmp.newFolder("prostate_parts");
+            new FrameParquetWriter().writeParts(fr, partsDir.getAbsolutePath());
+            File[] parts = partsDir.listFiles((dir, name) -> name.startsWith("part-m-") && name.endsWith(".parquet"));
+            assertNotNull(parts);
+            assertEquals(fr.anyVec().nChunks(), parts.length);
+            Arrays.sort(parts);
+            Key[] keys = new Key[parts.length];
+            for (int i = 0; i < parts.length; i++)
+                keys[i] = NFSFileVec.make(parts[i])._key;
+            Frame fromParquet = Scope.track(ParseDataset.parse(Key.make(), keys));
+            assertFrameEquals(fr, fromParquet, 1e-10);
+        } finally {
+            Scope.exit();
+        }
+    }
+
 }
@@ -0,0 +1,218 @@
+package water.parser.arrow;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.apache.arrow.vector.ipc.ArrowReader;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.arrow.vector.ipc.message.ArrowBlock;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import water.Job;
+import water.Key;
+import water.exceptions.H2OUnsupportedDataFileException;
+import water.fvec.ByteVec;
+import water.fvec.Chunk;
+import water.fvec.Vec;
+import water.parser.*;
+import water.util.Log;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Parser of the Arrow IPC formats: the file format (Feather V2) and the stream format.
+ *
+ * Files are parsed in parallel, each record batch is parsed along with the Chunk holding the beginning of the
+ * batch (record batches are located using the footer of the file). Streams have no footer and are parsed
+ * sequentially on a single node, the record batches are distributed to the Chunks the same way.
+ */
+public class ArrowParser extends Parser {
+
+  private static final int MAX_PREVIEW_RECORDS = 1000;
+  static final byte[] FILE_MAGIC = "ARROW1".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] STREAM_CONTINUATION = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF};
+
+  ArrowParser(ParseSetup setup, Key<Job> jobKey) {
+    super(setup, jobKey);
+  }
+
+  @Override
+  protected final ParseWriter parseChunk(int cidx, ParseReader din, ParseWriter dout) {
+    if (!(din instanceof FVecParseReader)) {
+      throw new IllegalStateException("We only accept parser readers backed by a Vec (no streaming support!).");
+    }
+    Chunk chunk = ((FVecParseReader) din).getChunk();
+    ByteVec vec = (ByteVec) chunk.vec();
+    if (!isFileFormat(vec.getFirstBytes()))
+      throw new IllegalStateException("Arrow streams cannot be parsed in parallel.");
+    final long start = chunk.start(), end = start + chunk._len;
+    final RecordBatchWriter writer = new RecordBatchWriter(_setup.getColumnTypes(), _keepColumns);
+    try (BufferAllocator allocator = newAllocator();
+         ArrowFileReader reader = new ArrowFileReader(new VecSeekableByteChannel(vec), allocator)) {
+      int nBatches = 0;
+      for (ArrowBlock block : reader.getRecordBlocks()) {
+        if (block.getOffset() < start || block.getOffset() >= end) continue;
+        reader.loadRecordBatch(block);
+        writer.write(reader.getVectorSchemaRoot(), reader, dout, Integer.MAX_VALUE);
+        nBatches++;
+      }
+      Log.trace("Parsed ", nBatches, " record batches of chunk #", cidx);
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to parse Arrow record batches", e);
+    }
+    return dout;
+  }
+
+  @Override
+  protected final StreamParseWriter sequentialParse(Vec vec, final StreamParseWriter dout) {
+    final int nChunks = vec.nChunks();
+    final RecordBatchWriter writer = new RecordBatchWriter(_setup.getColumnTypes(), _keepColumns);
+    StreamParseWriter nextChunk = dout;
+    int cidx = 0; // Chunk being written, record batches are written to the Chunk holding their beginning
+    try (BufferAllocator allocator = newAllocator()) {
+      ByteVec bv = (ByteVec) vec;
+      if (isFileFormat(bv.getFirstBytes())) {
+        try (ArrowFileReader reader = new ArrowFileReader(new VecSeekableByteChannel(bv), allocator)) {
+          for (ArrowBlock block : reader.getRecordBlocks()) {
+            for (; cidx < vec.elem2ChunkIdx(block.getOffset()); cidx++)
+              nextChunk = finishChunk(vec, dout, nextChunk);
+            reader.loadRecordBatch(block);
+            writer.write(reader.getVectorSchemaRoot(), reader, nextChunk, Integer.MAX_VALUE);
+          }
+        }
+      } else {
+        try (ArrowStreamReader reader = new ArrowStreamReader(bv.openStream(_jobKey), allocator)) {
+          for (long offset = reader.bytesRead(); reader.loadNextBatch(); offset = reader.bytesRead()) {
+            for (; cidx < vec.elem2ChunkIdx(Math.min(offset, vec.length() - 1)); cidx++)
+              nextChunk = finishChunk(vec, dout, nextChunk);
+            writer.write(reader.getVectorSchemaRoot(), reader, nextChunk, Integer.MAX_VALUE);
+          }
+        }
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to parse Arrow record batches", e);
+    }
+    for (; cidx < nChunks; cidx++)
+      nextChunk = finishChunk(vec, dout, nextChunk);
+    return dout;
+  }
+
+  private StreamParseWriter finishChunk(Vec vec, StreamParseWriter dout, StreamParseWriter chunk) {
+    if (_jobKey != null)
+      Job.update(vec.length() / vec.nChunks(), _jobKey);
+    chunk.close();
+    dout.reduce(chunk);
+    return chunk.nextChunk();
+  }
+
+  private static BufferAllocator newAllocator() {
+    return new RootAllocator(Long.MAX_VALUE);
+  }
+
+  static boolean isFileFormat(byte[] bits) {
+    return startsWith(bits, FILE_MAGIC);
+  }
+
+  static boolean isStreamFormat(byte[] bits) {
+    return startsWith(bits, STREAM_CONTINUATION);
+  }
+
+  private static boolean startsWith(byte[] bits, byte[] prefix) {
+    return bits.length >= prefix.length && Arrays.equals(Arrays.copyOf(bits, prefix.length), prefix);
+  }
+
+  // Reader positioned before the first record batch
+  private static ArrowReader openReader(ByteVec vec, BufferAllocator allocator) throws IOException {
+    if (isFileFormat(vec.getFirstBytes()))
+      return new ArrowFileReader(new VecSeekableByteChannel(vec), allocator);
+    return new ArrowStreamReader(vec.openStream(null), allocator);
+  }
+
+  public static ParseSetup guessFormatSetup(ByteVec vec, byte[] bits) {
+    if (!isFileFormat(bits) && !isStreamFormat(bits))
+      return null;
+    try (BufferAllocator allocator = newAllocator();
+         ArrowReader reader = openReader(vec, allocator)) {
+      Schema schema = reader.getVectorSchemaRoot().getSchema();
+      String[] names = new String[schema.getFields().size()];
+      byte[] types = new byte[names.length];
+      for (int i = 0; i < names.length; i++) {
+        Field field = schema.getFields().get(i);
+        if (!field.getChildren().isEmpty())
+          throw new H2OUnsupportedDataFileException("Arrow files with nested structures are not supported.",
+                  "Detected a column with a nested structure: " + field);
+        names[i] = field.getName();
+        types[i] = field.getDictionary() != null && RecordBatchWriter.h2oType(field.getType()) == Vec.T_STR ?
+                Vec.T_CAT : RecordBatchWriter.h2oType(field.getType());
+      }
+      ParseSetup ps = new ParseSetup(ArrowParserProvider.ARROW_INFO, ParseSetup.GUESS_SEP, false, ParseSetup.HAS_HEADER,
+              names.length, names, types, new String[names.length][] /* domains */, null /* NA strings */, null);
+      // streams have no footer to find the record batches, they can only be parsed sequentially
+      ps.disableParallelParse = !isFileFormat(bits);
+      return ps;
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to read the schema of the Arrow data", e);
+    }
+  }
+
+  public static ParseSetup guessDataSetup(ByteVec vec, ParseSetup ps, boolean[] keepColumns) {
+    ArrowPreviewParseWriter preview = new ArrowPreviewParseWriter(ps.getColumnNames());
+    RecordBatchWriter writer = new RecordBatchWriter(ps.getColumnTypes(), keepColumns);
+    try (BufferAllocator allocator = newAllocator();
+         ArrowReader reader = openReader(vec, allocator)) {
+      int rows = 0;
+      while (rows < MAX_PREVIEW_RECORDS && reader.loadNextBatch())
+        rows += writer.write(reader.getVectorSchemaRoot(), reader, preview, MAX_PREVIEW_RECORDS - rows);
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to read the first few records", e);
+    }
+    byte[] types = correctTypeConversions(ps.getColumnTypes(), preview.guessTypes());
+    ParseSetup result = new ParseSetup(ArrowParserProvider.ARROW_INFO, ParseSetup.GUESS_SEP, false,
+            ParseSetup.HAS_HEADER, types.length, ps.getColumnNames(), types, new String[types.length][], null,
+            preview.data());
+    result.disableParallelParse = ps.disableParallelParse;
+    return result;
+  }
+
+  private static class ArrowPreviewParseWriter extends PreviewParseWriter {
+
+    public ArrowPreviewParseWriter() {
+      // externalizable class should have a public constructor
+      super();
+    }
+
+    ArrowPreviewParseWriter(String[] columnNames) {
+      super(columnNames.length);
+      setColumnNames(columnNames);
+      _nlines = 0;
+      _data[0] = new String[columnNames.length];
+    }
+
+    String[][] data() {
+      return _data;
+    }
+
+  }
+
+  /**
+   * Overrides unsupported type conversions/mappings specified by the user: numeric and time columns stay as they
+   * are, other columns can't become numeric.
+   */
+  static byte[] correctTypeConversions(byte[] roughTypes, byte[] requestedTypes) {
+    if (requestedTypes.length != roughTypes.length)
+      throw new IllegalArgumentException("Invalid column type specification: number of columns and number of types differ!");
+    byte[] resultTypes = new byte[requestedTypes.length];
+    for (int i = 0; i < requestedTypes.length; i++) {
+      if ((roughTypes[i] == Vec.T_NUM) || (roughTypes[i] == Vec.T_TIME) || (roughTypes[i] == Vec.T_BAD))
+        resultTypes[i] = roughTypes[i];
+      else if (requestedTypes[i] == Vec.T_NUM || requestedTypes[i] == Vec.T_TIME)
+        resultTypes[i] = roughTypes[i];
+      else
+        resultTypes[i] = requestedTypes[i];
+    }
+    return resultTypes;
+  }
+
+}
@@ -0,0 +1,65 @@
+package water.parser.arrow;
+
+import water.DKV;
+import water.Job;
+import water.Key;
+import water.fvec.ByteVec;
+import water.fvec.Frame;
+import water.fvec.Vec;
+import water.parser.*;
+
+/**
+ * Arrow IPC (file and stream format) parser provider.
+ */
+public class ArrowParserProvider extends BinaryParserProvider {
+
+  /* Setup for this parser */
+  static ParserInfo ARROW_INFO = new ParserInfo("ARROW", DefaultParserProviders.MAX_CORE_PRIO + 30, true, false, true, false);
+
+  @Override
+  public ParserInfo info() {
+    return ARROW_INFO;
+  }
+
+  @Override
+  public Parser createParser(ParseSetup setup, Key<Job> jobKey) {
+    return new ArrowParser(setup, jobKey);
+  }
+
+  @Override
+  public ParseSetup guessInitSetup(ByteVec v, byte[] bits, ParseSetup userSetup) {
+    return ArrowParser.guessFormatSetup(v, bits);
+  }
+
+  @Override
+  public ParseSetup guessFinalSetup(ByteVec v, byte[] bits, ParseSetup ps) {
+    boolean[] keepColumns = null;
+    int[] parseColumnIndices = ps.get_parse_columns_indices();
+    if (parseColumnIndices != null) {
+      keepColumns = new boolean[ps.getNumberColumns()];
+      for (int cindex : parseColumnIndices)
+        keepColumns[cindex] = true;
+    }
+    return ArrowParser.guessDataSetup(v, ps, keepColumns);
+  }
+
+  @Override
+  public ParseSetup createParserSetup(Key[] inputs, ParseSetup requestedSetup) {
+    // override incorrect type mappings (using the schema of the first file)
+    Object frameOrVec = DKV.getGet(inputs[0]);
+    ByteVec vec = (ByteVec) (frameOrVec instanceof Frame ? ((Frame) frameOrVec).vec(0) : frameOrVec);
+    ParseSetup schemaSetup = ArrowParser.guessFormatSetup(vec, vec.getFirstBytes());
+    if (schemaSetup == null)
+      throw new IllegalArgumentException("Not an Arrow file: " + inputs[0]);
+    byte[] requestedTypes = requestedSetup.getColumnTypes();
+    byte[] types = ArrowParser.correctTypeConversions(schemaSetup.getColumnTypes(), requestedTypes);
+    requestedSetup.setColumnTypes(types);
+    for (int i = 0; i < types.length; i++)
+      if (types[i] != requestedTypes[i])
+        requestedSetup.addErrs(new ParseWriter.UnsupportedTypeOverride(inputs[0].toString(), Vec.TYPE_STR[types[i]],
+                Vec.TYPE_STR[requestedTypes[i]], requestedSetup.getColumnNames()[i]));
+    requestedSetup.disableParallelParse |= schemaSetup.disableParallelParse;
+    return requestedSetup;
+  }
+
+}
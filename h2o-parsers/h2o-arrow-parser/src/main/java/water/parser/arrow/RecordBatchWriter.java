@@ -0,0 +1,242 @@
+package water.parser.arrow;
+
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DateMilliVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.TimeStampVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
+import water.fvec.Vec;
+import water.parser.BufferedString;
+import water.parser.FVecParseWriter;
+import water.parser.ParseWriter;
+import water.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes Arrow record batches to a ParseWriter.
+ *
+ * Chunk writers get one column after another; a column of doubles without nulls is copied in bulk from the Arrow
+ * buffer (which has the very same layout as the doubles of a NewChunk) and dictionary-encoded string columns map
+ * each dictionary entry to the categorical domain just once per batch. Other writers (eg. the preview writer) get
+ * the rows one by one.
+ */
+class RecordBatchWriter {
+
+  private static final long MILLIS_PER_DAY = 24L * 3600 * 1000;
+
+  private final byte[] _columnTypes; // types of all columns, including the skipped ones
+  private final boolean[] _keepColumns;
+  private final BufferedString _bs = new BufferedString();
+  private final BufferedString _true = new BufferedString("True");
+  private final BufferedString _false = new BufferedString("False");
+
+  RecordBatchWriter(byte[] columnTypes, boolean[] keepColumns) {
+    _columnTypes = columnTypes;
+    _keepColumns = keepColumns;
+  }
+
+  /**
+   * Writes (up to maxRows rows of) the record batch currently loaded in root.
+   * @return number of rows written
+   */
+  int write(VectorSchemaRoot root, DictionaryProvider dictionaries, ParseWriter dout, int maxRows) {
+    final List<FieldVector> vectors = root.getFieldVectors();
+    final int rows = Math.min(root.getRowCount(), maxRows);
+    final FieldVector[] dicts = new FieldVector[vectors.size()];
+    for (int i = 0; i < dicts.length; i++) {
+      DictionaryEncoding encoding = vectors.get(i).getField().getDictionary();
+      if (encoding != null) {
+        Dictionary dict = dictionaries.lookup(encoding.getId());
+        if (dict == null)
+          throw new IllegalStateException("Missing dictionary #" + encoding.getId() + " of column " + vectors.get(i).getField().getName());
+        dicts[i] = dict.getVector();
+      }
+    }
+    if (dout instanceof FVecParseWriter) {
+      FVecParseWriter writer = (FVecParseWriter) dout;
+      int colIdx = 0; // index to columns actually parsed
+      for (int i = 0; i < dicts.length; i++) {
+        if (!keep(i)) continue;
+        writeColumn(writer, colIdx++, _columnTypes[i], vectors.get(i), dicts[i], rows);
+      }
+      writer.addLines(rows);
+    } else {
+      for (int r = 0; r < rows; r++) {
+        int colIdx = 0;
+        for (int i = 0; i < dicts.length; i++) {
+          if (!keep(i)) continue;
+          writeValue(dout, colIdx++, vectors.get(i), dicts[i], r);
+        }
+        dout.newLine();
+      }
+    }
+    return rows;
+  }
+
+  private boolean keep(int i) {
+    return _keepColumns == null || _keepColumns[i];
+  }
+
+  private void writeColumn(FVecParseWriter writer, int colIdx, byte columnType, FieldVector v, FieldVector dict, int rows) {
+    if (dict == null && columnType == Vec.T_NUM && v instanceof Float8Vector && v.getNullCount() == 0) {
+      double[] ds = new double[rows];
+      v.getDataBuffer().nioBuffer(0, rows * 8).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(ds);
+      writer.addNumCols(colIdx, ds);
+    } else if (dict instanceof VarCharVector && writer.isCategorical(colIdx)) {
+      final VarCharVector values = (VarCharVector) dict;
+      final int[] ids = new int[values.getValueCount()];
+      Arrays.fill(ids, -1);
+      for (int r = 0; r < rows; r++) {
+        if (v.isNull(r)) {
+          writer.addInvalidCol(colIdx);
+          continue;
+        }
+        int idx = (int) intValue(v, r);
+        if (values.isNull(idx)) {
+          writer.addInvalidCol(colIdx);
+          continue;
+        }
+        if (ids[idx] < 0) {
+          _bs.set(values.get(idx));
+          ids[idx] = writer.categoricalId(colIdx, _bs);
+        }
+        writer.addCategoricalId(colIdx, ids[idx]);
+      }
+    } else {
+      for (int r = 0; r < rows; r++)
+        writeValue(writer, colIdx, v, dict, r);
+    }
+  }
+
+  private void writeValue(ParseWriter w, int colIdx, FieldVector v, FieldVector dict, int r) {
+    if (v.isNull(r)) {
+      w.addInvalidCol(colIdx);
+      return;
+    }
+    if (dict != null) {
+      writeValue(w, colIdx, dict, null, (int) intValue(v, r));
+      return;
+    }
+    final ArrowType type = v.getField().getType();
+    switch (type.getTypeID()) {
+      case Int: {
+        long l = intValue(v, r);
+        if (l < 0 && !((ArrowType.Int) type).getIsSigned()) // unsigned 64-bit beyond Long.MAX_VALUE
+          w.addNumCol(colIdx, new BigInteger(Long.toUnsignedString(l)).doubleValue());
+        else
+          w.addNumCol(colIdx, l, 0);
+        break;
+      }
+      case FloatingPoint: {
+        FloatingPointPrecision precision = ((ArrowType.FloatingPoint) type).getPrecision();
+        if (precision == FloatingPointPrecision.DOUBLE) w.addNumCol(colIdx, ((Float8Vector) v).get(r));
+        else if (precision == FloatingPointPrecision.SINGLE) w.addNumCol(colIdx, ((Float4Vector) v).get(r));
+        else w.addInvalidCol(colIdx); // half floats are not supported
+        break;
+      }
+      case Bool:
+        w.addStrCol(colIdx, ((BitVector) v).get(r) == 1 ? _true : _false);
+        break;
+      case Utf8:
+        _bs.set(((VarCharVector) v).get(r));
+        w.addStrCol(colIdx, _bs);
+        break;
+      case LargeUtf8:
+        _bs.set(StringUtils.bytesOf(v.getObject(r).toString()));
+        w.addStrCol(colIdx, _bs);
+        break;
+      case Decimal: {
+        BigDecimal bd = ((DecimalVector) v).getObject(r);
+        if (bd.unscaledValue().bitLength() < 64) w.addNumCol(colIdx, bd.unscaledValue().longValue(), -bd.scale());
+        else w.addNumCol(colIdx, bd.doubleValue());
+        break;
+      }
+      case Date:
+        if (v instanceof DateDayVector) w.addNumCol(colIdx, ((DateDayVector) v).get(r) * MILLIS_PER_DAY, 0);
+        else w.addNumCol(colIdx, ((DateMilliVector) v).get(r), 0);
+        break;
+      case Timestamp:
+        w.addNumCol(colIdx, toMillis(((TimeStampVector) v).get(r), ((ArrowType.Timestamp) type).getUnit()), 0);
+        break;
+      case Time: {
+        ArrowType.Time time = (ArrowType.Time) type;
+        long raw = time.getBitWidth() == 32 ? v.getDataBuffer().getInt(r * 4) : v.getDataBuffer().getLong(r * 8);
+        w.addNumCol(colIdx, toMillis(raw, time.getUnit()), 0);
+        break;
+      }
+      default:
+        w.addInvalidCol(colIdx); // unsupported types (binary, intervals) end up as NAs
+    }
+  }
+
+  // Value of an integer vector of any width and signedness (unsigned 64-bit values may come out negative)
+  private static long intValue(FieldVector v, int r) {
+    ArrowType.Int type = (ArrowType.Int) v.getField().getType();
+    switch (type.getBitWidth()) {
+      case 8: {
+        byte b = v.getDataBuffer().getByte(r);
+        return type.getIsSigned() ? b : b & 0xFFL;
+      }
+      case 16: {
+        short s = v.getDataBuffer().getShort(r * 2);
+        return type.getIsSigned() ? s : s & 0xFFFFL;
+      }
+      case 32: {
+        int i = v.getDataBuffer().getInt(r * 4);
+        return type.getIsSigned() ? i : i & 0xFFFFFFFFL;
+      }
+      case 64:
+        return v.getDataBuffer().getLong(r * 8);
+      default:
+        throw new IllegalStateException("Unsupported integer width: " + type.getBitWidth());
+    }
+  }
+
+  private static long toMillis(long value, TimeUnit unit) {
+    switch (unit) {
+      case SECOND: return value * 1000;
+      case MILLISECOND: return value;
+      case MICROSECOND: return Math.floorDiv(value, 1000L);
+      case NANOSECOND: return Math.floorDiv(value, 1000_000L);
+      default: throw new IllegalStateException("Unknown time unit: " + unit);
+    }
+  }
+
+  /** H2O type of an Arrow column, T_BAD for columns that can't be parsed */
+  static byte h2oType(ArrowType type) {
+    switch (type.getTypeID()) {
+      case Int:
+      case FloatingPoint:
+      case Decimal:
+      case Time:
+        return Vec.T_NUM;
+      case Date:
+      case Timestamp:
+        return Vec.T_TIME;
+      case Bool:
+        return Vec.T_CAT;
+      case Utf8:
+      case LargeUtf8:
+        return Vec.T_STR;
+      default:
+        return Vec.T_BAD;
+    }
+  }
+
+}
@@ -0,0 +1,80 @@
+package water.parser.arrow;
+
+import water.fvec.ByteVec;
+import water.fvec.Chunk;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+
+/**
+ * Read-only random access to the bytes of a ByteVec, as needed by the Arrow file reader. Bytes are read straight
+ * from the (cached) Chunks of the Vec, the Chunks holding the record batches a node parses are usually local.
+ */
+class VecSeekableByteChannel implements SeekableByteChannel {
+
+  private final ByteVec _vec;
+  private long _pos;
+  private boolean _open = true;
+
+  VecSeekableByteChannel(ByteVec vec) {
+    _vec = vec;
+  }
+
+  @Override
+  public int read(ByteBuffer dst) throws IOException {
+    if (!_open) throw new ClosedChannelException();
+    final long size = _vec.length();
+    if (_pos >= size) return -1;
+    int read = 0;
+    while (dst.hasRemaining() && _pos < size) {
+      Chunk chunk = _vec.chunkForChunkIdx(_vec.elem2ChunkIdx(_pos));
+      int off = (int) (_pos - chunk.start());
+      int len = Math.min(chunk._len - off, dst.remaining());
+      dst.put(chunk.getBytes(), off, len);
+      _pos += len;
+      read += len;
+    }
+    return read;
+  }
+
+  @Override
+  public int write(ByteBuffer src) {
+    throw new NonWritableChannelException();
+  }
+
+  @Override
+  public long position() {
+    return _pos;
+  }
+
+  @Override
+  public SeekableByteChannel position(long newPosition) {
+    if (newPosition < 0) throw new IllegalArgumentException("Negative position: " + newPosition);
+    _pos = newPosition;
+    return this;
+  }
+
+  @Override
+  public long size() {
+    return _vec.length();
+  }
+
+  @Override
+  public SeekableByteChannel truncate(long size) {
+    throw new NonWritableChannelException();
+  }
+
+  @Override
+  public boolean isOpen() {
+    return _open;
+  }
+
+  @Override
+  public void close() {
+    _open = false;
+  }
+
+}
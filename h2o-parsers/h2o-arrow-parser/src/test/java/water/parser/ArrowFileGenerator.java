@@ -0,0 +1,133 @@
+package water.parser;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.BaseVariableWidthVector;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeStampMilliVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.ipc.ArrowWriter;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.Vec;
+import water.util.PrettyPrint;
+import water.util.StringUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes a Frame to an Arrow IPC file (or stream), one record batch per Chunk of the Frame.
+ *
+ * Type mapping: integer columns are written as 64-bit integers, other numeric columns as doubles, categorical
+ * columns as dictionary-encoded strings (the domain is the dictionary), time columns as millisecond timestamps
+ * and string/UUID columns as strings.
+ */
+public class ArrowFileGenerator {
+
+  /**
+   * Writes the frame to the output stream.
+   * @return number of rows written
+   */
+  public static long writeFrame(Frame fr, OutputStream os, boolean streamFormat) throws IOException {
+    final Vec[] vecs = fr.vecs();
+    final DictionaryProvider.MapDictionaryProvider dictionaries = new DictionaryProvider.MapDictionaryProvider();
+    long rows = 0;
+    try (BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE)) {
+      List<Field> fields = new ArrayList<>(vecs.length);
+      for (int i = 0; i < vecs.length; i++) {
+        if (vecs[i].isCategorical()) {
+          DictionaryEncoding encoding = new DictionaryEncoding(i, false, new ArrowType.Int(32, true));
+          dictionaries.put(new Dictionary(domainVector(fr.name(i), vecs[i].domain(), allocator), encoding));
+          fields.add(new Field(fr.name(i), new FieldType(true, new ArrowType.Int(32, true), encoding), null));
+        } else {
+          fields.add(Field.nullable(fr.name(i), arrowType(vecs[i])));
+        }
+      }
+      try (VectorSchemaRoot root = VectorSchemaRoot.create(new Schema(fields), allocator);
+           ArrowWriter writer = streamFormat ?
+                   new ArrowStreamWriter(root, dictionaries, Channels.newChannel(os)) :
+                   new ArrowFileWriter(root, dictionaries, Channels.newChannel(os))) {
+        writer.start();
+        final BufferedString bs = new BufferedString();
+        final int nChunks = fr.anyVec().nChunks();
+        for (int cidx = 0; cidx < nChunks; cidx++) {
+          root.allocateNew();
+          int len = 0;
+          for (int i = 0; i < vecs.length; i++) {
+            Chunk c = vecs[i].chunkForChunkIdx(cidx);
+            len = c._len;
+            writeChunk(c, root.getVector(i), bs);
+          }
+          root.setRowCount(len);
+          writer.writeBatch();
+          rows += len;
+        }
+        writer.end();
+      } finally {
+        for (long id : dictionaries.getDictionaryIds())
+          dictionaries.lookup(id).getVector().close();
+      }
+    }
+    return rows;
+  }
+
+  private static ArrowType arrowType(Vec v) {
+    if (v.isTime()) return new ArrowType.Timestamp(TimeUnit.MILLISECOND, null);
+    if (v.isString() || v.isUUID()) return ArrowType.Utf8.INSTANCE;
+    if (v.isInt()) return new ArrowType.Int(64, true);
+    return new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE);
+  }
+
+  private static VarCharVector domainVector(String name, String[] domain, BufferAllocator allocator) {
+    VarCharVector dict = new VarCharVector(name, allocator);
+    dict.allocateNew(domain.length);
+    for (int i = 0; i < domain.length; i++)
+      dict.setSafe(i, StringUtils.bytesOf(domain[i]));
+    dict.setValueCount(domain.length);
+    return dict;
+  }
+
+  private static void writeChunk(Chunk c, FieldVector v, BufferedString bs) {
+    final Vec vec = c.vec();
+    for (int r = 0; r < c._len; r++) {
+      if (c.isNA(r)) {
+        if (v instanceof BaseFixedWidthVector) ((BaseFixedWidthVector) v).setNull(r);
+        else ((BaseVariableWidthVector) v).setNull(r);
+      } else if (v instanceof Float8Vector) {
+        ((Float8Vector) v).setSafe(r, c.atd(r));
+      } else if (v instanceof BigIntVector) {
+        ((BigIntVector) v).setSafe(r, c.at8(r));
+      } else if (v instanceof IntVector) {
+        ((IntVector) v).setSafe(r, (int) c.at8(r));
+      } else if (v instanceof TimeStampMilliVector) {
+        ((TimeStampMilliVector) v).setSafe(r, c.at8(r));
+      } else if (vec.isUUID()) {
+        ((VarCharVector) v).setSafe(r, StringUtils.bytesOf(PrettyPrint.UUID(c.at16l(r), c.at16h(r))));
+      } else {
+        c.atStr(bs, r);
+        ((VarCharVector) v).setSafe(r, bs.getBuffer(), bs.getOffset(), bs.length());
+      }
+    }
+  }
+
+}
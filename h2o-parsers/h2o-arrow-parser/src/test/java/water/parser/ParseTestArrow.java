@@ -0,0 +1,88 @@
+package water.parser;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.TestFrameBuilder;
+import water.fvec.Vec;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test suite for the Arrow parser, files are generated by {@link ArrowFileGenerator}.
+ */
+public class ParseTestArrow extends TestUtil {
+
+  @BeforeClass
+  static public void setup() { TestUtil.stall_till_cloudsize(1); }
+
+  private static Frame makeFrame() {
+    return new TestFrameBuilder()
+            .withColNames("CDouble", "CInt", "CCat", "CStr")
+            .withVecTypes(Vec.T_NUM, Vec.T_NUM, Vec.T_CAT, Vec.T_STR)
+            .withDataForCol(0, ard(1.5, Double.NaN, -2.25, 1e300, 0, 7.125))
+            .withDataForCol(1, ard(1, 2, Double.NaN, -4, 5, 1L << 40))
+            .withDataForCol(2, ar("a", "b", null, "a", "c", "b"))
+            .withDataForCol(3, ar("x", null, "zz", "", "w", "é"))
+            .withChunkLayout(2, 3, 1)
+            .build();
+  }
+
+  private static File export(Frame fr, boolean streamFormat) throws IOException {
+    File f = File.createTempFile("arrow-test", streamFormat ? ".arrows" : ".arrow");
+    f.deleteOnExit();
+    try (OutputStream os = new FileOutputStream(f)) {
+      ArrowFileGenerator.writeFrame(fr, os, streamFormat);
+    }
+    return f;
+  }
+
+  private static void checkRoundTrip(boolean streamFormat) throws IOException {
+    try {
+      Scope.enter();
+      Frame expected = Scope.track(makeFrame());
+      Frame actual = Scope.track(parse_test_file(export(expected, streamFormat).getAbsolutePath()));
+      assertArrayEquals("Column names need to match!", expected.names(), actual.names());
+      assertArrayEquals("Column types need to match!", expected.types(), actual.types());
+      assertVecEquals(expected.vec(0), actual.vec(0), 0);
+      assertVecEquals(expected.vec(1), actual.vec(1), 0);
+      assertCatVecEquals(expected.vec(2), actual.vec(2));
+      assertStringVecEquals(expected.vec(3), actual.vec(3));
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testRoundTripFileFormat() throws IOException {
+    checkRoundTrip(false);
+  }
+
+  @Test
+  public void testRoundTripStreamFormat() throws IOException {
+    checkRoundTrip(true);
+  }
+
+  @Test
+  public void testSkippedColumns() throws IOException {
+    try {
+      Scope.enter();
+      Frame expected = Scope.track(makeFrame());
+      String path = export(expected, false).getAbsolutePath();
+      Frame actual = Scope.track(parse_test_file(path, new int[]{1, 3}));
+      assertArrayEquals(ar("CDouble", "CCat"), actual.names());
+      assertVecEquals(expected.vec(0), actual.vec(0), 0);
+      assertCatVecEquals(expected.vec(2), actual.vec(1));
+    } finally {
+      Scope.exit();
+    }
+  }
+
+}
@@ -35,6 +35,8 @@ import water.util.PrettyPrint;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
@@ -596,4 +598,52 @@ class ParquetFileGenerator {
     return f;
   }
 
+
+  /**
+   * Dictionary and plain encoded strings, nulls in most columns, a decimal and an INT96 timestamp column;
+   * a constant column; small row groups, such that there are multiple row groups per chunk.
+   */
+  static File generateMixedParquetFile(File parentDir, String filename, int nrows) throws IOException {
+    File f = new File(parentDir, filename);
+
+    Configuration conf = new Configuration();
+    MessageType schema = parseMessageType(
+            "message test { required int32 row; optional binary cat_field (UTF8); optional int32 int32_field; "
+                    + "optional double double_field; required int32 decimal32 (DECIMAL(9, 5)); "
+                    + "optional int96 int96_timestamp; optional binary str_field (UTF8); required int32 const_field; } ");
+    GroupWriteSupport.setSchema(schema, conf);
+    SimpleGroupFactory fact = new SimpleGroupFactory(schema);
+    ParquetWriter<Group> writer = new ParquetWriter<Group>(new Path(f.getPath()), new GroupWriteSupport(),
+            UNCOMPRESSED, 1024, 1024, 512, true, false, ParquetProperties.WriterVersion.PARQUET_1_0, conf);
+    try {
+      for (int i = 0; i < nrows; i++) {
+        Group g = fact.newGroup().append("row", i);
+        if (i % 7 != 0) g.append("cat_field", "CAT_" + (i % 10));
+        if (i % 5 != 0) g.append("int32_field", i - 500);
+        if (i % 3 != 0) g.append("double_field", i / 7.0);
+        g.append("decimal32", 1 + i);
+        if (i % 4 != 0) g.append("int96_timestamp", int96(timestamp(i)));
+        g.append("str_field", "str_" + i);
+        g.append("const_field", 7);
+        writer.write(g);
+      }
+    } finally {
+      writer.close();
+    }
+    return f;
+  }
+
+  static long timestamp(int i) {
+    return 1500000000000L + i * 3600117L;
+  }
+
+  // little endian nanos of the day followed by the julian day
+  private static Binary int96(long millis) {
+    final long millisInDay = 24L * 3600 * 1000;
+    ByteBuffer bb = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+    bb.putLong((millis % millisInDay) * 1000000L);
+    bb.putInt((int) (millis / millisInDay) + 2440588);
+    return Binary.fromByteArray(bb.array());
+  }
+
 }
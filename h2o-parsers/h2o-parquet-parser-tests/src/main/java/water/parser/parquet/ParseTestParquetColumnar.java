@@ -0,0 +1,117 @@
+package water.parser.parquet;
+
+import com.google.common.io.Files;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.Vec;
+import water.parser.ParseSetup;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares the column-at-a-time reader ({@link ColumnarVecParquetReader}) with the record-based reader
+ * ({@link VecParquetReader}): both have to produce identical frames.
+ */
+public class ParseTestParquetColumnar extends TestUtil {
+
+  private static final int NROWS = 1000;
+
+  @BeforeClass
+  static public void setup() { TestUtil.stall_till_cloudsize(1); }
+
+  @Test
+  public void testColumnarMatchesRecordReader() throws IOException {
+    File f = generateFile();
+    assertTrue("Expected multiple row groups", rowGroups(f) > 1);
+    assertSameFrames(f, -1, null);
+  }
+
+  @Test
+  public void testColumnarMatchesRecordReaderMultipleChunks() throws IOException {
+    assertSameFrames(generateFile(), 8192, null);
+  }
+
+  @Test
+  public void testColumnarMatchesRecordReaderSkippedColumns() throws IOException {
+    assertSameFrames(generateFile(), -1, new int[]{2, 5});
+    assertSameFrames(generateFile(), 8192, new int[]{0, 1, 6});
+  }
+
+  @Test
+  public void testColumnarReaderValues() throws IOException {
+    Frame f = null;
+    try {
+      f = parse(generateFile(), true, -1, null);
+      assertArrayEquals(ar("row", "cat_field", "int32_field", "double_field", "decimal32", "int96_timestamp", "str_field",
+              "const_field"), f.names());
+      assertEquals(Vec.T_CAT, f.vec("cat_field").get_type());
+      assertEquals(Vec.T_TIME, f.vec("int96_timestamp").get_type());
+      for (int row = 0; row < NROWS; row++) {
+        assertEquals(row, f.vec("row").at8(row));
+        if (row % 7 == 0) assertTrue(f.vec("cat_field").isNA(row));
+        else assertEquals("CAT_" + (row % 10), f.vec("cat_field").factor(f.vec("cat_field").at8(row)));
+        if (row % 5 == 0) assertTrue(f.vec("int32_field").isNA(row));
+        else assertEquals(row - 500, f.vec("int32_field").at8(row));
+        if (row % 3 == 0) assertTrue(f.vec("double_field").isNA(row));
+        else assertEquals(row / 7.0, f.vec("double_field").at(row), 0);
+        assertEquals((1 + row) / 1e5, f.vec("decimal32").at(row), 0);
+        if (row % 4 == 0) assertTrue(f.vec("int96_timestamp").isNA(row));
+        else assertEquals(ParquetFileGenerator.timestamp(row), f.vec("int96_timestamp").at8(row));
+      }
+    } finally {
+      if (f != null) f.delete();
+    }
+  }
+
+  private static void assertSameFrames(File file, int chunkSize, int[] skippedColumns) throws IOException {
+    Frame records = null, columns = null;
+    try {
+      records = parse(file, false, chunkSize, skippedColumns);
+      columns = parse(file, true, chunkSize, skippedColumns);
+      if (chunkSize > 0)
+        assertTrue("Expected multiple chunks", columns.anyVec().nChunks() > 1);
+      assertArrayEquals(records.names(), columns.names());
+      assertArrayEquals(records.types(), columns.types());
+      for (int i = 0; i < records.numCols(); i++)
+        assertArrayEquals("Domain of column " + records.name(i), records.vec(i).domain(), columns.vec(i).domain());
+      assertBitIdentical(records, columns);
+    } finally {
+      if (records != null) records.delete();
+      if (columns != null) columns.delete();
+    }
+  }
+
+  private static Frame parse(File file, boolean columnar, final int chunkSize, int[] skippedColumns) throws IOException {
+    final boolean old = ParquetParser.COLUMNAR;
+    ParquetParser.COLUMNAR = columnar;
+    try {
+      return parse_test_file(file.getCanonicalPath(), new ParseSetupTransformer() {
+        @Override
+        public ParseSetup transformSetup(ParseSetup guessedSetup) {
+          if (chunkSize > 0)
+            guessedSetup.setChunkSize(chunkSize);
+          return guessedSetup;
+        }
+      }, skippedColumns);
+    } finally {
+      ParquetParser.COLUMNAR = old;
+    }
+  }
+
+  private static File generateFile() throws IOException {
+    return ParquetFileGenerator.generateMixedParquetFile(Files.createTempDir(), "mixed.parquet", NROWS);
+  }
+
+  private static int rowGroups(File f) throws IOException {
+    return ParquetFileReader.readFooter(new Configuration(), new Path(f.getPath())).getBlocks().size();
+  }
+
+}
@@ -0,0 +1,175 @@
+package water.parser.parquet;
+
+import com.google.common.io.Files;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.TestUtil;
+import water.exceptions.H2OIllegalArgumentException;
+import water.fvec.Frame;
+import water.fvec.Vec;
+import water.parser.BufferedString;
+import water.parser.ParseSetup;
+import water.parser.RowFilter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Row filters pushed down to the Parquet parser, see {@link ParquetRowFilter}.
+ */
+public class ParseTestParquetRowFilter extends TestUtil {
+
+  private static final int NROWS = 1000;
+  private static final String[] NAMES = ar("row", "cat_field", "int32_field", "double_field", "decimal32",
+          "int96_timestamp", "str_field", "const_field");
+  private static final byte[] TYPES = ar(Vec.T_NUM, Vec.T_CAT, Vec.T_NUM, Vec.T_NUM, Vec.T_NUM,
+          Vec.T_TIME, Vec.T_STR, Vec.T_NUM);
+
+  @BeforeClass
+  static public void setup() { TestUtil.stall_till_cloudsize(1); }
+
+  @Test
+  public void testPruneByStatistics() throws IOException {
+    ParquetMetadata footer = readFooter(generateFile());
+    List<BlockMetaData> blocks = footer.getBlocks();
+    assertTrue("Expected multiple row groups", blocks.size() > 2);
+
+    List<BlockMetaData> kept = rowFilter(footer, "row < 150").prune(blocks);
+    assertTrue(kept.size() > 0 && kept.size() < blocks.size());
+    for (BlockMetaData block : kept)
+      assertTrue(((Number) block.getColumns().get(0).getStatistics().genericGetMin()).intValue() < 150);
+
+    assertEquals(1, rowFilter(footer, "row >= " + (NROWS - 1)).prune(blocks).size());
+    assertEquals(0, rowFilter(footer, "row > " + NROWS).prune(blocks).size());
+    // conditions on strings and INT96 timestamps never prune
+    assertEquals(blocks.size(), rowFilter(footer, "cat_field == 'none'").prune(blocks).size());
+    assertEquals(blocks.size(), rowFilter(footer, "int96_timestamp < 0").prune(blocks).size());
+  }
+
+  @Test
+  public void testPruneNotEqualOnConstantRowGroups() throws IOException {
+    ParquetMetadata footer = readFooter(generateFile());
+    List<BlockMetaData> blocks = footer.getBlocks();
+    assertEquals(0, rowFilter(footer, "const_field != 7").prune(blocks).size());
+    assertEquals(blocks.size(), rowFilter(footer, "const_field != 8").prune(blocks).size());
+    assertEquals(0, rowFilter(footer, "const_field == 8").prune(blocks).size());
+
+    Frame f = null;
+    try {
+      f = parse(generateFile(), null, "const_field != 7");
+      assertEquals(0, f.numRows());
+    } finally {
+      if (f != null) f.delete();
+    }
+  }
+
+  @Test
+  public void testSelectRowsWithNulls() throws IOException {
+    assertFiltered(null, "int32_field > 0");
+    assertFiltered(null, "cat_field == 'CAT_3'");
+    assertFiltered(null, "cat_field != 'CAT_3'", "double_field < 100");
+    assertFiltered(null, "int96_timestamp >= " + ParquetFileGenerator.timestamp(NROWS / 2), "str_field != 'str_777'");
+    assertFiltered(null, "decimal32 <= 0.005");
+  }
+
+  @Test
+  public void testFilterWithProjection() throws IOException {
+    assertFiltered(new String[]{"row", "str_field"}, "int32_field > 0", "cat_field != 'CAT_1'");
+    assertFiltered(new String[]{"cat_field"}, "cat_field == 'CAT_2'");
+  }
+
+  @Test(expected = H2OIllegalArgumentException.class)
+  public void testRejectStringComparisonOfNumericColumn() throws IOException {
+    byte[] types = TYPES.clone();
+    types[2] = Vec.T_CAT; // INT32 column parsed as categorical
+    new ParquetRowFilter(RowFilter.parse("int32_field == 'abc'"), readFooter(generateFile()).getFileMetaData().getSchema(),
+            NAMES, types);
+  }
+
+  @Test(expected = H2OIllegalArgumentException.class)
+  public void testRejectNumericComparisonOfStringColumn() throws IOException {
+    rowFilter(readFooter(generateFile()), "str_field < 5");
+  }
+
+  // compares the filtered parse with the rows of the full parse matching all conditions
+  private static void assertFiltered(String[] projection, String... conditions) throws IOException {
+    File file = generateFile();
+    Frame all = null, filtered = null;
+    try {
+      all = parse(file, null);
+      filtered = parse(file, projection, conditions);
+      RowFilter filter = RowFilter.parse(conditions);
+      String[] names = projection != null ? projection : all.names();
+      assertArrayEquals(names, filtered.names());
+      long r = 0;
+      for (long row = 0; row < all.numRows(); row++) {
+        if (!matches(all, filter, row)) continue;
+        assertTrue("Missing rows for " + filter, r < filtered.numRows());
+        for (String name : names) {
+          Vec expected = all.vec(name), actual = filtered.vec(name);
+          assertEquals(name + " row " + row, expected.isNA(row), actual.isNA(r));
+          if (expected.isNA(row)) continue;
+          if (expected.isCategorical())
+            assertEquals(name + " row " + row, expected.factor(expected.at8(row)), actual.factor(actual.at8(r)));
+          else if (expected.isString())
+            assertEquals(name + " row " + row, expected.atStr(new BufferedString(), row).toString(),
+                    actual.atStr(new BufferedString(), r).toString());
+          else
+            assertEquals(name + " row " + row, expected.at(row), actual.at(r), 0);
+        }
+        r++;
+      }
+      assertTrue("No rows selected by " + filter, r > 0);
+      assertEquals("Rows selected by " + filter, r, filtered.numRows());
+    } finally {
+      if (all != null) all.delete();
+      if (filtered != null) filtered.delete();
+    }
+  }
+
+  private static boolean matches(Frame fr, RowFilter filter, long row) {
+    for (int i = 0; i < filter.numConditions(); i++) {
+      Vec v = fr.vec(filter.column(i));
+      if (v.isNA(row)) return false;
+      if (v.isCategorical() || v.isString()) {
+        String s = v.isCategorical() ? v.factor(v.at8(row)) : v.atStr(new BufferedString(), row).toString();
+        if (s.equals(filter.str(i)) != (filter.op(i) == RowFilter.Op.EQ)) return false;
+      } else if (!filter.op(i).test(v.at(row), filter.num(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static Frame parse(File file, final String[] projection, final String... conditions) throws IOException {
+    return parse_test_file(file.getCanonicalPath(), new ParseSetupTransformer() {
+      @Override
+      public ParseSetup transformSetup(ParseSetup guessedSetup) {
+        if (projection != null)
+          guessedSetup.setProjection(projection);
+        return guessedSetup.setRowFilter(RowFilter.parse(conditions));
+      }
+    });
+  }
+
+  private static ParquetRowFilter rowFilter(ParquetMetadata footer, String... conditions) {
+    return new ParquetRowFilter(RowFilter.parse(conditions), footer.getFileMetaData().getSchema(), NAMES, TYPES);
+  }
+
+  private static File generateFile() throws IOException {
+    return ParquetFileGenerator.generateMixedParquetFile(Files.createTempDir(), "filtered.parquet", NROWS);
+  }
+
+  private static ParquetMetadata readFooter(File f) throws IOException {
+    return ParquetFileReader.readFooter(new Configuration(), new Path(f.getPath()));
+  }
+
+}
@@ -11,6 +11,8 @@ import water.parser.BufferedString;
 import water.parser.parquet.ext.DecimalUtils;
 import water.util.StringUtils;
 
+import java.util.Arrays;
+
 /**
  * Implementation of Parquet's GroupConverter for H2O's chunks.
  *
@@ -173,6 +175,8 @@ class ChunkConverter extends GroupConverter {
     private final WriterDelegate _writer;
     private final boolean _dictionarySupport;
     private String[] _dict;
+    private byte[][] _dictBytes;
+    private int[] _categoricalIds;
 
     StringConverter(WriterDelegate writer, int colIdx, boolean dictionarySupport) {
       _colIdx = colIdx;
@@ -196,11 +200,28 @@ class ChunkConverter extends GroupConverter {
       for (int i = 0; i <= dictionary.getMaxId(); i++) {
         _dict[i] = dictionary.decodeToBinary(i).toStringUsingUTF8();
       }
+      // categorical columns map each dictionary entry to the H2O domain just once
+      if (_writer.isCategorical(_colIdx)) {
+        _dictBytes = new byte[_dict.length][];
+        _categoricalIds = new int[_dict.length];
+        Arrays.fill(_categoricalIds, -1);
+      } else {
+        _dictBytes = null;
+        _categoricalIds = null;
+      }
     }
 
     @Override
     public void addValueFromDictionary(int dictionaryId) {
-      writeStrCol(StringUtils.bytesOf(_dict[dictionaryId]));
+      if (_categoricalIds == null) {
+        writeStrCol(StringUtils.bytesOf(_dict[dictionaryId]));
+        return;
+      }
+      byte[] data = _dictBytes[dictionaryId];
+      if (data == null)
+        data = _dictBytes[dictionaryId] = StringUtils.bytesOf(_dict[dictionaryId]);
+      _bs.set(data);
+      _writer.addCategoricalStrCol(_colIdx, _bs, _categoricalIds, dictionaryId);
     }
 
     private void writeStrCol(byte[] data) {
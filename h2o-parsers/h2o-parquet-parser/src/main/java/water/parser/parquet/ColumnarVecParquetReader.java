@@ -0,0 +1,187 @@
+package water.parser.parquet;
+
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.column.impl.ColumnReadStoreImpl;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.FileMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.OriginalType;
+import water.fvec.Vec;
+import water.parser.FVecParseWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Column-at-a-time counterpart of {@link VecParquetReader}.
+ *
+ * Parquet's record reader assembles every row from all of its columns and pushes the values through the
+ * converters row by row. This reader instead decodes the pages (dictionary, RLE/bit-packed, plain) of one column
+ * of a row group after another and appends the whole column to its NewChunk: plain numeric columns are read
+ * straight from the decoder, other columns go through the same converters as in the record-based reader, with
+ * dictionary-encoded categorical columns mapped to the H2O domain once per dictionary entry. Skipped columns are
+ * not even read.
+ *
+ * With a {@link ParquetRowFilter}, the filtered columns of each row group are decoded first and only the row
+ * groups with rows to keep are read, skipping over all other rows.
+ *
+ * Only used for distributed parsing into Chunks, see {@link FVecParseWriter#addLines}.
+ */
+class ColumnarVecParquetReader {
+
+  private final Vec _vec;
+  private final ParquetMetadata _metadata;
+  private final WriterDelegate _writer;
+  private final byte[] _chunkSchema; // contains column types of all columns, not just the skipped one
+  private final boolean[] _keepColumns;
+  private final ParquetRowFilter _filter; // null if all rows are kept
+
+  ColumnarVecParquetReader(Vec vec, ParquetMetadata metadata, FVecParseWriter writer, byte[] chunkSchema,
+                           boolean[] keepColumns, int parseColumnNumber) {
+    this(vec, metadata, writer, chunkSchema, keepColumns, parseColumnNumber, null);
+  }
+
+  ColumnarVecParquetReader(Vec vec, ParquetMetadata metadata, FVecParseWriter writer, byte[] chunkSchema,
+                           boolean[] keepColumns, int parseColumnNumber, ParquetRowFilter filter) {
+    _vec = vec;
+    _metadata = metadata;
+    _writer = new WriterDelegate(writer, parseColumnNumber, true);
+    _chunkSchema = chunkSchema;
+    _keepColumns = keepColumns;
+    _filter = filter;
+  }
+
+  void read() throws IOException {
+    final VecReaderEnv env = VecReaderEnv.make(_vec);
+    final FileMetaData fileMetaData = _metadata.getFileMetaData();
+    final MessageType schema = fileMetaData.getSchema();
+    final List<ColumnDescriptor> allColumns = schema.getColumns();
+    final List<ColumnDescriptor> columns = new ArrayList<>();
+    for (int i = 0; i < allColumns.size(); i++)
+      if (_keepColumns[i]) columns.add(allColumns.get(i));
+    final ChunkConverter converter = new ChunkConverter(schema, _chunkSchema, _writer, _keepColumns);
+
+    if (_filter != null) {
+      readFiltered(env, schema, columns, converter);
+      return;
+    }
+    ParquetFileReader reader = new ParquetFileReader(env.getConf(), fileMetaData, env.getPath(), _metadata.getBlocks(), columns);
+    try {
+      PageReadStore rowGroup;
+      while ((rowGroup = reader.readNextRowGroup()) != null)
+        readRowGroup(schema, converter, rowGroup, null, (int) rowGroup.getRowCount()); // checked by ParquetParser.checkCompatibility
+    } finally {
+      reader.close();
+    }
+  }
+
+  private void readFiltered(VecReaderEnv env, MessageType schema, List<ColumnDescriptor> columns,
+                            ChunkConverter converter) throws IOException {
+    final FileMetaData fileMetaData = _metadata.getFileMetaData();
+    final ChunkConverter nullConverter = new ChunkConverter(schema, _chunkSchema, _writer, new boolean[_keepColumns.length]);
+    boolean[] selected = new boolean[0];
+    ParquetFileReader filterReader = new ParquetFileReader(env.getConf(), fileMetaData, env.getPath(), _metadata.getBlocks(), _filter.columns());
+    try {
+      for (BlockMetaData block : _metadata.getBlocks()) {
+        PageReadStore filterGroup = filterReader.readNextRowGroup();
+        int rows = (int) filterGroup.getRowCount();
+        if (selected.length < rows) selected = new boolean[rows];
+        int keep = _filter.select(new ColumnReadStoreImpl(filterGroup, nullConverter, schema, fileMetaData.getCreatedBy()), rows, selected);
+        if (keep == 0) continue; // nothing else of the row group is read
+        ParquetFileReader reader = new ParquetFileReader(env.getConf(), fileMetaData, env.getPath(), Collections.singletonList(block), columns);
+        try {
+          readRowGroup(schema, converter, reader.readNextRowGroup(), keep == rows ? null : selected, keep);
+        } finally {
+          reader.close();
+        }
+      }
+    } finally {
+      filterReader.close();
+    }
+  }
+
+  private void readRowGroup(MessageType schema, ChunkConverter converter, PageReadStore rowGroup, boolean[] selected,
+                            int selectedRows) {
+    final List<ColumnDescriptor> allColumns = schema.getColumns();
+    ColumnReadStoreImpl store = new ColumnReadStoreImpl(rowGroup, converter, schema, _metadata.getFileMetaData().getCreatedBy());
+    int rows = (int) rowGroup.getRowCount();
+    int colIdx = 0; // index to columns actually parsed
+    for (int i = 0; i < allColumns.size(); i++) {
+      if (!_keepColumns[i]) continue;
+      ColumnReader column = store.getColumnReader(allColumns.get(i));
+      if (selected != null) readSelectedValues(column, colIdx, rows, selected);
+      else if (isPlainNumber(schema, i)) readNumbers(column, colIdx, rows);
+      else readValues(column, colIdx, rows);
+      colIdx++;
+    }
+    _writer.addLines(selectedRows);
+  }
+
+  // Numeric columns the record reader would hand over to ChunkConverter.NumberConverter as numbers
+  private boolean isPlainNumber(MessageType schema, int i) {
+    if (_chunkSchema[i] != Vec.T_NUM || OriginalType.DECIMAL.equals(schema.getType(i).getOriginalType()))
+      return false;
+    switch (schema.getColumns().get(i).getType()) {
+      case INT32:
+      case INT64:
+      case FLOAT:
+      case DOUBLE:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private void readNumbers(ColumnReader column, int colIdx, int rows) {
+    final int maxDef = column.getDescriptor().getMaxDefinitionLevel();
+    switch (column.getDescriptor().getType()) {
+      case INT32:
+        for (int r = 0; r < rows; r++, column.consume())
+          if (column.getCurrentDefinitionLevel() == maxDef) _writer.addNumCol(colIdx, column.getInteger(), 0);
+          else _writer.addInvalidCol(colIdx);
+        break;
+      case INT64:
+        for (int r = 0; r < rows; r++, column.consume())
+          if (column.getCurrentDefinitionLevel() == maxDef) _writer.addNumCol(colIdx, column.getLong(), 0);
+          else _writer.addInvalidCol(colIdx);
+        break;
+      case FLOAT:
+        for (int r = 0; r < rows; r++, column.consume())
+          if (column.getCurrentDefinitionLevel() == maxDef) _writer.addNumCol(colIdx, column.getFloat());
+          else _writer.addInvalidCol(colIdx);
+        break;
+      case DOUBLE:
+        for (int r = 0; r < rows; r++, column.consume())
+          if (column.getCurrentDefinitionLevel() == maxDef) _writer.addNumCol(colIdx, column.getDouble());
+          else _writer.addInvalidCol(colIdx);
+        break;
+      default:
+        throw new IllegalStateException("Not a plain number column: " + column.getDescriptor());
+    }
+  }
+
+  private void readValues(ColumnReader column, int colIdx, int rows) {
+    final int maxDef = column.getDescriptor().getMaxDefinitionLevel();
+    for (int r = 0; r < rows; r++, column.consume())
+      if (column.getCurrentDefinitionLevel() == maxDef) column.writeCurrentValueToConverter();
+      else _writer.addInvalidCol(colIdx);
+  }
+
+  private void readSelectedValues(ColumnReader column, int colIdx, int rows, boolean[] selected) {
+    final int maxDef = column.getDescriptor().getMaxDefinitionLevel();
+    for (int r = 0; r < rows; r++, column.consume()) {
+      boolean isNull = column.getCurrentDefinitionLevel() != maxDef;
+      if (!selected[r]) {
+        if (!isNull) column.skip();
+      } else if (isNull) _writer.addInvalidCol(colIdx);
+      else column.writeCurrentValueToConverter();
+    }
+  }
+
+}
@@ -7,6 +7,7 @@ import org.apache.parquet.schema.MessageType;
 import org.apache.parquet.schema.OriginalType;
 import org.apache.parquet.schema.PrimitiveType;
 import org.apache.parquet.schema.Type;
+import water.H2O;
 import water.Job;
 import water.Key;
 import water.exceptions.H2OUnsupportedDataFileException;
@@ -30,6 +31,9 @@ import static org.apache.parquet.hadoop.ParquetFileWriter.MAGIC;
 public class ParquetParser extends Parser {
 
   private static final int MAX_PREVIEW_RECORDS = 1000;
+  // Decode column by column rather than record by record; -Dsys.ai.h2o.parser.parquet.columnar=true to enable
+  // (not final, ParseTestParquetColumnar compares both readers; row filters always use the columnar reader)
+  static boolean COLUMNAR = H2O.getSysBoolProperty("parser.parquet.columnar", false);
 
   private final byte[] _metadata;
 
@@ -48,6 +52,10 @@ public class ParquetParser extends Parser {
       throw new IllegalStateException("Unsupported Parquet file. Too many records (#" + totalRecs + ", nChunks=" + nChunks + ").");
     }
 
+    final ParquetRowFilter filter = rowFilter(_setup, metadata);
+    if (filter != null)
+      return sequentialParseFiltered(vec, dout, metadata, filter);
+
     final WriterDelegate w = new WriterDelegate(dout, _setup.getColumnTypes().length);
     final VecParquetReader reader = new VecParquetReader(vec, metadata, w, _setup.getColumnTypes(), _keepColumns);
 
@@ -75,6 +83,47 @@ public class ParquetParser extends Parser {
     return dout;
   }
 
+  // Row groups are spread evenly over the Chunks, each is read with the filter applied
+  private StreamParseWriter sequentialParseFiltered(Vec vec, final StreamParseWriter dout, ParquetMetadata metadata,
+                                                    ParquetRowFilter filter) {
+    final List<BlockMetaData> blocks = filter.prune(metadata.getBlocks());
+    final int nChunks = vec.nChunks();
+    StreamParseWriter nextChunk = dout;
+    try {
+      for (int i = 0; i < nChunks; i++) {
+        List<BlockMetaData> chunkBlocks = blocks.subList(
+                (int) ((long) blocks.size() * i / nChunks), (int) ((long) blocks.size() * (i + 1) / nChunks));
+        if (!chunkBlocks.isEmpty())
+          new ColumnarVecParquetReader(vec, new ParquetMetadata(metadata.getFileMetaData(), chunkBlocks),
+                  (FVecParseWriter) nextChunk, _setup.getColumnTypes(), _keepColumns,
+                  _setup.get_parse_columns_indices().length, filter).read();
+        if (_jobKey != null)
+          Job.update(vec.length() / nChunks, _jobKey);
+        nextChunk.close();
+        dout.reduce(nextChunk);
+        nextChunk = nextChunk.nextChunk();
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to parse records", e);
+    }
+    return dout;
+  }
+
+  private static ParquetRowFilter rowFilter(ParseSetup setup, ParquetMetadata metadata) {
+    RowFilter filter = setup.getRowFilter();
+    if (filter == null || filter.numConditions() == 0)
+      return null;
+    return new ParquetRowFilter(filter, metadata.getFileMetaData().getSchema(), setup.getColumnNames(),
+            setup.getColumnTypes());
+  }
+
+  /**
+   * Makes sure the row filter of the setup can be applied to the given Parquet file.
+   */
+  static void checkRowFilter(ByteVec vec, ParseSetup setup) {
+    rowFilter(setup, VecParquetReader.readFooter(VecParquetReader.readFooterAsBytes(vec)));
+  }
+
   private long totalRecords(ParquetMetadata metadata) {
     long nr = 0;
     for (BlockMetaData meta : metadata.getBlocks()) {
@@ -95,11 +144,28 @@ public class ParquetParser extends Parser {
     ParquetMetadataConverter.MetadataFilter chunkFilter = ParquetMetadataConverter.range(
             chunk.start(), chunk.start() + chunk.len());
     ParquetMetadata metadata = VecParquetReader.readFooter(_metadata, chunkFilter);
+    final ParquetRowFilter filter = rowFilter(_setup, metadata);
+    if (filter != null && !metadata.getBlocks().isEmpty()) {
+      int nBlocks = metadata.getBlocks().size();
+      metadata = new ParquetMetadata(metadata.getFileMetaData(), filter.prune(metadata.getBlocks()));
+      Log.trace("Row filter skipped ", nBlocks - metadata.getBlocks().size(), " of ", nBlocks, " blocks of chunk #", cidx);
+    }
     if (metadata.getBlocks().isEmpty()) {
       Log.trace("Chunk #", cidx, " doesn't contain any Parquet block center.");
       return dout;
     }
     Log.info("Processing ", metadata.getBlocks().size(), " blocks of chunk #", cidx);
+    if (filter != null && !(dout instanceof FVecParseWriter))
+      throw new IllegalStateException("Row filter is only supported when parsing into Chunks.");
+    if ((COLUMNAR || filter != null) && dout instanceof FVecParseWriter) {
+      try {
+        new ColumnarVecParquetReader(vec, metadata, (FVecParseWriter) dout, _setup.getColumnTypes(), _keepColumns,
+                _setup.get_parse_columns_indices().length, filter).read();
+      } catch (IOException e) {
+        throw new RuntimeException("Failed to parse records", e);
+      }
+      return dout;
+    }
     VecParquetReader reader = new VecParquetReader(vec, metadata, dout, _setup.getColumnTypes(), _keepColumns, _setup.get_parse_columns_indices().length);
     try {
       Long recordNumber;
@@ -59,6 +59,8 @@ public class ParquetParserProvider extends BinaryParserProvider {
     for (int i = 0; i < types.length; i++)
       if (types[i] != requestedTypes[i])
         setup.addErrs(new ParseWriter.UnsupportedTypeOverride(inputs[0].toString(),Vec.TYPE_STR[types[i]], Vec.TYPE_STR[requestedTypes[i]], setup.getColumnNames()[i]));
+    // fail early if the row filter doesn't fit the file
+    ParquetParser.checkRowFilter(vec, setup);
     return setup;
   }
 
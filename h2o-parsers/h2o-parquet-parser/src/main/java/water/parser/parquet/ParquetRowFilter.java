@@ -0,0 +1,240 @@
+package water.parser.parquet;
+
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnReadStore;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.schema.DecimalMetadata;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.PrimitiveType;
+import water.exceptions.H2OIllegalArgumentException;
+import water.fvec.Vec;
+import water.parser.RowFilter;
+import water.parser.parquet.ext.DecimalUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link RowFilter} pushed down to a Parquet file.
+ *
+ * Row groups are dropped based on the min/max statistics of plain numeric columns, without reading any data.
+ * For the remaining row groups only the filtered columns are decoded first, which gives the rows to keep;
+ * the parsed columns are then read skipping all other rows (see {@link ColumnarVecParquetReader}).
+ */
+final class ParquetRowFilter {
+
+  private final MessageType _schema;
+  private final int[] _columns;          // distinct filtered columns (indices to the file schema)
+  private final Condition[][] _conditions; // conditions of each of the filtered columns
+
+  ParquetRowFilter(RowFilter filter, MessageType schema, String[] columnNames, byte[] columnTypes) {
+    _schema = schema;
+    int[] columns = new int[0];
+    List<List<Condition>> conditions = new ArrayList<>();
+    for (int i = 0; i < filter.numConditions(); i++) {
+      int col = Arrays.asList(columnNames).indexOf(filter.column(i));
+      if (col < 0)
+        throw new H2OIllegalArgumentException("Row filter column '" + filter.column(i) + "' not found.");
+      Condition c = new Condition(schema.getType(col).asPrimitiveType(), columnTypes[col], filter, i);
+      int idx = indexOf(columns, col);
+      if (idx < 0) {
+        idx = columns.length;
+        columns = Arrays.copyOf(columns, idx + 1);
+        columns[idx] = col;
+        conditions.add(new ArrayList<Condition>());
+      }
+      conditions.get(idx).add(c);
+    }
+    _columns = columns;
+    _conditions = new Condition[columns.length][];
+    for (int i = 0; i < columns.length; i++)
+      _conditions[i] = conditions.get(i).toArray(new Condition[0]);
+  }
+
+  private static int indexOf(int[] a, int v) {
+    for (int i = 0; i < a.length; i++)
+      if (a[i] == v) return i;
+    return -1;
+  }
+
+  /** Filtered columns */
+  List<ColumnDescriptor> columns() {
+    List<ColumnDescriptor> columns = new ArrayList<>(_columns.length);
+    for (int col : _columns)
+      columns.add(_schema.getColumns().get(col));
+    return columns;
+  }
+
+  /** Row groups that may contain matching rows */
+  List<BlockMetaData> prune(List<BlockMetaData> blocks) {
+    List<BlockMetaData> result = new ArrayList<>(blocks.size());
+    for (BlockMetaData block : blocks)
+      if (!canDrop(block)) result.add(block);
+    return result;
+  }
+
+  private boolean canDrop(BlockMetaData block) {
+    for (int i = 0; i < _columns.length; i++) {
+      ColumnPath path = ColumnPath.get(_schema.getColumns().get(_columns[i]).getPath());
+      for (ColumnChunkMetaData column : block.getColumns()) {
+        if (!path.equals(column.getPath())) continue;
+        for (Condition c : _conditions[i])
+          if (c.canDrop(column.getStatistics(), block.getRowCount())) return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Evaluates the filter on a row group.
+   * @param store row group of the filtered columns
+   * @param selected output, true for the rows to keep
+   * @return number of rows to keep
+   */
+  int select(ColumnReadStore store, int rows, boolean[] selected) {
+    Arrays.fill(selected, 0, rows, true);
+    for (int i = 0; i < _columns.length; i++) {
+      final Condition[] conditions = _conditions[i];
+      final Condition first = conditions[0];
+      final ColumnReader column = store.getColumnReader(_schema.getColumns().get(_columns[i]));
+      final int maxDef = column.getDescriptor().getMaxDefinitionLevel();
+      for (int r = 0; r < rows; r++, column.consume()) {
+        if (column.getCurrentDefinitionLevel() != maxDef) {
+          selected[r] = false; // missing values never match
+          continue;
+        }
+        if (!selected[r]) {
+          column.skip();
+          continue;
+        }
+        if (first._numeric) {
+          double x = first.readNumber(column);
+          for (Condition c : conditions) selected[r] &= !Double.isNaN(x) && c._op.test(x, c._num);
+        } else {
+          String s = first.readString(column);
+          for (Condition c : conditions) selected[r] &= c._op == RowFilter.Op.EQ ? s.equals(c._str) : !s.equals(c._str);
+        }
+      }
+    }
+    int n = 0;
+    for (int r = 0; r < rows; r++)
+      if (selected[r]) n++;
+    return n;
+  }
+
+  /** A single comparison, evaluated the same way the column is converted to H2O */
+  private static final class Condition {
+    final PrimitiveType _type;
+    final RowFilter.Op _op;
+    final boolean _numeric;
+    final double _num;
+    final String _str;
+    final DecimalMetadata _decimal;
+    final boolean _int96;
+
+    Condition(PrimitiveType type, byte vecType, RowFilter filter, int i) {
+      _type = type;
+      _op = filter.op(i);
+      _decimal = OriginalType.DECIMAL.equals(type.getOriginalType()) ? type.getDecimalMetadata() : null;
+      _int96 = type.getPrimitiveTypeName() == PrimitiveType.PrimitiveTypeName.INT96;
+      _numeric = vecType == Vec.T_NUM || vecType == Vec.T_TIME;
+      if (_numeric) {
+        if (Double.isNaN(filter.num(i)))
+          throw new H2OIllegalArgumentException("Row filter: numeric column '" + filter.column(i) +
+                  "' cannot be compared with '" + filter.str(i) + "'.");
+        if (_decimal == null && (type.getPrimitiveTypeName() == PrimitiveType.PrimitiveTypeName.BINARY ||
+                type.getPrimitiveTypeName() == PrimitiveType.PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY))
+          throw new H2OIllegalArgumentException("Row filter: column '" + filter.column(i) +
+                  "' holds strings and cannot be compared with a number.");
+        _num = filter.num(i);
+        _str = null;
+      } else {
+        if (_op != RowFilter.Op.EQ && _op != RowFilter.Op.NE)
+          throw new H2OIllegalArgumentException("Row filter: column '" + filter.column(i) +
+                  "' is not numeric and can only be compared using == or !=.");
+        if (!isStringType(type))
+          throw new H2OIllegalArgumentException("Row filter: column '" + filter.column(i) +
+                  "' is stored as " + type.getPrimitiveTypeName() + " and cannot be compared with a string.");
+        _num = Double.NaN;
+        _str = type.getPrimitiveTypeName() == PrimitiveType.PrimitiveTypeName.BOOLEAN ?
+                filter.str(i).toLowerCase() : filter.str(i);
+      }
+    }
+
+    double readNumber(ColumnReader column) {
+      switch (_type.getPrimitiveTypeName()) {
+        case BOOLEAN:
+          return column.getBoolean() ? 1 : 0;
+        case INT32:
+          return _decimal != null ? BigDecimal.valueOf(column.getInteger(), _decimal.getScale()).doubleValue() : column.getInteger();
+        case INT64:
+          return _decimal != null ? BigDecimal.valueOf(column.getLong(), _decimal.getScale()).doubleValue() : column.getLong();
+        case FLOAT:
+          return column.getFloat();
+        case DOUBLE:
+          return column.getDouble();
+        case INT96:
+          return ParquetInt96TimestampConverter.getTimestampMillis(column.getBinary());
+        case BINARY:
+        case FIXED_LEN_BYTE_ARRAY:
+          if (_decimal != null)
+            return DecimalUtils.binaryToDecimal(column.getBinary(), _decimal.getPrecision(), _decimal.getScale()).doubleValue();
+        default:
+          throw new IllegalStateException("Not a numeric column: " + _type);
+      }
+    }
+
+    // Physical types converted to strings by ChunkConverter (numeric types are never parsed as strings)
+    private static boolean isStringType(PrimitiveType type) {
+      switch (type.getPrimitiveTypeName()) {
+        case BOOLEAN:
+        case BINARY:
+        case FIXED_LEN_BYTE_ARRAY:
+          return !OriginalType.DECIMAL.equals(type.getOriginalType());
+        default:
+          return false;
+      }
+    }
+
+    String readString(ColumnReader column) {
+      switch (_type.getPrimitiveTypeName()) {
+        case BOOLEAN:
+          return column.getBoolean() ? "true" : "false";
+        case BINARY:
+        case FIXED_LEN_BYTE_ARRAY:
+          return column.getBinary().toStringUsingUTF8();
+        default:
+          throw new IllegalStateException("Not a string column: " + _type);
+      }
+    }
+
+    // Can the statistics prove no row of the row group matches?
+    boolean canDrop(Statistics<?> stats, long rowCount) {
+      if (stats == null || stats.isEmpty()) return false;
+      if (!stats.hasNonNullValue()) return rowCount > 0 && stats.getNumNulls() == rowCount; // nulls only
+      if (!_numeric || _decimal != null || _int96) return false;
+      Object minObj = stats.genericGetMin(), maxObj = stats.genericGetMax();
+      if (!(minObj instanceof Number) || !(maxObj instanceof Number)) return false;
+      // the conversion to double is monotonic, min/max bound the converted values as well
+      double min = ((Number) minObj).doubleValue(), max = ((Number) maxObj).doubleValue();
+      if (Double.isNaN(min) || Double.isNaN(max)) return false;
+      switch (_op) {
+        case LT: return min >= _num;
+        case LE: return min > _num;
+        case GT: return max <= _num;
+        case GE: return max < _num;
+        case EQ: return _num < min || _num > max;
+        case NE: return min == _num && max == _num;
+        default: return false;
+      }
+    }
+  }
+
+}
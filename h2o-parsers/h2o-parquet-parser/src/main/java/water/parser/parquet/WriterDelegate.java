@@ -4,6 +4,7 @@ import water.DKV;
 import water.Iced;
 import water.Key;
 import water.parser.BufferedString;
+import water.parser.FVecParseWriter;
 import water.parser.ParseWriter;
 import water.util.IcedInt;
 import water.util.Log;
@@ -17,13 +18,19 @@ final class WriterDelegate {
   private final int _maxStringSize;
   private final int[] _colRawSize; // currently only used for String columns
   private final int _numCols;
+  private final boolean _columnar; // whole columns are written one after another, not rows
 
   private ParseWriter _writer;
   private int _col;
 
   WriterDelegate(ParseWriter writer, int numCols) {
+    this(writer, numCols, false);
+  }
+
+  WriterDelegate(ParseWriter writer, int numCols, boolean columnar) {
     _maxStringSize = getMaxStringSize();
     _numCols = numCols;
+    _columnar = columnar;
     _colRawSize = new int[numCols];
     setWriter(writer);
   }
@@ -44,7 +51,8 @@ final class WriterDelegate {
   }
 
   private int moveToCol(int colIdx) {
-    for (int c = _col + 1; c < colIdx; c++) _writer.addInvalidCol(c);
+    if (!_columnar)
+      for (int c = _col + 1; c < colIdx; c++) _writer.addInvalidCol(c);
     _col = colIdx;
     return _col;
   }
@@ -57,19 +65,56 @@ final class WriterDelegate {
     _writer.addNumCol(moveToCol(colIdx), d);
   }
 
+  void addInvalidCol(int colIdx) {
+    _writer.addInvalidCol(moveToCol(colIdx));
+  }
+
   void addStrCol(int colIdx, BufferedString str) {
+    if (addRawSize(colIdx, str.length()))
+      _writer.addStrCol(moveToCol(colIdx), str);
+    else
+      addInvalidCol(colIdx); // in columnar mode, every row needs a value
+  }
+
+  /** Is the column categorical, so that its values can be added by id? */
+  boolean isCategorical(int colIdx) {
+    return _writer instanceof FVecParseWriter && ((FVecParseWriter) _writer).isCategorical(colIdx);
+  }
+
+  /**
+   * Same as addStrCol for a categorical column, but the id of each distinct
+   * string is looked up just once and cached in ids[idx] (-1 if not known yet).
+   */
+  void addCategoricalStrCol(int colIdx, BufferedString str, int[] ids, int idx) {
+    if (!addRawSize(colIdx, str.length())) {
+      addInvalidCol(colIdx);
+      return;
+    }
+    FVecParseWriter writer = (FVecParseWriter) _writer;
+    if (ids[idx] < 0)
+      ids[idx] = writer.categoricalId(colIdx, str);
+    writer.addCategoricalId(moveToCol(colIdx), ids[idx]);
+  }
+
+  private boolean addRawSize(int colIdx, int length) {
     if (_colRawSize[colIdx] == -1)
-      return; // already exceeded max length
+      return false; // already exceeded max length
 
-    long totalSize = (long) str.length() + _colRawSize[colIdx];
+    long totalSize = (long) length + _colRawSize[colIdx];
     if (totalSize > _maxStringSize) {
       _colRawSize[colIdx] = -1;
       Log.err("Total String size limit reached: skipping remaining values in column: " + colIdx + "!");
-      return;
+      return false;
     }
 
-    _colRawSize[colIdx] += str.length();
-    _writer.addStrCol(moveToCol(colIdx), str);
+    _colRawSize[colIdx] += length;
+    return true;
+  }
+
+  /** Counts rows written in columnar mode */
+  void addLines(int n) {
+    assert _columnar;
+    ((FVecParseWriter) _writer).addLines(n);
   }
 
   long lineNum() {
@@ -10,6 +10,7 @@ import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.log4j.Logger;
+import water.H2O;
 import water.Key;
 import water.MemoryManager;
 import water.Value;
@@ -40,31 +41,51 @@ public class PersistHTTP extends PersistEagerHTTP {
   
   private static final String ENABLE_LAZY_LOAD_KEY = SYSTEM_PROP_PREFIX + "persist.http.enableLazyLoad";
 
+  private static final boolean ENABLE_PREFETCH = H2O.getSysBoolProperty("persist.http.prefetch", true);
+
+  // shared client => connections are kept alive and re-used by the range-requests
+  private static final CloseableHttpClient CLIENT = HttpClientBuilder.create()
+          .setMaxConnPerRoute(ChunkPrefetcher.PARALLELISM * 2)
+          .setMaxConnTotal(ChunkPrefetcher.PARALLELISM * 4)
+          .build();
+
   private static final Set<String> COMPRESSED_CONTENT_TYPES = new HashSet<>(Arrays.asList(
           "application/zip",
           "application/gzip"
   )); // only need to list the ones H2O actually supports
   
+  // reads ahead of the parser using concurrent range-requests
+  private final ChunkPrefetcher _prefetcher = new ChunkPrefetcher("http", new ChunkPrefetcher.RangeReader() {
+    @Override
+    public byte[] read(Key chunkKey, long offset, int length) throws IOException {
+      return readRange(chunkKey, offset, length);
+    }
+  });
+
   @Override
   public final byte[] load(Value v) throws IOException {
-    final byte[] b = MemoryManager.malloc1(v._max);
     final Key k = v._key;
+    if (ENABLE_PREFETCH)
+      return _prefetcher.load(v);
     final long offset = (k._kb[0] == Key.CHK) ? FileVec.chunkOffset(k) : 0L;
+    return readRange(k, offset, v._max);
+  }
 
+  private byte[] readRange(Key k, long offset, int length) throws IOException {
+    final byte[] b = MemoryManager.malloc1(length);
     URI source = decodeKey(k);
     HttpRequestBase req = createReq(source, false);
-    String rangeHeader = "bytes=" + offset + "-" + (offset+v._max-1);
+    String rangeHeader = "bytes=" + offset + "-" + (offset+length-1);
     req.setHeader(HttpHeaders.RANGE, rangeHeader);
     LOG.debug("Loading " + rangeHeader + " from " + source);
 
-    try (CloseableHttpClient client = HttpClientBuilder.create().build();
-         CloseableHttpResponse response = client.execute(req)) {
+    try (CloseableHttpResponse response = CLIENT.execute(req)) {
 
       if (response.getStatusLine().getStatusCode() != HttpResponseStatus.PARTIAL_CONTENT.getCode()) {
         throw new IllegalStateException("Expected to retrieve a partial content response (status: " + response.getStatusLine() + ").");
       }
-      if (readContentLength(response) != v._max) {
-        throw new IllegalStateException("Received incorrect amount of data (expected: " + v._max + "B," +
+      if (readContentLength(response) != length) {
+        throw new IllegalStateException("Received incorrect amount of data (expected: " + length + "B," +
                 " received: " + response.getEntity().getContentLength() + "B).");
       }
 
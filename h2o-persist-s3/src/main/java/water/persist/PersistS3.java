@@ -220,13 +220,34 @@ public final class PersistS3 extends Persist {
   // but no crash (although one could argue that a racing load&delete is a bug
   // no matter what).
   @Override public byte[] load(Value v) {
-    long start_io_ms = System.currentTimeMillis();
-    byte[] b = MemoryManager.malloc1(v._max);
+    assert v.isPersisted();
+    if (ENABLE_PREFETCH) {
+      try {
+        return _prefetcher.load(v);
+      } catch (IOException e) {
+        throw new RuntimeException(e); // readRange only throws unchecked exceptions
+      }
+    }
     Key k = v._key;
     long skip = 0;
     // Skip offset based on chunk number
     if(k._kb[0] == Key.CHK)
       skip = FileVec.chunkOffset(k); // The offset
+    return readRange(k, skip, v._max);
+  }
+
+  private static final boolean ENABLE_PREFETCH = H2O.getSysBoolProperty("persist.s3.prefetch", true);
+
+  // reads ahead of the parser using concurrent range-requests
+  private final ChunkPrefetcher _prefetcher = new ChunkPrefetcher("s3", new ChunkPrefetcher.RangeReader() {
+    @Override
+    public byte[] read(Key chunkKey, long offset, int length) {
+      return readRange(chunkKey, offset, length);
+    }
+  });
+
+  private byte[] readRange(Key k, long skip, int length) {
+    byte[] b = MemoryManager.malloc1(length);
     // Too complicate matters, S3 likes to reset connections when H2O hits it
     // too hard.  We "fix" this by just trying again, assuming we're getting
     // hit with a bogus resource limit (H2O doing a parse looks like a DDOS to
@@ -236,10 +257,8 @@ public final class PersistS3 extends Persist {
     while( true ) {             // Loop, in case we get premature EOF's
       try {
         long start_ns = System.nanoTime(); // Blocking i/o call timing - without counting repeats
-        s = getObjectForKey(k, skip, v._max).getObjectContent();
+        s = getObjectForKey(k, skip, length).getObjectContent();
         ByteStreams.readFully(s, b); // delegate work to Google (it reads the byte buffer in a cycle as we did)
-        assert v.isPersisted();
-//        TimeLine.record_IOclose(start_ns, start_io_ms, 1/* read */, v._max, Value.S3);
         return b;
         // Explicitly ignore the following exceptions but
         // fail on the rest IOExceptions